@@ -0,0 +1,177 @@
+package com.inFlight.server;
+
+import com.inFlight.server.db.SQLiteConnector;
+import com.inFlight.server.db.SchemaMigrator;
+import com.inFlight.server.db.StorageProfile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * BenchmarkDatabase is a copy of inFlightDB.db in a temporary directory that the JMH benchmarks run against.
+ * The copy is migrated to the latest schema and seeded with passengers who can afford many bookings, a range of
+ * bookable slots and a chat, so every benchmark finds the rows it reads. reset() restores the seeded state before
+ * each iteration, which keeps the results of runs comparable even though some benchmarks change the data.
+ */
+public final class BenchmarkDatabase implements AutoCloseable {
+    public static final String CHAT_PARTNER = "Pilot"; // Receiver of the seeded chat
+    public static final String SEND_CHAT_PARTNER = "Attendant"; // Receiver of the messages sent by benchmarks
+    public static final String PHOTOGRAPHER = "Yu Dijkstra"; // Photographer of inFlightDB.db
+    public static final String INVENTORY_ROLE = "Photographer"; // Owner role with items in inFlightDB.db
+    public static final int PASSENGERS = 16; // Seeded passengers, so bookings do not run out of credits
+    public static final int SLOTS = 100_000; // Seeded slots, more than one iteration can book
+    public static final int CHAT_MESSAGES = 50; // Messages of the seeded chat
+    public static final int RICH_CREDITS = 2_000_000_000; // Credits of every seeded passenger after a reset
+
+    private static final Path SOURCE_DB = Path.of("src/main/resources/inFlightDB.db"); // Database that is copied
+    private static final String PREFIX = "bench-"; // Prefix of the usernames and names of seeded rows
+
+    private final Path dir; // Temporary directory of the copy
+    private final int firstPassengerId; // ID of the first seeded passenger, the others follow
+    private final int firstSlotId; // ID of the first seeded slot, the others follow
+
+    private BenchmarkDatabase(Path dir, int firstPassengerId, int firstSlotId) {
+        this.dir = dir;
+        this.firstPassengerId = firstPassengerId;
+        this.firstSlotId = firstSlotId;
+    }
+
+    /**
+     * Copies, migrates and seeds the database and points the SQLiteConnector at it.
+     *
+     * @return the seeded database
+     * @throws IOException  if the database cannot be copied
+     * @throws SQLException if seeding fails
+     */
+    public static BenchmarkDatabase open() throws IOException, SQLException {
+        Path dir = Files.createTempDirectory("inflight-jmh");
+        Path db = dir.resolve("inFlightDB.db");
+        Files.copy(SOURCE_DB, db, StandardCopyOption.REPLACE_EXISTING);
+        SQLiteConnector.configure(db.toString(), StorageProfile.fromSystemProperties());
+        SchemaMigrator.migrateDatabase();
+
+        try (Connection conn = SQLiteConnector.getConnection();
+             PreparedStatement passenger = conn.prepareStatement(
+                     "INSERT INTO passengers (username, password, novaCredits, checked_out) VALUES (?, 'bench', 0, 0)");
+             PreparedStatement slot = conn.prepareStatement("INSERT INTO spacewalk_slots (slot_time, available) VALUES (?, 1)");
+             Statement stmt = conn.createStatement()) {
+            conn.setAutoCommit(false);
+            for (int i = 0; i < PASSENGERS; i++) {
+                passenger.setString(1, PREFIX + i);
+                passenger.addBatch();
+            }
+            passenger.executeBatch();
+            for (int i = 0; i < SLOTS; i++) {
+                slot.setString(1, String.format("%02d:%02d", (i / 60) % 24, i % 60));
+                slot.addBatch();
+            }
+            slot.executeBatch();
+            conn.commit();
+            conn.setAutoCommit(true);
+            return new BenchmarkDatabase(dir,
+                    queryInt(stmt, "SELECT MIN(passenger_id) FROM passengers WHERE username LIKE '" + PREFIX + "%'"),
+                    queryInt(stmt, "SELECT MAX(slot_id) FROM spacewalk_slots") - SLOTS + 1);
+        }
+    }
+
+    /**
+     * Restores the seeded state: the seeded passengers have RICH_CREDITS and no bookings, rows added by benchmarks
+     * are removed and the seeded chat is written again.
+     * Afterwards the first bookedSlots slots are booked as pending, spread over the seeded passengers, the next
+     * availableSlots slots are available and the remaining seeded slots are not, so reads of the available slots
+     * do not stream every seeded slot.
+     * Caches that were filled before the reset must be dropped by the caller.
+     *
+     * @param bookedSlots    the number of slots to book, from the first seeded slot on
+     * @param availableSlots the number of available slots after the booked ones
+     * @return the ID of the first booking, the others follow
+     * @throws SQLException if the reset fails
+     */
+    public int reset(int bookedSlots, int availableSlots) throws SQLException {
+        try (Connection conn = SQLiteConnector.getConnection();
+             PreparedStatement booking = conn.prepareStatement(
+                     "INSERT INTO bookings (passenger_id, slot_id, tier, status) VALUES (?, ?, 1, 'pending')");
+             PreparedStatement chat = conn.prepareStatement(
+                     "INSERT INTO chat_message (sender, receiver, content) VALUES (?, ?, ?)");
+             Statement stmt = conn.createStatement()) {
+            conn.setAutoCommit(false);
+            stmt.executeUpdate("DELETE FROM bookings");
+            stmt.executeUpdate("UPDATE passengers SET novaCredits = " + RICH_CREDITS + ", checked_out = 0"
+                    + " WHERE username LIKE '" + PREFIX + "%'");
+            stmt.executeUpdate("DELETE FROM chat_message WHERE sender LIKE '" + PREFIX + "%'");
+            stmt.executeUpdate("DELETE FROM photographer WHERE name LIKE '" + PREFIX + "%'");
+            stmt.executeUpdate("UPDATE spacewalk_slots SET available = (slot_id >= " + (firstSlotId + bookedSlots)
+                    + " AND slot_id < " + (firstSlotId + bookedSlots + availableSlots) + ") WHERE slot_id >= " + firstSlotId);
+            for (int i = 0; i < bookedSlots; i++) {
+                booking.setInt(1, getPassengerId(i));
+                booking.setInt(2, firstSlotId + i);
+                booking.addBatch();
+            }
+            booking.executeBatch();
+            for (int i = 0; i < CHAT_MESSAGES; i++) {
+                chat.setString(1, getUsername(0));
+                chat.setString(2, CHAT_PARTNER);
+                chat.setString(3, "Benchmark message " + i);
+                chat.addBatch();
+            }
+            chat.executeBatch();
+            conn.commit();
+            conn.setAutoCommit(true);
+            return queryInt(stmt, "SELECT IFNULL(MIN(booking_id), 1) FROM bookings");
+        }
+    }
+
+    /**
+     * Returns the ID of a seeded passenger.
+     *
+     * @param index any number, it is wrapped around the seeded passengers
+     * @return the passenger ID
+     */
+    public int getPassengerId(int index) {
+        return firstPassengerId + Math.floorMod(index, PASSENGERS);
+    }
+
+    /**
+     * Returns the username of a seeded passenger.
+     *
+     * @param index any number, it is wrapped around the seeded passengers
+     * @return the username
+     */
+    public String getUsername(int index) {
+        return PREFIX + Math.floorMod(index, PASSENGERS);
+    }
+
+    /**
+     * getter for firstSlotId.
+     * @return the ID of the first seeded slot
+     */
+    public int getFirstSlotId() {
+        return firstSlotId;
+    }
+
+    private static int queryInt(Statement stmt, String sql) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * Closes the connection pool and deletes the copy.
+     */
+    @Override
+    public void close() throws IOException {
+        SQLiteConnector.shutdown();
+        for (String file : new String[]{"inFlightDB.db", "inFlightDB.db-wal", "inFlightDB.db-shm", "inFlightDB.db-journal"}) {
+            Files.deleteIfExists(dir.resolve(file));
+        }
+        Files.deleteIfExists(dir);
+    }
+}
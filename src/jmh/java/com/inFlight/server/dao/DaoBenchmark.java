@@ -0,0 +1,194 @@
+package com.inFlight.server.dao;
+
+import com.inFlight.server.BenchmarkDatabase;
+import com.inFlight.shared.model.Booking;
+import com.inFlight.shared.model.ChatMessage;
+import com.inFlight.shared.model.InventoryItem;
+import com.inFlight.shared.model.Passenger;
+import com.inFlight.shared.model.Photographer;
+import com.inFlight.shared.model.SpacewalkSlot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the read and write methods of the DAOs against a seeded copy of inFlightDB.db.
+ * The cached and indexed DAOs of the server are measured next to the plain DAOs they wrap.
+ * Streaming reads hand every row to a Blackhole. Writes that add rows are removed again by
+ * BenchmarkDatabase.reset() before the next iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DaoBenchmark {
+    private static final int BOOKINGS = 100; // Bookings and available slots the reads find
+
+    private BenchmarkDatabase db; // Seeded database
+    private PassengerDAO passengerDAO; // Plain passenger DAO
+    private CachedPassengerDAO cachedPassengerDAO; // Passenger DAO of the server
+    private BookingDAO bookingDAO; // Booking DAO
+    private SpacewalkSlotDAO slotDAO; // Plain slot DAO
+    private IndexedSpacewalkSlotDAO indexedSlotDAO; // Slot DAO of the server
+    private ChatMessageDAO chatMessageDAO; // Chat DAO
+    private InventoryItemDAO inventoryItemDAO; // Inventory DAO
+    private PhotographerDAO photographerDAO; // Photographer DAO
+    private InventoryItem item; // Item that updateInventoryItem writes back unchanged
+    private int firstBookingId; // First booking after the reset
+    private int passengerId; // Passenger the passenger and booking reads look up
+    private int calls; // Calls in the current iteration
+
+    @Setup(Level.Trial)
+    public void openDatabase() throws IOException, SQLException {
+        db = BenchmarkDatabase.open();
+        passengerId = db.getPassengerId(0);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetDatabase() throws SQLException {
+        firstBookingId = db.reset(BOOKINGS, BOOKINGS);
+        passengerDAO = new PassengerDAO();
+        cachedPassengerDAO = new CachedPassengerDAO(new PassengerDAO(), CachedPassengerDAO.DEFAULT_MAX_SIZE);
+        bookingDAO = new BookingDAO();
+        slotDAO = new SpacewalkSlotDAO();
+        indexedSlotDAO = new IndexedSpacewalkSlotDAO(new SpacewalkSlotDAO());
+        indexedSlotDAO.loadIndex();
+        chatMessageDAO = new ChatMessageDAO();
+        inventoryItemDAO = new InventoryItemDAO();
+        photographerDAO = new PhotographerDAO();
+        item = inventoryItemDAO.getItemsByRole(BenchmarkDatabase.INVENTORY_ROLE).get(0);
+        calls = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void closeDatabase() throws IOException {
+        db.close();
+    }
+
+    @Benchmark
+    public Passenger passengerById() {
+        return passengerDAO.getPassengerById(passengerId);
+    }
+
+    @Benchmark
+    public Passenger cachedPassengerById() {
+        return cachedPassengerDAO.getPassengerById(passengerId);
+    }
+
+    @Benchmark
+    public Passenger passengerByUsername() {
+        return passengerDAO.getPassengerByUsername(db.getUsername(0));
+    }
+
+    @Benchmark
+    public void forEachPassenger(Blackhole blackhole) throws IOException {
+        passengerDAO.forEachPassenger(blackhole::consume);
+    }
+
+    @Benchmark
+    public void updateNovaCredits() {
+        passengerDAO.updateNovaCredits(passengerId, BenchmarkDatabase.RICH_CREDITS - (calls++ & 1));
+    }
+
+    @Benchmark
+    public void forEachBookingByPassenger(Blackhole blackhole) throws IOException {
+        bookingDAO.forEachBookingByPassenger(passengerId, blackhole::consume);
+    }
+
+    @Benchmark
+    public void forEachDetailedBooking(Blackhole blackhole) throws IOException {
+        bookingDAO.forEachDetailedBooking(blackhole::consume);
+    }
+
+    @Benchmark
+    public void forEachBookingPage(Blackhole blackhole) throws IOException {
+        bookingDAO.forEachBooking(new BookingFilter("pending", null, null), new PageRequest(0, 20), blackhole::consume);
+    }
+
+    @Benchmark
+    public int countBookings() throws IOException {
+        return bookingDAO.countBookings(BookingFilter.forPassenger(passengerId));
+    }
+
+    @Benchmark
+    public void insertBooking() {
+        bookingDAO.insertBooking(new Booking(0, passengerId, db.getFirstSlotId(), 1, "pending"));
+    }
+
+    @Benchmark
+    public void updateBookingStatus() {
+        bookingDAO.updateBookingStatus(firstBookingId + (calls++ % BOOKINGS), (calls & 1) == 0 ? "pending" : "approved");
+    }
+
+    @Benchmark
+    public SpacewalkSlot slotById() {
+        return slotDAO.getSlotById(db.getFirstSlotId());
+    }
+
+    @Benchmark
+    public SpacewalkSlot indexedSlotById() {
+        return indexedSlotDAO.getSlotById(db.getFirstSlotId());
+    }
+
+    @Benchmark
+    public void forEachAvailableSlotInRange(Blackhole blackhole) throws IOException {
+        slotDAO.forEachAvailableSlot("10:00", "10:30", blackhole::consume);
+    }
+
+    @Benchmark
+    public void indexedForEachAvailableSlotInRange(Blackhole blackhole) throws IOException {
+        indexedSlotDAO.forEachAvailableSlot("10:00", "10:30", blackhole::consume);
+    }
+
+    @Benchmark
+    public void setSlotAvailability() {
+        slotDAO.setAvailability(db.getFirstSlotId() + BOOKINGS, (calls++ & 1) == 0);
+    }
+
+    @Benchmark
+    public boolean saveChatMessage() {
+        return chatMessageDAO.saveMessage(new ChatMessage(db.getUsername(1), BenchmarkDatabase.SEND_CHAT_PARTNER, "Benchmark message"));
+    }
+
+    @Benchmark
+    public void forEachChatMessageSince(Blackhole blackhole) throws IOException {
+        chatMessageDAO.forEachChatMessageSince(db.getUsername(0), BenchmarkDatabase.CHAT_PARTNER, 0, 20, blackhole::consume);
+    }
+
+    @Benchmark
+    public List<InventoryItem> inventoryByRole() {
+        return inventoryItemDAO.getItemsByRole(BenchmarkDatabase.INVENTORY_ROLE);
+    }
+
+    @Benchmark
+    public void updateInventoryItem() {
+        inventoryItemDAO.updateItem(item);
+    }
+
+    @Benchmark
+    public Photographer photographerByName() {
+        return photographerDAO.getPhotographerByName(BenchmarkDatabase.PHOTOGRAPHER);
+    }
+
+    @Benchmark
+    public void setPhotographerCheckedOut() {
+        photographerDAO.setCheckedOutStatus(1, (calls++ & 1) == 0);
+    }
+}
@@ -0,0 +1,81 @@
+package com.inFlight.server.service;
+
+import com.google.gson.JsonObject;
+import com.inFlight.server.ApplicationContext;
+import com.inFlight.server.BenchmarkDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmark of BookingService.processBooking with one thread and under contention.
+ * Every call books a slot nobody booked before, spread over the seeded passengers, so the threads compete for
+ * the write connection and the transaction, not for a slot. The contended result against the uncontended one
+ * shows how much the booking path loses to waiting.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingServiceBenchmark {
+    private BenchmarkDatabase db; // Seeded database
+    private BookingService bookingService; // Booking service of the server's ApplicationContext
+    private final AtomicInteger nextBooking = new AtomicInteger(); // Bookings made in the current iteration
+
+    @Setup(Level.Trial)
+    public void openDatabase() throws IOException, SQLException {
+        db = BenchmarkDatabase.open();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetDatabase() throws SQLException {
+        db.reset(0, BenchmarkDatabase.SLOTS);
+        ApplicationContext context = new ApplicationContext();
+        context.warmUp();
+        bookingService = context.getBookingService();
+        nextBooking.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeDatabase() throws IOException {
+        db.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public JsonObject processBooking() {
+        return book();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public JsonObject processBookingContended() {
+        return book();
+    }
+
+    private JsonObject book() {
+        int n = nextBooking.getAndIncrement();
+        JsonObject result = bookingService.processBooking(db.getPassengerId(n), db.getFirstSlotId() + n, 1);
+        if (!"OK".equals(result.get("status").getAsString())) {
+            throw new IllegalStateException("Booking " + n + " failed: " + result);
+        }
+        return result;
+    }
+}
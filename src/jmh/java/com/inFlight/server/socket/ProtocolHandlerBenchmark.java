@@ -0,0 +1,145 @@
+package com.inFlight.server.socket;
+
+import com.inFlight.server.ApplicationContext;
+import com.inFlight.server.BenchmarkDatabase;
+import com.inFlight.server.push.ClientSession;
+import com.inFlight.server.socket.handler.GetMetricsHandler;
+import com.inFlight.shared.protocol.ActionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Benchmark of ProtocolHandler.handle for every ActionType, with the handler graph of the server running against
+ * a seeded copy of inFlightDB.db. Without a -p action=... option every ActionType is measured.
+ * Requests that change rows use a new slot or booking in every call, so each call does the full work;
+ * BenchmarkDatabase.reset() restores the data before each iteration and a new ApplicationContext drops the caches.
+ * An ERROR response fails the run, so a broken request cannot be measured as a fast one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtocolHandlerBenchmark {
+    private static final int READ_ROWS = 100; // Bookings and available slots the reads find
+    private static final String METRICS_TOKEN = "benchmark"; // Admin token of GET_METRICS
+
+    @Param
+    public ActionType action; // Action that is measured
+
+    private BenchmarkDatabase db; // Seeded database
+    private ProtocolHandler handler; // Handler of the server's ApplicationContext
+    private ClientSession session; // Session for SUBSCRIBE and UNSUBSCRIBE, pushes are dropped
+    private IntFunction<String> requests; // Request for the n-th call
+    private int firstBookingId; // First booking after the reset
+    private int calls; // Calls in the current iteration
+
+    @Setup(Level.Trial)
+    public void openDatabase() throws IOException, SQLException {
+        db = BenchmarkDatabase.open();
+        requests = requestsFor(action);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetDatabase() throws SQLException {
+        firstBookingId = switch (action) {
+            case BOOK_SLOT -> db.reset(READ_ROWS, BenchmarkDatabase.SLOTS - READ_ROWS);
+            case CANCEL_BOOKING, APPROVE_BOOKING, DENY_BOOKING -> db.reset(BenchmarkDatabase.SLOTS, 0);
+            default -> db.reset(READ_ROWS, READ_ROWS);
+        };
+        System.setProperty(GetMetricsHandler.TOKEN_PROPERTY, METRICS_TOKEN);
+        ApplicationContext context = new ApplicationContext();
+        context.warmUp();
+        handler = context.getProtocolHandler();
+        session = new ClientSession(context.getEventBus(), frame -> { });
+        calls = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeSession() {
+        session.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeDatabase() throws IOException {
+        db.close();
+    }
+
+    @Benchmark
+    public String handle() {
+        String response = handler.handle(requests.apply(calls++), session);
+        if (response.contains("\"status\":\"ERROR\"")) {
+            throw new IllegalStateException(action + " failed: " + response);
+        }
+        return response;
+    }
+
+    /**
+     * Builds the requests of an action. The switch has no default, so a new ActionType does not compile until it
+     * gets a request here.
+     */
+    private IntFunction<String> requestsFor(ActionType action) {
+        String passenger = "{\"passengerId\":" + db.getPassengerId(0) + "}";
+        String chat = "{\"sender\":\"" + db.getUsername(0) + "\",\"receiver\":\"" + BenchmarkDatabase.CHAT_PARTNER + "\"}";
+        return switch (action) {
+            case LOGIN -> fixed(action, "{\"username\":\"" + db.getUsername(0) + "\"}");
+            case GET_BOOKINGS, GET_AVAILABLE_SLOTS, TRIGGER_SURVEY, GET_BROADCAST, GET_LAST_CANCELLATION,
+                 CHECK_SURVEY_TRIGGER, GET_ALL_PASSENGERS, GET_BOOKINGS_DETAILED -> fixed(action, "{}");
+            case GET_METRICS -> fixed(action, "{\"token\":\"" + METRICS_TOKEN + "\"}");
+            case GET_BOOKINGS_FOR_PASSENGER, GET_BOOKINGS_FOR_PASSENGER_DETAILED, GET_PASSENGER_BY_ID,
+                 CHECK_CHECKOUT_STATUS, CHECK_OUT_PASSENGER -> fixed(action, passenger);
+            case SEND_CHAT -> fixed(action, "{\"sender\":\"" + db.getUsername(1) + "\",\"receiver\":\""
+                    + BenchmarkDatabase.SEND_CHAT_PARTNER + "\",\"content\":\"Benchmark message\"}");
+            case GET_CHAT -> fixed(action, chat);
+            case GET_CHAT_SINCE -> fixed(action, chat.replace("}", ",\"afterId\":0,\"limit\":20}"));
+            case UPDATE_NOVACREDITS -> fixed(action, "{\"passengerId\":" + db.getPassengerId(0) + ",\"amount\":1}");
+            case BOOK_SLOT -> n -> request(action, "{\"passengerId\":" + db.getPassengerId(n)
+                    + ",\"slotId\":" + (db.getFirstSlotId() + READ_ROWS + n) + ",\"tier\":1}");
+            case GET_SLOT_BY_ID -> fixed(action, "{\"slotId\":" + db.getFirstSlotId() + "}");
+            case CANCEL_BOOKING, APPROVE_BOOKING, DENY_BOOKING ->
+                    n -> request(action, "{\"bookingId\":" + (firstBookingId + n) + "}");
+            case TRIGGER_BROADCAST -> fixed(action, "{\"message\":\"Benchmark broadcast\"}");
+            case SET_CHECKED_OUT_STATUS -> fixed(action, passenger.replace("}", ",\"checkedOut\":false}"));
+            case REGISTER_PHOTOGRAPHER -> n -> request(action, "{\"name\":\"bench-photographer-" + n + "\"}");
+            case GET_PHOTOGRAPHER_BY_NAME -> fixed(action, "{\"name\":\"" + BenchmarkDatabase.PHOTOGRAPHER + "\"}");
+            case GET_PHOTOGRAPHER_BY_ID -> fixed(action, "{\"id\":1}");
+            case SET_PHOTOGRAPHER_CHECKED_OUT -> fixed(action, "{\"id\":1,\"checkedOut\":false}");
+            case GET_INVENTORY_BY_ROLE -> fixed(action, "{\"role\":\"" + BenchmarkDatabase.INVENTORY_ROLE + "\"}");
+            case UPDATE_INVENTORY_ITEM -> fixed(action, "{\"item\":{\"id\":1,\"name\":\"StellarCapture Camera 3\","
+                    + "\"condition\":\"Perfect. Tested by Agency\",\"available\":true,\"ownerRole\":\""
+                    + BenchmarkDatabase.INVENTORY_ROLE + "\",\"checkedOut\":false}}");
+            case SUBSCRIBE, UNSUBSCRIBE -> fixed(action, "{\"topic\":\"BROADCAST\"}");
+            case GET_EVENTS_SINCE -> fixed(action, "{\"seq\":0}");
+            case BATCH -> fixed(action, "{\"requests\":["
+                    + "{\"action\":\"GET_BROADCAST\",\"data\":{}},"
+                    + "{\"action\":\"CHECK_SURVEY_TRIGGER\",\"data\":{}},"
+                    + "{\"action\":\"CHECK_CHECKOUT_STATUS\",\"data\":" + passenger + "}]}");
+        };
+    }
+
+    private static IntFunction<String> fixed(ActionType action, String data) {
+        String request = request(action, data);
+        return n -> request;
+    }
+
+    private static String request(ActionType action, String data) {
+        return "{\"action\":\"" + action + "\",\"data\":" + data + "}";
+    }
+}
@@ -0,0 +1,69 @@
+package com.inFlight.shared.protocol;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of parsing and serializing a MessageEnvelope with Gson, for a small BOOK_SLOT request and a
+ * SEND_CHAT request that carries a longer message.
+ * parseReader parses from a Reader, as the server does for frames of the binary framing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageEnvelopeBenchmark {
+    @Param({"BOOK_SLOT", "SEND_CHAT"})
+    public String request; // Request that is parsed and serialized
+
+    private final Gson gson = new Gson(); // Shared Gson instance, as the server uses one
+    private MessageEnvelope envelope; // Envelope that is serialized
+    private String json; // JSON that is parsed
+
+    @Setup
+    public void createRequest() {
+        JsonObject data = new JsonObject();
+        if (request.equals("BOOK_SLOT")) {
+            data.addProperty("passengerId", 1);
+            data.addProperty("slotId", 42);
+            data.addProperty("tier", 2);
+        } else {
+            data.addProperty("sender", "Guenther Geissen");
+            data.addProperty("receiver", "Attendant");
+            data.addProperty("content", "Could I get another blanket? ".repeat(30));
+        }
+        envelope = new MessageEnvelope(request, data, 7L);
+        json = gson.toJson(envelope);
+    }
+
+    @Benchmark
+    public MessageEnvelope parse() {
+        return gson.fromJson(json, MessageEnvelope.class);
+    }
+
+    @Benchmark
+    public MessageEnvelope parseReader() {
+        return gson.fromJson(new StringReader(json), MessageEnvelope.class);
+    }
+
+    @Benchmark
+    public String serialize() {
+        return gson.toJson(envelope);
+    }
+}
@@ -36,6 +36,7 @@ public class Main extends Application {
         primaryStage.show();
         primaryStage.setOnCloseRequest(e -> {
             resetDatabase();
+            SQLiteConnector.shutdown();
             System.exit(0);
         });
     }
@@ -74,7 +75,7 @@ public class Main extends Application {
             logger.info("Database reset to demo state.");
 
         } catch (SQLException e) {
-            logger.error("Failed to reset DB: " + e.getMessage());
+            logger.error("Failed to reset DB", e);
         }
     }
 
@@ -1,10 +1,10 @@
 package com.inFlight.client.controller;
 
+import com.google.gson.JsonObject;
 import com.inFlight.client.socket.ClientSocketService;
 import com.inFlight.shared.model.ChatMessage;
+import com.inFlight.shared.protocol.EventTopic;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -19,7 +19,6 @@ import javafx.scene.control.TextField;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
-import javafx.util.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -106,30 +105,52 @@ public class AirTrafficController {
 
     /**
      * Sets up chat functionality for a specific chat partner.
-     * Refreshes the chat messages periodically.
+     * Loads the chat messages once, new messages are added when the server pushes them.
      *
      * @param chatPartner The chat partner (e.g., "Pilot").
      * @param chatBox The VBox container for chat messages.
      * @param messageField The TextField for entering chat messages.
      */
     private void setupChat(String chatPartner, VBox chatBox, TextField messageField) {
-        Timeline refresher = new Timeline(new KeyFrame(Duration.seconds(1), e -> refreshChat(chatPartner, chatBox)));
-        refresher.setCycleCount(Timeline.INDEFINITE);
-        refresher.play();
+        openChatPartner = chatPartner;
+        openChatBox = chatBox;
+        lastShownMessageId = 0;
+        chatBox.getChildren().clear();
+        refreshChat(chatPartner, chatBox);
     }
 
     /**
      * Refreshes the chat messages for a specific chat partner.
-     * Updates the chat box with the latest messages.
+     * Only the messages after the newest one shown are requested, and they are appended to the chat box
+     * when the response arrives, so the JavaFX thread does not wait for the server.
      *
      * @param partner The chat partner (e.g., "Pilot").
      * @param chatBox The VBox container for chat messages.
      */
     private void refreshChat(String partner, VBox chatBox) {
-        List<ChatMessage> messages = socketService.getChat(myRole, partner);
-        chatBox.getChildren().clear();
+        int afterId = lastShownMessageId;
+        socketService.getChatSinceAsync(myRole, partner, afterId, ClientSocketService.CHAT_PAGE_SIZE)
+                .thenAccept(messages -> Platform.runLater(() -> showMessages(partner, chatBox, afterId, messages)));
+    }
 
+    /**
+     * Appends a page of chat messages to the chat box and requests the next page if this one was full.
+     * Runs on the JavaFX thread. Refreshes can overlap, so messages that are already shown are skipped,
+     * and a page is dropped if the chat box was cleared after it was requested.
+     *
+     * @param partner  The chat partner.
+     * @param chatBox  The VBox container for chat messages.
+     * @param afterId  The message ID the page was requested after.
+     * @param messages The messages of the page, oldest first.
+     */
+    private void showMessages(String partner, VBox chatBox, int afterId, List<ChatMessage> messages) {
+        if (afterId > lastShownMessageId) {
+            return;
+        }
         for (ChatMessage msg : messages) {
+            if (msg.getId() <= lastShownMessageId) {
+                continue;
+            }
             Label label = new Label(msg.getContent());
             label.setWrapText(true);
             label.setStyle("-fx-background-color: lightgray; -fx-padding: 8px; -fx-background-radius: 10px;");
@@ -138,59 +159,50 @@ public class AirTrafficController {
             wrapper.setAlignment(msg.getSender().equals(myRole) ? Pos.CENTER_RIGHT : Pos.CENTER_LEFT);
 
             chatBox.getChildren().add(wrapper);
+            lastShownMessageId = msg.getId();
+        }
+        if (messages.size() == ClientSocketService.CHAT_PAGE_SIZE) {
+            refreshChat(partner, chatBox);
         }
     }
 
-    private Timeline chatPoller; // Timeline for polling chat messages
-    private int lastMessageCount = 0; // Tracks the last message count for chat
+    private boolean subscribed = false; // Flag to track if the chat is subscribed, the controller is reused for every scene
+    private String openChatPartner; // Chat partner of the chat screen that is currently shown, null if none
+    private VBox openChatBox; // Chat box of the chat screen that is currently shown
+    private int lastShownMessageId; // ID of the newest message in the open chat box, 0 if it is empty
 
     /**
      * Initializes the chat logic.
-     * Starts polling for chat messages if connected to the server.
+     * Subscribes once to the chat with the pilot if connected to the server.
      */
     public void initialize() {
-        if (socketService.isConnected()) {
-            startChatPolling("Pilot", "ATC");
+        if (socketService.isConnected() && !subscribed) {
+            subscribed = true;
+            socketService.subscribe(EventTopic.CHAT, EventTopic.chatKey("Pilot", myRole), this::onChatMessage);
         }
     }
 
     /**
-     * Starts polling for new chat messages.
+     * Handles a chat message pushed by the server.
+     * Refreshes the chat screen if it is shown, and alerts about messages from the pilot.
      *
-     * @param sender The sender of the messages (e.g., "Pilot").
-     * @param receiver The receiver of the messages (e.g., "ATC").
+     * @param message The chat message pushed by the server.
      */
-    private void startChatPolling(String sender, String receiver) {
-        chatPoller = new Timeline(
-                new KeyFrame(Duration.seconds(1), e -> checkNewMessages(sender, receiver))
-        );
-        chatPoller.setCycleCount(Timeline.INDEFINITE);
-        chatPoller.play();
-    }
-
-    /**
-     * Checks for new chat messages and displays an alert if a new message is detected.
-     *
-     * @param sender The sender of the messages (e.g., "Pilot").
-     * @param receiver The receiver of the messages (e.g., "ATC").
-     */
-    private void checkNewMessages(String sender, String receiver) {
-        List<ChatMessage> allMessages = socketService.getChat(sender, receiver);
-        List<ChatMessage> incoming = allMessages.stream()
-                .filter(msg -> msg.getSender().equals(sender) && msg.getReceiver().equals(receiver))
-                .toList();
-
-        if (incoming.size() > lastMessageCount) {
-            lastMessageCount = incoming.size();
-
-            Platform.runLater(() -> {
+    private void onChatMessage(JsonObject message) {
+        String sender = message.get("sender").getAsString();
+
+        Platform.runLater(() -> {
+            if (openChatPartner != null) {
+                refreshChat(openChatPartner, openChatBox);
+            }
+            if (!sender.equals(myRole)) {
                 Alert alert = new Alert(Alert.AlertType.INFORMATION);
                 alert.setTitle("New Message");
                 alert.setHeaderText(null);
                 alert.setContentText("New message from " + sender + ".");
                 alert.show();
-            });
-        }
+            }
+        });
     }
 
     /**
@@ -203,12 +215,12 @@ public class AirTrafficController {
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getClassLoader().getResource(fxmlPath));
             loader.setController(this);
+            openChatPartner = null;
             Parent root = loader.load();
 
             Stage stage = (Stage) ((javafx.scene.Node) event.getSource()).getScene().getWindow();
             stage.setScene(new Scene(root));
             stage.setOnCloseRequest(e -> {
-                stopAllPollers();
                 socketService.disconnect();
                 logger.info("ATC disconnected from server.");
             });
@@ -219,10 +231,5 @@ public class AirTrafficController {
             logger.error("Scene switch failed", e);
         }
     }
-
-    private void stopAllPollers() {
-        if (chatPoller != null) chatPoller.stop();
-
-    }
 }
 
@@ -2,11 +2,12 @@ package com.inFlight.client.controller;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
+import com.inFlight.client.socket.BatchRequest;
 import com.inFlight.client.socket.ClientSocketService;
 import com.inFlight.shared.model.Booking;
+import com.inFlight.shared.model.DetailedBooking;
 import com.inFlight.shared.model.SpacewalkSlot;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import com.inFlight.shared.protocol.EventTopic;
 import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -19,11 +20,9 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import com.inFlight.shared.model.Passenger;
-import javafx.util.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 
@@ -123,8 +122,6 @@ public class PassengerController {
     private long lastBroadcastSeen = 0; // Timestamp of the last broadcast seen
 
     private SpacewalkSlot selectedSlot; // Selected spacewalk slot
-    private List<Booking> previousBookings = new ArrayList<>(); // List of previous bookings for the passenger
-    private Timeline bookingStatusPoller; // Timeline for polling booking status updates
     @FXML Button checkInButton; // Button to check in for the flight
 
     /**
@@ -363,9 +360,8 @@ public class PassengerController {
             this.currentStage = stage;
             stage.setScene(new Scene(root));
             stage.setOnCloseRequest(e -> {
-                stopAllPollers();
                 socketService.disconnect();
-                logger.info(currentPassenger.getUsername() + " disconnected from server.");
+                logger.info("{} disconnected from server.", currentPassenger.getUsername());
             });
             stage.show();
 
@@ -376,14 +372,6 @@ public class PassengerController {
         }
     }
 
-    private void stopAllPollers() {
-        if (bookingStatusPoller != null) bookingStatusPoller.stop();
-        if (surveyPoller != null) surveyPoller.stop();
-        if (broadcastPoller != null) broadcastPoller.stop();
-        if (checkoutPoller != null) checkoutPoller.stop();
-        if (checkInPoller != null) checkInPoller.stop();
-    }
-
     @FXML private VBox contentPane; // VBox for layout
 
     /**
@@ -558,12 +546,11 @@ public class PassengerController {
      * This method retrieves the bookings for the current passenger and displays them in the UI.
      */
     public void initializeBookingReviewScreen() {
-        List<Booking> bookings = socketService.getBookingsForPassenger(currentPassenger.getPassengerId()).stream().sorted(Comparator.comparing(Booking::getSlotId)).toList();
+        List<DetailedBooking> bookings = socketService.getBookingsForPassengerDetailed(currentPassenger.getPassengerId()).stream().sorted(Comparator.comparing(Booking::getSlotId)).toList();
 
         bookingReviewContainer.getChildren().clear();
 
-        for (Booking b : bookings) {
-            SpacewalkSlot slot = socketService.getSlotById(b.getSlotId());
+        for (DetailedBooking b : bookings) {
             String tier = switch (b.getTier()) {
                 case 1 -> "Space Essential";
                 case 2 -> "Space Comfort";
@@ -579,7 +566,7 @@ public class PassengerController {
             packageLabel.setPrefWidth(200);
             packageLabel.setStyle("-fx-text-fill: white; -fx-font-size: 16px;");
 
-            Label timeLabel = new Label(slot.getSlotTime());
+            Label timeLabel = new Label(b.getSlotTime());
             timeLabel.setPrefWidth(200);
             timeLabel.setStyle("-fx-text-fill: white; -fx-font-size: 16px;");
 
@@ -601,7 +588,7 @@ public class PassengerController {
                     currentPassenger.setNovaCredits(response.get("newBalance").getAsInt());
                     initializeBookingReviewScreen();
                 } else {
-                    logger.info("Cancel failed: " + response.get("message").getAsString());
+                    logger.info("Cancel failed: {}", response.get("message").getAsString());
                 }
             });
 
@@ -646,206 +633,137 @@ public class PassengerController {
     /**
      * Initializes the PassengerController.
      * This method is called when the controller is loaded.
-     * It starts polling for booking status, broadcasts, surveys, and checkouts.
+     * It subscribes once to the booking status, broadcast, survey and checkout events of the passenger.
      */
     @FXML
     public void initialize() {
-        if (socketService.isConnected()) {
-            startBookingStatusPolling();
-            startBroadcastPolling();
-            startSurveyPolling();
-            startCheckoutPolling();
+        if (socketService.isConnected() && !subscribed) {
+            subscribed = true;
+            subscribeToEvents();
         }
     }
 
-    private Timeline surveyPoller; // Timeline for polling survey triggers
-    private boolean surveyPollerStarted = false; // Flag to track if the survey poller has started
+    private boolean subscribed = false; // Flag to track if the events are subscribed, the controller is reused for every scene
 
     /**
-     * Starts the survey polling process.
-     * This method creates a Timeline that checks for survey triggers every second.
-     * If a survey is triggered, it navigates to the survey screen.
+     * Subscribes to the server events for the current passenger.
+     * subscribe returns once the server confirmed the subscription, and the current broadcast, survey and checkout
+     * state is read only afterwards, so nothing that happened before the subscription is missed.
+     * The three reads are sent as one batch.
      */
-    private void startSurveyPolling() {
-        if (surveyPollerStarted) return;
-        surveyPollerStarted = true;
+    private void subscribeToEvents() {
+        String passengerId = String.valueOf(currentPassenger.getPassengerId());
+        socketService.subscribe(EventTopic.BOOKING_STATUS, passengerId, this::onBookingStatusChanged);
+        socketService.subscribe(EventTopic.BROADCAST, null, this::onBroadcast);
+        socketService.subscribe(EventTopic.SURVEY, null, survey -> openSurvey());
+        socketService.subscribe(EventTopic.CHECKOUT, passengerId,
+                checkout -> onCheckoutChanged(checkout.get("checkedOut").getAsBoolean()));
 
-        surveyPoller = new Timeline(
-                new KeyFrame(Duration.seconds(1), e -> checkSurveyTrigger())
-        );
-        surveyPoller.setCycleCount(Timeline.INDEFINITE);
-        surveyPoller.play();
-    }
+        JsonObject passenger = new JsonObject();
+        passenger.addProperty("passengerId", currentPassenger.getPassengerId());
 
-    /**
-     * Checks if the survey has been triggered and navigates to the survey screen if so.
-     * This method is called periodically to check for survey triggers.
-     */
-    private void checkSurveyTrigger() {
-        if (socketService.isSurveyTriggered()) {
-            surveyPoller.stop();
-            Platform.runLater(() -> loadSceneWithoutEvent("fxml/uiPassenger1/PassengerSurvey1Screen.fxml"));
-        }
+        BatchRequest batch = new BatchRequest();
+        batch.add("GET_BROADCAST", new JsonObject()).thenAccept(this::onBroadcast);
+        batch.add("CHECK_SURVEY_TRIGGER", new JsonObject()).thenAccept(survey -> {
+            if (survey.has("triggered") && survey.get("triggered").getAsBoolean()) {
+                openSurvey();
+            }
+        });
+        batch.add("CHECK_CHECKOUT_STATUS", passenger).thenAccept(checkout -> {
+            if (checkout.has("checkedOut") && checkout.get("checkedOut").getAsBoolean()) {
+                onCheckoutChanged(true);
+            }
+        });
+        socketService.sendBatchAsync(batch);
     }
 
+    private boolean surveyOpened = false; // Flag to track if the survey screen was already shown
+
     /**
-     * Starts the booking status polling process.
-     * This method creates a Timeline that checks for booking status changes every second.
-     * If a change is detected, it displays an alert with the updated status.
+     * Navigates to the survey screen the first time the survey is triggered.
      */
-    private void startBookingStatusPolling() {
-        bookingStatusPoller = new Timeline(
-                new KeyFrame(Duration.seconds(1), e -> checkBookingStatusChanges())
-        );
-        bookingStatusPoller.setCycleCount(Timeline.INDEFINITE);
-        bookingStatusPoller.play();
+    private void openSurvey() {
+        Platform.runLater(() -> {
+            if (surveyOpened) return;
+            surveyOpened = true;
+            loadSceneWithoutEvent("fxml/uiPassenger1/PassengerSurvey1Screen.fxml");
+        });
     }
 
     /**
-     * Checks for changes in booking status and displays alerts if there are any updates.
-     * This method compares the current bookings with the previous bookings and shows alerts for any changes.
+     * Displays an alert when the pilot approved or denied one of the passenger's bookings.
+     *
+     * @param booking The updated booking pushed by the server.
      */
-    private void checkBookingStatusChanges() {
-        List<Booking> current = socketService.getBookingsForPassenger(currentPassenger.getPassengerId());
+    private void onBookingStatusChanged(JsonObject booking) {
+        String status = booking.get("status").getAsString();
 
-        for (Booking b : current) {
-            for (Booking old : previousBookings) {
-                if (b.getBookingId() == old.getBookingId() && !b.getStatus().equals(old.getStatus())) {
-                    Platform.runLater(() -> {
-                        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-                        alert.setTitle("Booking Update for: " + currentPassenger.getUsername());
-                        alert.setHeaderText(null);
+        Platform.runLater(() -> {
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Booking Update for: " + currentPassenger.getUsername());
+            alert.setHeaderText(null);
 
-                        if (b.getStatus().equals("approved")) {
-                            alert.setContentText(currentPassenger.getUsername() +": Your spacewalk booking has been approved!");
-                        } else if (b.getStatus().equals("denied")) {
-                            alert.setContentText(currentPassenger.getUsername() +": Your spacewalk was denied. NovaCredits refunded.");
-                        }
-
-                        alert.show();
-                    });
-                }
+            if (status.equals("approved")) {
+                alert.setContentText(currentPassenger.getUsername() +": Your spacewalk booking has been approved!");
+            } else if (status.equals("denied")) {
+                alert.setContentText(currentPassenger.getUsername() +": Your spacewalk was denied. NovaCredits refunded.");
             }
-        }
-
-        previousBookings = current;
-    }
-
-    private Timeline broadcastPoller; // Timeline for polling broadcasts
 
-    /**
-     * Starts the broadcast polling process.
-     * This method creates a Timeline that checks for new broadcasts every second.
-     * If a new broadcast is detected, it displays an alert with the broadcast message.
-     */
-    private void startBroadcastPolling() {
-        broadcastPoller = new Timeline(
-                new KeyFrame(Duration.seconds(1), e -> checkForBroadcast())
-        );
-        broadcastPoller.setCycleCount(Timeline.INDEFINITE);
-        broadcastPoller.play();
+            alert.show();
+        });
     }
 
     /**
-     * Checks for new broadcasts from the server and displays an alert if a new broadcast is detected.
-     * The broadcast message is shown in an alert dialog.
+     * Displays a broadcast in an alert dialog unless it was already shown.
+     *
+     * @param broadcast The broadcast pushed by the server, or the answer to GET_BROADCAST.
      */
-    private void checkForBroadcast() {
-        JsonObject response = socketService.getLatestBroadcast();
-
-        if (!"OK".equals(response.get("status").getAsString())) return;
+    private void onBroadcast(JsonObject broadcast) {
+        if (broadcast.has("status") && !"OK".equals(broadcast.get("status").getAsString())) return;
 
-        if (!response.has("message") || response.get("message").isJsonNull()) return;
+        if (!broadcast.has("message") || broadcast.get("message").isJsonNull()) return;
 
-        String message = response.get("message").getAsString();
-        long timestamp = response.has("timestamp") ? response.get("timestamp").getAsLong() : 0;
+        String message = broadcast.get("message").getAsString();
+        long timestamp = broadcast.has("timestamp") ? broadcast.get("timestamp").getAsLong() : 0;
 
-        if (timestamp > lastBroadcastSeen) {
+        Platform.runLater(() -> {
+            if (timestamp <= lastBroadcastSeen) return;
             lastBroadcastSeen = timestamp;
 
-            Platform.runLater(() -> {
-                Alert alert = new Alert(Alert.AlertType.INFORMATION);
-                alert.setTitle("Pilot Broadcast");
-                alert.setHeaderText(null);
-                alert.setContentText(message);
-                alert.show();
-            });
-        }
-    }
-
-
-    private Timeline checkoutPoller; // Timeline for polling checkout status
-    private Timeline checkInPoller; // Timeline for polling check-in status
-
-    private boolean checkoutPollerStarted = false; // Flag to track if the checkout poller has started
-
-    /**
-     * Starts the checkout polling process.
-     * This method creates a Timeline that checks if the passenger is checked out every second.
-     * If the passenger is checked out, it navigates to the checked-out screen.
-     */
-    private void startCheckoutPolling() {
-        if (checkoutPollerStarted) return;
-        checkoutPollerStarted = true;
-
-        checkoutPoller = new Timeline(
-                new KeyFrame(Duration.seconds(1), e -> checkCheckoutTrigger())
-        );
-        checkoutPoller.setCycleCount(Timeline.INDEFINITE);
-        checkoutPoller.play();
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Pilot Broadcast");
+            alert.setHeaderText(null);
+            alert.setContentText(message);
+            alert.show();
+        });
     }
 
     /**
-     * Checks if the passenger is checked out and updates the UI accordingly.
-     * If the passenger is checked out, it stops the checkout poller and navigates to the checked-out screen.
+     * Updates the UI when the passenger is checked out or checked in again.
+     * A checkout navigates to the checked-out screen, a check-in enables its check-in button.
+     *
+     * @param checkedOut The new checkout state of the passenger.
      */
-    private void checkCheckoutTrigger() {
-        if (socketService.isCheckedOut(currentPassenger.getPassengerId())) {
-            checkoutPoller.stop();
-            Platform.runLater(() -> {
+    private void onCheckoutChanged(boolean checkedOut) {
+        Platform.runLater(() -> {
+            if (checkedOut) {
                 loadSceneWithoutEvent("fxml/uiPassenger1/PassengerCheckedOutScreen.fxml");
                 checkInButton.setDisable(true);
-                startCheckinPolling();
-            });
-        }
-    }
-
-    /**
-     * Starts the check-in polling process.
-     * This method creates a Timeline that checks if the passenger is checked in every second.
-     * If the passenger is not checked out, it enables the check-in button.
-     */
-    private void startCheckinPolling() {
-        checkInPoller = new Timeline(
-                new KeyFrame(Duration.seconds(1), e -> checkCheckInTrigger())
-        );
-        checkInPoller.setCycleCount(Timeline.INDEFINITE);
-        checkInPoller.play();
-    }
-
-    /**
-     * Checks if the passenger is checked in and updates the UI accordingly.
-     * If the passenger is not checked out, the check-in button is enabled.
-     */
-    private void checkCheckInTrigger() {
-        if (!socketService.isCheckedOut(currentPassenger.getPassengerId())) {
-            checkInPoller.stop();
-            Platform.runLater(() -> {
+            } else if (checkInButton != null) {
                 checkInButton.setDisable(false);
-            });
-        }
+            }
+        });
     }
 
     /**
      * Handles the check-in button action.
-     * Navigates to the passenger start screen and starts checkout polling to enable checking out again.
+     * Navigates to the passenger start screen. The checkout subscription stays active, so the passenger
+     * can be checked out again.
      *
      * @param e The action event triggered by the UI.
      */
     public void checkInButton(ActionEvent e){
         loadScene("fxml/uiPassenger1/PassengerStartScreen.fxml", e);
-        checkoutPollerStarted = false;
-        startCheckoutPolling();
     }
 
 
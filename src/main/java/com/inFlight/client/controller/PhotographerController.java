@@ -212,29 +212,20 @@ public class PhotographerController {
      * Initializes the booking review screen by populating the booking review container with booking information.
      */
     private void initializePhotographerReviewScreen() {
-            List<Booking> bookings = socketService.getBookings();
-            List<Booking> filteredBookings = bookings.stream()
-                    .filter(b -> b.getTier() == 3 && b.getStatus().equals("approved"))
-                    .toList();
+            List<DetailedBooking> filteredBookings = socketService.getBookingsDetailed("approved", 3);
 
             photographerBookingReviewContainer.getChildren().clear();
 
-            for (Booking b : filteredBookings) {
-                SpacewalkSlot slot = socketService.getSlotById(b.getSlotId());
-                Passenger p = socketService.getPassengerById(b.getPassengerId());
-
-
-
-
+            for (DetailedBooking b : filteredBookings) {
                 Label tierLabel = new Label("Space Prestige");
                 tierLabel.setPrefWidth(200);
                 tierLabel.setStyle("-fx-text-fill: white; -fx-font-size: 16px;");
 
-                Label timeLabel = new Label(slot.getSlotTime());
+                Label timeLabel = new Label(b.getSlotTime());
                 timeLabel.setPrefWidth(200);
                 timeLabel.setStyle("-fx-text-fill: white; -fx-font-size: 16px;");
 
-                Label  passengerLabel = new Label(p.getUsername());
+                Label  passengerLabel = new Label(b.getPassengerUsername());
                 passengerLabel.setPrefWidth(200);
                 passengerLabel.setStyle("-fx-text-fill: white; -fx-font-size: 16px;");
 
@@ -4,11 +4,9 @@ import com.google.gson.JsonObject;
 import com.inFlight.client.socket.ClientSocketService;
 import com.inFlight.shared.model.Booking;
 import com.inFlight.shared.model.ChatMessage;
+import com.inFlight.shared.model.DetailedBooking;
 import com.inFlight.shared.model.Passenger;
-import com.inFlight.shared.model.SpacewalkSlot;
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import com.inFlight.shared.protocol.EventTopic;
 import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -20,7 +18,6 @@ import javafx.scene.control.*;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
-import javafx.util.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -72,7 +69,6 @@ public class PilotController {
 
     private final ClientSocketService socketService = new ClientSocketService(); // Service for socket communication
     private final String myRole = "Pilot"; // Role identifier for Pilot used in chat
-    private int lastPendingCount = 0; // Counter for pending bookings
 
     @FXML
     private VBox chatBoxATC; // Container for chat messages with ATC
@@ -84,9 +80,10 @@ public class PilotController {
     @FXML
     private TextField messageFieldAttendant; // Input field for sending messages to Flight Attendant
 
-    private Timeline atcChatRefresh; // Timeline for refreshing chat with ATC
-    private Timeline attendantChatRefresh; // Timeline for refreshing chat with Flight Attendant
-    private Timeline bookingPoller; // Timeline for polling new bookings
+    private boolean subscribed = false; // Flag to track if the events are subscribed, the controller is reused for every scene
+    private String openChatPartner; // Chat partner of the chat screen that is currently shown, null if none
+    private VBox openChatBox; // Chat box of the chat screen that is currently shown
+    private int lastShownMessageId; // ID of the newest message in the open chat box, 0 if it is empty
 
     /**
      * Handles the start button action.
@@ -150,85 +147,50 @@ public class PilotController {
 
     /**
      * Initializes the PilotController.
-     * Sets up the booking and chat polling if the socket is connected.
+     * Subscribes once to new bookings, cancellations and the chats with ATC and the Flight Attendant
+     * if the socket is connected.
      */
     @FXML
     public void initialize() {
-        if (socketService.isConnected()) {
-            startBookingPolling();
-            startCancellationPolling();
-            startChatPollingATC();
-            startChatPollingAttendant();
+        if (socketService.isConnected() && !subscribed) {
+            subscribed = true;
+            socketService.subscribe(EventTopic.NEW_BOOKING, null, booking -> onNewBooking());
+            socketService.subscribe(EventTopic.CANCELLATION, null, this::onCancelledBooking);
+            socketService.subscribe(EventTopic.CHAT, EventTopic.chatKey(myRole, "ATC"), this::onChatMessage);
+            socketService.subscribe(EventTopic.CHAT, EventTopic.chatKey(myRole, "Attendant"), this::onChatMessage);
         }
     }
 
-
-    private long lastCancelSeen = 0; // Timestamp of the last cancellation seen
-    private Timeline cancelPoller;
-    /**
-     * Starts the cancellation polling to check for cancelled bookings.
-     */
-    private void startCancellationPolling() {
-        cancelPoller = new Timeline(
-                new KeyFrame(Duration.seconds(1), e -> checkForCancelledBooking())
-        );
-        cancelPoller.setCycleCount(Animation.INDEFINITE);
-        cancelPoller.play();
-    }
-
     /**
-     * Checks for cancelled bookings and displays an alert if a new cancellation is detected.
+     * Displays an alert when a passenger cancelled a booking.
+     *
+     * @param cancellation The cancellation pushed by the server.
      */
-    private void checkForCancelledBooking() {
-        JsonObject response = socketService.getLastCancellation();
-        if (!"OK".equals(response.get("status").getAsString())) return;
-
-        if (!response.has("passenger") || response.get("passenger").isJsonNull()) return;
-
-        String passenger = response.get("passenger").getAsString();
-        long timestamp = response.get("timestamp").getAsLong();
-
-        if (timestamp > lastCancelSeen) {
-            lastCancelSeen = timestamp;
-
-            Platform.runLater(() -> {
-                Alert alert = new Alert(Alert.AlertType.INFORMATION);
-                alert.setTitle("Booking Cancelled");
-                alert.setHeaderText(null);
-                alert.setContentText("Passenger " + passenger + " canceled their spacewalk.");
-                alert.show();
-            });
-        }
+    private void onCancelledBooking(JsonObject cancellation) {
+        String passenger = cancellation.get("passenger").getAsString();
+
+        Platform.runLater(() -> {
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Booking Cancelled");
+            alert.setHeaderText(null);
+            alert.setContentText("Passenger " + passenger + " canceled their spacewalk.");
+            alert.show();
+        });
     }
 
     /**
-     * Starts the booking polling to check for new bookings.
+     * Displays an alert when a passenger submitted a new booking, with the number of bookings waiting for review.
      */
-    private void startBookingPolling() {
-        bookingPoller = new Timeline(
-                new KeyFrame(Duration.seconds(1), e -> checkForNewBookings())
-        );
-        bookingPoller.setCycleCount(Timeline.INDEFINITE);
-        bookingPoller.play();
-    }
-
-    /**
-     * Checks for new bookings and displays an alert if a new booking is detected.
-     */
-    private void checkForNewBookings() {
-        List<Booking> pending = socketService.getBookings();
-
-        if (pending.size() > lastPendingCount) {
-            Platform.runLater(() -> {
-                Alert alert = new Alert(Alert.AlertType.INFORMATION);
-                alert.setTitle("New Booking");
-                alert.setHeaderText(null);
-                alert.setContentText("A new spacewalk booking has been submitted.");
-                alert.show();
-            });
-        }
-
-        lastPendingCount = pending.size();
+    private void onNewBooking() {
+        socketService.countBookingsAsync("pending").thenAccept(pending -> Platform.runLater(() -> {
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("New Booking");
+            alert.setHeaderText(null);
+            alert.setContentText(pending > 0
+                    ? "A new spacewalk booking has been submitted. " + pending + " booking(s) are pending review."
+                    : "A new spacewalk booking has been submitted.");
+            alert.show();
+        }));
     }
 
     @FXML private VBox pilotBookingReviewContainer; // Container for displaying booking reviews
@@ -238,13 +200,11 @@ public class PilotController {
      * Loads the bookings and displays them in the UI.
      */
     public void initializePilotReviewScreen() {
-        List<Booking> bookings = socketService.getBookings().stream().sorted(Comparator.comparing(Booking::getSlotId)).toList();
+        List<DetailedBooking> bookings = socketService.getBookingsDetailed().stream().sorted(Comparator.comparing(Booking::getSlotId)).toList();
 
         pilotBookingReviewContainer.getChildren().clear();
 
-        for (Booking b : bookings) {
-            SpacewalkSlot slot = socketService.getSlotById(b.getSlotId());
-            Passenger p = socketService.getPassengerById(b.getPassengerId());
+        for (DetailedBooking b : bookings) {
 
             String tier = switch (b.getTier()) {
                 case 1 -> "Space Essential";
@@ -257,11 +217,11 @@ public class PilotController {
             tierLabel.setPrefWidth(200);
             tierLabel.setStyle("-fx-text-fill: white; -fx-font-size: 16px;");
 
-            Label timeLabel = new Label(slot.getSlotTime());
+            Label timeLabel = new Label(b.getSlotTime());
             timeLabel.setPrefWidth(200);
             timeLabel.setStyle("-fx-text-fill: white; -fx-font-size: 16px;");
 
-            Label passengerLabel = new Label(p.getUsername());
+            Label passengerLabel = new Label(b.getPassengerUsername());
             passengerLabel.setPrefWidth(200);
             passengerLabel.setStyle("-fx-text-fill: white; -fx-font-size: 16px;");
 
@@ -350,34 +310,75 @@ public class PilotController {
 
     /**
      * Sets up the chat functionality for a specific chat partner.
-     * Refreshes the chat messages periodically.
+     * Loads the chat messages once, new messages are added when the server pushes them.
      *
      * @param chatPartner The chat partner (e.g., "ATC").
      * @param chatBox The VBox container for chat messages.
      * @param messageField The TextField for entering chat messages.
      */
     private void setupChat(String chatPartner, VBox chatBox, TextField messageField) {
-        Timeline refresher = new Timeline(new KeyFrame(Duration.seconds(1), e -> refreshChat(chatPartner, chatBox)));
-        refresher.setCycleCount(Timeline.INDEFINITE);
-        refresher.play();
+        openChatPartner = chatPartner;
+        openChatBox = chatBox;
+        lastShownMessageId = 0;
+        chatBox.getChildren().clear();
+        refreshChat(chatPartner, chatBox);
+    }
 
+    /**
+     * Handles a chat message pushed by the server.
+     * Refreshes the chat screen if it shows this chat, and alerts about messages from the other party.
+     *
+     * @param message The chat message pushed by the server.
+     */
+    private void onChatMessage(JsonObject message) {
+        String sender = message.get("sender").getAsString();
 
-        if (chatPartner.equals("ATC")) atcChatRefresh = refresher;
-        else attendantChatRefresh = refresher;
+        Platform.runLater(() -> {
+            if (sender.equals(openChatPartner)) {
+                refreshChat(openChatPartner, openChatBox);
+            }
+            if (!sender.equals(myRole)) {
+                Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                alert.setTitle("New Message");
+                alert.setHeaderText(null);
+                alert.setContentText("New message from " + sender + ".");
+                alert.show();
+            }
+        });
     }
 
     /**
      * Refreshes the chat messages for a specific chat partner.
-     * Updates the chat box with the latest messages.
+     * Only the messages after the newest one shown are requested, and they are appended to the chat box
+     * when the response arrives, so the JavaFX thread does not wait for the server.
      *
      * @param partner The chat partner (e.g., "ATC").
      * @param chatBox The VBox container for chat messages.
      */
     private void refreshChat(String partner, VBox chatBox) {
-        List<ChatMessage> messages = socketService.getChat(myRole, partner);
-        chatBox.getChildren().clear();
+        int afterId = lastShownMessageId;
+        socketService.getChatSinceAsync(myRole, partner, afterId, ClientSocketService.CHAT_PAGE_SIZE)
+                .thenAccept(messages -> Platform.runLater(() -> showMessages(partner, chatBox, afterId, messages)));
+    }
 
+    /**
+     * Appends a page of chat messages to the chat box and requests the next page if this one was full.
+     * Runs on the JavaFX thread. Refreshes can overlap, so messages that are already shown are skipped,
+     * and a page is dropped if the chat box was cleared after it was requested.
+     *
+     * @param partner  The chat partner.
+     * @param chatBox  The VBox container for chat messages.
+     * @param afterId  The message ID the page was requested after.
+     * @param messages The messages of the page, oldest first.
+     */
+    private void showMessages(String partner, VBox chatBox, int afterId, List<ChatMessage> messages) {
+        if (afterId > lastShownMessageId) {
+            return;
+        }
         for (ChatMessage msg : messages) {
+            if (msg.getId() <= lastShownMessageId) {
+                continue;
+            }
             Label label = new Label(msg.getContent());
             label.setWrapText(true);
             label.setStyle("-fx-background-color: lightgray; -fx-padding: 8px; -fx-background-radius: 10px;");
@@ -386,6 +387,10 @@ public class PilotController {
             wrapper.setAlignment(msg.getSender().equals(myRole) ? Pos.CENTER_RIGHT : Pos.CENTER_LEFT);
 
             chatBox.getChildren().add(wrapper);
+            lastShownMessageId = msg.getId();
+        }
+        if (messages.size() == ClientSocketService.CHAT_PAGE_SIZE) {
+            refreshChat(partner, chatBox);
         }
     }
 
@@ -402,13 +407,13 @@ public class PilotController {
 
 
             loader.setController(this);
+            openChatPartner = null;
 
             Parent root = loader.load();
 
             Stage stage = (Stage) ((javafx.scene.Node) event.getSource()).getScene().getWindow();
             stage.setScene(new Scene(root));
             stage.setOnCloseRequest(e -> {
-                stopAllPollers();
                 socketService.disconnect();
                 logger.info("Pilot disconnected from server.");
             });
@@ -419,14 +424,6 @@ public class PilotController {
         }
     }
 
-    private void stopAllPollers() {
-
-        if (chatPollerATC != null) chatPollerATC.stop();
-        if (chatPollerAttendant != null) chatPollerAttendant.stop();
-        if (bookingPoller != null) bookingPoller.stop();
-        if (cancelPoller != null) cancelPoller.stop();
-    }
-
     @FXML private TextArea broadcastField; // Text area for entering broadcast messages
 
     /**
@@ -442,85 +439,6 @@ public class PilotController {
         }
     }
 
-    private Timeline chatPollerATC; // Timeline for polling chat with ATC
-    private int lastMessageCountATC = 0; // Tracks the last message count for chat with ATC
-    private Timeline chatPollerAttendant; // Timeline for polling chat with Flight Attendant
-    private int lastMessageCountAttendant = 0; // Tracks the last message count for chat with Flight Attendant
-
-    /**
-     * Starts the chat polling for the Air Traffic Controller.
-     * This method is called when the Pilot sends a message to the Air Traffic Controller.
-     */
-    private void startChatPollingATC() {
-        chatPollerATC = new Timeline(
-                new KeyFrame(Duration.seconds(1), e -> {
-                    checkNewMessagesATC("ATC", "Pilot");
-                })
-        );
-        chatPollerATC.setCycleCount(Timeline.INDEFINITE);
-        chatPollerATC.play();
-    }
-
-    /**
-     * Checks for new messages from the Air Traffic Controller and displays an alert if a new message is detected.
-     *
-     * @param sender The sender of the messages (e.g., "ATC").
-     * @param receiver The receiver of the messages (e.g., "Pilot").
-     */
-    private void checkNewMessagesATC(String sender, String receiver) {
-        List<ChatMessage> incoming = socketService.getChat(sender, receiver);
-
-
-        if (incoming.size() > lastMessageCountATC) {
-            lastMessageCountATC = incoming.size();
-
-            Platform.runLater(() -> {
-                Alert alert = new Alert(Alert.AlertType.INFORMATION);
-                alert.setTitle("New Message");
-                alert.setHeaderText(null);
-                alert.setContentText("New message from ATC.");
-                alert.show();
-            });
-        }
-    }
-
-    /**
-     * Starts the chat polling for the Flight Attendant.
-     * This method is called when the Pilot sends a message to the Flight Attendant.
-     */
-    private void startChatPollingAttendant() {
-        chatPollerAttendant = new Timeline(
-                new KeyFrame(Duration.seconds(1), e -> {
-                    checkNewMessagesAttendant("Attendant", "Pilot");
-                })
-        );
-        chatPollerAttendant.setCycleCount(Timeline.INDEFINITE);
-        chatPollerAttendant.play();
-    }
-
-    /**
-     * Checks for new messages from the Flight Attendant and displays an alert if a new message is detected.
-     *
-     * @param sender The sender of the messages (e.g., "Attendant").
-     * @param receiver The receiver of the messages (e.g., "Pilot").
-     */
-    private void checkNewMessagesAttendant(String sender, String receiver) {
-        List<ChatMessage> incoming = socketService.getChat(sender, receiver);
-
-
-        if (incoming.size() > lastMessageCountAttendant) {
-            lastMessageCountAttendant = incoming.size();
-
-            Platform.runLater(() -> {
-                Alert alert = new Alert(Alert.AlertType.INFORMATION);
-                alert.setTitle("New Message");
-                alert.setHeaderText(null);
-                alert.setContentText("New message from Attendant.");
-                alert.show();
-            });
-        }
-    }
-
     private List<Passenger> loadedPassengers = new ArrayList<>(); // List to store loaded passengers
     private List<Button> passengerButtons; // List to store passenger buttons
 
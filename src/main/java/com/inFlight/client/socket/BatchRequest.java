@@ -0,0 +1,82 @@
+package com.inFlight.client.socket;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * BatchRequest collects several requests that are sent to the server together as one BATCH request.
+ * Every added request gets its own future, which completes with its response when the batch response arrives,
+ * so a controller can handle each answer separately while paying for only one round trip.
+ * A BatchRequest is filled by one thread and sent once with ClientSocketService.sendBatchAsync.
+ */
+public class BatchRequest {
+    private final JsonArray requests = new JsonArray(); // The requests in the order they were added
+    private final List<CompletableFuture<JsonObject>> responses = new ArrayList<>(); // Future of every request
+
+    /**
+     * Adds a request to the batch.
+     *
+     * @param action The action to be performed
+     * @param data   The data associated with the action
+     * @return A future that completes with the response of this request, or with the ERROR response of the batch
+     */
+    public CompletableFuture<JsonObject> add(String action, JsonObject data) {
+        JsonObject request = new JsonObject();
+        request.addProperty("action", action);
+        request.add("data", data);
+        requests.add(request);
+
+        CompletableFuture<JsonObject> response = new CompletableFuture<>();
+        responses.add(response);
+        return response;
+    }
+
+    /**
+     * Returns the number of requests in the batch.
+     *
+     * @return the number of added requests
+     */
+    public int size() {
+        return requests.size();
+    }
+
+    /**
+     * Builds the data of the BATCH request.
+     *
+     * @return the data with the list of requests
+     */
+    JsonObject toData() {
+        JsonObject data = new JsonObject();
+        data.add("requests", requests);
+        return data;
+    }
+
+    /**
+     * Completes the future of every request from the response of the batch.
+     * If the batch failed as a whole, every request completes with the batch's response.
+     *
+     * @param batchResponse the response to the BATCH request
+     * @return the responses of the requests in the order they were added
+     */
+    List<JsonObject> complete(JsonObject batchResponse) {
+        List<JsonObject> results = new ArrayList<>(responses.size());
+        JsonArray array = "OK".equals(batchResponse.get("status").getAsString())
+                ? batchResponse.getAsJsonArray("responses")
+                : null;
+        for (int i = 0; i < responses.size(); i++) {
+            JsonObject result = batchResponse;
+            if (array != null && i < array.size()) {
+                JsonElement element = array.get(i);
+                result = element.isJsonObject() ? element.getAsJsonObject() : new JsonObject();
+            }
+            responses.get(i).complete(result);
+            results.add(result);
+        }
+        return results;
+    }
+}
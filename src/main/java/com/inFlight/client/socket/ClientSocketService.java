@@ -4,6 +4,11 @@ import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.inFlight.shared.model.*;
+import com.inFlight.shared.protocol.EventFrame;
+import com.inFlight.shared.protocol.EventTopic;
+import com.inFlight.shared.protocol.FrameReader;
+import com.inFlight.shared.protocol.FrameWriter;
+import com.inFlight.shared.protocol.Framing;
 import com.inFlight.shared.protocol.MessageEnvelope;
 import com.google.gson.JsonArray;
 import org.slf4j.Logger;
@@ -14,21 +19,84 @@ import java.io.*;
 import java.net.Socket;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
  * ClientSocketService is a service class that handles communication with the server using sockets.
  * It provides methods to send requests and receive responses from the server.
+ * Requests can be sent from any thread and do not wait for each other: every request is numbered with a request ID
+ * and written at once, and a background thread reads the responses and completes the future of the request with
+ * the same ID. The blocking methods wait for that future; sendAsync returns it, so the JavaFX thread does not
+ * have to wait for the server. A response without an ID, from a server that does not copy it, answers the oldest
+ * open request, because the server answers the requests of a connection in order.
+ * Both connections use the Framing set by the inflight.client.framing system property: TEXT lines by default,
+ * which every server understands, or length-prefixed BINARY frames for servers that accept the binary preface.
+ * Server events are received on a second connection, so pushed frames never get mixed up with the response
+ * a request is waiting for. If that connection drops, it is opened again, every topic is subscribed again and
+ * the events published in between are read with GET_EVENTS_SINCE and passed to the listeners.
  */
 public class ClientSocketService {
     private static final Logger logger = LoggerFactory.getLogger(ClientSocketService.class);
 
-    private static final String HOST = "localhost"; // The server's host address
-    private static final int PORT = 5555; // The server's port number
+    private static final String HOST = "localhost"; // The server's host address, unless another is given
+    private static final int PORT = 5555; // The server's port number, unless another is given
+    public static final int CHAT_PAGE_SIZE = 200; // Messages requested per GET_CHAT_SINCE call
+    public static final String TIMEOUT_PROPERTY = "inflight.client.requestTimeoutMs"; // System property for the timeout
+    private static final long REQUEST_TIMEOUT_MS = Long.getLong(TIMEOUT_PROPERTY, 10_000); // Wait of the blocking methods
+    private static final long RECONNECT_DELAY_MS = 500; // First wait before the event connection is opened again
+    private static final long MAX_RECONNECT_DELAY_MS = 10_000; // Longest wait between two reconnect attempts
 
+    private final String host; // Host the connections are opened to
+    private final int port; // Port the connections are opened to
     private Socket socket; // Socket for communication with the server
-    private BufferedWriter writer; // Output stream for sending data to the server
-    private BufferedReader reader; // Input stream for receiving data from the server
+    private final Framing framing = Framing.fromSystemProperties(); // How messages are separated on both connections
+    private FrameWriter writer; // Sends requests to the server
+    private FrameReader reader; // Receives responses from the server
     private final Gson gson = new Gson(); // Gson instance for JSON serialization/deserialization
+    private final ReentrantLock writeLock = new ReentrantLock(); // Requests of several threads are written one at a time
+    private final ConcurrentSkipListMap<Long, CompletableFuture<JsonObject>> pendingRequests = new ConcurrentSkipListMap<>(); // Open requests by ID, oldest first
+    private long lastRequestId; // Guarded by writeLock, ID of the last request written
+    private Thread responseReader; // Guarded by writeLock, reads the responses of the request connection
+
+    private Socket eventSocket; // Second connection that receives the subscribed events
+    private FrameWriter eventWriter; // Sends SUBSCRIBE requests on the event connection
+    private final Map<String, List<Consumer<JsonObject>>> eventListeners = new ConcurrentHashMap<>(); // Listeners per topic and key
+    private final Map<String, JsonObject> subscriptions = new ConcurrentHashMap<>(); // SUBSCRIBE data per topic and key, sent again after a reconnect
+    private final Queue<CompletableFuture<JsonObject>> pendingSubscriptions = new ConcurrentLinkedQueue<>(); // Answers the event connection owes, oldest first
+    private final Set<Long> replayedEvents = ConcurrentHashMap.newKeySet(); // Events passed on during the last reconnect, so they are not passed on twice
+    private volatile boolean reconnecting; // True while the event connection is restored and missed events are replayed
+    private volatile boolean disconnected; // Set by disconnect, the event connection is not restored after that
+    private volatile long lastEventSeq; // Sequence of the newest event received on the event connection
+
+    /**
+     * Default constructor connects to the server on localhost and its default port.
+     */
+    public ClientSocketService() {
+        this(HOST, PORT);
+    }
+
+    /**
+     * Constructor for a server on another host or port, e.g. one started by a test or a load generator.
+     *
+     * @param host the server's host address
+     * @param port the server's port number
+     */
+    public ClientSocketService(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
 
     /**
      * connect method establishes a connection to the server.
@@ -36,9 +104,16 @@ public class ClientSocketService {
      */
     public boolean connect() {
         try {
-            socket = new Socket(HOST, PORT); // Create a socket to connect to the server
-            writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream())); // Output stream for sending data
-            reader = new BufferedReader(new InputStreamReader(socket.getInputStream())); // Input stream for receiving data
+            socket = new Socket(host, port); // Create a socket to connect to the server
+            framing.startClient(socket.getOutputStream()); // Select the framing before the first request
+            writer = framing.newWriter(socket.getOutputStream()); // Output stream for sending data
+            reader = framing.newReader(socket.getInputStream()); // Input stream for receiving data
+            writeLock.lock();
+            try {
+                startResponseReader();
+            } finally {
+                writeLock.unlock();
+            }
             return true;
         } catch (IOException e) {
             // Handle exceptions related to socket operations
@@ -50,32 +125,153 @@ public class ClientSocketService {
     /**
      * send method sends a request to the server and receives a response.
      * It serializes the request data to JSON format and deserializes the response data from JSON format.
+     * The calling thread waits for the response, at most for the request timeout.
      *
      * @param action The action to be performed
      * @param data   The data associated with the action
      * @return The response from the server as a JsonObject
      */
     public JsonObject send(String action, JsonObject data) {
+        CompletableFuture<JsonObject> response = sendAsync(action, data);
+        try {
+            return response.get(REQUEST_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return error("Interrupted while waiting for the server.");
+        } catch (TimeoutException e) {
+            // The request stays open, so a late response is not mistaken for the answer to a later request
+            logger.warn("No response to {} within {} ms", action, REQUEST_TIMEOUT_MS);
+            return error("The server did not respond in time.");
+        } catch (ExecutionException e) {
+            logger.error("Request {} failed", action, e.getCause());
+            return error("Failed to send request to server.");
+        }
+    }
+
+    /**
+     * sendAsync method sends a request to the server without waiting for the response.
+     * Several requests can be in flight on the connection at the same time.
+     *
+     * @param action The action to be performed
+     * @param data   The data associated with the action
+     * @return A future that completes with the response on the thread reading responses, or with an ERROR
+     *         response if the request could not be sent or the connection closed before the response arrived
+     */
+    public CompletableFuture<JsonObject> sendAsync(String action, JsonObject data) {
+        CompletableFuture<JsonObject> response = new CompletableFuture<>();
+        long requestId;
+        writeLock.lock();
         try {
-            MessageEnvelope request = new MessageEnvelope(action, data);
-            String json = gson.toJson(request);
+            requestId = ++lastRequestId;
+            // Registered before it is written, so the response cannot arrive before its request is known
+            pendingRequests.put(requestId, response);
+            try {
+                if (responseReader == null || !responseReader.isAlive()) {
+                    startResponseReader();
+                }
+                writer.writeFrame(gson.toJson(new MessageEnvelope(action, data, requestId)));
+            } catch (IOException | RuntimeException e) {
+                pendingRequests.remove(requestId);
+                logger.error("Failed to send request to server.", e);
+                response.complete(error("Failed to send request to server."));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        return response;
+    }
+
+    /**
+     * sendBatchAsync method sends all requests of a batch to the server as one BATCH request.
+     * The future of every request in the batch completes when the response arrives.
+     *
+     * @param batch The requests to send
+     * @return A future with the responses in the order the requests were added
+     */
+    public CompletableFuture<List<JsonObject>> sendBatchAsync(BatchRequest batch) {
+        return sendAsync("BATCH", batch.toData()).thenApply(batch::complete);
+    }
 
-            writer.write(json);
-            writer.newLine();
-            writer.flush();
+    /**
+     * sendBatch method sends all requests of a batch to the server as one BATCH request and waits for the responses.
+     *
+     * @param batch The requests to send
+     * @return The responses in the order the requests were added
+     */
+    public List<JsonObject> sendBatch(BatchRequest batch) {
+        return batch.complete(send("BATCH", batch.toData()));
+    }
 
-            String responseJson = reader.readLine();
-            return gson.fromJson(responseJson, JsonObject.class);
+    /**
+     * Starts the thread that reads the responses of the request connection. Called with the writeLock held.
+     */
+    private void startResponseReader() {
+        FrameReader responses = reader;
+        responseReader = new Thread(() -> readResponses(responses), "server-responses");
+        responseReader.setDaemon(true);
+        responseReader.start();
+    }
 
+    /**
+     * Reads the request connection until it is closed, then fails the requests that are still open.
+     */
+    private void readResponses(FrameReader responses) {
+        try {
+            Reader frame;
+            while ((frame = responses.next()) != null) {
+                // Parsed straight from the frame, a binary frame is never copied into a String
+                dispatchResponse(gson.fromJson(frame, JsonObject.class));
+            }
         } catch (IOException e) {
-            JsonObject error = new JsonObject();
-            error.addProperty("status", "ERROR");
-            error.addProperty("message", "Failed to send request to server.");
-            logger.error("Failed to send request to server.", e);
-            return error;
+            logger.debug("Request connection closed", e);
+        } catch (RuntimeException e) {
+            // A message that is not JSON leaves the connection out of step, the open requests cannot be matched anymore
+            logger.error("Failed to read a response from the server", e);
+        }
+        failPendingRequests("The connection to the server was closed.");
+    }
+
+    /**
+     * Completes the open request a response belongs to.
+     *
+     * @param response a message received on the request connection
+     */
+    void dispatchResponse(JsonObject response) {
+        if (response == null) {
+            return;
+        }
+        if (EventFrame.isEvent(response)) {
+            dispatchEvent(response);
+            return;
+        }
+        CompletableFuture<JsonObject> request;
+        if (response.has(MessageEnvelope.REQUEST_ID)) {
+            request = pendingRequests.remove(response.get(MessageEnvelope.REQUEST_ID).getAsLong());
+        } else {
+            Map.Entry<Long, CompletableFuture<JsonObject>> oldest = pendingRequests.pollFirstEntry();
+            request = oldest == null ? null : oldest.getValue();
+        }
+        if (request == null) {
+            logger.warn("Received a response without an open request: {}", response);
+            return;
+        }
+        request.complete(response);
+    }
+
+    private void failPendingRequests(String message) {
+        Map.Entry<Long, CompletableFuture<JsonObject>> open;
+        while ((open = pendingRequests.pollFirstEntry()) != null) {
+            open.getValue().complete(error(message));
         }
     }
 
+    private static JsonObject error(String message) {
+        JsonObject error = new JsonObject();
+        error.addProperty("status", "ERROR");
+        error.addProperty("message", message);
+        return error;
+    }
+
     /**
      * updateNovaCredits method updates the Nova credits for a passenger.
      *
@@ -127,6 +323,58 @@ public class ClientSocketService {
         return messages;
     }
 
+    /**
+     * getChatSince method retrieves the chat messages between two users that were sent after a given message.
+     *
+     * @param sender   The sender's username
+     * @param receiver The receiver's username
+     * @param afterId  The ID of the newest message the caller has, 0 for the start of the chat
+     * @param limit    The maximum number of messages
+     * @return A list of chat messages, oldest first
+     */
+    public List<ChatMessage> getChatSince(String sender, String receiver, int afterId, int limit) {
+        JsonObject data = new JsonObject();
+        data.addProperty("sender", sender);
+        data.addProperty("receiver", receiver);
+        data.addProperty("afterId", afterId);
+        data.addProperty("limit", limit);
+
+        return toChatMessages(send("GET_CHAT_SINCE", data));
+    }
+
+    /**
+     * getChatSinceAsync method retrieves the chat messages between two users that were sent after a given message,
+     * without waiting for the server.
+     *
+     * @param sender   The sender's username
+     * @param receiver The receiver's username
+     * @param afterId  The ID of the newest message the caller has, 0 for the start of the chat
+     * @param limit    The maximum number of messages
+     * @return A future with the list of chat messages, oldest first; empty if the request failed
+     */
+    public CompletableFuture<List<ChatMessage>> getChatSinceAsync(String sender, String receiver, int afterId, int limit) {
+        JsonObject data = new JsonObject();
+        data.addProperty("sender", sender);
+        data.addProperty("receiver", receiver);
+        data.addProperty("afterId", afterId);
+        data.addProperty("limit", limit);
+
+        return sendAsync("GET_CHAT_SINCE", data).thenApply(this::toChatMessages);
+    }
+
+    private List<ChatMessage> toChatMessages(JsonObject response) {
+        List<ChatMessage> messages = new ArrayList<>();
+
+        if ("OK".equals(response.get("status").getAsString())) {
+            JsonArray array = response.getAsJsonArray("messages");
+            for (var element : array) {
+                messages.add(gson.fromJson(element, ChatMessage.class));
+            }
+        }
+
+        return messages;
+    }
+
     /**
      * getAvailableSlots method retrieves the available spacewalk slots from the server.
      *
@@ -185,6 +433,30 @@ public class ClientSocketService {
         return result;
     }
 
+    /**
+     * getBookingsForPassengerDetailed method retrieves the bookings for a specific passenger,
+     * together with the slot time and the passenger's username, in one request.
+     *
+     * @param passengerId The ID of the passenger
+     * @return A list of detailed bookings for the passenger
+     */
+    public List<DetailedBooking> getBookingsForPassengerDetailed(int passengerId) {
+        JsonObject data = new JsonObject();
+        data.addProperty("passengerId", passengerId);
+
+        JsonObject response = send("GET_BOOKINGS_FOR_PASSENGER_DETAILED", data);
+        List<DetailedBooking> result = new ArrayList<>();
+
+        if ("OK".equals(response.get("status").getAsString())) {
+            JsonArray array = response.getAsJsonArray("bookings");
+            for (JsonElement e : array) {
+                result.add(gson.fromJson(e, DetailedBooking.class));
+            }
+        }
+
+        return result;
+    }
+
     /**
      * getSlotById method retrieves a spacewalk slot by its ID.
      *
@@ -233,6 +505,74 @@ public class ClientSocketService {
         return bookings;
     }
 
+    /**
+     * getBookingsDetailed method retrieves all bookings from the server,
+     * together with their slot time and passenger username, in one request.
+     *
+     * @return A list of all detailed bookings
+     */
+    public List<DetailedBooking> getBookingsDetailed() {
+        return getBookingsDetailed(null, null);
+    }
+
+    /**
+     * getBookingsDetailed method retrieves the bookings with a given status and tier from the server,
+     * together with their slot time and passenger username. The server filters the bookings.
+     *
+     * @param status The status of the bookings, or null for every status
+     * @param tier   The tier of the bookings, or null for every tier
+     * @return A list of the matching detailed bookings
+     */
+    public List<DetailedBooking> getBookingsDetailed(String status, Integer tier) {
+        JsonObject data = new JsonObject();
+        data.addProperty("status", status);
+        data.addProperty("tier", tier);
+
+        JsonObject response = send("GET_BOOKINGS_DETAILED", data);
+        List<DetailedBooking> bookings = new ArrayList<>();
+
+        if ("OK".equals(response.get("status").getAsString())) {
+            JsonArray array = response.getAsJsonArray("bookings");
+            for (JsonElement element : array) {
+                bookings.add(gson.fromJson(element, DetailedBooking.class));
+            }
+        }
+
+        return bookings;
+    }
+
+    /**
+     * countBookings method asks the server how many bookings have a given status, without downloading them.
+     *
+     * @param status The status of the bookings, or null for all bookings
+     * @return The number of bookings, or -1 if the server could not count them
+     */
+    public int countBookings(String status) {
+        JsonObject data = new JsonObject();
+        data.addProperty("status", status);
+        data.addProperty("count", true);
+
+        return toCount(send("GET_BOOKINGS", data));
+    }
+
+    /**
+     * countBookingsAsync method asks the server how many bookings have a given status, without waiting for the answer.
+     *
+     * @param status The status of the bookings, or null for all bookings
+     * @return A future with the number of bookings, or -1 if the server could not count them
+     */
+    public CompletableFuture<Integer> countBookingsAsync(String status) {
+        JsonObject data = new JsonObject();
+        data.addProperty("status", status);
+        data.addProperty("count", true);
+
+        return sendAsync("GET_BOOKINGS", data).thenApply(ClientSocketService::toCount);
+    }
+
+    private static int toCount(JsonObject response) {
+        return "OK".equals(response.get("status").getAsString()) ? response.get("count").getAsInt() : -1;
+    }
+
     /**
      * approveBooking method approves a booking by its ID.
      *
@@ -301,6 +641,27 @@ public class ClientSocketService {
         return send("GET_LAST_CANCELLATION", new JsonObject());
     }
 
+    /**
+     * getEventsSince method retrieves every event the server logged after the given sequence number.
+     * If the response is not complete, older events were already dropped and the caller should reload its state.
+     *
+     * @param seq The sequence number of the last event seen, for example getLastEventSeq()
+     * @return The response with the events, the latest sequence number and the complete flag
+     */
+    public JsonObject getEventsSince(long seq) {
+        JsonObject data = new JsonObject();
+        data.addProperty("seq", seq);
+        return send("GET_EVENTS_SINCE", data);
+    }
+
+    /**
+     * getter for lastEventSeq.
+     * @return the sequence number of the newest event received, 0 if none was received yet
+     */
+    public long getLastEventSeq() {
+        return lastEventSeq;
+    }
+
     /**
      * triggerSurvey method triggers a survey for passengers.
      */
@@ -465,6 +826,228 @@ public class ClientSocketService {
         send("UPDATE_INVENTORY_ITEM", data);
     }
 
+    /**
+     * subscribe method asks the server to push the events of a topic and registers a listener for them.
+     * The first subscription opens the event connection. The method waits until the server answered, so a state
+     * that is read afterwards cannot miss an event. Listeners are called on the thread reading events,
+     * so UI code has to switch to the JavaFX thread itself.
+     *
+     * @param topic    The topic to subscribe to
+     * @param key      The passenger ID or chat key of a keyed topic, null for the other topics
+     * @param listener Receives the payload of every event
+     * @return true if the server confirmed the subscription
+     */
+    public boolean subscribe(EventTopic topic, String key, Consumer<JsonObject> listener) {
+        String listenerKey = listenerKey(topic, key);
+        eventListeners.computeIfAbsent(listenerKey, k -> new CopyOnWriteArrayList<>()).add(listener);
+        JsonObject data = new JsonObject();
+        data.addProperty("topic", topic.name());
+        data.addProperty("key", key);
+        // Kept even if sending fails, a reconnect of the event connection subscribes again
+        subscriptions.put(listenerKey, data);
+
+        CompletableFuture<JsonObject> answer;
+        try {
+            synchronized (this) {
+                if (eventSocket == null) {
+                    openEventConnection();
+                }
+                answer = sendSubscribe(data);
+            }
+        } catch (IOException e) {
+            logger.error("Failed to subscribe to {}", topic, e);
+            return false;
+        }
+
+        try {
+            JsonObject response = answer.get(REQUEST_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            return response.has("status") && "OK".equals(response.get("status").getAsString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (TimeoutException | ExecutionException e) {
+            logger.warn("No answer to the subscription to {} within {} ms", topic, REQUEST_TIMEOUT_MS);
+            return false;
+        }
+    }
+
+    /**
+     * Writes a SUBSCRIBE request on the event connection. Called while holding the lock of this service,
+     * so the answers arrive in the order of pendingSubscriptions.
+     */
+    private CompletableFuture<JsonObject> sendSubscribe(JsonObject data) throws IOException {
+        CompletableFuture<JsonObject> answer = new CompletableFuture<>();
+        pendingSubscriptions.add(answer);
+        try {
+            eventWriter.writeFrame(gson.toJson(new MessageEnvelope("SUBSCRIBE", data)));
+        } catch (IOException e) {
+            pendingSubscriptions.remove(answer);
+            throw e;
+        }
+        return answer;
+    }
+
+    private void openEventConnection() throws IOException {
+        FrameReader eventReader = connectEvents();
+        Thread readerThread = new Thread(() -> readEvents(eventReader), "server-events");
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    private synchronized FrameReader connectEvents() throws IOException {
+        if (eventSocket != null) {
+            eventSocket.close();
+        }
+        eventSocket = new Socket(host, port);
+        framing.startClient(eventSocket.getOutputStream());
+        eventWriter = framing.newWriter(eventSocket.getOutputStream());
+        return framing.newReader(eventSocket.getInputStream());
+    }
+
+    /**
+     * Reads the event connection, and restores it whenever it drops until the service is disconnected.
+     */
+    private void readEvents(FrameReader eventReader) {
+        FrameReader current = eventReader;
+        while (current != null) {
+            try {
+                Reader frame;
+                while ((frame = current.next()) != null) {
+                    dispatchEvent(gson.fromJson(frame, JsonObject.class));
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Event connection closed", e);
+            }
+            current = disconnected ? null : reconnectEvents();
+        }
+    }
+
+    /**
+     * Opens the event connection again, subscribes to every topic again and passes on the events that were
+     * published while it was down. Retries with a growing delay until it succeeds or the service is disconnected.
+     *
+     * @return the reader of the new connection, null once the service is disconnected
+     */
+    private FrameReader reconnectEvents() {
+        failPendingSubscriptions();
+        long since = lastEventSeq;
+        long delay = RECONNECT_DELAY_MS;
+        while (!disconnected) {
+            try {
+                Thread.sleep(delay);
+                reconnecting = true;
+                replayedEvents.clear();
+                FrameReader eventReader;
+                List<CompletableFuture<JsonObject>> answers = new ArrayList<>();
+                synchronized (this) {
+                    eventReader = connectEvents();
+                    for (JsonObject data : subscriptions.values()) {
+                        answers.add(sendSubscribe(data));
+                    }
+                }
+                // This thread reads the answers itself, the subscriptions must be active before the replay
+                while (!answers.stream().allMatch(CompletableFuture::isDone)) {
+                    Reader frame = eventReader.next();
+                    if (frame == null) {
+                        throw new IOException("Event connection closed while subscribing");
+                    }
+                    dispatchEvent(gson.fromJson(frame, JsonObject.class));
+                }
+                replayEventsSince(since);
+                logger.info("Event connection restored, replayed the events after {}", since);
+                return eventReader;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to restore the event connection, retrying in {} ms", delay, e);
+                failPendingSubscriptions();
+                delay = Math.min(delay * 2, MAX_RECONNECT_DELAY_MS);
+            } finally {
+                reconnecting = false;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the events of the subscribed topics after the given sequence and passes them to the listeners.
+     */
+    private void replayEventsSince(long since) throws IOException {
+        JsonObject data = new JsonObject();
+        data.addProperty("seq", since);
+        JsonArray topics = new JsonArray();
+        subscriptions.values().forEach(topics::add);
+        data.add("topics", topics);
+
+        JsonObject response = send("GET_EVENTS_SINCE", data);
+        if (!response.has("status") || !"OK".equals(response.get("status").getAsString())) {
+            throw new IOException("Failed to read the missed events: " + response);
+        }
+        for (JsonElement event : response.getAsJsonArray("events")) {
+            dispatchEvent(event.getAsJsonObject());
+        }
+        if (!response.get("complete").getAsBoolean()) {
+            logger.warn("The server no longer has every event after {}, some changes were missed", since);
+        }
+    }
+
+    private void failPendingSubscriptions() {
+        CompletableFuture<JsonObject> answer;
+        while ((answer = pendingSubscriptions.poll()) != null) {
+            answer.complete(error("The event connection was closed."));
+        }
+    }
+
+    /**
+     * Passes an event frame to the listeners of its topic and key. Answers to SUBSCRIBE requests are only logged.
+     *
+     * @param line a line received on the event connection
+     */
+    void dispatchEvent(String line) {
+        dispatchEvent(gson.fromJson(line, JsonObject.class));
+    }
+
+    private void dispatchEvent(JsonObject message) {
+        if (!EventFrame.isEvent(message)) {
+            boolean ok = message.has("status") && "OK".equals(message.get("status").getAsString());
+            if (!ok) {
+                logger.warn("Subscription failed: {}", message);
+            } else if (message.has("latestSeq")) {
+                // Events up to here were published before the subscription, a replay does not need them
+                lastEventSeq = Math.max(lastEventSeq, message.get("latestSeq").getAsLong());
+            }
+            CompletableFuture<JsonObject> answer = pendingSubscriptions.poll();
+            if (answer != null) {
+                answer.complete(message);
+            }
+            return;
+        }
+        EventFrame frame = gson.fromJson(message, EventFrame.class);
+        if (replayedEvents.contains(frame.getSeq())) {
+            return;
+        }
+        if (reconnecting) {
+            replayedEvents.add(frame.getSeq());
+        }
+        lastEventSeq = Math.max(lastEventSeq, frame.getSeq());
+        List<Consumer<JsonObject>> listeners = eventListeners.get(listenerKey(frame.getTopic(), frame.getKey()));
+        if (listeners == null) {
+            return;
+        }
+        for (Consumer<JsonObject> listener : listeners) {
+            try {
+                listener.accept(frame.getPayload().getAsJsonObject());
+            } catch (RuntimeException e) {
+                logger.error("Event listener for {} failed", frame.getTopic(), e);
+            }
+        }
+    }
+
+    private static String listenerKey(EventTopic topic, String key) {
+        return topic.isKeyed() ? topic + ":" + key : topic.name();
+    }
+
     /**
      * isConnected method checks if the client is connected to the server.
      *
@@ -477,12 +1060,19 @@ public class ClientSocketService {
     /**
      * disconnect method closes the socket connection to the server.
      * It is important to call this method when the client is done using the service.
+     * Requests that are still waiting for a response complete with an ERROR response.
      */
     public void disconnect() {
+        disconnected = true;
+        failPendingRequests("Disconnected from the server.");
+        failPendingSubscriptions();
         try {
             if (socket != null) {
                 socket.close();
             }
+            if (eventSocket != null) {
+                eventSocket.close();
+            }
         } catch (IOException e) {
             // Handle exceptions related to socket operations
             logger.error("Failed to disconnect from server.", e);
@@ -0,0 +1,213 @@
+package com.inFlight.server;
+
+import com.google.gson.Gson;
+import com.inFlight.server.dao.*;
+import com.inFlight.server.db.SQLiteConnector;
+import com.inFlight.server.db.TransactionManager;
+import com.inFlight.server.metrics.ServerMetrics;
+import com.inFlight.server.push.EventBus;
+import com.inFlight.server.push.EventLog;
+import com.inFlight.server.service.*;
+import com.inFlight.server.socket.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ApplicationContext creates the services, DAOs and the ProtocolHandler of the server once and shares them
+ * between all connections. None of these objects keep per-connection state, so a new connection only needs
+ * its socket and a ClientSession instead of a whole new object graph.
+ * All objects are created in the constructor and never replaced, so the context can be read from any thread.
+ */
+public class ApplicationContext implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationContext.class);
+
+    private final Gson gson; // Shared Gson instance, Gson is thread-safe
+    private final EventBus eventBus; // Delivers events to subscribed connections
+    private final TransactionManager transactionManager; // Runs multi-statement work in one transaction
+    private final ServerMetrics metrics; // Latencies per action and DAO method, shared with the DAOs
+
+    private final CachedPassengerDAO passengerDAO; // Access to the passengers table, with recently read rows cached
+    private final BookingDAO bookingDAO; // Access to the bookings table
+    private final IndexedSpacewalkSlotDAO slotDAO; // Access to the spacewalk_slots table, reads served from memory
+    private final ChatMessageDAO chatMessageDAO; // Access to the chat_message table
+    private final InventoryItemDAO inventoryItemDAO; // Access to the inventory_item table
+    private final PhotographerDAO photographerDAO; // Access to the photographer table
+
+    private final PassengerService passengerService; // Passenger operations
+    private final BookingService bookingService; // Booking operations
+    private final ChatService chatService; // Chat operations
+    private final InventoryService inventoryService; // Inventory operations
+    private final PhotographerService photographerService; // Photographer operations
+
+    private final ProtocolHandler protocolHandler; // Dispatches requests of every connection
+
+    /**
+     * Constructor for the ApplicationContext class. Wires the default implementations.
+     */
+    public ApplicationContext() {
+        this.gson = new Gson();
+        this.eventBus = new EventBus(gson, EventLog.fromSystemProperties());
+        this.transactionManager = new TransactionManager();
+        this.metrics = ServerMetrics.getInstance();
+
+        this.passengerDAO = CachedPassengerDAO.fromSystemProperties();
+        this.bookingDAO = new BookingDAO();
+        this.slotDAO = new IndexedSpacewalkSlotDAO(new SpacewalkSlotDAO());
+        this.chatMessageDAO = new ChatMessageDAO();
+        this.inventoryItemDAO = new InventoryItemDAO();
+        this.photographerDAO = new PhotographerDAO();
+
+        this.passengerService = new PassengerService(passengerDAO);
+        this.bookingService = new BookingService(bookingDAO, slotDAO, passengerDAO, passengerService, transactionManager, eventBus);
+        this.chatService = new ChatService(chatMessageDAO, eventBus);
+        this.inventoryService = new InventoryService(inventoryItemDAO);
+        this.photographerService = new PhotographerService(photographerDAO);
+
+        this.protocolHandler = new ProtocolHandler(bookingService, chatService, photographerService, inventoryService,
+                passengerDAO, bookingDAO, slotDAO, inventoryItemDAO, chatMessageDAO, eventBus, gson, metrics);
+        logger.info("Application context created with {} request handlers", protocolHandler.getRegistry().getHandlers().size());
+    }
+
+    /**
+     * Loads the in-memory state that is built from the database, so the first requests do not have to.
+     */
+    public void warmUp() {
+        slotDAO.loadIndex();
+    }
+
+    /**
+     * getter for gson.
+     * @return the shared Gson instance
+     */
+    public Gson getGson() {
+        return gson;
+    }
+
+    /**
+     * getter for eventBus.
+     * @return the bus the connections subscribe on
+     */
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * getter for transactionManager.
+     * @return the shared TransactionManager
+     */
+    public TransactionManager getTransactionManager() {
+        return transactionManager;
+    }
+
+    /**
+     * getter for metrics.
+     * @return the metrics the requests and DAO calls are recorded in
+     */
+    public ServerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * getter for passengerDAO.
+     * @return the shared, caching PassengerDAO
+     */
+    public CachedPassengerDAO getPassengerDAO() {
+        return passengerDAO;
+    }
+
+    /**
+     * getter for bookingDAO.
+     * @return the shared BookingDAO
+     */
+    public BookingDAO getBookingDAO() {
+        return bookingDAO;
+    }
+
+    /**
+     * getter for slotDAO.
+     * @return the shared SpacewalkSlotDAO with its slot index
+     */
+    public IndexedSpacewalkSlotDAO getSlotDAO() {
+        return slotDAO;
+    }
+
+    /**
+     * getter for chatMessageDAO.
+     * @return the shared ChatMessageDAO
+     */
+    public ChatMessageDAO getChatMessageDAO() {
+        return chatMessageDAO;
+    }
+
+    /**
+     * getter for inventoryItemDAO.
+     * @return the shared InventoryItemDAO
+     */
+    public InventoryItemDAO getInventoryItemDAO() {
+        return inventoryItemDAO;
+    }
+
+    /**
+     * getter for photographerDAO.
+     * @return the shared PhotographerDAO
+     */
+    public PhotographerDAO getPhotographerDAO() {
+        return photographerDAO;
+    }
+
+    /**
+     * getter for passengerService.
+     * @return the shared PassengerService
+     */
+    public PassengerService getPassengerService() {
+        return passengerService;
+    }
+
+    /**
+     * getter for bookingService.
+     * @return the shared BookingService
+     */
+    public BookingService getBookingService() {
+        return bookingService;
+    }
+
+    /**
+     * getter for chatService.
+     * @return the shared ChatService
+     */
+    public ChatService getChatService() {
+        return chatService;
+    }
+
+    /**
+     * getter for inventoryService.
+     * @return the shared InventoryService
+     */
+    public InventoryService getInventoryService() {
+        return inventoryService;
+    }
+
+    /**
+     * getter for photographerService.
+     * @return the shared PhotographerService
+     */
+    public PhotographerService getPhotographerService() {
+        return photographerService;
+    }
+
+    /**
+     * getter for protocolHandler.
+     * @return the ProtocolHandler shared by all connections
+     */
+    public ProtocolHandler getProtocolHandler() {
+        return protocolHandler;
+    }
+
+    /**
+     * Closes the database connection pool when the server stops.
+     */
+    @Override
+    public void close() {
+        SQLiteConnector.shutdown();
+    }
+}
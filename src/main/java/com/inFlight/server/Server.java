@@ -1,16 +1,22 @@
 package com.inFlight.server;
 
-import com.inFlight.server.socket.ClientHandler;
+import com.inFlight.server.db.SchemaMigrator;
+import com.inFlight.server.metrics.MetricsLog;
+import com.inFlight.server.socket.NioServer;
+import com.inFlight.server.socket.SocketServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.util.concurrent.Executors;
 
 /**
  * The Server class is responsible for starting the server and listening for incoming client connections.
- * It creates a new thread for each client connection to handle communication.
+ * In BLOCKING mode it creates a new platform thread for each client connection to handle communication,
+ * in VIRTUAL mode each client gets a virtual thread instead,
+ * and in NIO mode connections are multiplexed over a few selector threads by the NioServer.
+ * In every mode the services and DAOs are created once in an ApplicationContext and shared by all connections.
+ * Before the first connection is accepted, the database schema is migrated to the current version.
+ * While the server runs, a summary of the ServerMetrics is logged, by default every minute.
  */
 public class Server {
     private static final Logger logger = LoggerFactory.getLogger(Server.class);
@@ -19,23 +25,34 @@ public class Server {
 
     /**
      * startServer method initializes the server and starts listening for incoming client connections.
-     * It creates a new ClientHandler thread for each client connection.
+     * The mode is taken from the inflight.server.mode system property and defaults to BLOCKING.
      */
     public static void startServer(){
-        // Create a ServerSocket to listen for incoming connections
-        try (ServerSocket serverSocket = new ServerSocket(PORT)) {
-            logger.info("Server started listening on port " + PORT);
-
+        startServer(ServerMode.fromSystemProperty());
+    }
 
-            // Continuously accept incoming client connections
-            while (true) {
-                Socket clientSocket = serverSocket.accept();
-                logger.info("Client connected: " + clientSocket.getInetAddress());
-                new ClientHandler(clientSocket).start();
+    /**
+     * Starts the server in the given mode and blocks while it is running.
+     *
+     * @param mode the ServerMode to run in
+     */
+    public static void startServer(ServerMode mode) {
+        logger.info("Starting server in {} mode", mode);
+        try (ApplicationContext context = new ApplicationContext()) {
+            MetricsLog metricsLog = MetricsLog.fromSystemProperties(context.getMetrics());
+            try {
+                SchemaMigrator.migrateDatabase();
+                context.warmUp();
+                switch (mode) {
+                    case NIO -> new NioServer(PORT, context).run();
+                    // One virtual thread per client, blocking reads unmount instead of holding a platform thread
+                    case VIRTUAL -> new SocketServer(PORT, Executors.newVirtualThreadPerTaskExecutor(), context).run();
+                    // One platform thread per client
+                    default -> new SocketServer(PORT, Executors.newThreadPerTaskExecutor(Thread.ofPlatform().factory()), context).run();
+                }
+            } finally {
+                metricsLog.close();
             }
-        // Handle exceptions related to server socket operations
-        } catch (IOException e) {
-            logger.error("Error starting server: " + e.getMessage());
         }
     }
 }
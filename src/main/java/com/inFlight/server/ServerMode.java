@@ -0,0 +1,39 @@
+package com.inFlight.server;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+
+/**
+ * ServerMode is an enum that defines how the server handles connected clients.
+ * The mode is chosen once at startup, either explicitly or through the inflight.server.mode system property.
+ */
+public enum ServerMode {
+    BLOCKING, // One platform thread per client, blocking on readLine (default)
+    VIRTUAL, // One virtual thread per client, blocking on readLine
+    NIO; // Selector-based readers with a shared worker pool
+
+    private static final Logger logger = LoggerFactory.getLogger(ServerMode.class);
+
+    public static final String PROPERTY = "inflight.server.mode"; // System property used to select the mode
+
+    /**
+     * Resolves the server mode from the inflight.server.mode system property.
+     * Unknown values fall back to BLOCKING.
+     *
+     * @return the configured ServerMode
+     */
+    public static ServerMode fromSystemProperty() {
+        String value = System.getProperty(PROPERTY);
+        if (value == null || value.isBlank()) {
+            return BLOCKING;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Unknown server mode '{}', falling back to {}", value, BLOCKING);
+            return BLOCKING;
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.inFlight.server.dao;
 
 import com.inFlight.server.db.SQLiteConnector;
+import com.inFlight.server.metrics.DaoTimer;
 import com.inFlight.shared.model.Booking;
+import com.inFlight.shared.model.DetailedBooking;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -16,6 +19,13 @@ import java.util.List;
 public class BookingDAO {
     private static final Logger logger = LoggerFactory.getLogger(BookingDAO.class);
 
+    // Bookings with the time of their slot and the username of their passenger
+    private static final String DETAILED_BOOKINGS_SQL = """
+            SELECT b.booking_id, b.passenger_id, b.slot_id, b.tier, b.status, s.slot_time, p.username
+            FROM bookings b
+            JOIN spacewalk_slots s ON s.slot_id = b.slot_id
+            JOIN passengers p ON p.passenger_id = b.passenger_id""";
+
     /**
      * Retrieves a booking by its ID from the database.
      *
@@ -23,13 +33,14 @@ public class BookingDAO {
      * @return the Booking object if found, null otherwise
      */
     public static Booking getBookingById(int bookingId) {
-        try (Connection conn = SQLiteConnector.getConnection()) {
+        DaoTimer timer = DaoTimer.start("BookingDAO.getBookingById");
+        try (Connection conn = SQLiteConnector.getReadConnection()) {
             String sql = "SELECT * FROM bookings WHERE booking_id = ?";
             PreparedStatement stmt = conn.prepareStatement(sql);
             stmt.setInt(1, bookingId);
             ResultSet rs = stmt.executeQuery();
 
-            if (rs.next()) {
+            if (timer.next(rs)) {
                 return new Booking(
                         rs.getInt("booking_id"),
                         rs.getInt("passenger_id"),
@@ -39,7 +50,10 @@ public class BookingDAO {
                 );
             }
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to fetch booking", e);
+        } finally {
+            timer.stop();
         }
         return null;
     }
@@ -50,6 +64,7 @@ public class BookingDAO {
      * @param booking the Booking object to insert
      */
     public void insertBooking(Booking booking) {
+        DaoTimer timer = DaoTimer.start("BookingDAO.insertBooking");
         try (Connection conn = SQLiteConnector.getConnection()) {
             String sql = "INSERT INTO bookings (passenger_id, slot_id, tier, status) VALUES (?, ?, ?, ?)";
             PreparedStatement stmt = conn.prepareStatement(sql);
@@ -57,9 +72,12 @@ public class BookingDAO {
             stmt.setInt(2, booking.getSlotId());
             stmt.setInt(3, booking.getTier());
             stmt.setString(4, booking.getStatus());
-            stmt.executeUpdate();
+            timer.updated(stmt.executeUpdate());
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to save booking", e);
+        } finally {
+            timer.stop();
         }
     }
 
@@ -73,13 +91,14 @@ public class BookingDAO {
         List<Booking> bookings = new ArrayList<>();
         String sql = "SELECT * FROM bookings WHERE passenger_id = ?";
 
-        try (Connection conn = SQLiteConnector.getConnection();
+        DaoTimer timer = DaoTimer.start("BookingDAO.getBookingsByPassenger");
+        try (Connection conn = SQLiteConnector.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, passengerId);
             ResultSet rs = stmt.executeQuery();
 
-            while (rs.next()) {
+            while (timer.next(rs)) {
                 bookings.add(new Booking(
                                 rs.getInt("booking_id"),
                                 rs.getInt("passenger_id"),
@@ -91,7 +110,10 @@ public class BookingDAO {
             }
 
         } catch (SQLException e) {
+            timer.failed();
           logger.error("Failed to fetch bookings by passenger", e);
+        } finally {
+            timer.stop();
         }
         return bookings;
     }
@@ -105,15 +127,19 @@ public class BookingDAO {
     public void updateBookingStatus(int bookingId, String status) {
         String sql = "UPDATE bookings SET status = ? WHERE booking_id = ?";
 
+        DaoTimer timer = DaoTimer.start("BookingDAO.updateBookingStatus");
         try (Connection conn = SQLiteConnector.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, status);
             stmt.setInt(2, bookingId);
-            stmt.executeUpdate();
+            timer.updated(stmt.executeUpdate());
 
         } catch (SQLException e) {
+            timer.failed();
           logger.error("Failed to update booking status", e);
+        } finally {
+            timer.stop();
         }
     }
 
@@ -126,11 +152,12 @@ public class BookingDAO {
         List<Booking> bookings = new ArrayList<>();
         String sql = "SELECT * FROM bookings";
 
-        try (Connection conn = SQLiteConnector.getConnection();
+        DaoTimer timer = DaoTimer.start("BookingDAO.getAllBookings");
+        try (Connection conn = SQLiteConnector.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
-            while (rs.next()) {
+            while (timer.next(rs)) {
                 bookings.add(new Booking(
                                 rs.getInt("booking_id"),
                                 rs.getInt("passenger_id"),
@@ -142,7 +169,10 @@ public class BookingDAO {
             }
 
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to fetch all bookings", e);
+        } finally {
+            timer.stop();
         }
 
         return bookings;
@@ -154,13 +184,17 @@ public class BookingDAO {
      * @param bookingId the ID of the booking to delete
      */
     public void deleteBooking(int bookingId) {
+        DaoTimer timer = DaoTimer.start("BookingDAO.deleteBooking");
         try (Connection conn = SQLiteConnector.getConnection()) {
             String sql = "DELETE FROM bookings WHERE booking_id = ?";
             PreparedStatement stmt = conn.prepareStatement(sql);
             stmt.setInt(1, bookingId);
-            stmt.executeUpdate();
+            timer.updated(stmt.executeUpdate());
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to delete booking", e);
+        } finally {
+            timer.stop();
         }
     }
 
@@ -172,13 +206,14 @@ public class BookingDAO {
      */
     public List<Booking> getBookingsByStatus(String status) {
         List<Booking> result = new ArrayList<>();
-        try (Connection conn = SQLiteConnector.getConnection()) {
+        DaoTimer timer = DaoTimer.start("BookingDAO.getBookingsByStatus");
+        try (Connection conn = SQLiteConnector.getReadConnection()) {
             String sql = "SELECT * FROM bookings WHERE status = ?";
             PreparedStatement stmt = conn.prepareStatement(sql);
             stmt.setString(1, status);
 
             ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
+            while (timer.next(rs)) {
                 result.add(new Booking(
                         rs.getInt("booking_id"),
                         rs.getInt("passenger_id"),
@@ -188,7 +223,10 @@ public class BookingDAO {
                 ));
             }
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to get bookings by status", e);
+        } finally {
+            timer.stop();
         }
         return result;
     }
@@ -200,15 +238,237 @@ public class BookingDAO {
      * @param status the new status to set
      */
     public void setBookingStatus(int id, String status) {
+        DaoTimer timer = DaoTimer.start("BookingDAO.setBookingStatus");
         try (Connection conn = SQLiteConnector.getConnection()) {
             String sql = "UPDATE bookings SET status = ? WHERE booking_id = ?";
             PreparedStatement stmt = conn.prepareStatement(sql);
             stmt.setString(1, status);
             stmt.setInt(2, id);
-            stmt.executeUpdate();
+            timer.updated(stmt.executeUpdate());
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to set booking status", e);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Inserts a new booking as part of a transaction.
+     *
+     * @param conn    the connection of the current transaction
+     * @param booking the Booking object to insert
+     * @throws SQLException if the insert fails
+     */
+    public void insertBooking(Connection conn, Booking booking) throws SQLException {
+        String sql = "INSERT INTO bookings (passenger_id, slot_id, tier, status) VALUES (?, ?, ?, ?)";
+        DaoTimer timer = DaoTimer.start("BookingDAO.insertBooking(tx)");
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, booking.getPassengerId());
+            stmt.setInt(2, booking.getSlotId());
+            stmt.setInt(3, booking.getTier());
+            stmt.setString(4, booking.getStatus());
+            timer.updated(stmt.executeUpdate());
+        } catch (SQLException e) {
+            timer.failed();
+            throw e;
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Deletes a booking as part of a transaction, unless it was denied.
+     * A denied booking has already been refunded in full, so cancelling it must not refund it again.
+     *
+     * @param conn      the connection of the current transaction
+     * @param bookingId the ID of the booking to delete
+     * @return the deleted Booking, or null if it does not exist or was denied
+     * @throws SQLException if the delete fails
+     */
+    public Booking deleteBooking(Connection conn, int bookingId) throws SQLException {
+        String sql = "DELETE FROM bookings WHERE booking_id = ? AND status <> 'denied' RETURNING *";
+        DaoTimer timer = DaoTimer.start("BookingDAO.deleteBooking(tx)");
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, bookingId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return timer.next(rs) ? mapBooking(rs) : null;
+            }
+        } catch (SQLException e) {
+            timer.failed();
+            throw e;
+        } finally {
+            timer.stop();
         }
     }
 
+    /**
+     * Changes the status of a booking as part of a transaction, unless it already has that status.
+     *
+     * @param conn      the connection of the current transaction
+     * @param bookingId the ID of the booking to update
+     * @param status    the new status
+     * @return the updated Booking, or null if it does not exist or already had the status
+     * @throws SQLException if the update fails
+     */
+    public Booking updateBookingStatus(Connection conn, int bookingId, String status) throws SQLException {
+        String sql = "UPDATE bookings SET status = ? WHERE booking_id = ? AND status <> ? RETURNING *";
+        DaoTimer timer = DaoTimer.start("BookingDAO.updateBookingStatus(tx)");
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, status);
+            stmt.setInt(2, bookingId);
+            stmt.setString(3, status);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return timer.next(rs) ? mapBooking(rs) : null;
+            }
+        } catch (SQLException e) {
+            timer.failed();
+            throw e;
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Passes every booking to the callback, ordered by booking ID.
+     *
+     * @param callback receives one Booking per row
+     * @throws IOException if the callback fails or the query fails
+     */
+    public void forEachBooking(RowCallback<Booking> callback) throws IOException {
+        forEachBooking(BookingFilter.NONE, PageRequest.ALL, callback);
+    }
+
+    /**
+     * Passes every booking of a passenger to the callback, ordered by booking ID.
+     *
+     * @param passengerId the ID of the passenger
+     * @param callback    receives one Booking per row
+     * @throws IOException if the callback fails or the query fails
+     */
+    public void forEachBookingByPassenger(int passengerId, RowCallback<Booking> callback) throws IOException {
+        forEachBooking(BookingFilter.forPassenger(passengerId), PageRequest.ALL, callback);
+    }
+
+    /**
+     * Passes one page of the bookings that match a filter to the callback, ordered by booking ID.
+     *
+     * @param filter   the conditions the bookings must meet
+     * @param page     the page to read
+     * @param callback receives one Booking per row
+     * @throws IOException if the callback fails or the query fails
+     */
+    public void forEachBooking(BookingFilter filter, PageRequest page, RowCallback<Booking> callback) throws IOException {
+        ChunkedQuery.forEach("BookingDAO.forEachBooking(page)", ChunkedQuery.maxRows(page), (conn, last, limit) -> {
+            PageRequest chunk = chunkOf(page, last, limit);
+            WhereClause where = bookingConditions(filter, chunk, "");
+            return where.prepare(conn, "SELECT * FROM bookings" + where.toSql() + WhereClause.orderAndLimit("booking_id", chunk));
+        }, BookingDAO::mapBooking, callback);
+    }
+
+    /**
+     * Counts the bookings that match a filter, without reading them.
+     *
+     * @param filter the conditions the bookings must meet
+     * @return the number of matching bookings
+     * @throws IOException if the query fails
+     */
+    public int countBookings(BookingFilter filter) throws IOException {
+        WhereClause where = bookingConditions(filter, PageRequest.ALL, "");
+        String sql = "SELECT COUNT(*) FROM bookings" + where.toSql();
+
+        DaoTimer timer = DaoTimer.start("BookingDAO.countBookings");
+        try (Connection conn = SQLiteConnector.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            where.bind(stmt);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return timer.next(rs) ? rs.getInt(1) : 0;
+            }
+
+        } catch (SQLException e) {
+            timer.failed();
+            logger.error("Failed to count bookings", e);
+            throw new IOException("Failed to count bookings", e);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Passes every booking with its slot time and passenger username to the callback,
+     * read with one JOIN instead of a slot and a passenger lookup per booking.
+     *
+     * @param callback receives one DetailedBooking per row
+     * @throws IOException if the callback fails or the query fails
+     */
+    public void forEachDetailedBooking(RowCallback<DetailedBooking> callback) throws IOException {
+        forEachDetailedBooking(BookingFilter.NONE, PageRequest.ALL, callback);
+    }
+
+    /**
+     * Passes every booking of a passenger with its slot time and the passenger's username to the callback,
+     * read with one JOIN.
+     *
+     * @param passengerId the ID of the passenger
+     * @param callback    receives one DetailedBooking per row
+     * @throws IOException if the callback fails or the query fails
+     */
+    public void forEachDetailedBookingByPassenger(int passengerId, RowCallback<DetailedBooking> callback) throws IOException {
+        forEachDetailedBooking(BookingFilter.forPassenger(passengerId), PageRequest.ALL, callback);
+    }
+
+    /**
+     * Passes one page of the bookings that match a filter, with their slot time and passenger username,
+     * to the callback, ordered by booking ID.
+     *
+     * @param filter   the conditions the bookings must meet
+     * @param page     the page to read
+     * @param callback receives one DetailedBooking per row
+     * @throws IOException if the callback fails or the query fails
+     */
+    public void forEachDetailedBooking(BookingFilter filter, PageRequest page, RowCallback<DetailedBooking> callback) throws IOException {
+        ChunkedQuery.forEach("BookingDAO.forEachDetailedBooking", ChunkedQuery.maxRows(page), (conn, last, limit) -> {
+            PageRequest chunk = chunkOf(page, last, limit);
+            WhereClause where = bookingConditions(filter, chunk, "b.");
+            return where.prepare(conn, DETAILED_BOOKINGS_SQL + where.toSql() + WhereClause.orderAndLimit("b.booking_id", chunk));
+        }, BookingDAO::mapDetailedBooking, callback);
+    }
+
+    /**
+     * Returns the page of the chunk after the last booking passed on, or the start of the requested page.
+     */
+    private static PageRequest chunkOf(PageRequest page, Booking last, int limit) {
+        return new PageRequest(last == null ? page.afterId() : last.getBookingId(), limit);
+    }
+
+    private static WhereClause bookingConditions(BookingFilter filter, PageRequest page, String alias) {
+        return new WhereClause()
+                .and(alias + "passenger_id = ?", filter.passengerId())
+                .and(alias + "status = ?", filter.status())
+                .and(alias + "tier = ?", filter.tier())
+                .and(alias + "booking_id > ?", WhereClause.pageAfter(page));
+    }
+
+    private static Booking mapBooking(ResultSet rs) throws SQLException {
+        return new Booking(
+                rs.getInt("booking_id"),
+                rs.getInt("passenger_id"),
+                rs.getInt("slot_id"),
+                rs.getInt("tier"),
+                rs.getString("status")
+        );
+    }
+
+    private static DetailedBooking mapDetailedBooking(ResultSet rs) throws SQLException {
+        return new DetailedBooking(
+                rs.getInt("booking_id"),
+                rs.getInt("passenger_id"),
+                rs.getInt("slot_id"),
+                rs.getInt("tier"),
+                rs.getString("status"),
+                rs.getString("slot_time"),
+                rs.getString("username")
+        );
+    }
 }
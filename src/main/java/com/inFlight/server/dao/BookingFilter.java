@@ -0,0 +1,22 @@
+package com.inFlight.server.dao;
+
+/**
+ * BookingFilter holds the optional conditions of a booking query. A null field does not filter.
+ *
+ * @param status      only bookings with this status
+ * @param passengerId only bookings of this passenger
+ * @param tier        only bookings of this tier
+ */
+public record BookingFilter(String status, Integer passengerId, Integer tier) {
+    public static final BookingFilter NONE = new BookingFilter(null, null, null); // Matches every booking
+
+    /**
+     * Creates a filter for the bookings of one passenger.
+     *
+     * @param passengerId the ID of the passenger
+     * @return the new BookingFilter
+     */
+    public static BookingFilter forPassenger(int passengerId) {
+        return new BookingFilter(null, passengerId, null);
+    }
+}
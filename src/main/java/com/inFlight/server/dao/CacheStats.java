@@ -0,0 +1,23 @@
+package com.inFlight.server.dao;
+
+/**
+ * CacheStats is a snapshot of the counters of a DAO cache.
+ *
+ * @param hits      the number of reads answered from the cache
+ * @param misses    the number of reads that went to the database
+ * @param evictions the number of entries dropped to stay within the size limit
+ * @param size      the number of entries currently cached
+ * @param maxSize   the maximum number of entries
+ */
+public record CacheStats(long hits, long misses, long evictions, int size, int maxSize) {
+
+    /**
+     * Returns the share of reads answered from the cache.
+     *
+     * @return the hit ratio between 0 and 1, or 0 if nothing was read yet
+     */
+    public double hitRatio() {
+        long reads = hits + misses;
+        return reads == 0 ? 0 : (double) hits / reads;
+    }
+}
@@ -0,0 +1,231 @@
+package com.inFlight.server.dao;
+
+import com.inFlight.server.db.TransactionManager;
+import com.inFlight.shared.model.Passenger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * CachedPassengerDAO keeps recently read passengers in memory in front of another PassengerDAO, so login,
+ * the passenger lookups of the booking screens and checkout status checks do not query SQLite every time.
+ * Passengers are cached by ID, with a second index from username to ID, and the least recently used entry is
+ * dropped once the size limit is reached.
+ * Every update of a passenger removes its entry. Updates made inside a transaction remove it after the commit,
+ * so a reader cannot put the old row back in the meantime. A read that started before an update is not cached.
+ * Cached passengers are copied on the way in and out, so callers cannot change the cached state.
+ */
+public class CachedPassengerDAO extends PassengerDAO {
+    private static final Logger logger = LoggerFactory.getLogger(CachedPassengerDAO.class);
+
+    public static final String MAX_SIZE_PROPERTY = "inflight.cache.passengers"; // System property for the size limit
+    public static final int DEFAULT_MAX_SIZE = 10_000; // Entries kept when nothing is configured
+
+    private final PassengerDAO delegate; // Reads and writes the database
+    private final int maxSize; // Maximum number of cached passengers
+    private final ReentrantLock lock = new ReentrantLock(); // Guards both maps and the generation
+    private final LinkedHashMap<Integer, Passenger> byId; // Passengers in access order, eldest first
+    private final Map<String, Integer> idsByUsername = new HashMap<>(); // Secondary index of the cached passengers
+    private long generation; // Incremented by every invalidation, guarded by lock
+
+    private final LongAdder hits = new LongAdder(); // Reads answered from the cache
+    private final LongAdder misses = new LongAdder(); // Reads that went to the database
+    private final LongAdder evictions = new LongAdder(); // Entries dropped because of the size limit
+
+    /**
+     * Constructor for the CachedPassengerDAO class.
+     *
+     * @param delegate the DAO that reads and writes the database
+     * @param maxSize  the maximum number of cached passengers
+     */
+    public CachedPassengerDAO(PassengerDAO delegate, int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.byId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Passenger> eldest) {
+                if (size() <= CachedPassengerDAO.this.maxSize) {
+                    return false;
+                }
+                idsByUsername.remove(eldest.getValue().getUsername());
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Creates a cache in front of a new PassengerDAO, with the size limit set by the inflight.cache.passengers
+     * system property.
+     *
+     * @return the configured CachedPassengerDAO
+     */
+    public static CachedPassengerDAO fromSystemProperties() {
+        return new CachedPassengerDAO(new PassengerDAO(), Integer.getInteger(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE));
+    }
+
+    @Override
+    public void insertPassenger(Passenger passenger) {
+        delegate.insertPassenger(passenger);
+    }
+
+    @Override
+    public Passenger getPassengerByUsername(String username) {
+        long readGeneration;
+        lock.lock();
+        try {
+            Integer id = idsByUsername.get(username);
+            Passenger cached = id == null ? null : byId.get(id);
+            if (cached != null) {
+                hits.increment();
+                return copy(cached);
+            }
+            readGeneration = generation;
+        } finally {
+            lock.unlock();
+        }
+        misses.increment();
+        return cache(delegate.getPassengerByUsername(username), readGeneration);
+    }
+
+    @Override
+    public Passenger getPassengerById(int id) {
+        long readGeneration;
+        lock.lock();
+        try {
+            Passenger cached = byId.get(id);
+            if (cached != null) {
+                hits.increment();
+                return copy(cached);
+            }
+            readGeneration = generation;
+        } finally {
+            lock.unlock();
+        }
+        misses.increment();
+        return cache(delegate.getPassengerById(id), readGeneration);
+    }
+
+    @Override
+    public List<Passenger> getAllPassengers() {
+        return delegate.getAllPassengers();
+    }
+
+    @Override
+    public void forEachPassenger(RowCallback<Passenger> callback) throws IOException {
+        delegate.forEachPassenger(callback);
+    }
+
+    @Override
+    public void forEachPassenger(Boolean checkedOut, PageRequest page, RowCallback<Passenger> callback) throws IOException {
+        delegate.forEachPassenger(checkedOut, page, callback);
+    }
+
+    @Override
+    public int countPassengers(Boolean checkedOut) throws IOException {
+        return delegate.countPassengers(checkedOut);
+    }
+
+    @Override
+    public void updateNovaCredits(int passengerId, int newCredits) {
+        delegate.updateNovaCredits(passengerId, newCredits);
+        invalidate(passengerId);
+    }
+
+    @Override
+    public void setCheckedOut(int passengerId, boolean status) {
+        delegate.setCheckedOut(passengerId, status);
+        invalidate(passengerId);
+    }
+
+    @Override
+    public Integer deductNovaCredits(Connection conn, int passengerId, int amount) throws SQLException {
+        Integer balance = delegate.deductNovaCredits(conn, passengerId, amount);
+        if (balance != null) {
+            TransactionManager.afterCommit(() -> invalidate(passengerId));
+        }
+        return balance;
+    }
+
+    @Override
+    public Passenger addNovaCredits(Connection conn, int passengerId, int amount) throws SQLException {
+        Passenger passenger = delegate.addNovaCredits(conn, passengerId, amount);
+        if (passenger != null) {
+            TransactionManager.afterCommit(() -> invalidate(passengerId));
+        }
+        return passenger;
+    }
+
+    /**
+     * Removes a passenger from the cache. The next read loads it from the database again.
+     *
+     * @param passengerId the ID of the passenger
+     */
+    public void invalidate(int passengerId) {
+        lock.lock();
+        try {
+            generation++;
+            Passenger removed = byId.remove(passengerId);
+            if (removed != null) {
+                idsByUsername.remove(removed.getUsername());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the cache counters.
+     *
+     * @return the current CacheStats
+     */
+    public CacheStats getStats() {
+        lock.lock();
+        try {
+            return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), byId.size(), maxSize);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores a passenger read from the database, unless it was invalidated while the query ran.
+     */
+    private Passenger cache(Passenger loaded, long readGeneration) {
+        if (loaded == null) {
+            return null;
+        }
+        lock.lock();
+        try {
+            if (generation == readGeneration) {
+                Passenger previous = byId.put(loaded.getPassengerId(), copy(loaded));
+                if (previous != null && !previous.getUsername().equals(loaded.getUsername())) {
+                    idsByUsername.remove(previous.getUsername());
+                }
+                idsByUsername.put(loaded.getUsername(), loaded.getPassengerId());
+            } else {
+                logger.debug("Passenger {} changed while it was loaded, not caching it", loaded.getPassengerId());
+            }
+        } finally {
+            lock.unlock();
+        }
+        return loaded;
+    }
+
+    private static Passenger copy(Passenger passenger) {
+        return new Passenger(passenger.getPassengerId(), passenger.getUsername(), passenger.getPassword(),
+                passenger.getNovaCredits(), passenger.isCheckedOut());
+    }
+}
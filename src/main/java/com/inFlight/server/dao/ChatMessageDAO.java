@@ -2,9 +2,11 @@ package com.inFlight.server.dao;
 
 import com.inFlight.shared.model.ChatMessage;
 import com.inFlight.server.db.SQLiteConnector;
+import com.inFlight.server.metrics.DaoTimer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -12,25 +14,42 @@ import java.util.List;
 /**
  * ChatMessageDAO is a Data Access Object (DAO) class that provides methods to interact with the chat_message table in the SQLite database.
  * It includes methods to save and retrieve chat messages.
+ * Message IDs increase with every message, so a client that remembers the last ID it has shown can ask for
+ * the messages after it, which SQLite answers with a range scan on the primary key.
  */
 public class ChatMessageDAO {
     private static final Logger logger = LoggerFactory.getLogger(ChatMessageDAO.class);
 
+    public static final int MAX_PAGE_SIZE = 500; // Most messages returned by one forEachChatMessageSince call
+
     /**
-     * Saves a chat message to the database.
+     * Saves a chat message to the database and sets the ID and timestamp the database assigned on it.
      *
      * @param msg the ChatMessage object to save
+     * @return true if the message was saved
      */
-    public void saveMessage(ChatMessage msg) {
-        try (Connection conn = SQLiteConnector.getConnection()) {
-            String sql = "INSERT INTO chat_message (sender, receiver, content) VALUES (?, ?, ?)";
-            PreparedStatement stmt = conn.prepareStatement(sql);
+    public boolean saveMessage(ChatMessage msg) {
+        String sql = "INSERT INTO chat_message (sender, receiver, content) VALUES (?, ?, ?) RETURNING id, timestamp";
+
+        DaoTimer timer = DaoTimer.start("ChatMessageDAO.saveMessage");
+        try (Connection conn = SQLiteConnector.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, msg.getSender());
             stmt.setString(2, msg.getReceiver());
             stmt.setString(3, msg.getContent());
-            stmt.executeUpdate();
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (timer.next(rs)) {
+                    msg.setId(rs.getInt("id"));
+                    msg.setTimestamp(rs.getString("timestamp"));
+                }
+            }
+            return true;
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to save chat message", e);
+            return false;
+        } finally {
+            timer.stop();
         }
     }
 
@@ -44,9 +63,10 @@ public class ChatMessageDAO {
     public List<ChatMessage> getChatBetween(String sender, String receiver) {
         List<ChatMessage> messages = new ArrayList<>();
 
-        try (Connection conn = SQLiteConnector.getConnection()) {
+        DaoTimer timer = DaoTimer.start("ChatMessageDAO.getChatBetween");
+        try (Connection conn = SQLiteConnector.getReadConnection()) {
             String sql = """
-                SELECT sender, receiver, content 
+                SELECT id, sender, receiver, content, timestamp
                 FROM chat_message
                 WHERE (sender = ? AND receiver = ?) OR (sender = ? AND receiver = ?)
                 ORDER BY id ASC
@@ -59,18 +79,116 @@ public class ChatMessageDAO {
             stmt.setString(4, sender);
 
             ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                messages.add(new ChatMessage(
-                        rs.getString("sender"),
-                        rs.getString("receiver"),
-                        rs.getString("content")
-                ));
+            while (timer.next(rs)) {
+                messages.add(mapMessage(rs));
             }
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to load chat messages", e);
+        } finally {
+            timer.stop();
         }
 
         return messages;
     }
-}
 
+    /**
+     * Passes every chat message between two users to the callback, oldest first.
+     *
+     * @param sender   the sender's username
+     * @param receiver the receiver's username
+     * @param callback receives one ChatMessage per row
+     * @throws IOException if the callback fails or the query fails
+     */
+    public void forEachChatMessage(String sender, String receiver, RowCallback<ChatMessage> callback) throws IOException {
+        forEachChatMessage("ChatMessageDAO.forEachChatMessage", sender, receiver, 0, Integer.MAX_VALUE, callback);
+    }
+
+    /**
+     * Passes the chat messages between two users that were sent after a given message to the callback,
+     * oldest first.
+     *
+     * @param sender   the sender's username
+     * @param receiver the receiver's username
+     * @param afterId  the ID of the last message the caller has, 0 for the start of the chat
+     * @param limit    the maximum number of messages, capped at MAX_PAGE_SIZE
+     * @param callback receives one ChatMessage per row
+     * @throws IOException if the callback fails or the query fails
+     */
+    public void forEachChatMessageSince(String sender, String receiver, int afterId, int limit,
+                                        RowCallback<ChatMessage> callback) throws IOException {
+        forEachChatMessage("ChatMessageDAO.forEachChatMessageSince", sender, receiver, afterId,
+                Math.max(0, Math.min(limit, MAX_PAGE_SIZE)), callback);
+    }
+
+    /**
+     * Passes up to maxRows chat messages between two users after a given message to the callback, oldest first.
+     */
+    private void forEachChatMessage(String operation, String sender, String receiver, int afterId, int maxRows,
+                                    RowCallback<ChatMessage> callback) throws IOException {
+        String sql = """
+            SELECT id, sender, receiver, content, timestamp
+            FROM chat_message
+            WHERE id > ? AND ((sender = ? AND receiver = ?) OR (sender = ? AND receiver = ?))
+            ORDER BY id ASC
+            LIMIT ?
+        """;
+
+        ChunkedQuery.forEach(operation, maxRows, (conn, last, limit) -> {
+            PreparedStatement stmt = conn.prepareStatement(sql);
+            stmt.setInt(1, last == null ? afterId : last.getId());
+            stmt.setString(2, sender);
+            stmt.setString(3, receiver);
+            stmt.setString(4, receiver);
+            stmt.setString(5, sender);
+            stmt.setInt(6, limit);
+            return stmt;
+        }, ChatMessageDAO::mapMessage, callback);
+    }
+
+    /**
+     * Counts the chat messages between two users, without reading them.
+     *
+     * @param sender   the sender's username
+     * @param receiver the receiver's username
+     * @return the number of messages in the chat
+     * @throws IOException if the query fails
+     */
+    public int countChatMessages(String sender, String receiver) throws IOException {
+        String sql = """
+            SELECT COUNT(*)
+            FROM chat_message
+            WHERE (sender = ? AND receiver = ?) OR (sender = ? AND receiver = ?)
+        """;
+
+        DaoTimer timer = DaoTimer.start("ChatMessageDAO.countChatMessages");
+        try (Connection conn = SQLiteConnector.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, sender);
+            stmt.setString(2, receiver);
+            stmt.setString(3, receiver);
+            stmt.setString(4, sender);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return timer.next(rs) ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            timer.failed();
+            logger.error("Failed to count chat messages", e);
+            throw new IOException("Failed to count chat messages", e);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    private static ChatMessage mapMessage(ResultSet rs) throws SQLException {
+        return new ChatMessage(
+                rs.getInt("id"),
+                rs.getString("sender"),
+                rs.getString("receiver"),
+                rs.getString("content"),
+                rs.getString("timestamp")
+        );
+    }
+}
@@ -0,0 +1,120 @@
+package com.inFlight.server.dao;
+
+import com.inFlight.server.db.SQLiteConnector;
+import com.inFlight.server.metrics.DaoTimer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ChunkedQuery passes the rows of a keyset-ordered query to a RowCallback in chunks of at most CHUNK_SIZE rows.
+ * Every chunk is read on a read connection that is returned before its rows are passed on, and the next chunk
+ * starts after the last row of the previous one. So a large result never sits in memory as a whole, and a client
+ * that reads slowly holds no database connection. The chunks are separate reads: rows written in between may
+ * show up in a later chunk, but no row is passed twice.
+ */
+final class ChunkedQuery {
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedQuery.class);
+
+    static final int CHUNK_SIZE = 500; // Rows read per connection checkout
+
+    private ChunkedQuery() {
+    }
+
+    /**
+     * Prepares the query of one chunk.
+     *
+     * @param <T> the model type of a row
+     */
+    @FunctionalInterface
+    interface Chunk<T> {
+        /**
+         * Prepares the query for the rows after the given one, in key order.
+         *
+         * @param conn  the read connection of the chunk
+         * @param last  the last row of the previous chunk, or null for the first chunk
+         * @param limit the maximum number of rows, to be used as the LIMIT of the query
+         * @return the prepared statement, with all parameters bound
+         * @throws SQLException if the statement cannot be prepared
+         */
+        PreparedStatement prepare(Connection conn, T last, int limit) throws SQLException;
+    }
+
+    /**
+     * Maps the current row of a result set.
+     *
+     * @param <T> the model type of a row
+     */
+    @FunctionalInterface
+    interface RowMapper<T> {
+        /**
+         * Maps the current row.
+         *
+         * @param rs the result set positioned on the row
+         * @return the row as its model object
+         * @throws SQLException if a column cannot be read
+         */
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Reads the rows chunk by chunk and passes them to the callback.
+     *
+     * @param operation the DAO method, recorded by the DaoTimer of every chunk
+     * @param maxRows   the maximum number of rows in total, Integer.MAX_VALUE for all
+     * @param chunk     prepares the query of a chunk
+     * @param mapper    maps a row
+     * @param callback  receives the rows in key order
+     * @param <T>       the model type of a row
+     * @throws IOException if the callback fails or a query fails
+     */
+    static <T> void forEach(String operation, int maxRows, Chunk<T> chunk, RowMapper<T> mapper,
+                            RowCallback<T> callback) throws IOException {
+        List<T> rows = new ArrayList<>(Math.min(maxRows, CHUNK_SIZE));
+        T last = null;
+        int remaining = maxRows;
+        while (remaining > 0) {
+            int limit = Math.min(remaining, CHUNK_SIZE);
+            rows.clear();
+            DaoTimer timer = DaoTimer.start(operation);
+            try (Connection conn = SQLiteConnector.getReadConnection();
+                 PreparedStatement stmt = chunk.prepare(conn, last, limit);
+                 ResultSet rs = stmt.executeQuery()) {
+
+                while (timer.next(rs)) {
+                    rows.add(mapper.map(rs));
+                }
+
+            } catch (SQLException e) {
+                timer.failed();
+                logger.error("Failed to stream the rows of {}", operation, e);
+                throw new IOException("Failed to stream the rows of " + operation, e);
+            } finally {
+                timer.stop();
+            }
+            callback.acceptAll(rows);
+            if (rows.size() < limit) {
+                return;
+            }
+            last = rows.get(rows.size() - 1);
+            remaining -= limit;
+        }
+    }
+
+    /**
+     * Returns the number of rows a page allows.
+     *
+     * @param page the requested page
+     * @return the limit of the page, or Integer.MAX_VALUE if it is not limited
+     */
+    static int maxRows(PageRequest page) {
+        return page.isLimited() ? page.limit() : Integer.MAX_VALUE;
+    }
+}
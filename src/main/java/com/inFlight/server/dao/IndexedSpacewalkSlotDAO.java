@@ -0,0 +1,196 @@
+package com.inFlight.server.dao;
+
+import com.inFlight.server.db.TransactionManager;
+import com.inFlight.shared.model.SpacewalkSlot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * IndexedSpacewalkSlotDAO answers slot reads from a SlotIndex and writes every change through to the
+ * spacewalk_slots table of another SpacewalkSlotDAO.
+ * A booking first reserves the slot in the index with a compare-and-set, so a slot that is already taken is turned
+ * down without touching the database. The guarded update in the database still runs and decides if both disagree.
+ * Changes made inside a transaction reach the index when it commits; a reservation is released if it rolls back.
+ * The index is loaded on first use, or by calling loadIndex at startup. If it cannot be loaded, reads fall back
+ * to the database.
+ */
+public class IndexedSpacewalkSlotDAO extends SpacewalkSlotDAO {
+    private static final Logger logger = LoggerFactory.getLogger(IndexedSpacewalkSlotDAO.class);
+
+    private final SpacewalkSlotDAO delegate; // Reads and writes the spacewalk_slots table
+    private final ReentrantLock loadLock = new ReentrantLock(); // Only one thread loads the index
+    private volatile SlotIndex index; // Null until loaded
+
+    /**
+     * Constructor for the IndexedSpacewalkSlotDAO class.
+     *
+     * @param delegate the DAO that reads and writes the database
+     */
+    public IndexedSpacewalkSlotDAO(SpacewalkSlotDAO delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Reads all slots from the database and replaces the index.
+     *
+     * @return true if the index was loaded
+     */
+    public boolean loadIndex() {
+        loadLock.lock();
+        try {
+            List<SpacewalkSlot> slots = new ArrayList<>();
+            delegate.forEachSlot(slots::add);
+            index = new SlotIndex(slots);
+            logger.info("Loaded slot index with {} slots, {} available", slots.size(), index.availableCount());
+            return true;
+        } catch (IOException e) {
+            logger.error("Failed to load slot index, reading slots from the database", e);
+            return false;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * getter for index.
+     * @return the current slot index, loading it if necessary, or null if it cannot be loaded
+     */
+    public SlotIndex getIndex() {
+        SlotIndex current = index;
+        if (current == null && loadIndex()) {
+            current = index;
+        }
+        return current;
+    }
+
+    @Override
+    public void insertSlot(SpacewalkSlot slot) {
+        delegate.insertSlot(slot);
+        // The ID is assigned by the database, so the index is rebuilt
+        loadIndex();
+    }
+
+    @Override
+    public List<SpacewalkSlot> getAllSlots() {
+        SlotIndex current = getIndex();
+        if (current == null) {
+            return delegate.getAllSlots();
+        }
+        List<SpacewalkSlot> slots = new ArrayList<>(current.size());
+        try {
+            current.forEachSlot(slots::add);
+        } catch (IOException e) {
+            // Adding to a list does not fail
+            throw new IllegalStateException(e);
+        }
+        return slots;
+    }
+
+    @Override
+    public SpacewalkSlot getSlotById(int slotId) {
+        SlotIndex current = getIndex();
+        return current == null ? delegate.getSlotById(slotId) : current.getSlot(slotId);
+    }
+
+    @Override
+    public void setAvailability(int slotId, boolean available) {
+        delegate.setAvailability(slotId, available);
+        SlotIndex current = getIndex();
+        if (current != null) {
+            current.setAvailable(slotId, available);
+        }
+    }
+
+    @Override
+    public boolean isSlotAvailable(int slotId) {
+        SlotIndex current = getIndex();
+        return current == null ? delegate.isSlotAvailable(slotId) : current.isAvailable(slotId);
+    }
+
+    @Override
+    public void deleteSlot(int slotId) {
+        delegate.deleteSlot(slotId);
+        loadIndex();
+    }
+
+    @Override
+    public boolean claimSlot(Connection conn, int slotId) throws SQLException {
+        SlotIndex current = getIndex();
+        boolean reserved = current != null && current.tryReserve(slotId);
+        if (current != null && !reserved && current.contains(slotId)) {
+            // Taken according to the index, no need to ask the database
+            return false;
+        }
+        boolean claimed;
+        try {
+            claimed = delegate.claimSlot(conn, slotId);
+        } catch (SQLException | RuntimeException e) {
+            if (reserved) {
+                current.setAvailable(slotId, true);
+            }
+            throw e;
+        }
+        if (!claimed) {
+            if (reserved) {
+                // The database had the slot as taken already
+                logger.warn("Slot index had slot {} as available, the database did not", slotId);
+            }
+            return false;
+        }
+        TransactionManager.afterCommit(() -> updateIndex(slotId, false));
+        TransactionManager.afterRollback(() -> updateIndex(slotId, true));
+        return true;
+    }
+
+    @Override
+    public boolean setAvailability(Connection conn, int slotId, boolean available) throws SQLException {
+        boolean updated = delegate.setAvailability(conn, slotId, available);
+        if (updated) {
+            TransactionManager.afterCommit(() -> updateIndex(slotId, available));
+        }
+        return updated;
+    }
+
+    @Override
+    public void forEachAvailableSlot(RowCallback<SpacewalkSlot> callback) throws IOException {
+        forEachAvailableSlot(null, null, callback);
+    }
+
+    @Override
+    public void forEachAvailableSlot(String fromTime, String toTime, RowCallback<SpacewalkSlot> callback) throws IOException {
+        SlotIndex current = getIndex();
+        if (current == null) {
+            delegate.forEachAvailableSlot(fromTime, toTime, callback);
+        } else {
+            current.forEachAvailableSlot(fromTime, toTime, callback);
+        }
+    }
+
+    @Override
+    public void forEachSlot(RowCallback<SpacewalkSlot> callback) throws IOException {
+        SlotIndex current = getIndex();
+        if (current == null) {
+            delegate.forEachSlot(callback);
+        } else {
+            current.forEachSlot(callback);
+        }
+    }
+
+    /**
+     * Applies a committed or rolled back change to the index that is current at that time,
+     * which may have been rebuilt while the transaction ran.
+     */
+    private void updateIndex(int slotId, boolean available) {
+        SlotIndex current = index;
+        if (current != null) {
+            current.setAvailable(slotId, available);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.inFlight.server.dao;
 
 import com.inFlight.shared.model.InventoryItem;
 import com.inFlight.server.db.SQLiteConnector;
+import com.inFlight.server.metrics.DaoTimer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,6 +26,7 @@ public class InventoryItemDAO {
     public void insertItem(InventoryItem item) {
         String sql = "INSERT INTO inventory_item (name, condition, available, owner_role, checked_out) VALUES (?, ?, ?, ?, ?)";
 
+        DaoTimer timer = DaoTimer.start("InventoryItemDAO.insertItem");
         try (Connection conn = SQLiteConnector.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -34,10 +36,13 @@ public class InventoryItemDAO {
             stmt.setString(4, item.getOwnerRole());
             stmt.setInt(5, item.isCheckedOut() ? 1 : 0);
 
-            stmt.executeUpdate();
+            timer.updated(stmt.executeUpdate());
 
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to insert inventory item", e);
+        } finally {
+            timer.stop();
         }
     }
 
@@ -50,13 +55,14 @@ public class InventoryItemDAO {
         List<InventoryItem> items = new ArrayList<>();
         String sql = "SELECT * FROM inventory_item WHERE owner_role = ?";
 
-        try (Connection conn = SQLiteConnector.getConnection();
+        DaoTimer timer = DaoTimer.start("InventoryItemDAO.getItemsByRole");
+        try (Connection conn = SQLiteConnector.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, ownerRole);
             ResultSet rs = stmt.executeQuery();
 
-            while (rs.next()) {
+            while (timer.next(rs)) {
                 items.add(new InventoryItem(
                         rs.getInt("id"),
                         rs.getString("name"),
@@ -68,7 +74,10 @@ public class InventoryItemDAO {
             }
 
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to fetch inventory items", e);
+        } finally {
+            timer.stop();
         }
 
         return items;
@@ -82,6 +91,7 @@ public class InventoryItemDAO {
     public void updateItem(InventoryItem item) {
         String sql = "UPDATE inventory_item SET condition = ?, available = ?, checked_out = ? WHERE id = ?";
 
+        DaoTimer timer = DaoTimer.start("InventoryItemDAO.updateItem");
         try (Connection conn = SQLiteConnector.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -90,10 +100,13 @@ public class InventoryItemDAO {
             stmt.setInt(3, item.isCheckedOut() ? 1 : 0);
             stmt.setInt(4, item.getId());
 
-            stmt.executeUpdate();
+            timer.updated(stmt.executeUpdate());
 
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to update inventory item", e);
+        } finally {
+            timer.stop();
         }
     }
 }
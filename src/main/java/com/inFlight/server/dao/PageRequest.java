@@ -0,0 +1,34 @@
+package com.inFlight.server.dao;
+
+/**
+ * PageRequest selects one page of a list that is ordered by its integer ID.
+ * The page holds the rows after afterId, so the next page starts after the last ID of the current one (keyset
+ * pagination). Unlike an OFFSET, this stays one index seek however far the client has paged, and rows that are
+ * inserted in between do not shift the pages.
+ *
+ * @param afterId the ID of the last row the client has, 0 for the first page
+ * @param limit   the maximum number of rows, 0 for all rows; larger values are capped at MAX_LIMIT
+ */
+public record PageRequest(int afterId, int limit) {
+    public static final int MAX_LIMIT = 1000; // Most rows returned in one page
+    public static final PageRequest ALL = new PageRequest(0, 0); // Every row, as the unpaged queries return them
+
+    /**
+     * Validates the page bounds.
+     */
+    public PageRequest {
+        if (afterId < 0 || limit < 0) {
+            throw new IllegalArgumentException("afterId and limit must not be negative");
+        }
+        limit = Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * Checks whether the page is limited.
+     *
+     * @return true if at most limit rows are returned
+     */
+    public boolean isLimited() {
+        return limit > 0;
+    }
+}
@@ -1,10 +1,12 @@
 package com.inFlight.server.dao;
 
 import com.inFlight.server.db.SQLiteConnector;
+import com.inFlight.server.metrics.DaoTimer;
 import com.inFlight.shared.model.Passenger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -24,6 +26,7 @@ public class PassengerDAO {
     public void insertPassenger(Passenger passenger) {
         String sql = "INSERT INTO passengers (username, password, novaCredits) VALUES (?, ?, ?)";
 
+        DaoTimer timer = DaoTimer.start("PassengerDAO.insertPassenger");
         try (Connection conn = SQLiteConnector.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -31,9 +34,12 @@ public class PassengerDAO {
             stmt.setString(2, passenger.getPassword());
             stmt.setInt(3, passenger.getNovaCredits());
 
-            stmt.executeUpdate();
+            timer.updated(stmt.executeUpdate());
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to save passenger", e);
+        } finally {
+            timer.stop();
         }
     }
 
@@ -45,13 +51,14 @@ public class PassengerDAO {
      */
     public Passenger getPassengerByUsername(String username) {
         String sql = "SELECT * FROM passengers WHERE username = ?";
-        try (Connection conn = SQLiteConnector.getConnection();
+        DaoTimer timer = DaoTimer.start("PassengerDAO.getPassengerByUsername");
+        try (Connection conn = SQLiteConnector.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, username);
             ResultSet rs = stmt.executeQuery();
 
-            if (rs.next()) {
+            if (timer.next(rs)) {
                 return new Passenger(
                         rs.getInt("passenger_id"),
                         rs.getString("username"),
@@ -62,7 +69,10 @@ public class PassengerDAO {
             }
 
         } catch (SQLException e) {
+            timer.failed();
           logger.error("Failed to fetch passenger by Username", e);
+        } finally {
+            timer.stop();
         }
         return null;
     }
@@ -75,13 +85,14 @@ public class PassengerDAO {
      */
     public Passenger getPassengerById(int id) {
         String sql = "SELECT * FROM passengers WHERE passenger_id = ?";
-        try (Connection conn = SQLiteConnector.getConnection();
+        DaoTimer timer = DaoTimer.start("PassengerDAO.getPassengerById");
+        try (Connection conn = SQLiteConnector.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
             ResultSet rs = stmt.executeQuery();
 
-            if (rs.next()) {
+            if (timer.next(rs)) {
                 return new Passenger(
                         rs.getInt("passenger_id"),
                         rs.getString("username"),
@@ -92,7 +103,10 @@ public class PassengerDAO {
             }
 
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to fetch passenger by ID", e);
+        } finally {
+            timer.stop();
         }
         return null;
     }
@@ -106,11 +120,12 @@ public class PassengerDAO {
         List<Passenger> passengers = new ArrayList<>();
         String sql = "SELECT * FROM passengers";
 
-        try (Connection conn = SQLiteConnector.getConnection();
+        DaoTimer timer = DaoTimer.start("PassengerDAO.getAllPassengers");
+        try (Connection conn = SQLiteConnector.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
-            while (rs.next()) {
+            while (timer.next(rs)) {
                 passengers.add(new Passenger(
                         rs.getInt("passenger_id"),
                         rs.getString("username"),
@@ -121,7 +136,10 @@ public class PassengerDAO {
             }
 
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to fetch all passengers", e);
+        } finally {
+            timer.stop();
         }
         return passengers;
     }
@@ -135,15 +153,19 @@ public class PassengerDAO {
     public void updateNovaCredits(int passengerId, int newCredits) {
         String sql = "UPDATE passengers SET novaCredits = ? WHERE passenger_id = ?";
 
+        DaoTimer timer = DaoTimer.start("PassengerDAO.updateNovaCredits");
         try (Connection conn = SQLiteConnector.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, newCredits);
             stmt.setInt(2, passengerId);
-            stmt.executeUpdate();
+            timer.updated(stmt.executeUpdate());
 
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to update Nova credits", e);
+        } finally {
+            timer.stop();
         }
     }
 
@@ -154,14 +176,143 @@ public class PassengerDAO {
      * @param status      the new checked_out status to set
      */
     public void setCheckedOut(int passengerId, boolean status) {
+        DaoTimer timer = DaoTimer.start("PassengerDAO.setCheckedOut");
         try (Connection conn = SQLiteConnector.getConnection()) {
             String sql = "UPDATE passengers SET checked_out = ? WHERE passenger_id = ?";
             PreparedStatement stmt = conn.prepareStatement(sql);
             stmt.setInt(1, status ? 1 : 0);
             stmt.setInt(2, passengerId);
-            stmt.executeUpdate();
+            timer.updated(stmt.executeUpdate());
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to update checked_out status", e);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Deducts Nova credits from a passenger if the balance covers the amount, as part of a transaction.
+     *
+     * @param conn        the connection of the current transaction
+     * @param passengerId the ID of the passenger to charge
+     * @param amount      the number of credits to deduct
+     * @return the new balance, or null if the passenger does not exist or cannot afford the amount
+     * @throws SQLException if the update fails
+     */
+    public Integer deductNovaCredits(Connection conn, int passengerId, int amount) throws SQLException {
+        String sql = "UPDATE passengers SET novaCredits = novaCredits - ? WHERE passenger_id = ? AND novaCredits >= ? RETURNING novaCredits";
+        DaoTimer timer = DaoTimer.start("PassengerDAO.deductNovaCredits");
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, amount);
+            stmt.setInt(2, passengerId);
+            stmt.setInt(3, amount);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return timer.next(rs) ? rs.getInt("novaCredits") : null;
+            }
+        } catch (SQLException e) {
+            timer.failed();
+            throw e;
+        } finally {
+            timer.stop();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Adds Nova credits to a passenger as part of a transaction.
+     * The amount is added to the stored balance, so concurrent updates are not lost.
+     *
+     * @param conn        the connection of the current transaction
+     * @param passengerId the ID of the passenger to credit
+     * @param amount      the number of credits to add
+     * @return the updated Passenger, or null if the passenger does not exist
+     * @throws SQLException if the update fails
+     */
+    public Passenger addNovaCredits(Connection conn, int passengerId, int amount) throws SQLException {
+        String sql = "UPDATE passengers SET novaCredits = novaCredits + ? WHERE passenger_id = ? RETURNING *";
+        DaoTimer timer = DaoTimer.start("PassengerDAO.addNovaCredits");
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, amount);
+            stmt.setInt(2, passengerId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return timer.next(rs) ? mapPassenger(rs) : null;
+            }
+        } catch (SQLException e) {
+            timer.failed();
+            throw e;
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Passes every passenger to the callback, ordered by passenger ID.
+     *
+     * @param callback receives one Passenger per row
+     * @throws IOException if the callback fails or the query fails
+     */
+    public void forEachPassenger(RowCallback<Passenger> callback) throws IOException {
+        forEachPassenger(null, PageRequest.ALL, callback);
+    }
+
+    /**
+     * Passes one page of the passengers to the callback, ordered by passenger ID.
+     *
+     * @param checkedOut only passengers with this checkout status, or null for all
+     * @param page       the page to read
+     * @param callback   receives one Passenger per row
+     * @throws IOException if the callback fails or the query fails
+     */
+    public void forEachPassenger(Boolean checkedOut, PageRequest page, RowCallback<Passenger> callback) throws IOException {
+        ChunkedQuery.forEach("PassengerDAO.forEachPassenger(page)", ChunkedQuery.maxRows(page), (conn, last, limit) -> {
+            PageRequest chunk = new PageRequest(last == null ? page.afterId() : last.getPassengerId(), limit);
+            WhereClause where = passengerConditions(checkedOut, chunk);
+            return where.prepare(conn, "SELECT * FROM passengers" + where.toSql() + WhereClause.orderAndLimit("passenger_id", chunk));
+        }, PassengerDAO::mapPassenger, callback);
+    }
+
+    /**
+     * Counts the passengers, without reading them.
+     *
+     * @param checkedOut only passengers with this checkout status, or null for all
+     * @return the number of matching passengers
+     * @throws IOException if the query fails
+     */
+    public int countPassengers(Boolean checkedOut) throws IOException {
+        WhereClause where = passengerConditions(checkedOut, PageRequest.ALL);
+        String sql = "SELECT COUNT(*) FROM passengers" + where.toSql();
+
+        DaoTimer timer = DaoTimer.start("PassengerDAO.countPassengers");
+        try (Connection conn = SQLiteConnector.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            where.bind(stmt);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return timer.next(rs) ? rs.getInt(1) : 0;
+            }
+
+        } catch (SQLException e) {
+            timer.failed();
+            logger.error("Failed to count passengers", e);
+            throw new IOException("Failed to count passengers", e);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    private static WhereClause passengerConditions(Boolean checkedOut, PageRequest page) {
+        return new WhereClause()
+                .and("checked_out = ?", checkedOut)
+                .and("passenger_id > ?", WhereClause.pageAfter(page));
+    }
+
+    private static Passenger mapPassenger(ResultSet rs) throws SQLException {
+        return new Passenger(
+                rs.getInt("passenger_id"),
+                rs.getString("username"),
+                rs.getString("password"),
+                rs.getInt("novaCredits"),
+                rs.getInt("checked_out") == 1
+        );
+    }
+}
@@ -2,6 +2,7 @@ package com.inFlight.server.dao;
 
 import com.inFlight.shared.model.Photographer;
 import com.inFlight.server.db.SQLiteConnector;
+import com.inFlight.server.metrics.DaoTimer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -22,15 +23,19 @@ public class PhotographerDAO {
     public void insertPhotographer(Photographer photographer) {
         String sql = "INSERT INTO photographer (name, checked_out) VALUES (?, ?)";
 
+        DaoTimer timer = DaoTimer.start("PhotographerDAO.insertPhotographer");
         try (Connection conn = SQLiteConnector.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, photographer.getName());
             stmt.setInt(2, photographer.isCheckedOut() ? 1 : 0);
-            stmt.executeUpdate();
+            timer.updated(stmt.executeUpdate());
 
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to insert photographer", e);
+        } finally {
+            timer.stop();
         }
     }
 
@@ -43,13 +48,14 @@ public class PhotographerDAO {
     public Photographer getPhotographerByName(String name) {
         String sql = "SELECT * FROM photographer WHERE name = ?";
 
-        try (Connection conn = SQLiteConnector.getConnection();
+        DaoTimer timer = DaoTimer.start("PhotographerDAO.getPhotographerByName");
+        try (Connection conn = SQLiteConnector.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, name);
             ResultSet rs = stmt.executeQuery();
 
-            if (rs.next()) {
+            if (timer.next(rs)) {
                 return new Photographer(
                         rs.getInt("id"),
                         rs.getString("name"),
@@ -58,7 +64,10 @@ public class PhotographerDAO {
             }
 
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to fetch photographer by name", e);
+        } finally {
+            timer.stop();
         }
 
         return null;
@@ -73,13 +82,14 @@ public class PhotographerDAO {
     public Photographer getPhotographerById(int id) {
         String sql = "SELECT * FROM photographer WHERE id = ?";
 
-        try (Connection conn = SQLiteConnector.getConnection();
+        DaoTimer timer = DaoTimer.start("PhotographerDAO.getPhotographerById");
+        try (Connection conn = SQLiteConnector.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
             ResultSet rs = stmt.executeQuery();
 
-            if (rs.next()) {
+            if (timer.next(rs)) {
                 return new Photographer(
                         rs.getInt("id"),
                         rs.getString("name"),
@@ -88,7 +98,10 @@ public class PhotographerDAO {
             }
 
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to fetch photographer by ID", e);
+        } finally {
+            timer.stop();
         }
 
         return null;
@@ -103,15 +116,19 @@ public class PhotographerDAO {
     public void setCheckedOutStatus(int id, boolean checkedOut) {
         String sql = "UPDATE photographer SET checked_out = ? WHERE id = ?";
 
+        DaoTimer timer = DaoTimer.start("PhotographerDAO.setCheckedOutStatus");
         try (Connection conn = SQLiteConnector.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, checkedOut ? 1 : 0);
             stmt.setInt(2, id);
-            stmt.executeUpdate();
+            timer.updated(stmt.executeUpdate());
 
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to update photographer check-out status", e);
+        } finally {
+            timer.stop();
         }
     }
 }
@@ -0,0 +1,35 @@
+package com.inFlight.server.dao;
+
+import java.io.IOException;
+
+/**
+ * RowCallback receives the rows of a query one at a time, so a caller can write each row out without building
+ * the whole response in memory first.
+ * The forEach methods of the DAOs read their rows in chunks of a bounded size and return the pooled connection
+ * before they pass a chunk on, so a client that stops reading cannot hold a database connection.
+ * They report a failed query as an IOException instead of returning early, so a short result never looks complete.
+ *
+ * @param <T> the model type of a row
+ */
+@FunctionalInterface
+public interface RowCallback<T> {
+    /**
+     * Called once for every row of the result.
+     *
+     * @param row the row mapped to its model object
+     * @throws IOException if the row cannot be written out, which stops the query
+     */
+    void accept(T row) throws IOException;
+
+    /**
+     * Passes a chunk of rows that was read before to the callback, in order.
+     *
+     * @param rows the rows of the chunk
+     * @throws IOException if a row cannot be written out, which skips the remaining rows
+     */
+    default void acceptAll(Iterable<? extends T> rows) throws IOException {
+        for (T row : rows) {
+            accept(row);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.inFlight.server.dao;
+
+import com.inFlight.shared.model.SpacewalkSlot;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * SlotIndex holds the spacewalk slots in memory so availability can be answered without a query.
+ * The slots are stored as primitive arrays sorted by slot time, which makes time range lookups a binary search,
+ * and their availability as one bit per slot. The bits are kept in an AtomicLongArray instead of a java.util.BitSet,
+ * so a slot can be reserved with a compare-and-set and concurrent bookings never need a lock.
+ * The set of slots is fixed when the index is built; adding or removing slots means building a new index.
+ */
+public class SlotIndex {
+    private final int[] slotIds; // Slot IDs ordered by slot time
+    private final String[] slotTimes; // Slot times in ascending order
+    private final int[] idsSorted; // Slot IDs in ascending order, for lookups by ID
+    private final int[] positionsOfIds; // Position in slotIds of the ID at the same index of idsSorted
+    private final AtomicLongArray availability; // Bit p is set if the slot at position p is available
+
+    /**
+     * Builds the index from the given slots.
+     *
+     * @param slots the slots to index, in any order
+     */
+    public SlotIndex(Collection<SpacewalkSlot> slots) {
+        List<SpacewalkSlot> byTime = new ArrayList<>(slots);
+        byTime.sort(Comparator.comparing(SpacewalkSlot::getSlotTime).thenComparingInt(SpacewalkSlot::getSlotId));
+        int size = byTime.size();
+        slotIds = new int[size];
+        slotTimes = new String[size];
+        availability = new AtomicLongArray((size + 63) >>> 6);
+        long[] positionById = new long[size];
+        for (int position = 0; position < size; position++) {
+            SpacewalkSlot slot = byTime.get(position);
+            slotIds[position] = slot.getSlotId();
+            slotTimes[position] = slot.getSlotTime();
+            if (slot.isAvailable()) {
+                availability.getAndAccumulate(position >>> 6, 1L << position, (word, bit) -> word | bit);
+            }
+            // ID in the high bits, position in the low bits, so sorting orders by ID
+            positionById[position] = ((long) slot.getSlotId() << 32) | position;
+        }
+        Arrays.sort(positionById);
+        idsSorted = new int[size];
+        positionsOfIds = new int[size];
+        for (int i = 0; i < size; i++) {
+            idsSorted[i] = (int) (positionById[i] >> 32);
+            positionsOfIds[i] = (int) positionById[i];
+        }
+    }
+
+    /**
+     * Returns the number of indexed slots.
+     *
+     * @return the number of slots
+     */
+    public int size() {
+        return slotIds.length;
+    }
+
+    /**
+     * Checks whether a slot is part of the index.
+     *
+     * @param slotId the ID of the slot
+     * @return true if the slot is indexed
+     */
+    public boolean contains(int slotId) {
+        return position(slotId) >= 0;
+    }
+
+    /**
+     * Checks whether a slot is available.
+     *
+     * @param slotId the ID of the slot
+     * @return true if the slot is indexed and available
+     */
+    public boolean isAvailable(int slotId) {
+        int position = position(slotId);
+        return position >= 0 && (availability.get(position >>> 6) & (1L << position)) != 0;
+    }
+
+    /**
+     * Marks a slot as taken if it is still available. Of several concurrent calls for the same slot only one succeeds.
+     *
+     * @param slotId the ID of the slot
+     * @return true if the slot was available and is now taken by the caller
+     */
+    public boolean tryReserve(int slotId) {
+        int position = position(slotId);
+        if (position < 0) {
+            return false;
+        }
+        int word = position >>> 6;
+        long bit = 1L << position;
+        while (true) {
+            long current = availability.get(word);
+            if ((current & bit) == 0) {
+                return false;
+            }
+            if (availability.compareAndSet(word, current, current & ~bit)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Sets the availability of a slot.
+     *
+     * @param slotId    the ID of the slot
+     * @param available the new availability
+     * @return true if the slot is indexed
+     */
+    public boolean setAvailable(int slotId, boolean available) {
+        int position = position(slotId);
+        if (position < 0) {
+            return false;
+        }
+        long bit = 1L << position;
+        availability.getAndAccumulate(position >>> 6, bit, available ? (word, b) -> word | b : (word, b) -> word & ~b);
+        return true;
+    }
+
+    /**
+     * Returns a slot of the index.
+     *
+     * @param slotId the ID of the slot
+     * @return the slot with its current availability, or null if it is not indexed
+     */
+    public SpacewalkSlot getSlot(int slotId) {
+        int position = position(slotId);
+        return position < 0 ? null : slotAt(position);
+    }
+
+    /**
+     * Passes every slot to the callback, ordered by time.
+     *
+     * @param callback receives the slots
+     * @throws IOException if the callback fails
+     */
+    public void forEachSlot(RowCallback<SpacewalkSlot> callback) throws IOException {
+        for (int position = 0; position < slotIds.length; position++) {
+            callback.accept(slotAt(position));
+        }
+    }
+
+    /**
+     * Passes the available slots whose time lies in a range to the callback, ordered by time.
+     *
+     * @param fromTime the earliest slot time, inclusive, or null for no lower bound
+     * @param toTime   the latest slot time, exclusive, or null for no upper bound
+     * @param callback receives the slots
+     * @throws IOException if the callback fails
+     */
+    public void forEachAvailableSlot(String fromTime, String toTime, RowCallback<SpacewalkSlot> callback) throws IOException {
+        int from = fromTime == null ? 0 : lowerBound(fromTime);
+        int to = toTime == null ? slotTimes.length : lowerBound(toTime);
+        for (int position = from; position < to; position++) {
+            long bits = availability.get(position >>> 6);
+            if ((bits & (1L << position)) != 0) {
+                callback.accept(new SpacewalkSlot(slotIds[position], slotTimes[position], true));
+            }
+        }
+    }
+
+    /**
+     * Returns the number of available slots.
+     *
+     * @return the number of set availability bits
+     */
+    public int availableCount() {
+        int count = 0;
+        for (int word = 0; word < availability.length(); word++) {
+            count += Long.bitCount(availability.get(word));
+        }
+        return count;
+    }
+
+    private SpacewalkSlot slotAt(int position) {
+        boolean available = (availability.get(position >>> 6) & (1L << position)) != 0;
+        return new SpacewalkSlot(slotIds[position], slotTimes[position], available);
+    }
+
+    private int position(int slotId) {
+        int i = Arrays.binarySearch(idsSorted, slotId);
+        return i < 0 ? -1 : positionsOfIds[i];
+    }
+
+    /**
+     * Returns the first position whose time is not before the given time.
+     */
+    private int lowerBound(String time) {
+        int low = 0;
+        int high = slotTimes.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (slotTimes[mid].compareTo(time) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
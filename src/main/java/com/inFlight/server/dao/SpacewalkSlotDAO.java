@@ -1,10 +1,12 @@
 package com.inFlight.server.dao;
 
 import com.inFlight.server.db.SQLiteConnector;
+import com.inFlight.server.metrics.DaoTimer;
 import com.inFlight.shared.model.SpacewalkSlot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -25,11 +27,12 @@ public class SpacewalkSlotDAO {
         List<SpacewalkSlot> slots = new ArrayList<>();
         String sql = "SELECT * FROM spacewalk_slots WHERE available = 1";
 
-        try (Connection conn = SQLiteConnector.getConnection();
+        DaoTimer timer = DaoTimer.start("SpacewalkSlotDAO.getAvailableSlots");
+        try (Connection conn = SQLiteConnector.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
-            while (rs.next()) {
+            while (timer.next(rs)) {
                 slots.add(new SpacewalkSlot(
                         rs.getInt("slot_id"),
                         rs.getString("slot_time"),
@@ -38,7 +41,10 @@ public class SpacewalkSlotDAO {
             }
 
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to fetch available slots", e);
+        } finally {
+            timer.stop();
         }
 
         return slots;
@@ -52,15 +58,19 @@ public class SpacewalkSlotDAO {
     public void insertSlot(SpacewalkSlot slot) {
         String sql = "INSERT INTO spacewalk_slots (slot_time, available) VALUES (?, ?)";
 
+        DaoTimer timer = DaoTimer.start("SpacewalkSlotDAO.insertSlot");
         try (Connection conn = SQLiteConnector.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, slot.getSlotTime());
             stmt.setInt(2, slot.isAvailable() ? 1 : 0);
-            stmt.executeUpdate();
+            timer.updated(stmt.executeUpdate());
 
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to save spacewalk slot", e);
+        } finally {
+            timer.stop();
         }
     }
 
@@ -73,11 +83,12 @@ public class SpacewalkSlotDAO {
         List<SpacewalkSlot> slots = new ArrayList<>();
         String sql = "SELECT * FROM spacewalk_slots";
 
-        try (Connection conn = SQLiteConnector.getConnection();
+        DaoTimer timer = DaoTimer.start("SpacewalkSlotDAO.getAllSlots");
+        try (Connection conn = SQLiteConnector.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
-            while (rs.next()) {
+            while (timer.next(rs)) {
                 slots.add(new SpacewalkSlot(
                         rs.getInt("slot_id"),
                         rs.getString("slot_time"),
@@ -86,7 +97,10 @@ public class SpacewalkSlotDAO {
             }
 
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to fetch all slots", e);
+        } finally {
+            timer.stop();
         }
 
         return slots;
@@ -101,13 +115,14 @@ public class SpacewalkSlotDAO {
     public SpacewalkSlot getSlotById(int slotId) {
         String sql = "SELECT * FROM spacewalk_slots WHERE slot_id = ?";
 
-        try (Connection conn = SQLiteConnector.getConnection();
+        DaoTimer timer = DaoTimer.start("SpacewalkSlotDAO.getSlotById");
+        try (Connection conn = SQLiteConnector.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, slotId);
             ResultSet rs = stmt.executeQuery();
 
-            if (rs.next()) {
+            if (timer.next(rs)) {
                 return new SpacewalkSlot(
                         rs.getInt("slot_id"),
                         rs.getString("slot_time"),
@@ -116,7 +131,10 @@ public class SpacewalkSlotDAO {
             }
 
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to fetch slot", e);
+        } finally {
+            timer.stop();
         }
 
         return null;
@@ -131,15 +149,19 @@ public class SpacewalkSlotDAO {
     public void setAvailability(int slotId, boolean available) {
         String sql = "UPDATE spacewalk_slots SET available = ? WHERE slot_id = ?";
 
+        DaoTimer timer = DaoTimer.start("SpacewalkSlotDAO.setAvailability");
         try (Connection conn = SQLiteConnector.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, available ? 1 : 0);
             stmt.setInt(2, slotId);
-            stmt.executeUpdate();
+            timer.updated(stmt.executeUpdate());
 
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to update slot availability", e);
+        } finally {
+            timer.stop();
         }
     }
 
@@ -150,18 +172,22 @@ public class SpacewalkSlotDAO {
      * @return true if the slot is available, false otherwise
      */
     public boolean isSlotAvailable(int slotId) {
-        try (Connection conn = SQLiteConnector.getConnection()) {
+        DaoTimer timer = DaoTimer.start("SpacewalkSlotDAO.isSlotAvailable");
+        try (Connection conn = SQLiteConnector.getReadConnection()) {
             String sql = "SELECT available FROM spacewalk_slots WHERE slot_id = ?";
             PreparedStatement stmt = conn.prepareStatement(sql);
             stmt.setInt(1, slotId);
             ResultSet rs = stmt.executeQuery();
 
-            if (rs.next()) {
+            if (timer.next(rs)) {
                 int value = rs.getInt("available");
                 return value == 1;
             }
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to check slot availability", e);
+        } finally {
+            timer.stop();
         }
         return false;
     }
@@ -172,13 +198,137 @@ public class SpacewalkSlotDAO {
      * @param slotId the ID of the spacewalk slot to delete
      */
     public void deleteSlot(int slotId) {
+        DaoTimer timer = DaoTimer.start("SpacewalkSlotDAO.deleteSlot");
         try (Connection conn = SQLiteConnector.getConnection()) {
             String sql = "DELETE FROM spacewalk_slots WHERE slot_id = ?";
             PreparedStatement stmt = conn.prepareStatement(sql);
             stmt.setInt(1, slotId);
-            stmt.executeUpdate();
+            timer.updated(stmt.executeUpdate());
         } catch (SQLException e) {
+            timer.failed();
             logger.error("Failed to delete spacewalk slot", e);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Marks a slot as taken if it is still available, as part of a transaction.
+     * The availability check and the update are a single statement, so two bookings can never claim the same slot.
+     *
+     * @param conn   the connection of the current transaction
+     * @param slotId the ID of the spacewalk slot to claim
+     * @return true if the slot was available and is now taken, false otherwise
+     * @throws SQLException if the update fails
+     */
+    public boolean claimSlot(Connection conn, int slotId) throws SQLException {
+        String sql = "UPDATE spacewalk_slots SET available = 0 WHERE slot_id = ? AND available = 1";
+        DaoTimer timer = DaoTimer.start("SpacewalkSlotDAO.claimSlot");
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, slotId);
+            return timer.updated(stmt.executeUpdate()) == 1;
+        } catch (SQLException e) {
+            timer.failed();
+            throw e;
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Updates the availability of a spacewalk slot as part of a transaction.
+     *
+     * @param conn      the connection of the current transaction
+     * @param slotId    the ID of the spacewalk slot to update
+     * @param available the new availability status
+     * @return true if the slot exists, false otherwise
+     * @throws SQLException if the update fails
+     */
+    public boolean setAvailability(Connection conn, int slotId, boolean available) throws SQLException {
+        String sql = "UPDATE spacewalk_slots SET available = ? WHERE slot_id = ?";
+        DaoTimer timer = DaoTimer.start("SpacewalkSlotDAO.setAvailability(tx)");
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, available ? 1 : 0);
+            stmt.setInt(2, slotId);
+            return timer.updated(stmt.executeUpdate()) == 1;
+        } catch (SQLException e) {
+            timer.failed();
+            throw e;
+        } finally {
+            timer.stop();
         }
     }
+
+    /**
+     * Passes every available spacewalk slot to the callback, ordered by slot ID.
+     *
+     * @param callback receives one SpacewalkSlot per row
+     * @throws IOException if the callback fails or the query fails
+     */
+    public void forEachAvailableSlot(RowCallback<SpacewalkSlot> callback) throws IOException {
+        String sql = "SELECT * FROM spacewalk_slots WHERE available = 1 AND slot_id > ? ORDER BY slot_id LIMIT ?";
+
+        ChunkedQuery.forEach("SpacewalkSlotDAO.forEachAvailableSlot", Integer.MAX_VALUE, (conn, last, limit) -> {
+            PreparedStatement stmt = conn.prepareStatement(sql);
+            stmt.setInt(1, last == null ? 0 : last.getSlotId());
+            stmt.setInt(2, limit);
+            return stmt;
+        }, SpacewalkSlotDAO::mapSlot, callback);
+    }
+
+    /**
+     * Passes the available spacewalk slots whose time lies in a range to the callback, ordered by time.
+     *
+     * @param fromTime the earliest slot time, inclusive, or null for no lower bound
+     * @param toTime   the latest slot time, exclusive, or null for no upper bound
+     * @param callback receives one SpacewalkSlot per row
+     * @throws IOException if the callback fails or the query fails
+     */
+    public void forEachAvailableSlot(String fromTime, String toTime, RowCallback<SpacewalkSlot> callback) throws IOException {
+        // Slots with the same time are ordered by ID, so a chunk continues after the exact slot the last one ended with
+        String sql = "SELECT * FROM spacewalk_slots WHERE available = 1"
+                + " AND (? IS NULL OR slot_time >= ?) AND (? IS NULL OR slot_time < ?)"
+                + " AND (? IS NULL OR slot_time > ? OR (slot_time = ? AND slot_id > ?))"
+                + " ORDER BY slot_time, slot_id LIMIT ?";
+
+        ChunkedQuery.forEach("SpacewalkSlotDAO.forEachAvailableSlot(range)", Integer.MAX_VALUE, (conn, last, limit) -> {
+            String lastTime = last == null ? null : last.getSlotTime();
+            PreparedStatement stmt = conn.prepareStatement(sql);
+            stmt.setString(1, fromTime);
+            stmt.setString(2, fromTime);
+            stmt.setString(3, toTime);
+            stmt.setString(4, toTime);
+            stmt.setString(5, lastTime);
+            stmt.setString(6, lastTime);
+            stmt.setString(7, lastTime);
+            stmt.setInt(8, last == null ? 0 : last.getSlotId());
+            stmt.setInt(9, limit);
+            return stmt;
+        }, SpacewalkSlotDAO::mapSlot, callback);
+    }
+
+    /**
+     * Passes every spacewalk slot, available or not, to the callback, ordered by slot ID.
+     *
+     * @param callback receives one SpacewalkSlot per row
+     * @throws IOException if the callback fails or the query fails
+     */
+    public void forEachSlot(RowCallback<SpacewalkSlot> callback) throws IOException {
+        String sql = "SELECT * FROM spacewalk_slots WHERE slot_id > ? ORDER BY slot_id LIMIT ?";
+
+        ChunkedQuery.forEach("SpacewalkSlotDAO.forEachSlot", Integer.MAX_VALUE, (conn, last, limit) -> {
+            PreparedStatement stmt = conn.prepareStatement(sql);
+            stmt.setInt(1, last == null ? 0 : last.getSlotId());
+            stmt.setInt(2, limit);
+            return stmt;
+        }, SpacewalkSlotDAO::mapSlot, callback);
+    }
+
+    private static SpacewalkSlot mapSlot(ResultSet rs) throws SQLException {
+        return new SpacewalkSlot(
+                rs.getInt("slot_id"),
+                rs.getString("slot_time"),
+                rs.getInt("available") == 1
+        );
+    }
 }
@@ -0,0 +1,96 @@
+package com.inFlight.server.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * WhereClause collects the conditions of a filtered query together with their parameters.
+ * A condition is only added when its value is set, so the query contains exactly the filters that are used
+ * and SQLite can pick an index for each of them.
+ */
+final class WhereClause {
+    private final List<String> conditions = new ArrayList<>(); // Conditions with one ? each
+    private final List<Object> values = new ArrayList<>(); // Values of the conditions, in the same order
+
+    /**
+     * Adds a condition if the value is not null.
+     *
+     * @param condition the condition with one ? for the value, e.g. "status = ?"
+     * @param value     an Integer, Boolean or String, or null to skip the condition
+     * @return this WhereClause
+     */
+    WhereClause and(String condition, Object value) {
+        if (value != null) {
+            conditions.add(condition);
+            values.add(value);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the clause to append to the query.
+     *
+     * @return " WHERE a AND b", or an empty string without conditions
+     */
+    String toSql() {
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    /**
+     * Binds the values to the statement, starting at parameter 1.
+     *
+     * @param stmt the statement prepared from a query with this clause
+     * @throws SQLException if a value cannot be bound
+     */
+    void bind(PreparedStatement stmt) throws SQLException {
+        for (int i = 0; i < values.size(); i++) {
+            Object value = values.get(i);
+            if (value instanceof Integer number) {
+                stmt.setInt(i + 1, number);
+            } else if (value instanceof Boolean flag) {
+                stmt.setInt(i + 1, flag ? 1 : 0);
+            } else {
+                stmt.setString(i + 1, value.toString());
+            }
+        }
+    }
+
+    /**
+     * Prepares a query that contains this clause and binds its values.
+     *
+     * @param conn the connection to prepare the statement on
+     * @param sql  the query with this clause
+     * @return the prepared statement
+     * @throws SQLException if the statement cannot be prepared or a value cannot be bound
+     */
+    PreparedStatement prepare(Connection conn, String sql) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(sql);
+        bind(stmt);
+        return stmt;
+    }
+
+    /**
+     * Returns the ORDER BY and LIMIT part of a keyset-paginated query. The condition on the ID must have been added
+     * with pageAfter.
+     *
+     * @param idColumn the ID column the pages are ordered by
+     * @param page     the requested page
+     * @return " ORDER BY id" with " LIMIT n" if the page is limited
+     */
+    static String orderAndLimit(String idColumn, PageRequest page) {
+        return " ORDER BY " + idColumn + (page.isLimited() ? " LIMIT " + page.limit() : "");
+    }
+
+    /**
+     * Returns the value of the "id > ?" condition of a page, or null for the first page.
+     *
+     * @param page the requested page
+     * @return afterId, or null if the page starts at the beginning
+     */
+    static Integer pageAfter(PageRequest page) {
+        return page.afterId() > 0 ? page.afterId() : null;
+    }
+}
@@ -0,0 +1,328 @@
+package com.inFlight.server.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ConnectionPool keeps SQLite connections open and hands them out again instead of opening the database file
+ * for every request. SQLite allows only one writer at a time, so the pool holds exactly one writer connection,
+ * which is handed to one thread at a time, plus a bounded set of read-only connections for queries.
+ * Idle connections are validated before they are reused and replaced when they are no longer usable.
+ */
+public class ConnectionPool implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1; // Timeout passed to Connection.isValid
+
+    /**
+     * Opens the physical connections held by the pool.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        /**
+         * Opens a new connection to the database.
+         *
+         * @param readOnly true if the connection is only used for queries
+         * @return the new connection
+         * @throws SQLException if the connection cannot be opened
+         */
+        Connection open(boolean readOnly) throws SQLException;
+    }
+
+    private final ConnectionFactory factory; // Opens the physical connections
+    private final int maxReaders; // Maximum number of read connections
+    private final long borrowTimeoutMillis; // How long a caller waits for a free connection
+    private final long validationIntervalMillis; // Idle time after which a connection is validated before reuse
+
+    private final Semaphore writerPermit = new Semaphore(1, true); // Only one thread writes at a time
+    private final Semaphore readerPermits; // Bounds the number of read connections in use
+    private final LinkedBlockingDeque<PooledConnection> idleReaders = new LinkedBlockingDeque<>(); // Most recently used first
+    private volatile PooledConnection writer; // The single writer connection, opened on first use
+    private volatile boolean closed; // Set once the pool is shut down
+
+    private final LongAdder borrowCount = new LongAdder(); // Number of connections handed out
+    private final LongAdder totalWaitNanos = new LongAdder(); // Time callers spent waiting for a connection
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0); // Longest single wait
+    private final LongAdder timeouts = new LongAdder(); // Borrow attempts that gave up waiting
+    private final LongAdder replacedConnections = new LongAdder(); // Connections dropped after failing validation
+
+    /**
+     * Constructor for the ConnectionPool class.
+     *
+     * @param factory                  opens the physical connections
+     * @param maxReaders               the maximum number of read connections
+     * @param borrowTimeoutMillis      how long a caller waits for a free connection before failing
+     * @param validationIntervalMillis idle time after which a connection is validated before it is reused
+     */
+    public ConnectionPool(ConnectionFactory factory, int maxReaders, long borrowTimeoutMillis, long validationIntervalMillis) {
+        if (maxReaders < 1) {
+            throw new IllegalArgumentException("maxReaders must be at least 1");
+        }
+        this.factory = factory;
+        this.maxReaders = maxReaders;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.validationIntervalMillis = validationIntervalMillis;
+        this.readerPermits = new Semaphore(maxReaders, true);
+    }
+
+    /**
+     * Borrows the writer connection, waiting while another thread holds it.
+     * Closing the returned connection gives it back to the pool.
+     *
+     * @return the writer connection
+     * @throws SQLException if no connection became free in time or the connection cannot be opened
+     */
+    public Connection getWriteConnection() throws SQLException {
+        acquire(writerPermit, "writer");
+        try {
+            PooledConnection connection = writer;
+            if (connection == null || !isUsable(connection)) {
+                if (connection != null) {
+                    replacedConnections.increment();
+                    discard(connection);
+                }
+                connection = new PooledConnection(factory.open(false), false);
+                writer = connection;
+            }
+            return connection.lease();
+        } catch (SQLException | RuntimeException e) {
+            writerPermit.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Borrows a read-only connection, reusing an idle one if possible.
+     * Closing the returned connection gives it back to the pool.
+     *
+     * @return a read-only connection
+     * @throws SQLException if no connection became free in time or the connection cannot be opened
+     */
+    public Connection getReadConnection() throws SQLException {
+        acquire(readerPermits, "reader");
+        try {
+            PooledConnection connection;
+            while ((connection = idleReaders.pollFirst()) != null) {
+                if (isUsable(connection)) {
+                    return connection.lease();
+                }
+                replacedConnections.increment();
+                discard(connection);
+            }
+            connection = new PooledConnection(factory.open(true), true);
+            return connection.lease();
+        } catch (SQLException | RuntimeException e) {
+            readerPermits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a snapshot of the pool usage counters.
+     *
+     * @return the current PoolMetrics
+     */
+    public PoolMetrics getMetrics() {
+        int idle = idleReaders.size();
+        int activeReaders = maxReaders - readerPermits.availablePermits();
+        return new PoolMetrics(
+                writerPermit.availablePermits() == 0,
+                activeReaders,
+                idle,
+                maxReaders,
+                borrowCount.sum(),
+                totalWaitNanos.sum(),
+                maxWaitNanos.get(),
+                timeouts.sum(),
+                replacedConnections.sum());
+    }
+
+    /**
+     * Closes all idle connections. Connections that are still borrowed are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        PooledConnection connection;
+        while ((connection = idleReaders.pollFirst()) != null) {
+            discard(connection);
+        }
+        if (writer != null && writerPermit.tryAcquire()) {
+            discard(writer);
+            writer = null;
+            writerPermit.release();
+        }
+    }
+
+    private void acquire(Semaphore semaphore, String kind) throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        long waited = System.nanoTime() - start;
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulate(waited);
+        if (!acquired) {
+            timeouts.increment();
+            throw new SQLException("Timed out after " + borrowTimeoutMillis + " ms waiting for a " + kind + " connection");
+        }
+        borrowCount.increment();
+    }
+
+    /**
+     * Checks a connection before it is handed out again. Connections that were used recently are trusted,
+     * older ones are asked whether they are still valid.
+     */
+    private boolean isUsable(PooledConnection connection) {
+        try {
+            if (connection.physical.isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - connection.lastReturned < validationIntervalMillis) {
+                return true;
+            }
+            return connection.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            logger.warn("Connection validation failed", e);
+            return false;
+        }
+    }
+
+    private void discard(PooledConnection connection) {
+        try {
+            connection.physical.close();
+        } catch (SQLException e) {
+            logger.warn("Failed to close pooled connection", e);
+        }
+    }
+
+    /**
+     * Called when a borrowed connection is closed by the caller.
+     */
+    private void release(PooledConnection connection) {
+        connection.lastReturned = System.currentTimeMillis();
+        boolean reusable = connection.reset();
+        if (connection.readOnly) {
+            if (reusable && !closed) {
+                idleReaders.offerFirst(connection);
+            } else {
+                if (!reusable) {
+                    replacedConnections.increment();
+                }
+                discard(connection);
+            }
+            readerPermits.release();
+        } else {
+            if (!reusable || closed) {
+                if (!reusable) {
+                    replacedConnections.increment();
+                }
+                discard(connection);
+                writer = null;
+            }
+            writerPermit.release();
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool together with the statements opened during the current lease.
+     */
+    private final class PooledConnection {
+        private final Connection physical; // The connection opened by the factory
+        private final boolean readOnly; // True for read connections
+        private final List<Statement> statements = new ArrayList<>(); // Statements opened during the current lease
+        private volatile long lastReturned = System.currentTimeMillis(); // When the connection was last given back
+
+        private PooledConnection(Connection physical, boolean readOnly) {
+            this.physical = physical;
+            this.readOnly = readOnly;
+        }
+
+        /**
+         * Wraps the physical connection for one borrower. The first close returns it to the pool,
+         * later calls on the wrapper after that are rejected.
+         */
+        private Connection lease() {
+            AtomicBoolean returned = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                                if (returned.compareAndSet(false, true)) {
+                                    release(this);
+                                }
+                                return null;
+                            case "isClosed":
+                                return returned.get() || physical.isClosed();
+                            case "unwrap":
+                            case "isWrapperFor":
+                                break;
+                            default:
+                                if (returned.get()) {
+                                    throw new SQLException("Connection has been returned to the pool");
+                                }
+                        }
+                        try {
+                            Object result = method.invoke(physical, args);
+                            if (result instanceof Statement statement) {
+                                statements.add(statement);
+                            }
+                            return result;
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+
+        /**
+         * Closes statements left open by the borrower and rolls back an unfinished transaction,
+         * so the next borrower gets a clean connection.
+         *
+         * @return true if the connection can be reused
+         */
+        private boolean reset() {
+            boolean reusable = true;
+            for (Statement statement : statements) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    logger.warn("Failed to close statement left open on a pooled connection", e);
+                }
+            }
+            statements.clear();
+            try {
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                logger.warn("Failed to reset pooled connection, it will be replaced", e);
+                reusable = false;
+            }
+            return reusable;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.inFlight.server.db;
+
+/**
+ * PoolMetrics is a snapshot of the usage counters of a ConnectionPool.
+ *
+ * @param writerActive         true if the writer connection is currently borrowed
+ * @param activeReaders        the number of read connections currently borrowed
+ * @param idleReaders          the number of open read connections waiting to be reused
+ * @param maxReaders           the maximum number of read connections
+ * @param borrowCount          the number of connections handed out since the pool was created
+ * @param totalWaitNanos       the total time callers spent waiting for a connection
+ * @param maxWaitNanos         the longest time a single caller waited for a connection
+ * @param timeouts             the number of callers that gave up waiting
+ * @param replacedConnections  the number of connections dropped because they were no longer usable
+ */
+public record PoolMetrics(boolean writerActive,
+                          int activeReaders,
+                          int idleReaders,
+                          int maxReaders,
+                          long borrowCount,
+                          long totalWaitNanos,
+                          long maxWaitNanos,
+                          long timeouts,
+                          long replacedConnections) {
+
+    /**
+     * Returns the average time a caller waited for a connection.
+     *
+     * @return the average wait in nanoseconds, or 0 if nothing was borrowed yet
+     */
+    public long averageWaitNanos() {
+        return borrowCount == 0 ? 0 : totalWaitNanos / borrowCount;
+    }
+}
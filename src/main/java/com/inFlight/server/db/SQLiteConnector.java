@@ -2,29 +2,135 @@ package com.inFlight.server.db;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sqlite.SQLiteConfig;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
- * SQLiteConnector is a utility class that provides a method to establish a connection to the SQLite database.
- * It uses the JDBC driver to connect to the database located at the specified path.
+ * SQLiteConnector is a utility class that provides the connections to the SQLite database.
+ * Connections come from a ConnectionPool, so the database file is opened once and reused across requests.
+ * Writes go through the single writer connection, queries can use one of the read-only connections.
+ * Every connection is opened with the PRAGMAs of the configured StorageProfile.
+ * The pool size also bounds how many threads work on the database at the same time, so thousands of virtual
+ * client threads queue up here instead of all entering the native SQLite driver.
+ * A thread inside the driver pins its carrier thread, so by default the pool is one connection smaller than the
+ * number of processors, which leaves a carrier free for the virtual threads that do not use the database.
  */
 public class SQLiteConnector {
     private static final Logger logger = LoggerFactory.getLogger(SQLiteConnector.class); // Logger for logging messages
 
-    private static final String DB_PATH = "src/main/resources/inFlightDB.db"; // Path to the SQLite database file
-    private static final String DB_URL = "jdbc:sqlite:" + DB_PATH; // JDBC URL for SQLite database
+    public static final String DB_PATH_PROPERTY = "inflight.db.path"; // System property for the database file
+    private static volatile String dbPath = System.getProperty(DB_PATH_PROPERTY, "src/main/resources/inFlightDB.db"); // Path to the SQLite database file
+    private static volatile StorageProfile profile = StorageProfile.fromSystemProperties(); // PRAGMAs applied on open
+
+    public static final String MAX_CONCURRENCY_PROPERTY = "inflight.db.maxConcurrency"; // System property for the pool size
+    private static final int MAX_CONCURRENCY = Integer.getInteger(MAX_CONCURRENCY_PROPERTY,
+            Math.max(2, Runtime.getRuntime().availableProcessors() - 1)); // Writer plus read connections
+    private static final long BORROW_TIMEOUT_MILLIS = Long.getLong("inflight.db.borrowTimeoutMillis", 30_000); // Max wait for a connection
+    private static final long VALIDATION_INTERVAL_MILLIS = 30_000; // Idle connections older than this are validated
+
+    private static volatile ConnectionPool pool; // Created on first use
 
     /**
-     * Establishes a connection to the SQLite database.
+     * Borrows the writer connection of the pool. Use it for every statement that changes the database.
+     * Closing the returned connection gives it back to the pool.
      *
      * @return a Connection object representing the connection to the database.
      * @throws SQLException if there is an error establishing the connection.
      */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL);
+        return pool().getWriteConnection();
+    }
+
+    /**
+     * Borrows a read-only connection of the pool. Use it for queries that do not change the database.
+     * Closing the returned connection gives it back to the pool.
+     *
+     * @return a read-only Connection to the database.
+     * @throws SQLException if there is an error establishing the connection.
+     */
+    public static Connection getReadConnection() throws SQLException {
+        return pool().getReadConnection();
     }
-}
 
+    /**
+     * Returns the usage counters of the connection pool.
+     *
+     * @return the current PoolMetrics
+     */
+    public static PoolMetrics getPoolMetrics() {
+        return pool().getMetrics();
+    }
+
+    /**
+     * getter for dbPath.
+     * @return the path of the SQLite database file new connections are opened on
+     */
+    public static String getDbPath() {
+        return dbPath;
+    }
+
+    /**
+     * getter for readConnectionCount.
+     * @return the maximum number of read-only connections of the pool
+     */
+    public static int getReadConnectionCount() {
+        return Math.max(1, MAX_CONCURRENCY - 1);
+    }
+
+    /**
+     * Points the connector at another database file or storage profile, for tools and benchmarks.
+     * The current pool is closed, the next connection is opened with the new settings.
+     *
+     * @param path           the path of the SQLite database file
+     * @param storageProfile the PRAGMA settings applied to new connections
+     */
+    public static synchronized void configure(String path, StorageProfile storageProfile) {
+        shutdown();
+        dbPath = path;
+        profile = storageProfile;
+    }
+
+    /**
+     * Closes the connection pool. A new pool is created the next time a connection is requested.
+     */
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+    }
+
+    private static ConnectionPool pool() {
+        ConnectionPool current = pool;
+        if (current != null) {
+            return current;
+        }
+        synchronized (SQLiteConnector.class) {
+            if (pool == null) {
+                int readers = getReadConnectionCount();
+                logger.info("Opening connection pool for {} with 1 writer and {} read connections ({})", dbPath, readers, profile);
+                pool = new ConnectionPool(SQLiteConnector::openConnection, readers, BORROW_TIMEOUT_MILLIS, VALIDATION_INTERVAL_MILLIS);
+                // The writer sets the journal mode, so it is opened before any reader
+                try {
+                    pool.getWriteConnection().close();
+                } catch (SQLException e) {
+                    logger.error("Failed to open the writer connection", e);
+                }
+            }
+            return pool;
+        }
+    }
+
+    /**
+     * Opens a physical connection to the database file.
+     */
+    private static Connection openConnection(boolean readOnly) throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(readOnly);
+        profile.applyTo(config, readOnly);
+        return DriverManager.getConnection("jdbc:sqlite:" + dbPath, config.toProperties());
+    }
+}
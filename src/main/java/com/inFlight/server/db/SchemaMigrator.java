@@ -0,0 +1,147 @@
+package com.inFlight.server.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * SchemaMigrator brings the schema of inFlightDB.db up to date when the server starts.
+ * The database stores the version of the last migration it received in PRAGMA user_version. Every migration with a
+ * higher version runs in its own transaction, together with the update of user_version, so a failed migration leaves
+ * the database at the previous version and is tried again on the next start.
+ * New schema changes are added as a new Migration at the end of MIGRATIONS; released migrations are never edited.
+ */
+public class SchemaMigrator {
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    /**
+     * A numbered set of statements that changes the schema.
+     *
+     * @param version     the schema version after the migration, one higher than the previous migration
+     * @param description what the migration changes, for the log
+     * @param statements  the SQL statements, run in order
+     */
+    public record Migration(int version, String description, List<String> statements) {
+    }
+
+    /**
+     * The migrations of the server, in version order.
+     * The indexes carry every column the DAOs select, so SELECT * lookups are answered from the index alone.
+     * The chat index has no extra columns, because it would copy every message text; as in every SQLite index,
+     * the row ID (chat_message.id) is stored in it, so "id > ?" and "ORDER BY id" are still served by the index.
+     * The unique constraint on passengers.username already created an index, so username lookups need none.
+     */
+    public static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Indexes for the lookups of the DAOs", List.of(
+                    "DROP TABLE IF EXISTS pilot_attendant_messages_dg_tmp",
+                    "CREATE INDEX IF NOT EXISTS idx_chat_message_sender_receiver ON chat_message (sender, receiver)",
+                    "CREATE INDEX IF NOT EXISTS idx_bookings_passenger ON bookings (passenger_id, slot_id, tier, status)",
+                    "CREATE INDEX IF NOT EXISTS idx_bookings_status ON bookings (status, passenger_id, slot_id, tier)",
+                    "CREATE INDEX IF NOT EXISTS idx_photographer_name ON photographer (name, checked_out)",
+                    "CREATE INDEX IF NOT EXISTS idx_inventory_item_owner_role"
+                            + " ON inventory_item (owner_role, name, condition, available, checked_out)"
+            ))
+    );
+
+    private final List<Migration> migrations; // Migrations in version order
+
+    /**
+     * Default constructor uses the migrations of the server.
+     */
+    public SchemaMigrator() {
+        this(MIGRATIONS);
+    }
+
+    /**
+     * Constructor for dependency injection
+     *
+     * @param migrations the migrations, in version order
+     */
+    public SchemaMigrator(List<Migration> migrations) {
+        for (int i = 0; i < migrations.size(); i++) {
+            if (migrations.get(i).version() != i + 1) {
+                throw new IllegalArgumentException("Migration versions must be 1, 2, 3, ... but found "
+                        + migrations.get(i).version() + " at position " + i);
+            }
+        }
+        this.migrations = List.copyOf(migrations);
+    }
+
+    /**
+     * Runs the pending migrations on the database of the SQLiteConnector.
+     * A failure is logged and the server keeps running on the schema it has.
+     */
+    public static void migrateDatabase() {
+        try (Connection conn = SQLiteConnector.getConnection()) {
+            new SchemaMigrator().migrate(conn);
+        } catch (SQLException e) {
+            logger.error("Failed to migrate the database schema", e);
+        }
+    }
+
+    /**
+     * Runs every migration the database has not received yet.
+     *
+     * @param conn a writable connection in auto-commit mode
+     * @return the schema version of the database afterwards
+     * @throws SQLException if a migration fails, after it was rolled back
+     */
+    public int migrate(Connection conn) throws SQLException {
+        int version = getVersion(conn);
+        if (version > getLatestVersion()) {
+            logger.warn("Database schema version {} is newer than this server knows ({})", version, getLatestVersion());
+            return version;
+        }
+        for (Migration migration : migrations.subList(version, migrations.size())) {
+            apply(conn, migration);
+            version = migration.version();
+        }
+        logger.info("Database schema is at version {}", version);
+        return version;
+    }
+
+    /**
+     * getter for latestVersion.
+     * @return the version of the last known migration, 0 if there are none
+     */
+    public int getLatestVersion() {
+        return migrations.size();
+    }
+
+    /**
+     * Reads the schema version of a database.
+     *
+     * @param conn a connection to the database
+     * @return the user_version of the database, 0 for a database that was never migrated
+     * @throws SQLException if the version cannot be read
+     */
+    public static int getVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void apply(Connection conn, Migration migration) throws SQLException {
+        logger.info("Migrating database schema to version {}: {}", migration.version(), migration.description());
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : migration.statements()) {
+                stmt.executeUpdate(sql);
+            }
+            // PRAGMA does not take parameters; the version is an int
+            stmt.executeUpdate("PRAGMA user_version = " + migration.version());
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.inFlight.server.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sqlite.SQLiteConfig;
+
+import java.util.Locale;
+
+/**
+ * StorageProfile holds the SQLite PRAGMA settings that are applied to every connection when it is opened.
+ * The default profile switches the database to WAL journaling, so readers no longer wait for a booking write
+ * and commits only append to the log instead of syncing the whole database file.
+ * Each setting can be overridden with a system property, for example -Dinflight.db.synchronous=FULL.
+ */
+public class StorageProfile {
+    private static final Logger logger = LoggerFactory.getLogger(StorageProfile.class);
+
+    public static final String JOURNAL_MODE_PROPERTY = "inflight.db.journalMode"; // e.g. WAL or DELETE
+    public static final String SYNCHRONOUS_PROPERTY = "inflight.db.synchronous"; // OFF, NORMAL or FULL
+    public static final String CACHE_SIZE_PROPERTY = "inflight.db.cacheSize"; // Pages, or KiB when negative
+    public static final String MMAP_SIZE_PROPERTY = "inflight.db.mmapSize"; // Bytes of the file mapped into memory
+    public static final String TEMP_STORE_PROPERTY = "inflight.db.tempStore"; // DEFAULT, FILE or MEMORY
+    public static final String BUSY_TIMEOUT_PROPERTY = "inflight.db.busyTimeout"; // Milliseconds to wait for a lock
+
+    private final SQLiteConfig.JournalMode journalMode; // Journal mode, set by the writer connection
+    private final SQLiteConfig.SynchronousMode synchronous; // How often SQLite syncs to disk
+    private final int cacheSize; // Page cache per connection
+    private final long mmapSize; // Memory-mapped I/O size, 0 disables it
+    private final SQLiteConfig.TempStore tempStore; // Where temporary tables and indices are kept
+    private final int busyTimeout; // Milliseconds a connection waits for a lock before failing
+
+    /**
+     * Constructor for the StorageProfile class.
+     *
+     * @param journalMode the journal mode
+     * @param synchronous the synchronous level
+     * @param cacheSize   the page cache size, in pages or in KiB when negative
+     * @param mmapSize    the memory-mapped I/O size in bytes
+     * @param tempStore   where temporary tables are kept
+     * @param busyTimeout milliseconds to wait for a lock
+     */
+    public StorageProfile(SQLiteConfig.JournalMode journalMode, SQLiteConfig.SynchronousMode synchronous, int cacheSize,
+                          long mmapSize, SQLiteConfig.TempStore tempStore, int busyTimeout) {
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.cacheSize = cacheSize;
+        this.mmapSize = mmapSize;
+        this.tempStore = tempStore;
+        this.busyTimeout = busyTimeout;
+    }
+
+    /**
+     * The tuned profile: WAL journaling with NORMAL sync, a 16 MiB page cache, 64 MiB of memory-mapped I/O
+     * and temporary tables in memory.
+     *
+     * @return the tuned StorageProfile
+     */
+    public static StorageProfile tuned() {
+        return new StorageProfile(SQLiteConfig.JournalMode.WAL, SQLiteConfig.SynchronousMode.NORMAL,
+                -16_000, 64L * 1024 * 1024, SQLiteConfig.TempStore.MEMORY, 5_000);
+    }
+
+    /**
+     * The settings SQLite uses when nothing is configured: rollback journal, FULL sync and a 2 MiB cache.
+     *
+     * @return the legacy StorageProfile
+     */
+    public static StorageProfile legacy() {
+        return new StorageProfile(SQLiteConfig.JournalMode.DELETE, SQLiteConfig.SynchronousMode.FULL,
+                -2_000, 0, SQLiteConfig.TempStore.DEFAULT, 3_000);
+    }
+
+    /**
+     * Builds the profile from system properties, using the tuned profile for every setting that is not set.
+     *
+     * @return the configured StorageProfile
+     */
+    public static StorageProfile fromSystemProperties() {
+        StorageProfile defaults = tuned();
+        return new StorageProfile(
+                enumProperty(JOURNAL_MODE_PROPERTY, SQLiteConfig.JournalMode.class, defaults.journalMode),
+                enumProperty(SYNCHRONOUS_PROPERTY, SQLiteConfig.SynchronousMode.class, defaults.synchronous),
+                Integer.getInteger(CACHE_SIZE_PROPERTY, defaults.cacheSize),
+                Long.getLong(MMAP_SIZE_PROPERTY, defaults.mmapSize),
+                enumProperty(TEMP_STORE_PROPERTY, SQLiteConfig.TempStore.class, defaults.tempStore),
+                Integer.getInteger(BUSY_TIMEOUT_PROPERTY, defaults.busyTimeout));
+    }
+
+    /**
+     * Writes the settings into the configuration used to open a connection.
+     * The journal mode is stored in the database file, so only the writer connection sets it.
+     *
+     * @param config   the configuration of the connection that is about to be opened
+     * @param readOnly true if the connection is a read-only connection
+     */
+    public void applyTo(SQLiteConfig config, boolean readOnly) {
+        if (!readOnly) {
+            config.setJournalMode(journalMode);
+        }
+        config.setSynchronous(synchronous);
+        config.setCacheSize(cacheSize);
+        config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, Long.toString(mmapSize));
+        config.setTempStore(tempStore);
+        config.setBusyTimeout(busyTimeout);
+    }
+
+    @Override
+    public String toString() {
+        return "journal_mode=" + journalMode + ", synchronous=" + synchronous + ", cache_size=" + cacheSize
+                + ", mmap_size=" + mmapSize + ", temp_store=" + tempStore + ", busy_timeout=" + busyTimeout;
+    }
+
+    private static <E extends Enum<E>> E enumProperty(String property, Class<E> type, E defaultValue) {
+        String value = System.getProperty(property);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Unknown value '{}' for {}, using {}", value, property, defaultValue);
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.inFlight.server.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TransactionManager runs a unit of work on the writer connection inside a single transaction.
+ * All statements of the work share one connection and are committed together, or rolled back together
+ * if the work throws.
+ * Code running inside the work can register callbacks with afterCommit and afterRollback, for example to update
+ * in-memory state only once the change is visible to other connections, or to undo it if the change is discarded.
+ * A transaction started inside the work of another one joins it: it runs on the same writer connection, which
+ * the outer transaction still holds, and is committed or rolled back with it.
+ */
+public class TransactionManager {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionManager.class);
+
+    private static final ThreadLocal<Hooks> CURRENT = new ThreadLocal<>(); // State of the transaction running on this thread
+
+    /**
+     * A unit of work that runs on the connection of the current transaction.
+     *
+     * @param <T> the type of the result
+     */
+    @FunctionalInterface
+    public interface SqlWork<T> {
+        /**
+         * Runs the work. It may call setRollbackOnly to discard its changes without failing,
+         * for example when a guarded update did not match any row.
+         *
+         * @param conn the connection of the transaction
+         * @return the result of the work
+         * @throws SQLException if a statement fails, which rolls back the transaction
+         */
+        T execute(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Runs the given work in a transaction on the writer connection.
+     *
+     * @param work the work to run
+     * @param <T>  the type of the result
+     * @return the result of the work
+     * @throws SQLException if the work or the commit fails; the transaction is rolled back in that case
+     */
+    public <T> T inTransaction(SqlWork<T> work) throws SQLException {
+        Hooks outer = CURRENT.get();
+        if (outer != null) {
+            return joinTransaction(outer, work);
+        }
+        Hooks hooks = new Hooks();
+        T result;
+        try (Connection conn = SQLiteConnector.getConnection()) {
+            conn.setAutoCommit(false);
+            hooks.conn = conn;
+            CURRENT.set(hooks);
+            try {
+                result = work.execute(conn);
+                if (hooks.rollbackOnly) {
+                    conn.rollback();
+                } else {
+                    conn.commit();
+                }
+            } catch (SQLException | RuntimeException e) {
+                hooks.rollbackOnly = true;
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackFailure) {
+                    logger.warn("Failed to roll back transaction", rollbackFailure);
+                    e.addSuppressed(rollbackFailure);
+                }
+                throw e;
+            } finally {
+                CURRENT.remove();
+                // The callbacks run before the writer is handed to the next transaction
+                run(hooks.rollbackOnly ? hooks.afterRollback : hooks.afterCommit);
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException resetFailure) {
+                    // Must not replace the failure of the work or the commit; the pool resets the connection on return
+                    logger.warn("Failed to restore auto-commit after transaction", resetFailure);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Runs nested work on the connection of the transaction already running on this thread.
+     * A failure of the nested work marks the whole transaction for rollback, even if the caller catches it.
+     */
+    private static <T> T joinTransaction(Hooks outer, SqlWork<T> work) throws SQLException {
+        try {
+            return work.execute(outer.conn);
+        } catch (SQLException | RuntimeException e) {
+            outer.rollbackOnly = true;
+            throw e;
+        }
+    }
+
+    /**
+     * Marks the transaction running on the current thread so that it is rolled back instead of committed
+     * when the work returns.
+     *
+     * @throws IllegalStateException if no transaction is running on the current thread
+     */
+    public void setRollbackOnly() {
+        Hooks hooks = CURRENT.get();
+        if (hooks == null) {
+            throw new IllegalStateException("No transaction is running on this thread");
+        }
+        hooks.rollbackOnly = true;
+    }
+
+    /**
+     * Runs the callback once the transaction running on the current thread has committed.
+     * It is dropped if the transaction rolls back. Outside of a transaction the callback runs immediately,
+     * because the change it belongs to is already committed.
+     *
+     * @param callback the code to run after the commit
+     */
+    public static void afterCommit(Runnable callback) {
+        Hooks hooks = CURRENT.get();
+        if (hooks == null) {
+            callback.run();
+        } else {
+            hooks.afterCommit.add(callback);
+        }
+    }
+
+    /**
+     * Runs the callback if the transaction running on the current thread is rolled back.
+     * Outside of a transaction nothing can be rolled back, so the callback is dropped.
+     *
+     * @param callback the code to run after the rollback
+     */
+    public static void afterRollback(Runnable callback) {
+        Hooks hooks = CURRENT.get();
+        if (hooks != null) {
+            hooks.afterRollback.add(callback);
+        }
+    }
+
+    private static void run(List<Runnable> callbacks) {
+        for (Runnable callback : callbacks) {
+            try {
+                callback.run();
+            } catch (RuntimeException e) {
+                logger.warn("Transaction callback failed", e);
+            }
+        }
+    }
+
+    /**
+     * The callbacks and the rollback flag of one transaction.
+     */
+    private static final class Hooks {
+        private final List<Runnable> afterCommit = new ArrayList<>(); // Run once the transaction committed
+        private final List<Runnable> afterRollback = new ArrayList<>(); // Run if the transaction rolled back
+        private boolean rollbackOnly; // Set by setRollbackOnly or by a failure of the work
+        private Connection conn; // Writer connection held by the transaction
+    }
+}
@@ -0,0 +1,34 @@
+package com.inFlight.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * DaoQueryEvent is the JFR event of one DAO method that ran its statements on SQLite, including the wait
+ * for a pooled connection. By default only calls of 5 ms or more are recorded; the threshold is a JFR setting
+ * of the recording.
+ */
+@Name("com.inFlight.DaoQuery")
+@Label("DAO Query")
+@Category({"InFlight", "Database"})
+@Description("A DAO method that queried or changed the database")
+@StackTrace(false)
+@Threshold("5 ms")
+public class DaoQueryEvent extends jdk.jfr.Event {
+    @Label("DAO")
+    public String dao; // Simple class name of the DAO
+
+    @Label("Method")
+    public String method; // DAO method, with (tx) for the variants that run inside a transaction
+
+    @Label("Rows")
+    @Description("Rows read, or rows changed by an update")
+    public int rows;
+
+    @Label("Failed")
+    public boolean failed; // True if the statement threw an SQLException
+}
@@ -0,0 +1,38 @@
+package com.inFlight.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * RequestHandledEvent is the JFR event of one request dispatched by the ProtocolHandler, from parsing the
+ * request to the last character of the response. By default only requests of 10 ms or more are recorded,
+ * which keeps the event cheap enough to stay enabled; the threshold is a JFR setting of the recording.
+ */
+@Name("com.inFlight.RequestHandled")
+@Label("Request Handled")
+@Category({"InFlight", "Server"})
+@Description("A request dispatched by the ProtocolHandler")
+@StackTrace(false)
+@Threshold("10 ms")
+public class RequestHandledEvent extends jdk.jfr.Event {
+    @Label("Action")
+    public String action; // ActionType of the request, null if it could not be parsed
+
+    @Label("Outcome")
+    public String outcome; // OK, ERROR or FAILED
+
+    @Label("Bytes In")
+    @Description("UTF-8 bytes of the request JSON, without the framing")
+    @DataAmount
+    public long bytesIn;
+
+    @Label("Bytes Out")
+    @Description("UTF-8 bytes of the response JSON, without the framing")
+    @DataAmount
+    public long bytesOut;
+}
@@ -0,0 +1,58 @@
+package com.inFlight.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * SessionClosedEvent is the JFR event of a client connection that ended. The connection opens it when it is accepted
+ * and closes it when it ends, so the duration of the event is the lifetime of the session.
+ */
+@Name("com.inFlight.SessionClosed")
+@Label("Session Closed")
+@Category({"InFlight", "Server"})
+@Description("A client disconnected")
+@StackTrace(false)
+public class SessionClosedEvent extends jdk.jfr.Event {
+    @Label("Remote Address")
+    public String remoteAddress; // Address and port of the client
+
+    @Label("Role")
+    @Description("Role the client identified as with its requests, null if it never did")
+    public String role;
+
+    @Label("Requests")
+    public long requests; // Requests the client sent
+
+    /**
+     * Records that a client connected and starts timing its session.
+     *
+     * @param remoteAddress the address of the client
+     * @return the event of the session, to be closed when the session ends
+     */
+    public static SessionClosedEvent open(Object remoteAddress) {
+        SessionClosedEvent event = new SessionClosedEvent();
+        event.begin();
+        SessionOpenedEvent.emit(remoteAddress);
+        return event;
+    }
+
+    /**
+     * Records that the session ended, if the event is enabled.
+     *
+     * @param remoteAddress the address of the client
+     * @param role          the role the client identified as, or null
+     * @param requests      the number of requests of the session
+     */
+    public void close(Object remoteAddress, String role, long requests) {
+        end();
+        if (shouldCommit()) {
+            this.remoteAddress = String.valueOf(remoteAddress);
+            this.role = role;
+            this.requests = requests;
+            commit();
+        }
+    }
+}
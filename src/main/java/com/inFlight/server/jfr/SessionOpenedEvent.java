@@ -0,0 +1,34 @@
+package com.inFlight.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * SessionOpenedEvent is the JFR event of a client connection the server accepted.
+ * The role of the client is not known yet at this point, it is reported by the SessionClosedEvent.
+ */
+@Name("com.inFlight.SessionOpened")
+@Label("Session Opened")
+@Category({"InFlight", "Server"})
+@Description("A client connected")
+@StackTrace(false)
+public class SessionOpenedEvent extends jdk.jfr.Event {
+    @Label("Remote Address")
+    public String remoteAddress; // Address and port of the client
+
+    /**
+     * Records that a client connected, if the event is enabled.
+     *
+     * @param remoteAddress the address of the client
+     */
+    public static void emit(Object remoteAddress) {
+        SessionOpenedEvent event = new SessionOpenedEvent();
+        if (event.shouldCommit()) {
+            event.remoteAddress = String.valueOf(remoteAddress);
+            event.commit();
+        }
+    }
+}
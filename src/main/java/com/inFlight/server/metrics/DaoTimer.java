@@ -0,0 +1,88 @@
+package com.inFlight.server.metrics;
+
+import com.inFlight.server.jfr.DaoQueryEvent;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * DaoTimer measures one DAO call and records it in the shared ServerMetrics when it is stopped.
+ * A DAO method starts it before it borrows its connection, reads its rows with next and counts its updates
+ * with updated, marks it failed where it catches an SQLException, and stops it in a finally block.
+ * Slow calls are also recorded as DaoQueryEvents for JFR.
+ */
+public final class DaoTimer {
+    private final String operation; // DAO and method, e.g. "BookingDAO.getBookingById"
+    private final OperationMetrics metrics; // Metrics of the DAO method
+    private final DaoQueryEvent event; // JFR event of the call
+    private final long startNanos; // Time the call started
+    private int rows; // Rows read or changed so far
+    private boolean failed; // True once the call failed
+
+    private DaoTimer(String operation, OperationMetrics metrics) {
+        this.operation = operation;
+        this.metrics = metrics;
+        this.event = new DaoQueryEvent();
+        event.begin();
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Starts measuring a DAO call.
+     *
+     * @param operation the DAO and method, e.g. "BookingDAO.getBookingById"
+     * @return the running timer
+     */
+    public static DaoTimer start(String operation) {
+        return new DaoTimer(operation, ServerMetrics.getInstance().daoCall(operation));
+    }
+
+    /**
+     * Moves to the next row of a result and counts it.
+     *
+     * @param rs the result of the call
+     * @return true if there is another row
+     * @throws SQLException if reading the result fails
+     */
+    public boolean next(ResultSet rs) throws SQLException {
+        if (rs.next()) {
+            rows++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Counts the rows changed by an update.
+     *
+     * @param count the update count of the statement
+     * @return the update count
+     */
+    public int updated(int count) {
+        rows += count;
+        return count;
+    }
+
+    /**
+     * Marks the call as failed.
+     */
+    public void failed() {
+        failed = true;
+    }
+
+    /**
+     * Stops measuring and records the call.
+     */
+    public void stop() {
+        metrics.record(System.nanoTime() - startNanos, failed ? Outcome.FAILED : Outcome.OK);
+        event.end();
+        if (event.shouldCommit()) {
+            int dot = operation.indexOf('.');
+            event.dao = operation.substring(0, dot);
+            event.method = operation.substring(dot + 1);
+            event.rows = rows;
+            event.failed = failed;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.inFlight.server.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram counts latencies in log-linear buckets, in the style of HdrHistogram.
+ * Every power of two of microseconds is split into 16 buckets, so a percentile is off by at most 1/16 of its value.
+ * Recording is lock-free and does not allocate, so it can be called on every request by many threads at once;
+ * readers see a view that may miss the latencies recorded while they read.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4; // Buckets per power of two are 2^SUB_BUCKET_BITS
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS; // Buckets per power of two
+    private static final int MAX_EXPONENT = 40; // Latencies from 2^41 µs (about 25 days) on share the last bucket
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS; // Number of buckets
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS); // Latencies per bucket
+    private final LongAdder count = new LongAdder(); // Recorded latencies
+    private final LongAdder totalMicros = new LongAdder(); // Sum of the recorded latencies
+    private final AtomicLong maxMicros = new AtomicLong(); // Largest recorded latency
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos the latency in nanoseconds, negative values count as 0
+     */
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+        counts.incrementAndGet(bucketOf(micros));
+        count.increment();
+        totalMicros.add(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    /**
+     * getter for count.
+     * @return the number of recorded latencies
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the mean of the recorded latencies.
+     *
+     * @return the mean in microseconds, 0 if nothing was recorded
+     */
+    public double getMeanMicros() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) totalMicros.sum() / n;
+    }
+
+    /**
+     * getter for totalMicros.
+     * @return the sum of the recorded latencies in microseconds
+     */
+    public long getTotalMicros() {
+        return totalMicros.sum();
+    }
+
+    /**
+     * getter for maxMicros.
+     * @return the largest recorded latency in microseconds
+     */
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    /**
+     * Returns the latency that the given share of the recorded latencies does not exceed.
+     *
+     * @param percentile the share in percent, e.g. 99 for the 99th percentile
+     * @return the upper bound of the bucket that holds the percentile in microseconds, at most the largest
+     *         recorded latency; 0 if nothing was recorded
+     */
+    public long getPercentileMicros(double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), getMaxMicros());
+            }
+        }
+        return getMaxMicros();
+    }
+
+    /**
+     * Returns the bucket of a latency. Latencies below SUB_BUCKETS µs get a bucket each, above that the
+     * highest bit selects a group of SUB_BUCKETS buckets and the next bits select the bucket in the group.
+     */
+    static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) ((micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the largest latency in microseconds that falls into a bucket.
+     */
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((SUB_BUCKETS + subBucket) * width) + width - 1;
+    }
+}
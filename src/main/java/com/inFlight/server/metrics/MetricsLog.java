@@ -0,0 +1,72 @@
+package com.inFlight.server.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MetricsLog writes the summary of the ServerMetrics to the log at a fixed interval while the server runs.
+ * An interval in which no request was handled is not logged.
+ */
+public final class MetricsLog implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsLog.class);
+
+    public static final String INTERVAL_PROPERTY = "inflight.metrics.logIntervalSeconds"; // System property, 0 disables the log
+    public static final int DEFAULT_INTERVAL_SECONDS = 60; // Interval when nothing is configured
+    private static final int TOP = 10; // Actions and DAO methods listed per summary
+
+    private final ServerMetrics metrics; // Metrics that are summarized
+    private final ScheduledExecutorService scheduler; // Runs the log, null if it is disabled
+    private long loggedRequests; // Requests recorded at the last summary, only used by the scheduler thread
+
+    /**
+     * Constructor for the MetricsLog class. Starts logging right away.
+     *
+     * @param metrics         the metrics to summarize
+     * @param intervalSeconds the time between two summaries, 0 or less to not log at all
+     */
+    public MetricsLog(ServerMetrics metrics, long intervalSeconds) {
+        this.metrics = metrics;
+        if (intervalSeconds <= 0) {
+            this.scheduler = null;
+            return;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("metrics-log").daemon().factory());
+        scheduler.scheduleAtFixedRate(this::log, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Creates a MetricsLog with the interval of the inflight.metrics.logIntervalSeconds system property.
+     *
+     * @param metrics the metrics to summarize
+     * @return the started MetricsLog
+     */
+    public static MetricsLog fromSystemProperties(ServerMetrics metrics) {
+        return new MetricsLog(metrics, Integer.getInteger(INTERVAL_PROPERTY, DEFAULT_INTERVAL_SECONDS));
+    }
+
+    /**
+     * Logs the summary if a request was handled since the last one.
+     */
+    void log() {
+        long requests = metrics.getRequestCount();
+        if (requests == loggedRequests) {
+            return;
+        }
+        loggedRequests = requests;
+        metrics.summary(TOP).forEach(logger::info);
+    }
+
+    /**
+     * Stops logging.
+     */
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.inFlight.server.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * OperationMetrics counts the calls of one action or DAO method per Outcome and records their latencies.
+ * Recording is lock-free, so it can be called by every request thread at once.
+ */
+public class OperationMetrics {
+    private final LatencyHistogram latency = new LatencyHistogram(); // Latencies of all calls
+    private final LongAdder[] outcomes = new LongAdder[Outcome.values().length]; // Calls per Outcome ordinal
+
+    /**
+     * Constructor for the OperationMetrics class.
+     */
+    public OperationMetrics() {
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one call.
+     *
+     * @param nanos   the duration of the call in nanoseconds
+     * @param outcome how the call ended
+     */
+    public void record(long nanos, Outcome outcome) {
+        latency.recordNanos(nanos);
+        outcomes[outcome.ordinal()].increment();
+    }
+
+    /**
+     * Returns the number of calls that ended with the given outcome.
+     *
+     * @param outcome the outcome
+     * @return the number of calls
+     */
+    public long getCount(Outcome outcome) {
+        return outcomes[outcome.ordinal()].sum();
+    }
+
+    /**
+     * getter for latency.
+     * @return the latencies of all calls
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Returns the current counters and latencies.
+     *
+     * @return a snapshot with the latencies in milliseconds
+     */
+    public OperationSnapshot snapshot() {
+        return new OperationSnapshot(latency.getCount(), getCount(Outcome.ERROR), getCount(Outcome.FAILED),
+                millis(latency.getTotalMicros()), millis(latency.getMeanMicros()),
+                millis(latency.getPercentileMicros(50)), millis(latency.getPercentileMicros(95)),
+                millis(latency.getPercentileMicros(99)), millis(latency.getMaxMicros()));
+    }
+
+    private static double millis(double micros) {
+        return Math.round(micros) / 1000.0;
+    }
+}
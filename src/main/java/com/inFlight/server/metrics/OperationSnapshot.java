@@ -0,0 +1,19 @@
+package com.inFlight.server.metrics;
+
+/**
+ * OperationSnapshot holds the counters and latencies of one action or DAO method at one point in time,
+ * as returned by GET_METRICS. Latencies are in milliseconds.
+ *
+ * @param count       calls recorded
+ * @param errors      calls answered with status ERROR
+ * @param failures    calls that threw an exception
+ * @param totalMillis time spent in all calls together
+ * @param meanMillis  mean latency
+ * @param p50Millis   median latency
+ * @param p95Millis   95th percentile latency
+ * @param p99Millis   99th percentile latency
+ * @param maxMillis   largest latency
+ */
+public record OperationSnapshot(long count, long errors, long failures, double totalMillis, double meanMillis,
+                                double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+}
@@ -0,0 +1,10 @@
+package com.inFlight.server.metrics;
+
+/**
+ * Outcome is an enum that tells how a request or a DAO call ended.
+ */
+public enum Outcome {
+    OK, // Served
+    ERROR, // Answered with status ERROR, e.g. a rejected booking
+    FAILED // Threw an exception
+}
@@ -0,0 +1,143 @@
+package com.inFlight.server.metrics;
+
+import com.inFlight.shared.protocol.ActionType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * ServerMetrics collects the OperationMetrics of every ActionType the ProtocolHandler dispatches and of every
+ * DAO method that queries the database, so it can be seen which action is eating the server during a busy flight.
+ * The metrics are served by GET_METRICS and logged periodically by the MetricsLog.
+ * A BATCH request is recorded as BATCH and each request inside it under its own action as well.
+ * All connections and DAOs of the server share the instance returned by getInstance.
+ */
+public class ServerMetrics {
+    private static final ServerMetrics INSTANCE = new ServerMetrics(); // Metrics shared by the whole server
+
+    private final long startNanos = System.nanoTime(); // Time the metrics were created
+    private final Map<ActionType, OperationMetrics> actions = new EnumMap<>(ActionType.class); // Filled once, then only read
+    private final ConcurrentMap<String, OperationMetrics> daoCalls = new ConcurrentHashMap<>(); // Per "DAO.method"
+
+    /**
+     * Constructor for the ServerMetrics class.
+     */
+    public ServerMetrics() {
+        for (ActionType action : ActionType.values()) {
+            actions.put(action, new OperationMetrics());
+        }
+    }
+
+    /**
+     * Returns the metrics shared by the whole server.
+     *
+     * @return the shared ServerMetrics
+     */
+    public static ServerMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the metrics of an action.
+     *
+     * @param action the action
+     * @return the OperationMetrics of the action
+     */
+    public OperationMetrics action(ActionType action) {
+        return actions.get(action);
+    }
+
+    /**
+     * Returns the metrics of a DAO method, created on first use.
+     *
+     * @param operation the DAO and method, e.g. "BookingDAO.getBookingById"
+     * @return the OperationMetrics of the method
+     */
+    public OperationMetrics daoCall(String operation) {
+        OperationMetrics metrics = daoCalls.get(operation);
+        return metrics != null ? metrics : daoCalls.computeIfAbsent(operation, name -> new OperationMetrics());
+    }
+
+    /**
+     * Returns the time since the metrics were created.
+     *
+     * @return the uptime in seconds
+     */
+    public long getUptimeSeconds() {
+        return (System.nanoTime() - startNanos) / 1_000_000_000L;
+    }
+
+    /**
+     * Returns the number of requests recorded for all actions together.
+     *
+     * @return the number of requests
+     */
+    public long getRequestCount() {
+        long count = 0;
+        for (OperationMetrics metrics : actions.values()) {
+            count += metrics.getLatency().getCount();
+        }
+        return count;
+    }
+
+    /**
+     * Returns a snapshot of every action that was requested at least once.
+     *
+     * @return the snapshots by action name, the action with the most total time first
+     */
+    public Map<String, OperationSnapshot> getActionSnapshots() {
+        Map<String, OperationSnapshot> snapshots = new LinkedHashMap<>();
+        actions.forEach((action, metrics) -> snapshots.put(action.name(), metrics.snapshot()));
+        return sortedByTotalTime(snapshots);
+    }
+
+    /**
+     * Returns a snapshot of every DAO method that was called at least once.
+     *
+     * @return the snapshots by DAO method, the method with the most total time first
+     */
+    public Map<String, OperationSnapshot> getDaoSnapshots() {
+        Map<String, OperationSnapshot> snapshots = new LinkedHashMap<>();
+        daoCalls.forEach((operation, metrics) -> snapshots.put(operation, metrics.snapshot()));
+        return sortedByTotalTime(snapshots);
+    }
+
+    /**
+     * Describes the actions and DAO methods that took the most time so far, one line each.
+     *
+     * @param limit the number of actions and of DAO methods to list
+     * @return the lines of the summary
+     */
+    public List<String> summary(int limit) {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "%d requests in %d s, top actions by total time:", getRequestCount(), getUptimeSeconds()));
+        getActionSnapshots().entrySet().stream().limit(limit)
+                .forEach(entry -> lines.add(format(entry.getKey(), entry.getValue())));
+        lines.add("top DAO methods by total time:");
+        getDaoSnapshots().entrySet().stream().limit(limit)
+                .forEach(entry -> lines.add(format(entry.getKey(), entry.getValue())));
+        return lines;
+    }
+
+    private static String format(String name, OperationSnapshot s) {
+        return String.format(Locale.ROOT, "  %s: %d calls, %d errors, %d failed, total %.1f ms, p50 %.2f ms, p95 %.2f ms, p99 %.2f ms, max %.2f ms",
+                name, s.count(), s.errors(), s.failures(), s.totalMillis(), s.p50Millis(), s.p95Millis(), s.p99Millis(), s.maxMillis());
+    }
+
+    private static Map<String, OperationSnapshot> sortedByTotalTime(Map<String, OperationSnapshot> snapshots) {
+        Map<String, OperationSnapshot> sorted = new LinkedHashMap<>();
+        snapshots.entrySet().stream()
+                .filter(entry -> entry.getValue().count() > 0)
+                .sorted(Map.Entry.<String, OperationSnapshot>comparingByValue(
+                        Comparator.comparingDouble(OperationSnapshot::totalMillis)).reversed())
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+}
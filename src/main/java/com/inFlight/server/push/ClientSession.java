@@ -0,0 +1,122 @@
+package com.inFlight.server.push;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ClientSession is the server side state of one client connection: the topics the client subscribed to,
+ * the channel event frames are pushed through, and the role the client identified as. The transport that owns the connection creates the session
+ * and closes it when the connection ends, which removes all of its subscriptions from the EventBus.
+ */
+public class ClientSession implements AutoCloseable {
+
+    /**
+     * Delivers pushed frames to the client connection.
+     * Implementations must not block the publishing thread on network I/O.
+     */
+    @FunctionalInterface
+    public interface PushChannel {
+        /**
+         * Queues a frame for delivery to the client.
+         *
+         * @param frame a complete JSON line without the line break
+         */
+        void push(String frame);
+    }
+
+    private final EventBus eventBus; // Bus the subscriptions are registered with
+    private final PushChannel channel; // Delivers frames to the connection
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet(); // Topics of this connection
+    private volatile boolean closed; // Set once the connection ended
+    private volatile String role; // Role the client identified as, null before its first identifying request
+
+    /**
+     * Constructor for the ClientSession class.
+     *
+     * @param eventBus the bus the subscriptions are registered with
+     * @param channel  delivers pushed frames to the connection
+     */
+    public ClientSession(EventBus eventBus, PushChannel channel) {
+        this.eventBus = eventBus;
+        this.channel = channel;
+    }
+
+    /**
+     * Subscribes the connection to a topic.
+     *
+     * @param subscription the topic and key to subscribe to
+     * @return true if the connection was not subscribed yet
+     */
+    public boolean subscribe(Subscription subscription) {
+        if (closed || !subscriptions.add(subscription)) {
+            return false;
+        }
+        eventBus.subscribe(this, subscription);
+        return true;
+    }
+
+    /**
+     * Removes a subscription of the connection.
+     *
+     * @param subscription the topic and key to unsubscribe from
+     * @return true if the connection was subscribed
+     */
+    public boolean unsubscribe(Subscription subscription) {
+        if (!subscriptions.remove(subscription)) {
+            return false;
+        }
+        eventBus.unsubscribe(this, subscription);
+        return true;
+    }
+
+    /**
+     * getter for subscriptions.
+     * @return a read-only view of the current subscriptions
+     */
+    public Set<Subscription> getSubscriptions() {
+        return Collections.unmodifiableSet(subscriptions);
+    }
+
+    /**
+     * Remembers the role of the client, unless it already identified as another one.
+     *
+     * @param role the role, e.g. Passenger or Pilot
+     */
+    public void identify(String role) {
+        if (this.role == null) {
+            this.role = role;
+        }
+    }
+
+    /**
+     * getter for role.
+     * @return the role the client identified as, or null if it did not yet
+     */
+    public String getRole() {
+        return role;
+    }
+
+    /**
+     * Hands a frame to the push channel of the connection. Called by the EventBus.
+     *
+     * @param frame the serialized event frame
+     */
+    void push(String frame) {
+        if (!closed) {
+            channel.push(frame);
+        }
+    }
+
+    /**
+     * Removes all subscriptions of the connection. Frames published afterwards are no longer delivered.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Subscription subscription : subscriptions) {
+            eventBus.unsubscribe(this, subscription);
+        }
+        subscriptions.clear();
+    }
+}
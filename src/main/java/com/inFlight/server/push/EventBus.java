@@ -0,0 +1,111 @@
+package com.inFlight.server.push;
+
+import com.google.gson.Gson;
+import com.inFlight.shared.protocol.EventFrame;
+import com.inFlight.shared.protocol.EventTopic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * EventBus delivers server-side changes to the connections that subscribed to them, so clients no longer have to
+ * poll for bookings, broadcasts, surveys, checkouts, cancellations and chat messages.
+ * Services publish after their change is committed. Each event is serialized once and handed to the PushChannel
+ * of every subscribed ClientSession, which sends it without blocking the publishing request.
+ * Every event is also appended to the EventLog, which numbers it and keeps it for clients that ask for the events
+ * they missed instead of subscribing.
+ * All connections of the server share the instance returned by getInstance.
+ */
+public class EventBus {
+    private static final Logger logger = LoggerFactory.getLogger(EventBus.class);
+
+    private static final EventBus INSTANCE = new EventBus(new Gson(), EventLog.fromSystemProperties()); // Bus shared by all connections
+
+    private final Gson gson; // Serializes the event frames
+    private final EventLog eventLog; // Recent events with their sequence numbers
+    private final Map<Subscription, Set<ClientSession>> subscribers = new ConcurrentHashMap<>(); // Sessions per topic and key
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param gson     Gson instance for serializing the event frames
+     * @param eventLog log the published events are appended to
+     */
+    public EventBus(Gson gson, EventLog eventLog) {
+        this.gson = gson;
+        this.eventLog = eventLog;
+    }
+
+    /**
+     * Returns the bus shared by all connections of the server.
+     *
+     * @return the shared EventBus
+     */
+    public static EventBus getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * getter for eventLog.
+     * @return the log every published event is appended to
+     */
+    public EventLog getEventLog() {
+        return eventLog;
+    }
+
+    /**
+     * Appends an event to the log and pushes it to every connection subscribed to the topic and key.
+     *
+     * @param topic   the topic of the event
+     * @param key     the key of a keyed topic, ignored for the other topics
+     * @param payload the data of the event, serialized with Gson
+     */
+    public void publish(EventTopic topic, String key, Object payload) {
+        Subscription subscription = new Subscription(topic, key);
+        EventFrame event = new EventFrame(topic, subscription.key(), gson.toJsonTree(payload));
+        eventLog.append(event);
+        Set<ClientSession> sessions = subscribers.get(subscription);
+        if (sessions == null || sessions.isEmpty()) {
+            return;
+        }
+        String frame = gson.toJson(event);
+        for (ClientSession session : sessions) {
+            try {
+                session.push(frame);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to push {} event to a client", topic, e);
+            }
+        }
+        logger.debug("Published {} event to {} connections", topic, sessions.size());
+    }
+
+    /**
+     * Returns how many connections are subscribed to a topic and key.
+     *
+     * @param subscription the topic and key
+     * @return the number of subscribed connections
+     */
+    public int getSubscriberCount(Subscription subscription) {
+        Set<ClientSession> sessions = subscribers.get(subscription);
+        return sessions == null ? 0 : sessions.size();
+    }
+
+    void subscribe(ClientSession session, Subscription subscription) {
+        // Added inside compute, so a concurrent unsubscribe cannot drop the set between lookup and add
+        subscribers.compute(subscription, (s, sessions) -> {
+            Set<ClientSession> target = sessions == null ? ConcurrentHashMap.newKeySet() : sessions;
+            target.add(session);
+            return target;
+        });
+    }
+
+    void unsubscribe(ClientSession session, Subscription subscription) {
+        subscribers.computeIfPresent(subscription, (s, sessions) -> {
+            sessions.remove(session);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+}
@@ -0,0 +1,129 @@
+package com.inFlight.server.push;
+
+import com.inFlight.shared.protocol.EventFrame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * EventLog keeps the most recent events in a fixed-size ring buffer and numbers them with a sequence that starts
+ * at 1 and only grows. Clients remember the sequence of the last event they saw and ask for everything after it,
+ * so events are neither lost between two polls nor detected by comparing timestamps.
+ * Appends are serialized, so there is only ever one writer of the buffer. Readers never lock: they read the
+ * published sequence and then the slots, and notice when the writer has overwritten a slot in the meantime.
+ */
+public class EventLog {
+    public static final String CAPACITY_PROPERTY = "inflight.events.capacity"; // System property for the buffer size
+    public static final int DEFAULT_CAPACITY = 1024; // Events kept when nothing is configured
+
+    private final AtomicReferenceArray<EventFrame> slots; // Ring buffer, the frame with sequence s is at s & mask
+    private final int mask; // Capacity minus one, the capacity is a power of two
+    private final ReentrantLock appendLock = new ReentrantLock(); // Makes the appending thread the only writer
+    private volatile long published; // Sequence of the newest event readers may see, 0 if there is none
+
+    /**
+     * Constructor for the EventLog class. The capacity is rounded up to the next power of two.
+     *
+     * @param capacity the number of events kept
+     */
+    public EventLog(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Creates a log with the capacity set by the inflight.events.capacity system property.
+     *
+     * @return the configured EventLog
+     */
+    public static EventLog fromSystemProperties() {
+        return new EventLog(Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Numbers a frame and stores it, overwriting the oldest event once the buffer is full.
+     *
+     * @param frame the frame to store; its sequence is set here
+     * @return the sequence of the frame
+     */
+    public long append(EventFrame frame) {
+        appendLock.lock();
+        try {
+            long seq = published + 1;
+            frame.setSeq(seq);
+            slots.set((int) (seq & mask), frame);
+            published = seq;
+            return seq;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the sequence of the newest event.
+     *
+     * @return the latest sequence, 0 if nothing was appended yet
+     */
+    public long getLatestSeq() {
+        return published;
+    }
+
+    /**
+     * Returns the number of events the log keeps.
+     *
+     * @return the capacity of the ring buffer
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Reads every retained event with a sequence greater than the given one, oldest first.
+     *
+     * @param sinceSeq the sequence of the last event the caller has seen, 0 for all retained events
+     * @param filter   selects the events to return
+     * @return the events and whether the log still held every event after sinceSeq
+     */
+    public Page readSince(long sinceSeq, Predicate<EventFrame> filter) {
+        long latest = published;
+        List<EventFrame> events = new ArrayList<>();
+        if (sinceSeq > latest) {
+            // The caller saw a sequence of an earlier server run
+            return new Page(events, latest, false);
+        }
+        long from = Math.max(sinceSeq + 1, latest - mask);
+        boolean complete = from == sinceSeq + 1;
+        for (long seq = from; seq <= latest; seq++) {
+            EventFrame frame = slots.get((int) (seq & mask));
+            if (frame == null || frame.getSeq() != seq) {
+                // The writer overwrote this slot while we were reading, the event is gone
+                complete = false;
+                continue;
+            }
+            if (filter.test(frame)) {
+                events.add(frame);
+            }
+        }
+        return new Page(events, latest, complete);
+    }
+
+    /**
+     * The result of readSince.
+     *
+     * @param events    the matching events, oldest first
+     * @param latestSeq the sequence to pass as sinceSeq on the next read
+     * @param complete  false if events after sinceSeq were already overwritten and the caller has to reload its state
+     */
+    public record Page(List<EventFrame> events, long latestSeq, boolean complete) {
+    }
+}
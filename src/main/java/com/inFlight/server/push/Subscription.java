@@ -0,0 +1,27 @@
+package com.inFlight.server.push;
+
+import com.inFlight.shared.protocol.EventTopic;
+
+/**
+ * A subscription of a client to one topic, and for keyed topics to one key of it.
+ *
+ * @param topic the subscribed topic
+ * @param key   the passenger ID or chat key of a keyed topic, null for the other topics
+ */
+public record Subscription(EventTopic topic, String key) {
+
+    /**
+     * Checks that keyed topics get a key and the other topics do not.
+     */
+    public Subscription {
+        if (topic == null) {
+            throw new IllegalArgumentException("topic is required");
+        }
+        if (topic.isKeyed() && (key == null || key.isBlank())) {
+            throw new IllegalArgumentException(topic + " needs a key");
+        }
+        if (!topic.isKeyed()) {
+            key = null;
+        }
+    }
+}
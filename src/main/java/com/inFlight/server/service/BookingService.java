@@ -2,19 +2,29 @@ package com.inFlight.server.service;
 
 import com.google.gson.JsonObject;
 import com.inFlight.server.dao.BookingDAO;
+import com.inFlight.server.dao.BookingFilter;
+import com.inFlight.server.dao.PageRequest;
 import com.inFlight.server.dao.PassengerDAO;
+import com.inFlight.server.dao.RowCallback;
 import com.inFlight.server.dao.SpacewalkSlotDAO;
+import com.inFlight.server.db.TransactionManager;
+import com.inFlight.server.push.EventBus;
 import com.inFlight.shared.model.Booking;
+import com.inFlight.shared.model.DetailedBooking;
 import com.inFlight.shared.model.Passenger;
-import com.inFlight.shared.model.SpacewalkSlot;
+import com.inFlight.shared.protocol.EventTopic;
+import com.inFlight.shared.state.CancellationState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.sql.SQLException;
 import java.util.List;
 
 /**
  * BookingService is a service class that handles booking-related operations.
  * It interacts with the BookingDAO, SpacewalkSlotDAO, and PassengerDAO to manage bookings.
+ * Every committed change is published on the EventBus, so subscribed clients learn about it without polling.
  */
 public class BookingService {
     private static final Logger logger = LoggerFactory.getLogger(BookingService.class);
@@ -23,9 +33,12 @@ public class BookingService {
     private final SpacewalkSlotDAO slotDAO; // DAO for spacewalk slot operations
     private final PassengerDAO passengerDAO; // DAO for passenger operations
     private final PassengerService passengerService; // Service for passenger-related operations
+    private final TransactionManager transactionManager; // Runs multi-statement operations as one transaction
+    private final EventBus eventBus; // Pushes booking changes to subscribed clients
     private static final int TIER1_COST = 100000; // Cost for Tier 1 booking
     private static final int TIER2_COST = 250000; // Cost for Tier 2 booking
     private static final int TIER3_COST = 500000; // Cost for Tier 3 booking
+    private static final double CANCEL_REFUND_RATE = 0.75; // Share of the cost refunded when a passenger cancels
 
     /**
      * Default constructor initializes the DAOs and services.
@@ -35,20 +48,27 @@ public class BookingService {
         this.slotDAO = new SpacewalkSlotDAO();
         this.passengerDAO = new PassengerDAO();
         this.passengerService = new PassengerService();
+        this.transactionManager = new TransactionManager();
+        this.eventBus = EventBus.getInstance();
     }
 
     /**
      * Constructor for dependency injection
      */
-    public BookingService(BookingDAO bookingDAO, SpacewalkSlotDAO slotDAO, PassengerDAO passengerDAO, PassengerService passengerService) {
+    public BookingService(BookingDAO bookingDAO, SpacewalkSlotDAO slotDAO, PassengerDAO passengerDAO, PassengerService passengerService,
+                          TransactionManager transactionManager, EventBus eventBus) {
         this.bookingDAO = bookingDAO;
         this.slotDAO = slotDAO;
         this.passengerDAO = passengerDAO;
         this.passengerService = passengerService;
+        this.transactionManager = transactionManager;
+        this.eventBus = eventBus;
     }
 
     /**
      * Processes a booking for a passenger.
+     * Claiming the slot, charging the passenger and inserting the booking run as one transaction,
+     * so a slot can only be booked once even if several passengers book it at the same time.
      *
      * @param passengerId the ID of the passenger
      * @param slotId      the ID of the slot
@@ -59,38 +79,46 @@ public class BookingService {
        // Create a JSON object to store the result
         JsonObject result = new JsonObject();
 
-        //retrieve passenger and slot information
-        Passenger passenger = passengerDAO.getPassengerById(passengerId);
-        SpacewalkSlot slot = slotDAO.getSlotById(slotId);
-
         // Set cost based on tier
-        int cost = switch (tier) {
-            case 1 -> TIER1_COST;
-            case 2 -> TIER2_COST;
-            case 3 -> TIER3_COST;
-            default -> 9999;
-        };
+        int cost = tierCost(tier);
 
-        // Check if the passenger and slot exist and if the slot is still available
-        boolean isStillAvailable = slotDAO.isSlotAvailable(slotId);
+        Integer newBalance;
+        try {
+            newBalance = transactionManager.inTransaction(conn -> {
+                // Take the slot only if it is still available
+                if (!slotDAO.claimSlot(conn, slotId)) {
+                    return null;
+                }
+                // Charge the passenger only if the balance covers the cost
+                Integer balance = passengerDAO.deductNovaCredits(conn, passengerId, cost);
+                if (balance == null) {
+                    transactionManager.setRollbackOnly();
+                    return null;
+                }
+                bookingDAO.insertBooking(conn, new Booking(1, passengerId, slotId, tier, "pending"));
+                return balance;
+            });
+        } catch (SQLException e) {
+            logger.error("Failed to process booking", e);
+            newBalance = null;
+        }
 
-        // Check if the passenger has enough nova credits and if the slot is still available
-        if (passenger == null || slot == null || !isStillAvailable || passenger.getNovaCredits() < cost) {
+        // Fails if the slot was taken or missing, or the passenger was missing or could not afford it
+        if (newBalance == null) {
             result.addProperty("status", "ERROR");
             result.addProperty("message", "Booking failed.");
             return result;
         }
 
-        // Update passenger's nova credits and insert booking
-        passengerDAO.updateNovaCredits(passenger.getPassengerId(), passenger.getNovaCredits() - cost);
-        // Create a new booking
-        bookingDAO.insertBooking(new Booking(1, passengerId, slotId, tier, "pending"));
-        // Update the slot availability
-        slotDAO.setAvailability(slotId, false);
+        JsonObject booking = new JsonObject();
+        booking.addProperty("passengerId", passengerId);
+        booking.addProperty("slotId", slotId);
+        booking.addProperty("tier", tier);
+        eventBus.publish(EventTopic.NEW_BOOKING, null, booking);
 
         //result for the client through JSON
         result.addProperty("status", "OK");
-        result.addProperty("newBalance", passenger.getNovaCredits());
+        result.addProperty("newBalance", newBalance);
         return result;
     }
 
@@ -104,6 +132,17 @@ public class BookingService {
         return bookingDAO.getBookingsByPassenger(passengerId);
     }
 
+    /**
+     * Passes the bookings of a passenger to the callback one at a time.
+     *
+     * @param passengerId the ID of the passenger
+     * @param callback    receives the bookings
+     * @throws IOException if the callback fails
+     */
+    public void forEachBookingForPassenger(int passengerId, RowCallback<Booking> callback) throws IOException {
+        bookingDAO.forEachBookingByPassenger(passengerId, callback);
+    }
+
     /**
      * Retrieves all bookings with a specific status.
      *
@@ -120,16 +159,99 @@ public class BookingService {
      * @param bookingId the ID of the booking to approve
      */
     public void approveBooking(int bookingId) {
-        bookingDAO.updateBookingStatus(bookingId, "approved");
+        setBookingStatus(bookingId, "approved");
+    }
+
+    /**
+     * Cancels a booking on behalf of the passenger.
+     * Deleting the booking, refunding 75% of the tier cost and releasing the slot run as one transaction.
+     * A denied booking cannot be cancelled, because denying it already refunded the full cost.
+     *
+     * @param bookingId the ID of the booking to cancel
+     * @return a JsonObject containing the status and new balance
+     */
+    public JsonObject cancelBooking(int bookingId) {
+        JsonObject result = new JsonObject();
+
+        Settlement refunded;
+        try {
+            refunded = transactionManager.inTransaction(conn -> {
+                Booking canceled = bookingDAO.deleteBooking(conn, bookingId);
+                if (canceled == null) {
+                    return null;
+                }
+                int refund = (int) (tierCost(canceled.getTier()) * CANCEL_REFUND_RATE);
+                Passenger passenger = passengerDAO.addNovaCredits(conn, canceled.getPassengerId(), refund);
+                if (passenger == null || !slotDAO.setAvailability(conn, canceled.getSlotId(), true)) {
+                    transactionManager.setRollbackOnly();
+                    return null;
+                }
+                return new Settlement(canceled, passenger);
+            });
+        } catch (SQLException e) {
+            logger.error("Failed to cancel booking", e);
+            refunded = null;
+        }
+
+        if (refunded == null) {
+            result.addProperty("status", "ERROR");
+            result.addProperty("message", "Invalid cancel request");
+            return result;
+        }
+
+        CancellationState.registerCancellation(refunded.passenger().getUsername());
+        JsonObject cancellation = new JsonObject();
+        cancellation.addProperty("passenger", refunded.passenger().getUsername());
+        cancellation.addProperty("bookingId", bookingId);
+        cancellation.addProperty("timestamp", CancellationState.getLastUpdated());
+        eventBus.publish(EventTopic.CANCELLATION, null, cancellation);
+
+        result.addProperty("status", "OK");
+        result.addProperty("newBalance", refunded.passenger().getNovaCredits());
+        return result;
     }
 
     /**
      * Denies a booking by updating its status to "denied".
+     * Setting the status and refunding the full tier cost run as one transaction,
+     * and a booking that is already denied is not refunded a second time.
+     * The slot stays unavailable.
      *
      * @param bookingId the ID of the booking to deny
+     * @return a JsonObject containing the status and the passenger's new balance
      */
-    public void denyBooking(int bookingId) {
-        bookingDAO.updateBookingStatus(bookingId, "denied");
+    public JsonObject denyBooking(int bookingId) {
+        JsonObject result = new JsonObject();
+
+        Settlement refunded;
+        try {
+            refunded = transactionManager.inTransaction(conn -> {
+                Booking denied = bookingDAO.updateBookingStatus(conn, bookingId, "denied");
+                if (denied == null) {
+                    return null;
+                }
+                Passenger passenger = passengerDAO.addNovaCredits(conn, denied.getPassengerId(), tierCost(denied.getTier()));
+                if (passenger == null) {
+                    transactionManager.setRollbackOnly();
+                    return null;
+                }
+                slotDAO.setAvailability(conn, denied.getSlotId(), false);
+                return new Settlement(denied, passenger);
+            });
+        } catch (SQLException e) {
+            logger.error("Failed to deny booking", e);
+            refunded = null;
+        }
+
+        if (refunded == null) {
+            result.addProperty("status", "ERROR");
+            return result;
+        }
+
+        publishStatus(refunded.booking());
+        result.addProperty("status", "OK");
+        result.addProperty("newBalance", refunded.passenger().getNovaCredits());
+        return result;
     }
 
     /**
@@ -142,12 +264,116 @@ public class BookingService {
     }
 
     /**
-     * Updates the status of a booking.
+     * Passes all bookings to the callback one at a time.
+     *
+     * @param callback receives the bookings
+     * @throws IOException if the callback fails
+     */
+    public void forEachBooking(RowCallback<Booking> callback) throws IOException {
+        bookingDAO.forEachBooking(callback);
+    }
+
+    /**
+     * Passes one page of the bookings that match a filter to the callback.
+     *
+     * @param filter   the conditions the bookings must meet
+     * @param page     the page to read
+     * @param callback receives the bookings, ordered by booking ID
+     * @throws IOException if the callback fails
+     */
+    public void forEachBooking(BookingFilter filter, PageRequest page, RowCallback<Booking> callback) throws IOException {
+        bookingDAO.forEachBooking(filter, page, callback);
+    }
+
+    /**
+     * Counts the bookings that match a filter.
+     *
+     * @param filter the conditions the bookings must meet
+     * @return the number of matching bookings
+     * @throws IOException if the bookings cannot be counted
+     */
+    public int countBookings(BookingFilter filter) throws IOException {
+        return bookingDAO.countBookings(filter);
+    }
+
+    /**
+     * Passes all bookings with their slot time and passenger username to the callback one at a time.
+     *
+     * @param callback receives the bookings
+     * @throws IOException if the callback fails
+     */
+    public void forEachDetailedBooking(RowCallback<DetailedBooking> callback) throws IOException {
+        bookingDAO.forEachDetailedBooking(callback);
+    }
+
+    /**
+     * Passes one page of the bookings that match a filter, with their slot time and passenger username, to the callback.
+     *
+     * @param filter   the conditions the bookings must meet
+     * @param page     the page to read
+     * @param callback receives the bookings, ordered by booking ID
+     * @throws IOException if the callback fails
+     */
+    public void forEachDetailedBooking(BookingFilter filter, PageRequest page, RowCallback<DetailedBooking> callback) throws IOException {
+        bookingDAO.forEachDetailedBooking(filter, page, callback);
+    }
+
+    /**
+     * Passes the bookings of a passenger with their slot time and the passenger's username to the callback.
+     *
+     * @param passengerId the ID of the passenger
+     * @param callback    receives the bookings
+     * @throws IOException if the callback fails
+     */
+    public void forEachDetailedBookingForPassenger(int passengerId, RowCallback<DetailedBooking> callback) throws IOException {
+        bookingDAO.forEachDetailedBookingByPassenger(passengerId, callback);
+    }
+
+    /**
+     * Updates the status of a booking and notifies the passenger's subscribers.
+     * Nothing is published if the booking is missing or already has the status.
      *
      * @param approveId the ID of the booking to update
      * @param status    the new status to set
      */
     public void setBookingStatus(int approveId, String status) {
-        bookingDAO.updateBookingStatus(approveId, status);
+        Booking updated;
+        try {
+            updated = transactionManager.inTransaction(conn -> bookingDAO.updateBookingStatus(conn, approveId, status));
+        } catch (SQLException e) {
+            logger.error("Failed to update booking status", e);
+            return;
+        }
+        if (updated != null) {
+            publishStatus(updated);
+        }
+    }
+
+    /**
+     * Publishes the new status of a booking to the subscribers of its passenger.
+     */
+    private void publishStatus(Booking booking) {
+        eventBus.publish(EventTopic.BOOKING_STATUS, String.valueOf(booking.getPassengerId()), booking);
+    }
+
+    /**
+     * Returns the price of a booking tier. Refunds are computed from the same prices.
+     *
+     * @param tier the tier of the booking
+     * @return the cost of the tier in Nova credits
+     */
+    private static int tierCost(int tier) {
+        return switch (tier) {
+            case 1 -> TIER1_COST;
+            case 2 -> TIER2_COST;
+            case 3 -> TIER3_COST;
+            default -> 9999;
+        };
+    }
+
+    /**
+     * The booking and the refunded passenger of a cancel or deny transaction.
+     */
+    private record Settlement(Booking booking, Passenger passenger) {
     }
 }
@@ -1,33 +1,41 @@
 package com.inFlight.server.service;
 
 import com.inFlight.server.dao.ChatMessageDAO;
+import com.inFlight.server.dao.RowCallback;
+import com.inFlight.server.push.EventBus;
 import com.inFlight.shared.model.ChatMessage;
+import com.inFlight.shared.protocol.EventTopic;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
  * ChatService is a service class that handles chat-related operations.
  * It interacts with the ChatMessageDAO to manage chat messages.
+ * Sent messages are pushed to the clients subscribed to the chat.
  */
 public class ChatService {
     private static final Logger logger = LoggerFactory.getLogger(ChatService.class);
 
     private final ChatMessageDAO dao; // DAO for chat message operations
+    private final EventBus eventBus; // Pushes new messages to subscribed clients
 
     /**
      * Default constructor initializes the DAO.
      */
     public ChatService () {
         dao = new ChatMessageDAO();
+        eventBus = EventBus.getInstance();
     }
 
     /**
      * Constructor for dependency injection
      */
-    public ChatService (ChatMessageDAO dao) {
+    public ChatService (ChatMessageDAO dao, EventBus eventBus) {
         this.dao = dao;
+        this.eventBus = eventBus;
     }
 
     /**
@@ -36,7 +44,9 @@ public class ChatService {
      * @param msg the ChatMessage object to send
      */
     public void sendMessage(ChatMessage msg) {
-        dao.saveMessage(msg);
+        if (dao.saveMessage(msg)) {
+            eventBus.publish(EventTopic.CHAT, EventTopic.chatKey(msg.getSender(), msg.getReceiver()), msg);
+        }
     }
 
     /**
@@ -49,4 +59,43 @@ public class ChatService {
     public List<ChatMessage> getChatHistory(String sender, String receiver) {
         return dao.getChatBetween(sender, receiver);
     }
+
+    /**
+     * Passes the chat history between two users to the callback one message at a time.
+     *
+     * @param sender   the sender's username
+     * @param receiver the receiver's username
+     * @param callback receives the messages, oldest first
+     * @throws IOException if the callback fails
+     */
+    public void forEachChatMessage(String sender, String receiver, RowCallback<ChatMessage> callback) throws IOException {
+        dao.forEachChatMessage(sender, receiver, callback);
+    }
+
+    /**
+     * Passes the messages between two users that were sent after a given message to the callback.
+     *
+     * @param sender   the sender's username
+     * @param receiver the receiver's username
+     * @param afterId  the ID of the last message the caller has, 0 for the start of the chat
+     * @param limit    the maximum number of messages
+     * @param callback receives the messages, oldest first
+     * @throws IOException if the callback fails
+     */
+    public void forEachChatMessageSince(String sender, String receiver, int afterId, int limit,
+                                        RowCallback<ChatMessage> callback) throws IOException {
+        dao.forEachChatMessageSince(sender, receiver, afterId, limit, callback);
+    }
+
+    /**
+     * Counts the messages between two users.
+     *
+     * @param sender   the sender's username
+     * @param receiver the receiver's username
+     * @return the number of messages in the chat
+     * @throws IOException if the messages cannot be counted
+     */
+    public int countChatMessages(String sender, String receiver) throws IOException {
+        return dao.countChatMessages(sender, receiver);
+    }
 }
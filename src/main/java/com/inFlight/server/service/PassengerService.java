@@ -49,7 +49,7 @@ public class PassengerService {
         if (passenger != null) {
             int newBalance = passenger.getNovaCredits() + amount;
             passengerDAO.updateNovaCredits(passengerId, newBalance);
-            logger.info("NovaCredits topped up. New balance: " + newBalance);
+            logger.info("NovaCredits topped up. New balance: {}", newBalance);
         } else {
             logger.info("Passenger not found for top-up.");
         }
@@ -66,7 +66,7 @@ public class PassengerService {
         if (passenger != null && passenger.getNovaCredits() >= amount) {
             int newBalance = passenger.getNovaCredits() - amount;
             passengerDAO.updateNovaCredits(passengerId, newBalance);
-            logger.info("Deducted " + amount + " novaCredits. Remaining: " + newBalance);
+            logger.info("Deducted {} novaCredits. Remaining: {}", amount, newBalance);
             return true;
         } else {
             logger.info("Not enough novaCredits or passenger not found.");
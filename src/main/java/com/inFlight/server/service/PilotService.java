@@ -50,7 +50,7 @@ public class PilotService {
      */
     public void approveBooking(int bookingId) {
         bookingDAO.updateBookingStatus(bookingId, "approved");
-        logger.info("Booking " + bookingId + " approved.");
+        logger.info("Booking {} approved.", bookingId);
     }
 
     /**
@@ -59,7 +59,7 @@ public class PilotService {
      */
     public void denyBooking(int bookingId) {
         bookingDAO.updateBookingStatus(bookingId, "denied");
-        logger.info("Booking " + bookingId + " denied.");
+        logger.info("Booking {} denied.", bookingId);
     }
 }
 
@@ -1,20 +1,39 @@
 package com.inFlight.server.socket;
 
+import com.inFlight.server.jfr.SessionClosedEvent;
+import com.inFlight.server.push.ClientSession;
+import com.inFlight.server.push.EventBus;
+import com.inFlight.shared.protocol.FrameReader;
+import com.inFlight.shared.protocol.FrameWriter;
+import com.inFlight.shared.protocol.Framing;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * The ClientHandler class is responsible for handling communication with a connected client.
  * It reads input from the client, processes it using a ProtocolHandler, and sends responses back to the client.
+ * Events the client subscribed to are queued and written by a separate virtual thread between responses,
+ * so a publishing request never waits for this client's socket.
+ * The connection and its end are recorded as SessionOpened and SessionClosed events for JFR.
  */
 public class ClientHandler extends Thread {
     private static final Logger logger = LoggerFactory.getLogger(ClientHandler.class);
 
+    private static final int MAX_PENDING_EVENTS = 1024; // Queued events before the client is considered too slow
+
     private final Socket clientSocket;
     private final ProtocolHandler handler;
+    private final EventBus eventBus; // Bus the subscriptions of this client are registered with
+    private final ReentrantLock writeLock = new ReentrantLock(); // Not synchronized, so virtual threads are not pinned during writes
+    private final BlockingQueue<String> pendingEvents = new ArrayBlockingQueue<>(MAX_PENDING_EVENTS); // Frames waiting to be written
+    private long requests; // Requests read from the client, only used by the thread running this handler
 
     /**
      * Constructor for ClientHandler.
@@ -24,38 +43,130 @@ public class ClientHandler extends Thread {
     public ClientHandler(Socket socket) {
         this.clientSocket = socket; // Socket for communication with the client
         this.handler = new ProtocolHandler(); // ProtocolHandler for processing client requests
+        this.eventBus = EventBus.getInstance();
     }
 
     /**
      * Constructor for dependency injection.
      */
     public ClientHandler(Socket socket, ProtocolHandler handler) {
+        this(socket, handler, EventBus.getInstance());
+    }
+
+    /**
+     * Constructor for dependency injection.
+     */
+    public ClientHandler(Socket socket, ProtocolHandler handler, EventBus eventBus) {
         this.clientSocket = socket; // Socket for communication with the client
         this.handler = handler; // ProtocolHandler for processing client requests
+        this.eventBus = eventBus;
     }
 
     /**
      * The run method is executed when the thread is started.
      * It continuously reads input from the client, processes it using the ProtocolHandler,
      * and sends responses back to the client.
+     * The first bytes decide the framing: a binary preface selects length-prefixed frames, anything else
+     * is the first line of a text client.
      */
     public void run() {
+        SessionClosedEvent sessionEvent = SessionClosedEvent.open(clientSocket.getRemoteSocketAddress());
+        ClientSession session = new ClientSession(eventBus, this::queueEvent);
         try (
                 // Create input and output streams for communication with the client
-                BufferedReader in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()));
-                BufferedWriter out = new BufferedWriter(new OutputStreamWriter(clientSocket.getOutputStream()))
+                InputStream in = new BufferedInputStream(clientSocket.getInputStream());
+                OutputStream rawOut = clientSocket.getOutputStream()
         ) {
-            String input;
-            // Continuously read input from the client
-            while ((input = in.readLine()) != null) {
-                String response = handler.handle(input);
-                out.write(response);
-                out.newLine();
-                out.flush();
+            Framing framing = Framing.detect(in);
+            FrameWriter out = framing.newWriter(rawOut);
+            Thread eventWriter = Thread.ofVirtual().name("events-" + clientSocket.getPort()).start(() -> writeEvents(out));
+            try (session) {
+                if (framing == Framing.BINARY) {
+                    serveFrames(framing.newReader(in), out, session);
+                } else {
+                    serveLines(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), out, session);
+                }
+            } finally {
+                eventWriter.interrupt();
             }
         // Handle exceptions related to input/output operations
         } catch (IOException e) {
-            logger.info("Client disconnected: " + clientSocket.getInetAddress());
+            logger.info("Client disconnected: {}", clientSocket.getInetAddress());
+        } finally {
+            sessionEvent.close(clientSocket.getRemoteSocketAddress(), session.getRole(), requests);
+        }
+    }
+
+    /**
+     * Answers the requests of a text client, one line each.
+     */
+    private void serveLines(BufferedReader in, FrameWriter out, ClientSession session) throws IOException {
+        String input;
+        // Continuously read input from the client
+        while ((input = in.readLine()) != null) {
+            // Responses and pushed events share the writer, so each one is written whole under the lock
+            requests++;
+            writeLock.lock();
+            try {
+                // The response is written straight into the socket buffer instead of being built as a String first
+                handler.handle(input, out.begin(), session);
+                out.end();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Answers the requests of a binary client. Each request is parsed straight from the bytes of its frame.
+     */
+    private void serveFrames(FrameReader in, FrameWriter out, ClientSession session) throws IOException {
+        Reader request;
+        while ((request = in.next()) != null) {
+            requests++;
+            writeLock.lock();
+            try {
+                handler.handle(request, out.begin(), session);
+                out.end();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Queues an event frame for this client. Called by the thread that published the event.
+     * A client that does not read its events fast enough is disconnected instead of stalling the publisher.
+     */
+    private void queueEvent(String frame) {
+        if (!pendingEvents.offer(frame)) {
+            logger.warn("Client {} does not keep up with its events, closing the connection", clientSocket.getInetAddress());
+            try {
+                clientSocket.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close slow client", e);
+            }
+        }
+    }
+
+    /**
+     * Writes queued event frames until the connection ends.
+     */
+    private void writeEvents(FrameWriter out) {
+        try {
+            while (true) {
+                String frame = pendingEvents.take();
+                writeLock.lock();
+                try {
+                    out.writeFrame(frame);
+                } finally {
+                    writeLock.unlock();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.debug("Failed to push event to {}", clientSocket.getInetAddress(), e);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,537 @@
+package com.inFlight.server.socket;
+
+import com.inFlight.server.ApplicationContext;
+import com.inFlight.server.jfr.SessionClosedEvent;
+import com.inFlight.server.push.ClientSession;
+import com.inFlight.server.push.EventBus;
+import com.inFlight.shared.protocol.Framing;
+import com.inFlight.shared.protocol.PayloadReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * NioServer is a non-blocking alternative to the thread-per-client ClientHandler model.
+ * An acceptor thread hands new connections to a small pool of selector threads, which split incoming bytes
+ * into frames: newline-delimited text, or length-prefixed binary frames for clients that start with the binary
+ * preface (see Framing). Each frame is dispatched to a worker pool that parses it straight from its bytes with
+ * ProtocolHandler.handle, and the encoded response is queued back to the selector thread for writing.
+ * Requests of one connection are processed in order, so responses never overtake each other.
+ * Pushed events are queued on the same outbox as responses and written by the selector thread.
+ * Connections are recorded as SessionOpened and SessionClosed events for JFR, like with ClientHandler.
+ */
+public class NioServer implements Runnable, Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(NioServer.class);
+
+    private static final int READ_BUFFER_SIZE = 8192; // Bytes read from a channel per read call
+    private static final int HEADER_BYTES = 4; // Length of a binary frame's size field
+    private static final int MAX_PENDING_FRAMES = 1024; // Queued responses and events before the client is considered too slow
+
+    private final int port; // Port to listen on, 0 for an ephemeral port
+    private final ProtocolHandler handler; // Shared handler, it holds no per-connection state
+    private final EventBus eventBus; // Bus the subscriptions of the connections are registered with
+    private final SelectorLoop[] loops; // Selector threads owning the client channels
+    private final ExecutorService workers; // Pool running ProtocolHandler.handle
+    private final CountDownLatch bound = new CountDownLatch(1); // Released once the server socket is bound
+
+    private volatile ServerSocketChannel serverChannel;
+    private volatile boolean running;
+
+    /**
+     * Constructor for NioServer with default pool sizes derived from the available processors.
+     *
+     * @param port    the port to listen on
+     * @param handler the ProtocolHandler used for all connections
+     */
+    public NioServer(int port, ProtocolHandler handler) {
+        this(port, handler,
+                Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2)),
+                Math.max(2, Runtime.getRuntime().availableProcessors() * 2));
+    }
+
+    /**
+     * Constructor for NioServer with explicit pool sizes.
+     *
+     * @param port          the port to listen on
+     * @param handler       the ProtocolHandler used for all connections
+     * @param readerThreads number of selector threads reading and writing client channels
+     * @param workerThreads number of threads running ProtocolHandler.handle
+     */
+    public NioServer(int port, ProtocolHandler handler, int readerThreads, int workerThreads) {
+        this(port, handler, EventBus.getInstance(), readerThreads, workerThreads);
+    }
+
+    /**
+     * Constructor for NioServer that serves the connections with the objects of an ApplicationContext.
+     *
+     * @param port    the port to listen on
+     * @param context the context holding the shared ProtocolHandler and EventBus
+     */
+    public NioServer(int port, ApplicationContext context) {
+        this(port, context.getProtocolHandler(), context.getEventBus(),
+                Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2)),
+                Math.max(2, Runtime.getRuntime().availableProcessors() * 2));
+    }
+
+    /**
+     * Constructor for dependency injection.
+     */
+    public NioServer(int port, ProtocolHandler handler, EventBus eventBus, int readerThreads, int workerThreads) {
+        this.port = port;
+        this.handler = handler;
+        this.eventBus = eventBus;
+        this.loops = new SelectorLoop[readerThreads];
+        AtomicInteger workerIds = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerThreads, r -> {
+            Thread t = new Thread(r, "nio-worker-" + workerIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Binds the server socket, starts the selector threads and accepts connections until close is called.
+     */
+    public void run() {
+        try (ServerSocketChannel channel = ServerSocketChannel.open()) {
+            channel.bind(new InetSocketAddress(port));
+            serverChannel = channel;
+            running = true;
+
+            for (int i = 0; i < loops.length; i++) {
+                loops[i] = new SelectorLoop(Selector.open());
+                Thread t = new Thread(loops[i], "nio-selector-" + (i + 1));
+                t.setDaemon(true);
+                t.start();
+            }
+            bound.countDown();
+            logger.info("NIO server started listening on port {} with {} selector threads", getLocalPort(), loops.length);
+
+            int next = 0; // Selector loop of the next connection, kept within the array so it never overflows
+            while (running) {
+                SocketChannel client = channel.accept();
+                client.configureBlocking(false);
+                logger.info("Client connected: {}", client.getRemoteAddress());
+                loops[next].register(client);
+                next = (next + 1) % loops.length;
+            }
+        } catch (ClosedChannelException e) {
+            logger.info("NIO server stopped");
+        } catch (IOException e) {
+            logger.error("Error in NIO server", e);
+        } finally {
+            bound.countDown();
+            shutdownLoops();
+        }
+    }
+
+    /**
+     * Waits until the server socket is bound and returns its port.
+     * Useful when the server was created with port 0.
+     *
+     * @return the local port, or -1 if the server failed to bind
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public int awaitPort() throws InterruptedException {
+        bound.await();
+        return getLocalPort();
+    }
+
+    private int getLocalPort() {
+        ServerSocketChannel channel = serverChannel;
+        if (channel == null || !channel.isOpen()) {
+            return -1;
+        }
+        try {
+            return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Stops accepting connections, closes all client channels and shuts down the worker pool.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        ServerSocketChannel channel = serverChannel;
+        if (channel != null) {
+            channel.close();
+        }
+        shutdownLoops();
+    }
+
+    private void shutdownLoops() {
+        for (SelectorLoop loop : loops) {
+            if (loop != null) {
+                loop.shutdown();
+            }
+        }
+        workers.shutdown();
+    }
+
+    /**
+     * A selector thread that owns a set of client channels.
+     * Registrations and write interest changes from other threads are queued and applied on the selector thread.
+     */
+    private final class SelectorLoop implements Runnable {
+        private final Selector selector;
+        private final Queue<SocketChannel> registrations = new ConcurrentLinkedQueue<>();
+        private final Queue<Connection> writeRequests = new ConcurrentLinkedQueue<>();
+        private volatile boolean open = true;
+
+        SelectorLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        void register(SocketChannel channel) {
+            registrations.add(channel);
+            selector.wakeup();
+        }
+
+        void requestWrite(Connection connection) {
+            writeRequests.add(connection);
+            selector.wakeup();
+        }
+
+        void shutdown() {
+            open = false;
+            selector.wakeup();
+        }
+
+        public void run() {
+            try {
+                while (open) {
+                    selector.select();
+                    applyRegistrations();
+                    applyWriteRequests();
+
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        Connection connection = (Connection) key.attachment();
+                        try {
+                            if (key.isValid() && key.isReadable()) {
+                                connection.read();
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                connection.flush();
+                            }
+                        } catch (IOException | CancelledKeyException e) {
+                            connection.close();
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                logger.error("Selector loop failed", e);
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    ((Connection) key.attachment()).close();
+                }
+                try {
+                    selector.close();
+                } catch (IOException e) {
+                    logger.debug("Failed to close selector", e);
+                }
+            }
+        }
+
+        private void applyRegistrations() {
+            SocketChannel channel;
+            while ((channel = registrations.poll()) != null) {
+                try {
+                    Connection connection = new Connection(channel, this);
+                    connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+                } catch (ClosedChannelException e) {
+                    logger.debug("Channel closed before registration", e);
+                }
+            }
+        }
+
+        private void applyWriteRequests() {
+            Connection connection;
+            while ((connection = writeRequests.poll()) != null) {
+                SelectionKey key = connection.key;
+                if (key != null && key.isValid()) {
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                }
+            }
+        }
+    }
+
+    /**
+     * Per-client state: the partial frame being read, pending requests and pending response bytes.
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private final SelectorLoop loop;
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE); // Reused for every read
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream(); // Bytes of the current text line
+        private volatile Framing framing; // Decided by the first byte of the connection, null before
+        private int prefaceRead; // Bytes of the binary preface received so far
+        private int headerRead; // Bytes of the current binary frame's length received so far
+        private int frameLength; // Length of the current binary frame, once its header is complete
+        private ByteBuffer payload; // Payload of the current binary frame, allocated once its length is known
+        private final Queue<Reader> inbox = new ArrayDeque<>(); // Guarded by this
+        private final Queue<ByteBuffer> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger(); // Frames in the outbox, bounded by MAX_PENDING_FRAMES
+        private final AtomicBoolean closed = new AtomicBoolean(); // Set by the first call of close
+        private final ClientSession session = new ClientSession(eventBus, this::send); // Subscriptions of this client
+        private boolean processing; // Guarded by this, true while a worker drains the inbox
+        private SelectionKey key;
+        private final SessionClosedEvent sessionEvent; // JFR event timing the connection
+        private long requests; // Requests dispatched so far, only used by the selector thread
+
+        Connection(SocketChannel channel, SelectorLoop loop) {
+            this.channel = channel;
+            this.loop = loop;
+            this.sessionEvent = SessionClosedEvent.open(channel.socket().getRemoteSocketAddress());
+        }
+
+        /**
+         * Reads available bytes and dispatches every complete frame. Runs on the selector thread.
+         */
+        void read() throws IOException {
+            int n = channel.read(readBuffer);
+            if (n < 0) {
+                close();
+                return;
+            }
+            readBuffer.flip();
+            if (framing == null && readBuffer.hasRemaining()) {
+                framing = Framing.matchesPreface(0, readBuffer.get(readBuffer.position())) ? Framing.BINARY : Framing.TEXT;
+            }
+            if (framing == Framing.BINARY) {
+                readFrames();
+            } else {
+                readLines();
+            }
+            readBuffer.clear();
+        }
+
+        /**
+         * Splits the bytes of a text connection into lines. A line may not grow beyond the size of a binary frame,
+         * so a client that never sends a line break cannot fill the heap.
+         */
+        private void readLines() throws IOException {
+            while (readBuffer.hasRemaining()) {
+                byte b = readBuffer.get();
+                if (b == '\n') {
+                    ByteBuffer bytes = ByteBuffer.wrap(line.toByteArray());
+                    line.reset();
+                    if (bytes.hasRemaining() && bytes.get(bytes.limit() - 1) == '\r') {
+                        bytes.limit(bytes.limit() - 1);
+                    }
+                    dispatch(new PayloadReader(bytes));
+                } else if (line.size() < Framing.MAX_FRAME_BYTES) {
+                    line.write(b);
+                } else {
+                    throw new IOException("Line longer than " + Framing.MAX_FRAME_BYTES + " bytes");
+                }
+            }
+        }
+
+        /**
+         * Splits the bytes of a binary connection into the preface, the length fields and the payloads.
+         * Every payload is copied in bulk into a buffer of its own size, which the worker decodes while parsing it.
+         */
+        private void readFrames() throws IOException {
+            while (readBuffer.hasRemaining()) {
+                if (prefaceRead < Framing.getPrefaceLength()) {
+                    if (!Framing.matchesPreface(prefaceRead, readBuffer.get())) {
+                        throw new IOException("Unknown protocol preface");
+                    }
+                    prefaceRead++;
+                } else if (headerRead < HEADER_BYTES) {
+                    frameLength = (frameLength << 8) | (readBuffer.get() & 0xFF);
+                    if (++headerRead == HEADER_BYTES) {
+                        if (frameLength < 0 || frameLength > Framing.MAX_FRAME_BYTES) {
+                            throw new IOException("Invalid frame length " + frameLength);
+                        }
+                        payload = ByteBuffer.allocate(frameLength);
+                    }
+                } else {
+                    int n = Math.min(readBuffer.remaining(), payload.remaining());
+                    payload.put(readBuffer.slice(readBuffer.position(), n));
+                    readBuffer.position(readBuffer.position() + n);
+                }
+                if (headerRead == HEADER_BYTES && !payload.hasRemaining()) {
+                    dispatch(new PayloadReader(payload.flip()));
+                    payload = null;
+                    headerRead = 0;
+                    frameLength = 0;
+                }
+            }
+        }
+
+        private void dispatch(Reader request) {
+            requests++;
+            synchronized (this) {
+                inbox.add(request);
+                if (processing) {
+                    return;
+                }
+                processing = true;
+            }
+            workers.execute(this::drain);
+        }
+
+        /**
+         * Handles queued requests one after another on a worker thread.
+         * A handler that fails after it started its response closes the connection, like with ClientHandler.
+         */
+        private void drain() {
+            while (true) {
+                Reader request;
+                synchronized (this) {
+                    request = inbox.poll();
+                    if (request == null) {
+                        processing = false;
+                        return;
+                    }
+                }
+                try {
+                    queue(respond(request));
+                } catch (IOException e) {
+                    logger.debug("Failed to answer {}", channel.socket().getRemoteSocketAddress(), e);
+                    close();
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Handles one request and encodes the response straight into the bytes of its frame.
+         */
+        private ByteBuffer respond(Reader request) throws IOException {
+            OutgoingFrame frame = new OutgoingFrame(framing);
+            Writer out = new OutputStreamWriter(frame, StandardCharsets.UTF_8);
+            handler.handle(request, out, session);
+            out.flush();
+            return frame.finish();
+        }
+
+        /**
+         * Queues an event for writing in the framing of the connection. Safe to call from any thread.
+         */
+        private void send(String message) {
+            if (framing == Framing.BINARY) {
+                byte[] payload = message.getBytes(StandardCharsets.UTF_8);
+                queue(ByteBuffer.allocate(HEADER_BYTES + payload.length).putInt(payload.length).put(payload).flip());
+            } else {
+                queue(ByteBuffer.wrap((message + "\n").getBytes(StandardCharsets.UTF_8)));
+            }
+        }
+
+        /**
+         * Queues an encoded frame for the selector thread. Safe to call from any thread.
+         * A client that lets MAX_PENDING_FRAMES frames pile up is disconnected, like a slow ClientHandler client.
+         */
+        private void queue(ByteBuffer frame) {
+            if (!channel.isOpen()) {
+                return;
+            }
+            if (pending.incrementAndGet() > MAX_PENDING_FRAMES) {
+                logger.warn("Client {} does not keep up with its responses and events, closing the connection",
+                        channel.socket().getRemoteSocketAddress());
+                close();
+                return;
+            }
+            outbox.add(frame);
+            loop.requestWrite(this);
+        }
+
+        /**
+         * Writes as much queued response data as the channel accepts. Runs on the selector thread.
+         */
+        void flush() throws IOException {
+            ByteBuffer buffer;
+            while ((buffer = outbox.peek()) != null) {
+                channel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    return;
+                }
+                outbox.poll();
+                pending.decrementAndGet();
+            }
+            key.interestOps(SelectionKey.OP_READ);
+        }
+
+        /**
+         * Ends the connection. Safe to call from any thread and more than once.
+         */
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            session.close();
+            outbox.clear();
+            if (key != null) {
+                key.cancel();
+            }
+            try {
+                if (channel.isOpen()) {
+                    logger.info("Client disconnected: {}", channel.getRemoteAddress());
+                    sessionEvent.close(channel.getRemoteAddress(), session.getRole(), requests);
+                    channel.close();
+                }
+            } catch (IOException e) {
+                logger.debug("Failed to close client channel", e);
+            }
+        }
+    }
+
+    /**
+     * The bytes of one response in the framing of its connection. A binary frame keeps room for its length in front,
+     * which is filled in once the response is complete, so the response is never copied into a String.
+     */
+    private static final class OutgoingFrame extends ByteArrayOutputStream {
+        private final Framing framing; // Framing of the connection the response is sent on
+
+        private OutgoingFrame(Framing framing) {
+            super(256);
+            this.framing = framing;
+            if (framing == Framing.BINARY) {
+                write(new byte[HEADER_BYTES], 0, HEADER_BYTES);
+            }
+        }
+
+        /**
+         * Completes the frame and returns its bytes without copying them.
+         */
+        private ByteBuffer finish() throws IOException {
+            if (framing != Framing.BINARY) {
+                write('\n');
+                return ByteBuffer.wrap(buf, 0, count);
+            }
+            int length = count - HEADER_BYTES;
+            if (length > Framing.MAX_FRAME_BYTES) {
+                throw new IOException("Response of " + length + " bytes exceeds the frame limit");
+            }
+            ByteBuffer frame = ByteBuffer.wrap(buf, 0, count);
+            frame.putInt(0, length);
+            return frame;
+        }
+    }
+}
@@ -2,75 +2,122 @@ package com.inFlight.server.socket;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
+import com.inFlight.server.jfr.RequestHandledEvent;
+import com.inFlight.server.metrics.Outcome;
+import com.inFlight.server.metrics.ServerMetrics;
+import com.inFlight.server.push.ClientSession;
+import com.inFlight.server.push.EventBus;
 import com.inFlight.server.service.*;
-import com.inFlight.shared.model.*;
+import com.inFlight.server.socket.handler.*;
 import com.inFlight.shared.protocol.MessageEnvelope;
 import com.inFlight.shared.protocol.ActionType;
-import com.inFlight.shared.state.BroadcastState;
-import com.inFlight.shared.state.CancellationState;
-import com.inFlight.shared.state.SurveyState;
 
 import com.inFlight.server.dao.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
+import java.io.FilterReader;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
 
 /**
  * ProtocolHandler is a class that handles incoming messages and performs actions based on the action type.
- * It uses the corresponding services to process requests and return responses.
+ * Each ActionType is served by its own RequestHandler, which is looked up in a HandlerRegistry
+ * that is filled once when the ProtocolHandler is created.
+ * If the request carries a requestId, the response starts with the same requestId, so a client can send several
+ * requests without waiting and still match each response to its request.
+ * The duration and Outcome of every request are recorded per action in the ServerMetrics, and slow requests
+ * are recorded as RequestHandledEvents for JFR. A successful request that only one role sends tells the
+ * ClientSession which role its client has.
  */
 public class ProtocolHandler {
     private static final Logger logger = LoggerFactory.getLogger(ProtocolHandler.class); // Logger
 
-    private final Gson gson = new Gson(); // Gson instance for JSON serialization/deserialization
-    private final BookingService bookingService; // Service for booking-related operations
-    private final ChatService chatService; // Service for chat-related operations
-    private final PhotographerService photographerService; // Service for photographer-related operations
-    private final InventoryService inventoryService; // Service for inventory-related operations
-    private final PassengerService passengerService = new PassengerService(); // Service for passenger-related operations
-    private final PilotService pilotService = new PilotService(); // Service for pilot-related operations
-
-    private final PassengerDAO passengerDAO;
-    private final BookingDAO BookingDAO;
-    private final SpacewalkSlotDAO SpacewalkSlotDAO;
-    private final InventoryItemDAO inventoryItemDAO;
-    private final ChatMessageDAO chatMessageDAO;
-    private final BookingDAO bookingDAO;
+    private final Gson gson; // Gson instance for JSON serialization/deserialization
+    private final HandlerRegistry registry; // Handler for every action
+    private final ServerMetrics metrics; // Latency and outcome of every request per action
 
 
     public ProtocolHandler () {
-        this.bookingService = new BookingService();
-        this.chatService = new ChatService();
-        this.photographerService = new PhotographerService();
-        this.inventoryService = new InventoryService();
-
-        this.passengerDAO = new PassengerDAO();
-        this.BookingDAO = new BookingDAO();
-        this.SpacewalkSlotDAO = new SpacewalkSlotDAO();
-        this.inventoryItemDAO = new InventoryItemDAO();
-        this.chatMessageDAO = new ChatMessageDAO();
-        this.bookingDAO = new BookingDAO();
+        this(new BookingService(), new ChatService(), new PhotographerService(), new InventoryService(),
+                new PassengerDAO(), new BookingDAO(), new SpacewalkSlotDAO(), new InventoryItemDAO(), new ChatMessageDAO(),
+                EventBus.getInstance());
     }
 
     /**
      * Constructor for dependency injection.
      */
-    public ProtocolHandler (BookingService bookingService, ChatService chatService, PhotographerService photographerService, InventoryService inventoryService, PassengerDAO passengerDAO, BookingDAO bookingDAO, SpacewalkSlotDAO spacewalkSlotDAO, InventoryItemDAO inventoryItemDAO, ChatMessageDAO chatMessageDAO) {
-        this.bookingService = bookingService;
-        this.chatService = chatService;
-        this.photographerService = photographerService;
-        this.inventoryService = inventoryService;
-
-        this.passengerDAO = passengerDAO;
-        this.BookingDAO = bookingDAO;
-        this.SpacewalkSlotDAO = spacewalkSlotDAO;
-        this.inventoryItemDAO = inventoryItemDAO;
-        this.chatMessageDAO = chatMessageDAO;
-        this.bookingDAO = bookingDAO;
+    public ProtocolHandler (BookingService bookingService, ChatService chatService, PhotographerService photographerService, InventoryService inventoryService, PassengerDAO passengerDAO, BookingDAO bookingDAO, SpacewalkSlotDAO spacewalkSlotDAO, InventoryItemDAO inventoryItemDAO, ChatMessageDAO chatMessageDAO, EventBus eventBus) {
+        this(bookingService, chatService, photographerService, inventoryService, passengerDAO, bookingDAO, spacewalkSlotDAO,
+                inventoryItemDAO, chatMessageDAO, eventBus, new Gson());
     }
 
+    /**
+     * Constructor for dependency injection with a shared Gson instance.
+     */
+    public ProtocolHandler (BookingService bookingService, ChatService chatService, PhotographerService photographerService, InventoryService inventoryService, PassengerDAO passengerDAO, BookingDAO bookingDAO, SpacewalkSlotDAO spacewalkSlotDAO, InventoryItemDAO inventoryItemDAO, ChatMessageDAO chatMessageDAO, EventBus eventBus, Gson gson) {
+        this(bookingService, chatService, photographerService, inventoryService, passengerDAO, bookingDAO, spacewalkSlotDAO,
+                inventoryItemDAO, chatMessageDAO, eventBus, gson, ServerMetrics.getInstance());
+    }
+
+    /**
+     * Constructor for dependency injection with a shared Gson instance and the metrics the requests are recorded in.
+     */
+    public ProtocolHandler (BookingService bookingService, ChatService chatService, PhotographerService photographerService, InventoryService inventoryService, PassengerDAO passengerDAO, BookingDAO bookingDAO, SpacewalkSlotDAO spacewalkSlotDAO, InventoryItemDAO inventoryItemDAO, ChatMessageDAO chatMessageDAO, EventBus eventBus, Gson gson, ServerMetrics metrics) {
+        this.gson = gson;
+        this.metrics = metrics;
+        this.registry = new HandlerRegistry();
+        registry.register(new LoginHandler(passengerDAO))
+                .register(new GetBookingsHandler(bookingService, gson))
+                .register(new SendChatHandler(chatService, gson))
+                .register(new GetChatHandler(chatService, gson))
+                .register(new GetChatSinceHandler(chatService, gson))
+                .register(new UpdateNovaCreditsHandler(passengerDAO))
+                .register(new TriggerSurveyHandler(eventBus))
+                .register(new GetAvailableSlotsHandler(spacewalkSlotDAO, gson))
+                .register(new BookSlotHandler(bookingService))
+                .register(new GetBookingsForPassengerHandler(bookingService, gson))
+                .register(new GetBookingsDetailedHandler(bookingService, gson))
+                .register(new GetBookingsForPassengerDetailedHandler(bookingService, gson))
+                .register(new GetSlotByIdHandler(spacewalkSlotDAO))
+                .register(new CancelBookingHandler(bookingService))
+                .register(new ApproveBookingHandler(bookingService))
+                .register(new DenyBookingHandler(bookingService))
+                .register(new GetPassengerByIdHandler(passengerDAO))
+                .register(new TriggerBroadcastHandler(eventBus))
+                .register(new GetBroadcastHandler())
+                .register(new GetLastCancellationHandler())
+                .register(new CheckSurveyTriggerHandler())
+                .register(new GetAllPassengersHandler(passengerDAO, gson))
+                .register(new CheckOutPassengerHandler(passengerDAO, eventBus))
+                .register(new CheckCheckoutStatusHandler(passengerDAO))
+                .register(new SetCheckedOutStatusHandler(passengerDAO, eventBus))
+                .register(new RegisterPhotographerHandler(photographerService))
+                .register(new GetPhotographerByNameHandler(photographerService))
+                .register(new GetPhotographerByIdHandler(photographerService))
+                .register(new SetPhotographerCheckedOutHandler(photographerService))
+                .register(new GetInventoryByRoleHandler(inventoryService))
+                .register(new UpdateInventoryItemHandler(inventoryService, gson))
+                .register(new SubscribeHandler(eventBus.getEventLog()))
+                .register(new UnsubscribeHandler())
+                .register(new GetEventsSinceHandler(eventBus.getEventLog()))
+                .register(new BatchHandler(registry, metrics))
+                .register(new GetMetricsHandler(metrics));
+    }
+
+    /**
+     * getter for registry.
+     * @return the registry with the handler and its metadata for every action
+     */
+    public HandlerRegistry getRegistry() {
+        return registry;
+    }
 
     /**
      * Handles incoming messages and performs actions based on the action type.
@@ -79,371 +126,284 @@ public class ProtocolHandler {
      * @return a JSON response based on the action performed
      */
     public String handle(String message) {
-       // Parse the incoming message
+        return handle(message, (ClientSession) null);
+    }
+
+    /**
+     * Handles an incoming message of a connection that can receive pushed events.
+     *
+     * @param message the incoming message in JSON format
+     * @param session the session of the connection, or null if it cannot subscribe to events
+     * @return a JSON response based on the action performed
+     */
+    public String handle(String message, ClientSession session) {
+        StringWriter response = new StringWriter();
         try {
-            MessageEnvelope envelope = gson.fromJson(message, MessageEnvelope.class); // Deserialize the message into a MessageEnvelope object
-            ActionType action = ActionType.valueOf(envelope.getAction()); // Get the action type from the envelope
-            JsonObject data = envelope.getData(); // Get the data associated with the action
-
-            // Perform actions based on the action type
-            switch (action) {
-                //
-                case LOGIN:
-                    //
-                    String username = data.get("username").getAsString();
-                    Passenger p = passengerDAO.getPassengerByUsername(username);
-                    JsonObject response = new JsonObject();
-                    if (p != null) {
-                        response.addProperty("status", "OK");
-                        response.add("passenger", gson.toJsonTree(p));
-                    } else {
-                        response.addProperty("status", "ERROR");
-                        response.addProperty("message", "Passenger not found");
-                    }
-                    return gson.toJson(response);
-
-                case UPDATE_NOVACREDITS:
-                    //
-                    int passengerId = data.get("passengerId").getAsInt();
-                    int amount = data.get("amount").getAsInt();
-
-                    Passenger passenger = passengerDAO.getPassengerById(passengerId);
-                    JsonObject updateResponse = new JsonObject();
-
-                    if (passenger != null) {
-                        int newBalance = passenger.getNovaCredits() + amount;
-                        passengerDAO.updateNovaCredits(passengerId, newBalance);
-
-                        updateResponse.addProperty("status", "OK");
-                        updateResponse.addProperty("newBalance", newBalance);
-                    } else {
-                        updateResponse.addProperty("status", "ERROR");
-                        updateResponse.addProperty("message", "Passenger not found.");
-                    }
-                    return gson.toJson(updateResponse);
-
-                case SEND_CHAT:
-                    //
-                    ChatMessage ChatMessage = gson.fromJson(data, ChatMessage.class);
-                    chatService.sendMessage(ChatMessage);
-
-                    JsonObject sendResponse = new JsonObject();
-                    sendResponse.addProperty("status", "OK");
-                    return gson.toJson(sendResponse);
-
-                case GET_CHAT:
-                    //
-                    String sender = data.get("sender").getAsString();
-                    String receiver = data.get("receiver").getAsString();
-
-                    List<ChatMessage> history = chatService.getChatHistory(sender, receiver);
-
-                    JsonObject chatResponse = new JsonObject();
-                    chatResponse.addProperty("status", "OK");
-                    chatResponse.add("messages", gson.toJsonTree(history));
-                    return gson.toJson(chatResponse);
-
-                case GET_AVAILABLE_SLOTS:
-                    //
-                    List<SpacewalkSlot> slots = SpacewalkSlotDAO.getAvailableSlots();
-
-                    JsonObject slotResponse = new JsonObject();
-                    slotResponse.addProperty("status", "OK");
-                    slotResponse.add("slots", gson.toJsonTree(slots));
-                    return gson.toJson(slotResponse);
-
-                case BOOK_SLOT:
-                    //
-                    int passengerIdBook = data.get("passengerId").getAsInt();
-                    int slotId = data.get("slotId").getAsInt();
-                    int tier = data.get("tier").getAsInt();
-
-                    JsonObject bookingResult = bookingService.processBooking(passengerIdBook, slotId, tier);
-                    return gson.toJson(bookingResult);
-
-                case GET_BOOKINGS_FOR_PASSENGER:
-                    //
-                    int pid = data.get("passengerId").getAsInt();
-                    List<Booking> bookings = bookingService.getBookingsForPassenger(pid);
-
-                    JsonObject responseB = new JsonObject();
-                    responseB.addProperty("status", "OK");
-                    responseB.add("bookings", gson.toJsonTree(bookings));
-                    return gson.toJson(responseB);
-
-                case GET_SLOT_BY_ID:
-                    //
-                    int slotIdb = data.get("slotId").getAsInt();
-                    SpacewalkSlot slot = SpacewalkSlotDAO.getSlotById(slotIdb);
-
-                    JsonObject responsec = new JsonObject();
-                    if (slot != null) {
-                        responsec.addProperty("status", "OK");
-                        responsec.add("slot", gson.toJsonTree(slot));
-                    } else {
-                        responsec.addProperty("status", "ERROR");
-                        responsec.addProperty("message", "Slot not found");
-                    }
-                    return gson.toJson(responsec);
-
-                case CANCEL_BOOKING:
-                    //
-                    int bookingId = data.get("bookingId").getAsInt();
-
-                    Booking canceled = BookingDAO.getBookingById(bookingId);
-                    Passenger passengerC = passengerDAO.getPassengerById(canceled.getPassengerId());
-                    SpacewalkSlot slotC = SpacewalkSlotDAO.getSlotById(canceled.getSlotId());
-
-                    JsonObject cancelResult = new JsonObject();
-
-                    if (passengerC != null && canceled != null && slotC != null) {
-                        int refund = switch (canceled.getTier()) {
-                            case 1 -> (int) (100000 * 0.75);
-                            case 2 -> (int) (250000 * 0.75);
-                            case 3 -> (int) (50000 * 0.75);
-                            default -> 0;
-                        };
-
-
-
-                        passengerDAO.updateNovaCredits(passengerC.getPassengerId(), passengerC.getNovaCredits() + refund);
-
-
-                        bookingDAO.deleteBooking(bookingId);
-
-
-                        SpacewalkSlotDAO.setAvailability(slotC.getSlotId(), true);
-                        CancellationState.registerCancellation(passengerC.getUsername());
-
-                        cancelResult.addProperty("status", "OK");
-                        cancelResult.addProperty("newBalance", passengerC.getNovaCredits());
-                    } else {
-                        cancelResult.addProperty("status", "ERROR");
-                        cancelResult.addProperty("message", "Invalid cancel request");
-                    }
-                    return gson.toJson(cancelResult);
-
-                case GET_BOOKINGS:
-                    //
-                    List<Booking> pending = bookingService.getAllBookings();
-
-                    JsonObject responseGPB = new JsonObject();
-                    responseGPB.addProperty("status", "OK");
-                    responseGPB.add("bookings", gson.toJsonTree(pending));
-                    return gson.toJson(responseGPB);
-
-                case APPROVE_BOOKING:
-                    //
-                    int approveId = data.get("bookingId").getAsInt();
-                    bookingService.setBookingStatus(approveId, "approved");
-
-                    JsonObject approveResp = new JsonObject();
-                    approveResp.addProperty("status", "OK");
-
-
-                    return gson.toJson(approveResp);
-
-                case DENY_BOOKING:
-                    //
-                    int denyId = data.get("bookingId").getAsInt();
-
-                    Booking denied = bookingDAO.getBookingById(denyId);
-                    if (denied != null) {
-
-                        int refund = switch (denied.getTier()) {
-                            case 1 -> 100000;
-                            case 2 -> 250000;
-                            case 3 -> 500000;
-                            default -> 0;
-                        };
-
-                        Passenger refundee = passengerDAO.getPassengerById(denied.getPassengerId());
-                        passengerDAO.updateNovaCredits(refundee.getPassengerId(), refundee.getNovaCredits() + refund);
-
-                        SpacewalkSlotDAO.setAvailability(denied.getSlotId(), false);
-                        bookingDAO.setBookingStatus(denyId, "denied");
-
-                        JsonObject denyResp = new JsonObject();
-                        denyResp.addProperty("status", "OK");
-                        denyResp.addProperty("newBalance", refundee.getNovaCredits());
-                        return gson.toJson(denyResp);
-                    }
-
-                    JsonObject error = new JsonObject();
-                    error.addProperty("status", "ERROR");
-                    return gson.toJson(error);
-
-                case GET_PASSENGER_BY_ID:
-                    //
-                    int pID = data.get("passengerId").getAsInt();
-                    Passenger passengerById = passengerDAO.getPassengerById(pID);
-
-                    JsonObject resp = new JsonObject();
-                    if (passengerById != null) {
-                        resp.addProperty("status", "OK");
-                        resp.add("passenger", gson.toJsonTree(passengerById));
-                    } else {
-                        resp.addProperty("status", "ERROR");
-                    }
-                    return gson.toJson(resp);
-
-                case TRIGGER_BROADCAST:
-                    //
-                    String broadcast = data.get("message").getAsString();
-                    BroadcastState.setMessage(broadcast);
-
-                    JsonObject ack = new JsonObject();
-                    ack.addProperty("status", "OK");
-                    return gson.toJson(ack);
-
-                case GET_BROADCAST:
-                    //
-                    JsonObject result = new JsonObject();
-                    result.addProperty("status", "OK");
-                    result.addProperty("message", BroadcastState.getMessage());
-                    result.addProperty("timestamp", BroadcastState.getLastUpdated());
-                    return gson.toJson(result);
-
-                case GET_LAST_CANCELLATION:
-                    //
-                    JsonObject cancelResponse = new JsonObject();
-                    cancelResponse.addProperty("status", "OK");
-                    cancelResponse.addProperty("passenger", CancellationState.getLastCancelledPassenger());
-                    cancelResponse.addProperty("timestamp", CancellationState.getLastUpdated());
-                    return gson.toJson(cancelResponse);
-
-                case TRIGGER_SURVEY:
-                    //
-                    SurveyState.triggerSurvey();
-                    JsonObject resultSurvey = new JsonObject();
-                    resultSurvey.addProperty("status", "OK");
-                    return gson.toJson(resultSurvey);
-
-                case CHECK_SURVEY_TRIGGER:
-                    //
-                    JsonObject survey = new JsonObject();
-                    survey.addProperty("triggered", SurveyState.isSurveyTriggered());
-                    return gson.toJson(survey);
-
-                case GET_ALL_PASSENGERS:
-                    //
-                    List<Passenger> allPassengers = passengerDAO.getAllPassengers();
-                    JsonObject allPassengersResponse = new JsonObject();
-                    allPassengersResponse.addProperty("status", "OK");
-                    allPassengersResponse.add("passengers", gson.toJsonTree(allPassengers));
-                    return gson.toJson(allPassengersResponse);
-
-                case CHECK_OUT_PASSENGER:
-                    //
-                    int pIdCheckout = data.get("passengerId").getAsInt();
-                    passengerDAO.setCheckedOut(pIdCheckout, true);
-
-                    JsonObject success = new JsonObject();
-                    success.addProperty("status", "OK");
-                    return gson.toJson(success);
-
-                case CHECK_CHECKOUT_STATUS:
-                    //
-                    int passengerIdcheck = data.get("passengerId").getAsInt();
-                    Passenger pCheck = passengerDAO.getPassengerById(passengerIdcheck);
-
-                    JsonObject resultCheck = new JsonObject();
-                    resultCheck.addProperty("checkedOut", pCheck != null && pCheck.isCheckedOut());
-                    return gson.toJson(resultCheck);
-
-                case SET_CHECKED_OUT_STATUS:
-                    //
-                    int pidsc = data.get("passengerId").getAsInt();
-                    boolean status = data.get("checkedOut").getAsBoolean();
-                    passengerDAO.setCheckedOut(pidsc, status);
-
-                    JsonObject ok = new JsonObject();
-                    ok.addProperty("status", "OK");
-                    return gson.toJson(ok);
-
-                case REGISTER_PHOTOGRAPHER:
-                    //
-                    String name = data.get("name").getAsString();
-                    photographerService.registerPhotographer(name);
-
-                    JsonObject regResp = new JsonObject();
-                    regResp.addProperty("status", "OK");
-                    return gson.toJson(regResp);
-
-                case GET_PHOTOGRAPHER_BY_NAME:
-                    //
-                    String searchName = data.get("name").getAsString();
-                    Photographer found = photographerService.getByName(searchName);
-
-                    JsonObject nameResp = new JsonObject();
-                    if (found != null) {
-                        nameResp.addProperty("status", "OK");
-                        nameResp.add("photographer", gson.toJsonTree(found));
-                    } else {
-                        nameResp.addProperty("status", "NOT_FOUND");
-                    }
-                    return gson.toJson(nameResp);
-
-                case GET_PHOTOGRAPHER_BY_ID:
-                    //
-                    int phototid = data.get("id").getAsInt();
-                    Photographer photo = photographerService.getById(phototid);
-
-                    JsonObject idResp = new JsonObject();
-                    if (photo != null) {
-                        idResp.addProperty("status", "OK");
-                        idResp.add("photographer", gson.toJsonTree(photo));
-                    } else {
-                        idResp.addProperty("status", "NOT_FOUND");
-                    }
-                    return gson.toJson(idResp);
-
-                case SET_PHOTOGRAPHER_CHECKED_OUT:
-                    //
-                    int photographerId = data.get("id").getAsInt();
-                    boolean statusphoto = data.get("checkedOut").getAsBoolean();
-                    photographerService.setCheckedOut(photographerId, statusphoto);
-
-                    JsonObject statusResp = new JsonObject();
-                    statusResp.addProperty("status", "OK");
-                    return gson.toJson(statusResp);
-
-                case GET_INVENTORY_BY_ROLE:
-                    //
-                    String role = data.get("role").getAsString();
-                    List<InventoryItem> items = inventoryService.getItemsByRole(role);
-
-                    JsonObject listResponse = new JsonObject();
-                    listResponse.addProperty("status", "OK");
-                    listResponse.add("items", gson.toJsonTree(items));
-                    return gson.toJson(listResponse);
-
-                case UPDATE_INVENTORY_ITEM:
-                    //
-                    InventoryItem updated = gson.fromJson(data.get("item"), InventoryItem.class);
-                    inventoryService.updateItem(updated);
-
-                    JsonObject updateResp = new JsonObject();
-                    updateResp.addProperty("status", "OK");
-                    return gson.toJson(updateResp);
-                    //handle other actions here after adding to enumeration
-
-                default:
-                    // Handle unknown action
-                    JsonObject error2 = new JsonObject();
-                    error2.addProperty("status", "ERROR");
-                    error2.addProperty("message", "Unknown action: " + action);
-                    return gson.toJson(error2);
-            }
+            handle(message, response, session);
+        } catch (IOException e) {
+            // A StringWriter only fails if a streaming handler failed after it started its response
+            return gson.toJson(Response.error("Failed to parse or handle request.").getBody());
+        }
+        return response.toString();
+    }
+
+    /**
+     * Handles an incoming message and writes the JSON response to the given writer.
+     * Streaming handlers write their rows while they are read from the database, all other handlers
+     * are serialized directly into the writer without building the response as a String first.
+     * The writer is not flushed or closed.
+     *
+     * @param message the incoming message in JSON format
+     * @param out     the writer the response is written to
+     * @throws IOException if writing fails, or if the handler fails after part of the response was written
+     */
+    public void handle(String message, Writer out) throws IOException {
+        handle(message, out, null);
+    }
 
+    /**
+     * Handles an incoming message of a connection that can receive pushed events
+     * and writes the JSON response to the given writer.
+     *
+     * @param message the incoming message in JSON format
+     * @param out     the writer the response is written to
+     * @param session the session of the connection, or null if it cannot subscribe to events
+     * @throws IOException if writing fails, or if the handler fails after part of the response was written
+     */
+    public void handle(String message, Writer out, ClientSession session) throws IOException {
+        handle(new StringReader(message), out, session);
+    }
+
+    /**
+     * Handles an incoming message that is parsed while it is read, for example straight from a binary frame,
+     * and writes the JSON response to the given writer.
+     *
+     * @param message the incoming message in JSON format
+     * @param out     the writer the response is written to
+     * @param session the session of the connection, or null if it cannot subscribe to events
+     * @throws IOException if writing fails, or if the handler fails after part of the response was written
+     */
+    public void handle(Reader message, Writer out, ClientSession session) throws IOException {
+        long start = System.nanoTime();
+        RequestHandledEvent event = new RequestHandledEvent();
+        event.begin();
+        // The request is only counted while a recording takes the event
+        CountingReader counting = event.isEnabled() ? new CountingReader(message) : null;
+        TrackingWriter tracking = new TrackingWriter(out, counting != null);
+        Long requestId = null;
+        ActionType action = null;
+        Outcome outcome = Outcome.FAILED;
+        JsonWriter jsonWriter = gson.newJsonWriter(tracking);
+        // Parse the incoming message
+        try {
+            MessageEnvelope envelope = gson.fromJson(counting != null ? counting : message, MessageEnvelope.class); // Deserialize the message into a MessageEnvelope object
+            requestId = envelope.getRequestId();
+            jsonWriter = newJsonWriter(tracking, requestId);
+            action = ActionType.valueOf(envelope.getAction()); // Get the action type from the envelope
+
+            RequestHandler handler = registry.get(action);
+            if (handler == null) {
+                // Handle unknown action
+                write(Response.error("Unknown action: " + action), jsonWriter);
+                outcome = Outcome.ERROR;
+            } else if (handler instanceof StreamingRequestHandler streaming) {
+                streaming.stream(envelope.getData(), jsonWriter);
+                outcome = Outcome.OK;
+            } else {
+                Object response = handler instanceof SessionRequestHandler sessionHandler
+                        ? sessionHandler.handle(envelope.getData(), session)
+                        : handler.handle(envelope.getData());
+                write(response, jsonWriter);
+                outcome = Response.isError(response) ? Outcome.ERROR : Outcome.OK;
+            }
+            if (session != null && outcome == Outcome.OK && session.getRole() == null) {
+                session.identify(roleOf(action, envelope.getData()));
+            }
         } catch (Exception e) {
             //catch exceptions and return ERROR
-            JsonObject error = new JsonObject();
-            error.addProperty("status", "ERROR");
-            error.addProperty("message", "Failed to parse or handle request.");
             logger.error("Failed to parse or handle request.", e);
-            return gson.toJson(error);
+            if (tracking.written) {
+                // Part of the response is already on its way, the client can only detect the failure by the connection closing
+                throw new IOException("Failed to handle request after the response was started", e);
+            }
+            write(Response.error("Failed to parse or handle request."), newJsonWriter(tracking, requestId));
+        } finally {
+            if (action != null) {
+                metrics.action(action).record(System.nanoTime() - start, outcome);
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.action = action == null ? null : action.name();
+                event.outcome = outcome.name();
+                event.bytesIn = counting == null ? 0 : counting.bytes;
+                event.bytesOut = tracking.bytes;
+                event.commit();
+            }
         }
+        jsonWriter.flush();
     }
-}
 
+    /**
+     * Returns the role a successful request identifies its client as, or null if every role sends it.
+     * The crew windows chat and read their inventory under their own role name.
+     */
+    private static String roleOf(ActionType action, JsonObject data) {
+        return switch (action) {
+            case LOGIN -> "Passenger";
+            case REGISTER_PHOTOGRAPHER, GET_PHOTOGRAPHER_BY_NAME -> "Photographer";
+            case APPROVE_BOOKING, DENY_BOOKING, TRIGGER_BROADCAST, TRIGGER_SURVEY -> "Pilot";
+            case SEND_CHAT, GET_CHAT, GET_CHAT_SINCE -> RequestParameters.optionalString(data, "sender");
+            case GET_INVENTORY_BY_ROLE -> RequestParameters.optionalString(data, "role");
+            default -> null;
+        };
+    }
+
+    /**
+     * Creates the writer for a response. If the request carried a request ID, the writer adds it to the response.
+     */
+    private JsonWriter newJsonWriter(Writer out, Long requestId) throws IOException {
+        if (requestId == null) {
+            return gson.newJsonWriter(out);
+        }
+        JsonWriter writer = new CorrelatingJsonWriter(out, requestId);
+        writer.setHtmlSafe(gson.htmlSafe());
+        writer.setSerializeNulls(gson.serializeNulls());
+        return writer;
+    }
+
+    /**
+     * Serializes the result of a handler.
+     */
+    private void write(Object response, JsonWriter out) throws IOException {
+        Object body = response instanceof Response r ? r.getBody() : response;
+        if (body == null) {
+            out.nullValue();
+        } else {
+            gson.toJson(body, body.getClass(), out);
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes the request ID as the first field of the response object, before the fields of the handler.
+     * Handlers and streaming handlers write their responses as usual and do not need to know about the ID.
+     */
+    private static final class CorrelatingJsonWriter extends JsonWriter {
+        private final long requestId; // ID to copy into the response
+        private boolean tagged; // True once the ID was written
+
+        private CorrelatingJsonWriter(Writer out, long requestId) {
+            super(out);
+            this.requestId = requestId;
+        }
+
+        @Override
+        public JsonWriter beginObject() throws IOException {
+            super.beginObject();
+            if (!tagged) {
+                tagged = true;
+                name(MessageEnvelope.REQUEST_ID).value(requestId);
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Returns the number of bytes a character takes in UTF-8, the encoding of every transport.
+     * Each half of a surrogate pair counts two, so the pair counts the four bytes of its code point.
+     */
+    private static int utf8Length(char c) {
+        if (c < 0x80) {
+            return 1;
+        }
+        if (c < 0x800 || Character.isSurrogate(c)) {
+            return 2;
+        }
+        return 3;
+    }
+
+    /**
+     * Passes the request through and counts its UTF-8 bytes.
+     */
+    private static final class CountingReader extends FilterReader {
+        private long bytes; // UTF-8 bytes of the characters read
+
+        private CountingReader(Reader source) {
+            super(source);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = super.read();
+            if (c >= 0) {
+                bytes += utf8Length((char) c);
+            }
+            return c;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            int n = super.read(cbuf, off, len);
+            for (int i = off; i < off + n; i++) {
+                bytes += utf8Length(cbuf[i]);
+            }
+            return n;
+        }
+    }
+
+    /**
+     * Passes everything through to the target writer and remembers whether any output was produced.
+     * While a recording takes the RequestHandledEvent, it also counts the UTF-8 bytes of the response.
+     */
+    private static final class TrackingWriter extends FilterWriter {
+        private final boolean counting; // Whether bytes are counted
+        private boolean written; // True once the first character was written
+        private long bytes; // UTF-8 bytes of the characters written, if counting
+
+        private TrackingWriter(Writer target, boolean counting) {
+            super(target);
+            this.counting = counting;
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            written = true;
+            if (counting) {
+                bytes += utf8Length((char) c);
+            }
+            super.write(c);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            written |= len > 0;
+            if (counting) {
+                for (int i = off; i < off + len; i++) {
+                    bytes += utf8Length(cbuf[i]);
+                }
+            }
+            super.write(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            written |= len > 0;
+            if (counting) {
+                for (int i = off; i < off + len; i++) {
+                    bytes += utf8Length(str.charAt(i));
+                }
+            }
+            super.write(str, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // The caller decides when the response is flushed to the socket
+        }
+
+        @Override
+        public void close() {
+            // The target belongs to the caller
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.inFlight.server.socket;
+
+import com.inFlight.server.ApplicationContext;
+import com.inFlight.server.push.EventBus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * SocketServer accepts client connections on a blocking ServerSocket and runs one ClientHandler per connection.
+ * The executor decides what kind of thread a ClientHandler runs on: a platform thread per client
+ * in BLOCKING mode or a virtual thread per client in VIRTUAL mode.
+ * All connections share one ProtocolHandler, so accepting a client does not create any services or DAOs.
+ */
+public class SocketServer implements Runnable, Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(SocketServer.class);
+
+    private final int port; // Port to listen on, 0 for an ephemeral port
+    private final ExecutorService executor; // Executor running the ClientHandlers
+    private final ProtocolHandler handler; // Shared by all connections
+    private final EventBus eventBus; // Bus the subscriptions of the connections are registered with
+    private final CountDownLatch bound = new CountDownLatch(1); // Released once the server socket is bound
+
+    private volatile ServerSocket serverSocket;
+
+    /**
+     * Constructor for SocketServer.
+     *
+     * @param port     the port to listen on
+     * @param executor the executor that runs one ClientHandler per connection
+     */
+    public SocketServer(int port, ExecutorService executor) {
+        this(port, executor, new ApplicationContext());
+    }
+
+    /**
+     * Constructor for SocketServer that serves the connections with the objects of an ApplicationContext.
+     *
+     * @param port     the port to listen on
+     * @param executor the executor that runs one ClientHandler per connection
+     * @param context  the context holding the shared ProtocolHandler and EventBus
+     */
+    public SocketServer(int port, ExecutorService executor, ApplicationContext context) {
+        this(port, executor, context.getProtocolHandler(), context.getEventBus());
+    }
+
+    /**
+     * Constructor for dependency injection.
+     */
+    public SocketServer(int port, ExecutorService executor, ProtocolHandler handler, EventBus eventBus) {
+        this.port = port;
+        this.executor = executor;
+        this.handler = handler;
+        this.eventBus = eventBus;
+    }
+
+    /**
+     * Binds the server socket and accepts connections until close is called.
+     */
+    public void run() {
+        // Create a ServerSocket to listen for incoming connections
+        try (ServerSocket socket = new ServerSocket(port)) {
+            serverSocket = socket;
+            bound.countDown();
+            logger.info("Server started listening on port {}", socket.getLocalPort());
+
+            // Continuously accept incoming client connections
+            while (!socket.isClosed()) {
+                Socket clientSocket = socket.accept();
+                logger.info("Client connected: {}", clientSocket.getInetAddress());
+                executor.execute(new ClientHandler(clientSocket, handler, eventBus));
+            }
+        } catch (SocketException e) {
+            logger.info("Server stopped");
+        // Handle exceptions related to server socket operations
+        } catch (IOException e) {
+            logger.error("Error starting server", e);
+        } finally {
+            bound.countDown();
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Waits until the server socket is bound and returns its port.
+     *
+     * @return the local port, or -1 if the server failed to bind
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public int awaitPort() throws InterruptedException {
+        bound.await();
+        ServerSocket socket = serverSocket;
+        return socket == null ? -1 : socket.getLocalPort();
+    }
+
+    /**
+     * Stops accepting connections. Client handlers that are already running finish on their own.
+     */
+    @Override
+    public void close() throws IOException {
+        ServerSocket socket = serverSocket;
+        if (socket != null) {
+            socket.close();
+        }
+        executor.shutdownNow();
+    }
+}
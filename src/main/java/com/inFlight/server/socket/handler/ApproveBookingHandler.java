@@ -0,0 +1,38 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.inFlight.server.service.BookingService;
+import com.inFlight.shared.protocol.ActionType;
+
+/**
+ * Handles APPROVE_BOOKING: marks a booking as approved.
+ */
+public class ApproveBookingHandler implements RequestHandler {
+    private final BookingService bookingService; // Service for booking-related operations
+
+    /**
+     * Constructor for the ApproveBookingHandler class.
+     *
+     * @param bookingService service for booking-related operations
+     */
+    public ApproveBookingHandler(BookingService bookingService) {
+        this.bookingService = bookingService;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.APPROVE_BOOKING;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.BOOKINGS;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        int bookingId = data.get("bookingId").getAsInt();
+        bookingService.setBookingStatus(bookingId, "approved");
+        return Response.ok();
+    }
+}
@@ -0,0 +1,206 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.inFlight.server.db.SQLiteConnector;
+import com.inFlight.server.metrics.Outcome;
+import com.inFlight.server.metrics.ServerMetrics;
+import com.inFlight.server.push.ClientSession;
+import com.inFlight.shared.protocol.ActionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Handles BATCH: runs several requests of one client and returns all their responses in one response,
+ * so a screen that needs several actions gets them with one round trip.
+ * The requests are given as {"requests": [{"action": ..., "data": {...}}, ...]} and the response lists the
+ * response of every request at the same position. A failing request only fails its own entry.
+ * Read-only requests next to each other run in parallel, but never more of them at once than the database
+ * has read connections, so one batch leaves nothing for the other clients to wait on. A request that changes data waits for the requests
+ * before it and runs before the requests after it, so a batch sees its own changes in order.
+ * Every request of a batch is recorded in the ServerMetrics under its own action.
+ */
+public class BatchHandler implements SessionRequestHandler {
+    private static final Logger logger = LoggerFactory.getLogger(BatchHandler.class);
+
+    public static final int MAX_REQUESTS = 32; // Requests per batch, so one batch cannot queue unlimited work
+    // Parallel requests wait for database connections, so they run on virtual threads instead of the server's workers;
+    // a worker waiting for tasks queued behind it on its own pool could never finish
+    private static final Executor DEFAULT_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final HandlerRegistry registry; // Handlers of the actions in a batch
+    private final Executor executor; // Runs the read-only requests of a batch in parallel
+    private final ServerMetrics metrics; // Records every request of a batch under its own action
+    private final int maxParallel; // Read-only requests of a batch running at the same time
+
+    /**
+     * Constructor for the BatchHandler class. Runs parallel requests on virtual threads.
+     *
+     * @param registry the handlers of the actions in a batch
+     */
+    public BatchHandler(HandlerRegistry registry) {
+        this(registry, ServerMetrics.getInstance());
+    }
+
+    /**
+     * Constructor for the BatchHandler class. Runs parallel requests on virtual threads.
+     *
+     * @param registry the handlers of the actions in a batch
+     * @param metrics  records every request of a batch under its own action
+     */
+    public BatchHandler(HandlerRegistry registry, ServerMetrics metrics) {
+        this(registry, DEFAULT_EXECUTOR, metrics);
+    }
+
+    /**
+     * Constructor for dependency injection
+     *
+     * @param registry the handlers of the actions in a batch
+     * @param executor runs the read-only requests of a batch in parallel
+     */
+    public BatchHandler(HandlerRegistry registry, Executor executor) {
+        this(registry, executor, ServerMetrics.getInstance());
+    }
+
+    /**
+     * Constructor for dependency injection
+     *
+     * @param registry the handlers of the actions in a batch
+     * @param executor runs the read-only requests of a batch in parallel
+     * @param metrics  records every request of a batch under its own action
+     */
+    public BatchHandler(HandlerRegistry registry, Executor executor, ServerMetrics metrics) {
+        this(registry, executor, metrics, SQLiteConnector.getReadConnectionCount());
+    }
+
+    /**
+     * Constructor for dependency injection
+     *
+     * @param registry    the handlers of the actions in a batch
+     * @param executor    runs the read-only requests of a batch in parallel
+     * @param metrics     records every request of a batch under its own action
+     * @param maxParallel how many read-only requests of a batch may run at the same time, at least 1
+     */
+    public BatchHandler(HandlerRegistry registry, Executor executor, ServerMetrics metrics, int maxParallel) {
+        if (maxParallel < 1) {
+            throw new IllegalArgumentException("maxParallel must be at least 1");
+        }
+        this.registry = registry;
+        this.executor = executor;
+        this.metrics = metrics;
+        this.maxParallel = maxParallel;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.BATCH;
+    }
+
+    @Override
+    public Object handle(JsonObject data, ClientSession session) {
+        JsonElement requestsElement = data == null ? null : data.get("requests");
+        if (requestsElement == null || !requestsElement.isJsonArray()) {
+            return Response.error("Missing requests");
+        }
+        JsonArray requests = requestsElement.getAsJsonArray();
+        if (requests.size() > MAX_REQUESTS) {
+            return Response.error("A batch can contain at most " + MAX_REQUESTS + " requests");
+        }
+
+        Object[] responses = new Object[requests.size()];
+        List<Integer> readOnlyRun = new ArrayList<>(); // Read-only requests waiting to run together
+        for (int i = 0; i < requests.size(); i++) {
+            RequestHandler handler = handlerFor(requests.get(i));
+            if (handler == null) {
+                responses[i] = Response.error("Unknown action in batch").getBody();
+            } else if (handler.isReadOnly() && !(handler instanceof SessionRequestHandler)) {
+                readOnlyRun.add(i);
+            } else {
+                runParallel(requests, readOnlyRun, responses, session);
+                responses[i] = run(handler, requests.get(i).getAsJsonObject(), session);
+            }
+        }
+        runParallel(requests, readOnlyRun, responses, session);
+
+        return Response.ok().with("responses", Arrays.asList(responses));
+    }
+
+    /**
+     * Returns the handler of a request in the batch, or null if the action is unknown or is another batch.
+     */
+    private RequestHandler handlerFor(JsonElement request) {
+        if (!request.isJsonObject() || !request.getAsJsonObject().has("action")) {
+            return null;
+        }
+        try {
+            ActionType action = ActionType.valueOf(request.getAsJsonObject().get("action").getAsString());
+            return action == ActionType.BATCH ? null : registry.get(action);
+        } catch (IllegalArgumentException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Runs the collected read-only requests and clears the list. The first one runs on the calling thread,
+     * the others on the executor, with at most maxParallel of them running at once.
+     */
+    private void runParallel(JsonArray requests, List<Integer> indexes, Object[] responses, ClientSession session) {
+        if (indexes.isEmpty()) {
+            return;
+        }
+        Semaphore permits = new Semaphore(maxParallel);
+        List<CompletableFuture<Void>> running = new ArrayList<>(indexes.size() - 1);
+        for (int index : indexes.subList(1, indexes.size())) {
+            running.add(CompletableFuture.runAsync(
+                    () -> runWithPermit(permits, requests, index, responses, session), executor));
+        }
+        runWithPermit(permits, requests, indexes.get(0), responses, session);
+        // join makes the responses written by the other threads visible here
+        running.forEach(CompletableFuture::join);
+        indexes.clear();
+    }
+
+    /**
+     * Runs one read-only request of the batch once a permit is free and stores its response.
+     */
+    private void runWithPermit(Semaphore permits, JsonArray requests, int index, Object[] responses, ClientSession session) {
+        permits.acquireUninterruptibly();
+        try {
+            JsonObject request = requests.get(index).getAsJsonObject();
+            responses[index] = run(handlerFor(request), request, session);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Runs one request of the batch and returns the body of its response.
+     */
+    private Object run(RequestHandler handler, JsonObject request, ClientSession session) {
+        long start = System.nanoTime();
+        JsonElement dataElement = request.get("data");
+        JsonObject data = dataElement == null || !dataElement.isJsonObject() ? new JsonObject() : dataElement.getAsJsonObject();
+        Outcome outcome = Outcome.FAILED;
+        try {
+            Object response = handler instanceof SessionRequestHandler sessionHandler
+                    ? sessionHandler.handle(data, session)
+                    : handler.handle(data);
+            outcome = Response.isError(response) ? Outcome.ERROR : Outcome.OK;
+            return response instanceof Response r ? r.getBody() : response;
+        } catch (Exception e) {
+            logger.error("Failed to handle {} in batch", handler.getAction(), e);
+            return Response.error("Failed to parse or handle request.").getBody();
+        } finally {
+            metrics.action(handler.getAction()).record(System.nanoTime() - start, outcome);
+        }
+    }
+}
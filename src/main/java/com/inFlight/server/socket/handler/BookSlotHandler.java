@@ -0,0 +1,40 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.inFlight.server.service.BookingService;
+import com.inFlight.shared.protocol.ActionType;
+
+/**
+ * Handles BOOK_SLOT: books a spacewalk slot for a passenger.
+ */
+public class BookSlotHandler implements RequestHandler {
+    private final BookingService bookingService; // Service for booking-related operations
+
+    /**
+     * Constructor for the BookSlotHandler class.
+     *
+     * @param bookingService service for booking-related operations
+     */
+    public BookSlotHandler(BookingService bookingService) {
+        this.bookingService = bookingService;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.BOOK_SLOT;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.SLOTS;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        int passengerId = data.get("passengerId").getAsInt();
+        int slotId = data.get("slotId").getAsInt();
+        int tier = data.get("tier").getAsInt();
+
+        return bookingService.processBooking(passengerId, slotId, tier);
+    }
+}
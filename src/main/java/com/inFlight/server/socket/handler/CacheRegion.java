@@ -0,0 +1,16 @@
+package com.inFlight.server.socket.handler;
+
+/**
+ * CacheRegion is an enum that groups actions by the data they read or change.
+ * A response of a read-only action may be cached in its region until a mutating action of the same region runs.
+ */
+public enum CacheRegion {
+    NONE, // Not cacheable
+    PASSENGERS, // passengers table
+    SLOTS, // spacewalk_slots table
+    BOOKINGS, // bookings table
+    CHAT, // chat_message table
+    PHOTOGRAPHERS, // photographer table
+    INVENTORY, // inventory_item table
+    STATE // In-memory broadcast, survey and cancellation state
+}
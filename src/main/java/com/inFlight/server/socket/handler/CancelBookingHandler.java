@@ -0,0 +1,37 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.inFlight.server.service.BookingService;
+import com.inFlight.shared.protocol.ActionType;
+
+/**
+ * Handles CANCEL_BOOKING: cancels a booking and refunds part of its cost.
+ */
+public class CancelBookingHandler implements RequestHandler {
+    private final BookingService bookingService; // Service for booking-related operations
+
+    /**
+     * Constructor for the CancelBookingHandler class.
+     *
+     * @param bookingService service for booking-related operations
+     */
+    public CancelBookingHandler(BookingService bookingService) {
+        this.bookingService = bookingService;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.CANCEL_BOOKING;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.BOOKINGS;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        int bookingId = data.get("bookingId").getAsInt();
+        return bookingService.cancelBooking(bookingId);
+    }
+}
@@ -0,0 +1,44 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.inFlight.server.dao.PassengerDAO;
+import com.inFlight.shared.model.Passenger;
+import com.inFlight.shared.protocol.ActionType;
+
+/**
+ * Handles CHECK_CHECKOUT_STATUS: tells whether a passenger has checked out.
+ */
+public class CheckCheckoutStatusHandler implements RequestHandler {
+    private final PassengerDAO passengerDAO; // DAO for passenger operations
+
+    /**
+     * Constructor for the CheckCheckoutStatusHandler class.
+     *
+     * @param passengerDAO DAO for passenger operations
+     */
+    public CheckCheckoutStatusHandler(PassengerDAO passengerDAO) {
+        this.passengerDAO = passengerDAO;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.CHECK_CHECKOUT_STATUS;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.PASSENGERS;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        int passengerId = data.get("passengerId").getAsInt();
+        Passenger passenger = passengerDAO.getPassengerById(passengerId);
+        return Response.empty().with("checkedOut", passenger != null && passenger.isCheckedOut());
+    }
+}
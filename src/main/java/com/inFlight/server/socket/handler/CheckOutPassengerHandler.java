@@ -0,0 +1,58 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.inFlight.server.dao.PassengerDAO;
+import com.inFlight.server.push.EventBus;
+import com.inFlight.shared.protocol.ActionType;
+import com.inFlight.shared.protocol.EventTopic;
+
+/**
+ * Handles CHECK_OUT_PASSENGER: marks a passenger as checked out.
+ */
+public class CheckOutPassengerHandler implements RequestHandler {
+    private final PassengerDAO passengerDAO; // DAO for passenger operations
+    private final EventBus eventBus; // Pushes the change to subscribed clients
+
+    /**
+     * Constructor for the CheckOutPassengerHandler class.
+     *
+     * @param passengerDAO DAO for passenger operations
+     * @param eventBus     pushes checkouts to the subscribed clients of the passenger
+     */
+    public CheckOutPassengerHandler(PassengerDAO passengerDAO, EventBus eventBus) {
+        this.passengerDAO = passengerDAO;
+        this.eventBus = eventBus;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.CHECK_OUT_PASSENGER;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.PASSENGERS;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        int passengerId = data.get("passengerId").getAsInt();
+        passengerDAO.setCheckedOut(passengerId, true);
+        publishCheckout(eventBus, passengerId, true);
+        return Response.ok();
+    }
+
+    /**
+     * Publishes the checkout state of a passenger to the passenger's subscribed clients.
+     *
+     * @param eventBus    the bus to publish on
+     * @param passengerId the ID of the passenger
+     * @param checkedOut  the new checkout state
+     */
+    static void publishCheckout(EventBus eventBus, int passengerId, boolean checkedOut) {
+        JsonObject checkout = new JsonObject();
+        checkout.addProperty("passengerId", passengerId);
+        checkout.addProperty("checkedOut", checkedOut);
+        eventBus.publish(EventTopic.CHECKOUT, String.valueOf(passengerId), checkout);
+    }
+}
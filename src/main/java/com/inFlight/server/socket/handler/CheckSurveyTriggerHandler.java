@@ -0,0 +1,30 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.inFlight.shared.protocol.ActionType;
+import com.inFlight.shared.state.SurveyState;
+
+/**
+ * Handles CHECK_SURVEY_TRIGGER: tells whether the survey has been started.
+ */
+public class CheckSurveyTriggerHandler implements RequestHandler {
+    @Override
+    public ActionType getAction() {
+        return ActionType.CHECK_SURVEY_TRIGGER;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.STATE;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        return Response.empty().with("triggered", SurveyState.isSurveyTriggered());
+    }
+}
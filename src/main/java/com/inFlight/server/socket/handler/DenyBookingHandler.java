@@ -0,0 +1,37 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.inFlight.server.service.BookingService;
+import com.inFlight.shared.protocol.ActionType;
+
+/**
+ * Handles DENY_BOOKING: denies a booking and refunds its cost.
+ */
+public class DenyBookingHandler implements RequestHandler {
+    private final BookingService bookingService; // Service for booking-related operations
+
+    /**
+     * Constructor for the DenyBookingHandler class.
+     *
+     * @param bookingService service for booking-related operations
+     */
+    public DenyBookingHandler(BookingService bookingService) {
+        this.bookingService = bookingService;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.DENY_BOOKING;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.BOOKINGS;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        int bookingId = data.get("bookingId").getAsInt();
+        return bookingService.denyBooking(bookingId);
+    }
+}
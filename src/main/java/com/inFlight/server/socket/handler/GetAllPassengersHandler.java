@@ -0,0 +1,60 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+import com.inFlight.server.dao.PassengerDAO;
+import com.inFlight.shared.model.Passenger;
+import com.inFlight.shared.protocol.ActionType;
+
+import java.io.IOException;
+
+/**
+ * Handles GET_ALL_PASSENGERS: streams the passengers, ordered by passenger ID.
+ * The optional checkedOut field filters by checkout status, afterId and limit select a page,
+ * and count set to true returns only the number of matching passengers.
+ */
+public class GetAllPassengersHandler implements StreamingRequestHandler {
+    private final PassengerDAO passengerDAO; // DAO for passenger operations
+    private final Gson gson; // Gson instance for writing the rows
+
+    /**
+     * Constructor for the GetAllPassengersHandler class.
+     *
+     * @param passengerDAO DAO for passenger operations
+     * @param gson         Gson instance for writing the rows
+     */
+    public GetAllPassengersHandler(PassengerDAO passengerDAO, Gson gson) {
+        this.passengerDAO = passengerDAO;
+        this.gson = gson;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.GET_ALL_PASSENGERS;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.PASSENGERS;
+    }
+
+    @Override
+    public void stream(JsonObject data, JsonWriter out) throws IOException {
+        Boolean checkedOut = RequestParameters.optionalBoolean(data, "checkedOut");
+        if (RequestParameters.isCountOnly(data)) {
+            RequestParameters.writeCount(out, passengerDAO.countPassengers(checkedOut));
+            return;
+        }
+
+        out.beginObject().name("status").value("OK").name("passengers").beginArray();
+        passengerDAO.forEachPassenger(checkedOut, RequestParameters.page(data),
+                passenger -> gson.toJson(passenger, Passenger.class, out));
+        out.endArray().endObject();
+    }
+}
@@ -0,0 +1,53 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+import com.inFlight.server.dao.SpacewalkSlotDAO;
+import com.inFlight.shared.model.SpacewalkSlot;
+import com.inFlight.shared.protocol.ActionType;
+
+import java.io.IOException;
+
+/**
+ * Handles GET_AVAILABLE_SLOTS: streams the spacewalk slots that can still be booked, ordered by time.
+ * The optional from and to fields limit the result to slot times in [from, to).
+ */
+public class GetAvailableSlotsHandler implements StreamingRequestHandler {
+    private final SpacewalkSlotDAO slotDAO; // DAO for spacewalk slot operations
+    private final Gson gson; // Gson instance for writing the rows
+
+    /**
+     * Constructor for the GetAvailableSlotsHandler class.
+     *
+     * @param slotDAO DAO for spacewalk slot operations
+     * @param gson    Gson instance for writing the rows
+     */
+    public GetAvailableSlotsHandler(SpacewalkSlotDAO slotDAO, Gson gson) {
+        this.slotDAO = slotDAO;
+        this.gson = gson;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.GET_AVAILABLE_SLOTS;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.SLOTS;
+    }
+
+    @Override
+    public void stream(JsonObject data, JsonWriter out) throws IOException {
+        out.beginObject().name("status").value("OK").name("slots").beginArray();
+        slotDAO.forEachAvailableSlot(RequestParameters.optionalString(data, "from"), RequestParameters.optionalString(data, "to"),
+                slot -> gson.toJson(slot, SpacewalkSlot.class, out));
+        out.endArray().endObject();
+    }
+}
@@ -0,0 +1,60 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+import com.inFlight.server.dao.BookingFilter;
+import com.inFlight.server.service.BookingService;
+import com.inFlight.shared.model.DetailedBooking;
+import com.inFlight.shared.protocol.ActionType;
+
+import java.io.IOException;
+
+/**
+ * Handles GET_BOOKINGS_DETAILED: streams the bookings with their slot time and passenger username.
+ * Takes the same filter, page and count fields as GET_BOOKINGS.
+ */
+public class GetBookingsDetailedHandler implements StreamingRequestHandler {
+    private final BookingService bookingService; // Service for booking-related operations
+    private final Gson gson; // Gson instance for writing the rows
+
+    /**
+     * Constructor for the GetBookingsDetailedHandler class.
+     *
+     * @param bookingService service for booking-related operations
+     * @param gson           Gson instance for writing the rows
+     */
+    public GetBookingsDetailedHandler(BookingService bookingService, Gson gson) {
+        this.bookingService = bookingService;
+        this.gson = gson;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.GET_BOOKINGS_DETAILED;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.BOOKINGS;
+    }
+
+    @Override
+    public void stream(JsonObject data, JsonWriter out) throws IOException {
+        BookingFilter filter = GetBookingsHandler.bookingFilter(data);
+        if (RequestParameters.isCountOnly(data)) {
+            RequestParameters.writeCount(out, bookingService.countBookings(filter));
+            return;
+        }
+
+        out.beginObject().name("status").value("OK").name("bookings").beginArray();
+        bookingService.forEachDetailedBooking(filter, RequestParameters.page(data),
+                booking -> gson.toJson(booking, DetailedBooking.class, out));
+        out.endArray().endObject();
+    }
+}
@@ -0,0 +1,53 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+import com.inFlight.server.service.BookingService;
+import com.inFlight.shared.model.DetailedBooking;
+import com.inFlight.shared.protocol.ActionType;
+
+import java.io.IOException;
+
+/**
+ * Handles GET_BOOKINGS_FOR_PASSENGER_DETAILED: streams the bookings of one passenger with their slot time and the passenger's username.
+ */
+public class GetBookingsForPassengerDetailedHandler implements StreamingRequestHandler {
+    private final BookingService bookingService; // Service for booking-related operations
+    private final Gson gson; // Gson instance for writing the rows
+
+    /**
+     * Constructor for the GetBookingsForPassengerDetailedHandler class.
+     *
+     * @param bookingService service for booking-related operations
+     * @param gson           Gson instance for writing the rows
+     */
+    public GetBookingsForPassengerDetailedHandler(BookingService bookingService, Gson gson) {
+        this.bookingService = bookingService;
+        this.gson = gson;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.GET_BOOKINGS_FOR_PASSENGER_DETAILED;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.BOOKINGS;
+    }
+
+    @Override
+    public void stream(JsonObject data, JsonWriter out) throws IOException {
+        int passengerId = data.get("passengerId").getAsInt();
+
+        out.beginObject().name("status").value("OK").name("bookings").beginArray();
+        bookingService.forEachDetailedBookingForPassenger(passengerId, booking -> gson.toJson(booking, DetailedBooking.class, out));
+        out.endArray().endObject();
+    }
+}
@@ -0,0 +1,53 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+import com.inFlight.server.service.BookingService;
+import com.inFlight.shared.model.Booking;
+import com.inFlight.shared.protocol.ActionType;
+
+import java.io.IOException;
+
+/**
+ * Handles GET_BOOKINGS_FOR_PASSENGER: streams the bookings of one passenger.
+ */
+public class GetBookingsForPassengerHandler implements StreamingRequestHandler {
+    private final BookingService bookingService; // Service for booking-related operations
+    private final Gson gson; // Gson instance for writing the rows
+
+    /**
+     * Constructor for the GetBookingsForPassengerHandler class.
+     *
+     * @param bookingService service for booking-related operations
+     * @param gson           Gson instance for writing the rows
+     */
+    public GetBookingsForPassengerHandler(BookingService bookingService, Gson gson) {
+        this.bookingService = bookingService;
+        this.gson = gson;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.GET_BOOKINGS_FOR_PASSENGER;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.BOOKINGS;
+    }
+
+    @Override
+    public void stream(JsonObject data, JsonWriter out) throws IOException {
+        int passengerId = data.get("passengerId").getAsInt();
+
+        out.beginObject().name("status").value("OK").name("bookings").beginArray();
+        bookingService.forEachBookingForPassenger(passengerId, booking -> gson.toJson(booking, Booking.class, out));
+        out.endArray().endObject();
+    }
+}
@@ -0,0 +1,68 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+import com.inFlight.server.dao.BookingFilter;
+import com.inFlight.server.service.BookingService;
+import com.inFlight.shared.model.Booking;
+import com.inFlight.shared.protocol.ActionType;
+
+import java.io.IOException;
+
+/**
+ * Handles GET_BOOKINGS: streams the bookings, ordered by booking ID.
+ * The optional status, passengerId and tier fields filter the bookings, afterId and limit select a page,
+ * and count set to true returns only the number of matching bookings.
+ */
+public class GetBookingsHandler implements StreamingRequestHandler {
+    private final BookingService bookingService; // Service for booking-related operations
+    private final Gson gson; // Gson instance for writing the rows
+
+    /**
+     * Constructor for the GetBookingsHandler class.
+     *
+     * @param bookingService service for booking-related operations
+     * @param gson           Gson instance for writing the rows
+     */
+    public GetBookingsHandler(BookingService bookingService, Gson gson) {
+        this.bookingService = bookingService;
+        this.gson = gson;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.GET_BOOKINGS;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.BOOKINGS;
+    }
+
+    @Override
+    public void stream(JsonObject data, JsonWriter out) throws IOException {
+        BookingFilter filter = bookingFilter(data);
+        if (RequestParameters.isCountOnly(data)) {
+            RequestParameters.writeCount(out, bookingService.countBookings(filter));
+            return;
+        }
+
+        out.beginObject().name("status").value("OK").name("bookings").beginArray();
+        bookingService.forEachBooking(filter, RequestParameters.page(data), booking -> gson.toJson(booking, Booking.class, out));
+        out.endArray().endObject();
+    }
+
+    /**
+     * Reads the optional status, passengerId and tier filters of a booking list request.
+     */
+    static BookingFilter bookingFilter(JsonObject data) {
+        return new BookingFilter(RequestParameters.optionalString(data, "status"),
+                RequestParameters.optionalInt(data, "passengerId"), RequestParameters.optionalInt(data, "tier"));
+    }
+}
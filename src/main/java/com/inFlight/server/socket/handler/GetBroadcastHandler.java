@@ -0,0 +1,32 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.inFlight.shared.protocol.ActionType;
+import com.inFlight.shared.state.BroadcastState;
+
+/**
+ * Handles GET_BROADCAST: returns the current broadcast message.
+ */
+public class GetBroadcastHandler implements RequestHandler {
+    @Override
+    public ActionType getAction() {
+        return ActionType.GET_BROADCAST;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.STATE;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        return Response.ok()
+                .with("message", BroadcastState.getMessage())
+                .with("timestamp", BroadcastState.getLastUpdated());
+    }
+}
@@ -0,0 +1,70 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+import com.inFlight.server.dao.ChatMessageDAO;
+import com.inFlight.server.dao.PageRequest;
+import com.inFlight.server.service.ChatService;
+import com.inFlight.shared.model.ChatMessage;
+import com.inFlight.shared.protocol.ActionType;
+
+import java.io.IOException;
+
+/**
+ * Handles GET_CHAT: streams the chat history between two users.
+ * With afterId or limit only that page of the history is returned, as with GET_CHAT_SINCE,
+ * and count set to true returns only the number of messages.
+ */
+public class GetChatHandler implements StreamingRequestHandler {
+    private final ChatService chatService; // Service for chat-related operations
+    private final Gson gson; // Gson instance for writing the rows
+
+    /**
+     * Constructor for the GetChatHandler class.
+     *
+     * @param chatService service for chat-related operations
+     * @param gson        Gson instance for writing the rows
+     */
+    public GetChatHandler(ChatService chatService, Gson gson) {
+        this.chatService = chatService;
+        this.gson = gson;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.GET_CHAT;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.CHAT;
+    }
+
+    @Override
+    public void stream(JsonObject data, JsonWriter out) throws IOException {
+        String sender = data.get("sender").getAsString();
+        String receiver = data.get("receiver").getAsString();
+
+        if (RequestParameters.isCountOnly(data)) {
+            RequestParameters.writeCount(out, chatService.countChatMessages(sender, receiver));
+            return;
+        }
+
+        PageRequest page = RequestParameters.page(data);
+        out.beginObject().name("status").value("OK").name("messages").beginArray();
+        if (page.equals(PageRequest.ALL)) {
+            chatService.forEachChatMessage(sender, receiver, message -> gson.toJson(message, ChatMessage.class, out));
+        } else {
+            int limit = page.isLimited() ? page.limit() : ChatMessageDAO.MAX_PAGE_SIZE;
+            chatService.forEachChatMessageSince(sender, receiver, page.afterId(), limit,
+                    message -> gson.toJson(message, ChatMessage.class, out));
+        }
+        out.endArray().endObject();
+    }
+}
@@ -0,0 +1,59 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+import com.inFlight.server.dao.ChatMessageDAO;
+import com.inFlight.server.service.ChatService;
+import com.inFlight.shared.model.ChatMessage;
+import com.inFlight.shared.protocol.ActionType;
+
+import java.io.IOException;
+
+/**
+ * Handles GET_CHAT_SINCE: streams the messages between two users that come after the message with ID afterId,
+ * so a client only downloads what it has not shown yet.
+ */
+public class GetChatSinceHandler implements StreamingRequestHandler {
+    private final ChatService chatService; // Service for chat-related operations
+    private final Gson gson; // Gson instance for writing the rows
+
+    /**
+     * Constructor for the GetChatSinceHandler class.
+     *
+     * @param chatService service for chat-related operations
+     * @param gson        Gson instance for writing the rows
+     */
+    public GetChatSinceHandler(ChatService chatService, Gson gson) {
+        this.chatService = chatService;
+        this.gson = gson;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.GET_CHAT_SINCE;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.CHAT;
+    }
+
+    @Override
+    public void stream(JsonObject data, JsonWriter out) throws IOException {
+        String sender = data.get("sender").getAsString();
+        String receiver = data.get("receiver").getAsString();
+        int afterId = data.has("afterId") ? data.get("afterId").getAsInt() : 0;
+        int limit = data.has("limit") ? data.get("limit").getAsInt() : ChatMessageDAO.MAX_PAGE_SIZE;
+
+        out.beginObject().name("status").value("OK").name("messages").beginArray();
+        chatService.forEachChatMessageSince(sender, receiver, afterId, limit,
+                message -> gson.toJson(message, ChatMessage.class, out));
+        out.endArray().endObject();
+    }
+}
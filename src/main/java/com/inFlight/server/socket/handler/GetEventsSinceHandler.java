@@ -0,0 +1,67 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.inFlight.server.push.EventLog;
+import com.inFlight.server.push.Subscription;
+import com.inFlight.shared.protocol.ActionType;
+import com.inFlight.shared.protocol.EventFrame;
+import com.inFlight.shared.protocol.EventTopic;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Handles GET_EVENTS_SINCE: returns every logged event after the given sequence in one response.
+ * An optional list of topics, with a key for keyed topics, limits the events to the ones the client cares about.
+ */
+public class GetEventsSinceHandler implements RequestHandler {
+    private final EventLog eventLog; // Log the events are read from
+
+    /**
+     * Constructor for the GetEventsSinceHandler class.
+     *
+     * @param eventLog log the events are read from
+     */
+    public GetEventsSinceHandler(EventLog eventLog) {
+        this.eventLog = eventLog;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.GET_EVENTS_SINCE;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        long since = data.has("seq") ? data.get("seq").getAsLong() : 0;
+        EventLog.Page page = eventLog.readSince(since, filter(data.get("topics")));
+        return Response.ok()
+                .with("events", page.events())
+                .with("latestSeq", page.latestSeq())
+                .with("complete", page.complete());
+    }
+
+    private static Predicate<EventFrame> filter(JsonElement topics) {
+        if (topics == null || topics.isJsonNull()) {
+            return frame -> true;
+        }
+        Set<Subscription> wanted = new HashSet<>();
+        JsonArray array = topics.getAsJsonArray();
+        for (JsonElement element : array) {
+            JsonObject topic = element.getAsJsonObject();
+            JsonElement key = topic.get("key");
+            wanted.add(new Subscription(
+                    EventTopic.valueOf(topic.get("topic").getAsString()),
+                    key == null || key.isJsonNull() ? null : key.getAsString()));
+        }
+        return frame -> wanted.contains(new Subscription(frame.getTopic(), frame.getKey()));
+    }
+}
@@ -0,0 +1,46 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.inFlight.server.service.InventoryService;
+import com.inFlight.shared.model.InventoryItem;
+import com.inFlight.shared.protocol.ActionType;
+
+import java.util.List;
+
+/**
+ * Handles GET_INVENTORY_BY_ROLE: returns the inventory items of a crew role.
+ */
+public class GetInventoryByRoleHandler implements RequestHandler {
+    private final InventoryService inventoryService; // Service for inventory-related operations
+
+    /**
+     * Constructor for the GetInventoryByRoleHandler class.
+     *
+     * @param inventoryService service for inventory-related operations
+     */
+    public GetInventoryByRoleHandler(InventoryService inventoryService) {
+        this.inventoryService = inventoryService;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.GET_INVENTORY_BY_ROLE;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.INVENTORY;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        String role = data.get("role").getAsString();
+        List<InventoryItem> items = inventoryService.getItemsByRole(role);
+        return Response.ok().with("items", items);
+    }
+}
@@ -0,0 +1,32 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.inFlight.shared.protocol.ActionType;
+import com.inFlight.shared.state.CancellationState;
+
+/**
+ * Handles GET_LAST_CANCELLATION: returns the passenger who cancelled a booking last.
+ */
+public class GetLastCancellationHandler implements RequestHandler {
+    @Override
+    public ActionType getAction() {
+        return ActionType.GET_LAST_CANCELLATION;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.STATE;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        return Response.ok()
+                .with("passenger", CancellationState.getLastCancelledPassenger())
+                .with("timestamp", CancellationState.getLastUpdated());
+    }
+}
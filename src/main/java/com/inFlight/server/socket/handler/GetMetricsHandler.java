@@ -0,0 +1,66 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.inFlight.server.metrics.ServerMetrics;
+import com.inFlight.shared.protocol.ActionType;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Handles GET_METRICS: returns the request counts and latencies per action and per DAO method since the server
+ * started, each ordered by the total time spent, so the most expensive entries come first.
+ * The request has to carry the admin token the server was started with in the inflight.metrics.token system
+ * property. Without that property the action is disabled.
+ */
+public class GetMetricsHandler implements RequestHandler {
+    public static final String TOKEN_PROPERTY = "inflight.metrics.token"; // System property holding the admin token
+
+    private final ServerMetrics metrics; // Metrics of the server
+    private final byte[] token; // UTF-8 bytes of the admin token, null if GET_METRICS is disabled
+
+    /**
+     * Constructor for the GetMetricsHandler class. Reads the admin token from the inflight.metrics.token
+     * system property.
+     *
+     * @param metrics the metrics of the server
+     */
+    public GetMetricsHandler(ServerMetrics metrics) {
+        this(metrics, System.getProperty(TOKEN_PROPERTY));
+    }
+
+    /**
+     * Constructor for dependency injection
+     *
+     * @param metrics the metrics of the server
+     * @param token   the admin token requests must carry, or null or blank to disable GET_METRICS
+     */
+    public GetMetricsHandler(ServerMetrics metrics, String token) {
+        this.metrics = metrics;
+        this.token = token == null || token.isBlank() ? null : token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.GET_METRICS;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        String given = RequestParameters.optionalString(data, "token");
+        // Compared in constant time, so the answer time does not tell how much of a guess was right
+        if (token == null || given == null || !MessageDigest.isEqual(token, given.getBytes(StandardCharsets.UTF_8))) {
+            return Response.error("GET_METRICS needs the admin token of the server.");
+        }
+        return Response.ok()
+                .with("uptimeSeconds", metrics.getUptimeSeconds())
+                .with("requests", metrics.getRequestCount())
+                .with("actions", metrics.getActionSnapshots())
+                .with("dao", metrics.getDaoSnapshots());
+    }
+}
@@ -0,0 +1,47 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.inFlight.server.dao.PassengerDAO;
+import com.inFlight.shared.model.Passenger;
+import com.inFlight.shared.protocol.ActionType;
+
+/**
+ * Handles GET_PASSENGER_BY_ID: returns a single passenger.
+ */
+public class GetPassengerByIdHandler implements RequestHandler {
+    private final PassengerDAO passengerDAO; // DAO for passenger operations
+
+    /**
+     * Constructor for the GetPassengerByIdHandler class.
+     *
+     * @param passengerDAO DAO for passenger operations
+     */
+    public GetPassengerByIdHandler(PassengerDAO passengerDAO) {
+        this.passengerDAO = passengerDAO;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.GET_PASSENGER_BY_ID;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.PASSENGERS;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        int passengerId = data.get("passengerId").getAsInt();
+        Passenger passenger = passengerDAO.getPassengerById(passengerId);
+        if (passenger == null) {
+            return Response.status("ERROR");
+        }
+        return Response.ok().with("passenger", passenger);
+    }
+}
@@ -0,0 +1,47 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.inFlight.server.service.PhotographerService;
+import com.inFlight.shared.model.Photographer;
+import com.inFlight.shared.protocol.ActionType;
+
+/**
+ * Handles GET_PHOTOGRAPHER_BY_ID: looks up a photographer by ID.
+ */
+public class GetPhotographerByIdHandler implements RequestHandler {
+    private final PhotographerService photographerService; // Service for photographer-related operations
+
+    /**
+     * Constructor for the GetPhotographerByIdHandler class.
+     *
+     * @param photographerService service for photographer-related operations
+     */
+    public GetPhotographerByIdHandler(PhotographerService photographerService) {
+        this.photographerService = photographerService;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.GET_PHOTOGRAPHER_BY_ID;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.PHOTOGRAPHERS;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        int id = data.get("id").getAsInt();
+        Photographer photographer = photographerService.getById(id);
+        if (photographer == null) {
+            return Response.status("NOT_FOUND");
+        }
+        return Response.ok().with("photographer", photographer);
+    }
+}
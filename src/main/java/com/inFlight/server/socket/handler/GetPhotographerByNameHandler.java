@@ -0,0 +1,47 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.inFlight.server.service.PhotographerService;
+import com.inFlight.shared.model.Photographer;
+import com.inFlight.shared.protocol.ActionType;
+
+/**
+ * Handles GET_PHOTOGRAPHER_BY_NAME: looks up a photographer by name.
+ */
+public class GetPhotographerByNameHandler implements RequestHandler {
+    private final PhotographerService photographerService; // Service for photographer-related operations
+
+    /**
+     * Constructor for the GetPhotographerByNameHandler class.
+     *
+     * @param photographerService service for photographer-related operations
+     */
+    public GetPhotographerByNameHandler(PhotographerService photographerService) {
+        this.photographerService = photographerService;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.GET_PHOTOGRAPHER_BY_NAME;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.PHOTOGRAPHERS;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        String name = data.get("name").getAsString();
+        Photographer photographer = photographerService.getByName(name);
+        if (photographer == null) {
+            return Response.status("NOT_FOUND");
+        }
+        return Response.ok().with("photographer", photographer);
+    }
+}
@@ -0,0 +1,47 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.inFlight.server.dao.SpacewalkSlotDAO;
+import com.inFlight.shared.model.SpacewalkSlot;
+import com.inFlight.shared.protocol.ActionType;
+
+/**
+ * Handles GET_SLOT_BY_ID: returns a single spacewalk slot.
+ */
+public class GetSlotByIdHandler implements RequestHandler {
+    private final SpacewalkSlotDAO slotDAO; // DAO for spacewalk slot operations
+
+    /**
+     * Constructor for the GetSlotByIdHandler class.
+     *
+     * @param slotDAO DAO for spacewalk slot operations
+     */
+    public GetSlotByIdHandler(SpacewalkSlotDAO slotDAO) {
+        this.slotDAO = slotDAO;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.GET_SLOT_BY_ID;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.SLOTS;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        int slotId = data.get("slotId").getAsInt();
+        SpacewalkSlot slot = slotDAO.getSlotById(slotId);
+        if (slot == null) {
+            return Response.error("Slot not found");
+        }
+        return Response.ok().with("slot", slot);
+    }
+}
@@ -0,0 +1,49 @@
+package com.inFlight.server.socket.handler;
+
+import com.inFlight.shared.protocol.ActionType;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * HandlerRegistry maps every ActionType to the RequestHandler that serves it.
+ */
+public class HandlerRegistry {
+    private final Map<ActionType, RequestHandler> handlers = new EnumMap<>(ActionType.class); // Handler per action
+
+    /**
+     * Registers a handler for its action.
+     *
+     * @param handler the handler to register
+     * @return this registry
+     * @throws IllegalStateException if another handler is already registered for the action
+     */
+    public HandlerRegistry register(RequestHandler handler) {
+        RequestHandler previous = handlers.putIfAbsent(handler.getAction(), handler);
+        if (previous != null) {
+            throw new IllegalStateException("Handler for " + handler.getAction() + " is already registered");
+        }
+        return this;
+    }
+
+    /**
+     * Returns the handler for an action.
+     *
+     * @param action the action
+     * @return the registered handler, or null if there is none
+     */
+    public RequestHandler get(ActionType action) {
+        return handlers.get(action);
+    }
+
+    /**
+     * Returns all registered handlers in ActionType order.
+     *
+     * @return the registered handlers
+     */
+    public Collection<RequestHandler> getHandlers() {
+        return Collections.unmodifiableCollection(handlers.values());
+    }
+}
@@ -0,0 +1,47 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.inFlight.server.dao.PassengerDAO;
+import com.inFlight.shared.model.Passenger;
+import com.inFlight.shared.protocol.ActionType;
+
+/**
+ * Handles LOGIN: looks up a passenger by username.
+ */
+public class LoginHandler implements RequestHandler {
+    private final PassengerDAO passengerDAO; // DAO for passenger operations
+
+    /**
+     * Constructor for the LoginHandler class.
+     *
+     * @param passengerDAO DAO for passenger operations
+     */
+    public LoginHandler(PassengerDAO passengerDAO) {
+        this.passengerDAO = passengerDAO;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.LOGIN;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.PASSENGERS;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        String username = data.get("username").getAsString();
+        Passenger passenger = passengerDAO.getPassengerByUsername(username);
+        if (passenger == null) {
+            return Response.error("Passenger not found");
+        }
+        return Response.ok().with("passenger", passenger);
+    }
+}
@@ -0,0 +1,38 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.inFlight.server.service.PhotographerService;
+import com.inFlight.shared.protocol.ActionType;
+
+/**
+ * Handles REGISTER_PHOTOGRAPHER: registers a new photographer.
+ */
+public class RegisterPhotographerHandler implements RequestHandler {
+    private final PhotographerService photographerService; // Service for photographer-related operations
+
+    /**
+     * Constructor for the RegisterPhotographerHandler class.
+     *
+     * @param photographerService service for photographer-related operations
+     */
+    public RegisterPhotographerHandler(PhotographerService photographerService) {
+        this.photographerService = photographerService;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.REGISTER_PHOTOGRAPHER;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.PHOTOGRAPHERS;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        String name = data.get("name").getAsString();
+        photographerService.registerPhotographer(name);
+        return Response.ok();
+    }
+}
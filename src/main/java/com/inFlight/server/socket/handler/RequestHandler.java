@@ -0,0 +1,47 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.inFlight.shared.protocol.ActionType;
+
+/**
+ * RequestHandler handles the requests of a single ActionType.
+ * Handlers are registered in a HandlerRegistry when the ProtocolHandler is created, and describe
+ * whether their action changes data and which cache its responses may be served from.
+ */
+public interface RequestHandler {
+
+    /**
+     * Returns the action this handler is registered for.
+     *
+     * @return the ActionType handled by this handler
+     */
+    ActionType getAction();
+
+    /**
+     * Handles one request.
+     *
+     * @param data the data of the request envelope
+     * @return the response, either a Response or a JsonObject, which is serialized to JSON by the caller
+     * @throws Exception if the request is malformed or cannot be handled
+     */
+    Object handle(JsonObject data) throws Exception;
+
+    /**
+     * Tells whether the action only reads data. Read-only actions can run concurrently on read connections.
+     *
+     * @return true if the action does not change any data
+     */
+    default boolean isReadOnly() {
+        return false;
+    }
+
+    /**
+     * Returns the cache region the action belongs to: the data a read-only action may be served from,
+     * or the data a mutating action changes.
+     *
+     * @return the CacheRegion of the action
+     */
+    default CacheRegion getCacheRegion() {
+        return CacheRegion.NONE;
+    }
+}
@@ -0,0 +1,93 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+import com.inFlight.server.dao.PageRequest;
+
+import java.io.IOException;
+
+/**
+ * RequestParameters reads the optional fields that the list actions share:
+ * afterId and limit select a page, count asks for the number of matching rows instead of the rows.
+ * A missing or null field means the option is not used.
+ */
+public final class RequestParameters {
+
+    private RequestParameters() {
+    }
+
+    /**
+     * Reads an optional text field.
+     *
+     * @param data the data of the request, may be null
+     * @param name the name of the field
+     * @return the value, or null if it is missing
+     */
+    public static String optionalString(JsonObject data, String name) {
+        JsonElement value = field(data, name);
+        return value == null ? null : value.getAsString();
+    }
+
+    /**
+     * Reads an optional number field.
+     *
+     * @param data the data of the request, may be null
+     * @param name the name of the field
+     * @return the value, or null if it is missing
+     */
+    public static Integer optionalInt(JsonObject data, String name) {
+        JsonElement value = field(data, name);
+        return value == null ? null : value.getAsInt();
+    }
+
+    /**
+     * Reads an optional true/false field.
+     *
+     * @param data the data of the request, may be null
+     * @param name the name of the field
+     * @return the value, or null if it is missing
+     */
+    public static Boolean optionalBoolean(JsonObject data, String name) {
+        JsonElement value = field(data, name);
+        return value == null ? null : value.getAsBoolean();
+    }
+
+    /**
+     * Reads the page of a list request from its afterId and limit fields.
+     *
+     * @param data the data of the request, may be null
+     * @return the requested page, PageRequest.ALL if neither field is set
+     */
+    public static PageRequest page(JsonObject data) {
+        Integer afterId = optionalInt(data, "afterId");
+        Integer limit = optionalInt(data, "limit");
+        return new PageRequest(afterId == null ? 0 : afterId, limit == null ? 0 : limit);
+    }
+
+    /**
+     * Checks whether a list request only asks for the number of matching rows.
+     *
+     * @param data the data of the request, may be null
+     * @return true if the count field is true
+     */
+    public static boolean isCountOnly(JsonObject data) {
+        return Boolean.TRUE.equals(optionalBoolean(data, "count"));
+    }
+
+    /**
+     * Writes the response of a count request.
+     *
+     * @param out   the writer of the response
+     * @param count the number of matching rows
+     * @throws IOException if the response cannot be written
+     */
+    public static void writeCount(JsonWriter out, int count) throws IOException {
+        out.beginObject().name("status").value("OK").name("count").value(count).endObject();
+    }
+
+    private static JsonElement field(JsonObject data, String name) {
+        JsonElement value = data == null ? null : data.get(name);
+        return value == null || value.isJsonNull() ? null : value;
+    }
+}
@@ -0,0 +1,92 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Response collects the fields of a response in order. Gson serializes the fields directly,
+ * so no intermediate JsonObject tree is built for the model objects in the response.
+ */
+public class Response {
+    private final Map<String, Object> body = new LinkedHashMap<>(); // Fields of the response in insertion order
+
+    /**
+     * Creates a response without a status field.
+     *
+     * @return an empty Response
+     */
+    public static Response empty() {
+        return new Response();
+    }
+
+    /**
+     * Creates a response with the given status.
+     *
+     * @param status the value of the status field
+     * @return the new Response
+     */
+    public static Response status(String status) {
+        return new Response().with("status", status);
+    }
+
+    /**
+     * Creates a response with status OK.
+     *
+     * @return the new Response
+     */
+    public static Response ok() {
+        return status("OK");
+    }
+
+    /**
+     * Creates a response with status ERROR and the given message.
+     *
+     * @param message the error message
+     * @return the new Response
+     */
+    public static Response error(String message) {
+        return status("ERROR").with("message", message);
+    }
+
+    /**
+     * Tells whether the result of a handler is an error response.
+     *
+     * @param response a Response, a JsonObject or the body of a Response
+     * @return true if the response has status ERROR
+     */
+    public static boolean isError(Object response) {
+        Object status;
+        if (response instanceof Response r) {
+            status = r.body.get("status");
+        } else if (response instanceof JsonObject json) {
+            status = json.has("status") && json.get("status").isJsonPrimitive() ? json.get("status").getAsString() : null;
+        } else if (response instanceof Map<?, ?> body) {
+            status = body.get("status");
+        } else {
+            status = null;
+        }
+        return "ERROR".equals(status);
+    }
+
+    /**
+     * Adds a field to the response.
+     *
+     * @param name  the name of the field
+     * @param value the value of the field, serialized with Gson
+     * @return this Response
+     */
+    public Response with(String name, Object value) {
+        body.put(name, value);
+        return this;
+    }
+
+    /**
+     * getter for body.
+     * @return the fields of the response
+     */
+    public Map<String, Object> getBody() {
+        return body;
+    }
+}
@@ -0,0 +1,43 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.inFlight.server.service.ChatService;
+import com.inFlight.shared.model.ChatMessage;
+import com.inFlight.shared.protocol.ActionType;
+
+/**
+ * Handles SEND_CHAT: stores a chat message.
+ */
+public class SendChatHandler implements RequestHandler {
+    private final ChatService chatService; // Service for chat-related operations
+    private final Gson gson; // Gson instance for reading model objects from the request
+
+    /**
+     * Constructor for the SendChatHandler class.
+     *
+     * @param chatService service for chat-related operations
+     * @param gson        Gson instance for reading model objects from the request
+     */
+    public SendChatHandler(ChatService chatService, Gson gson) {
+        this.chatService = chatService;
+        this.gson = gson;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.SEND_CHAT;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.CHAT;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        ChatMessage message = gson.fromJson(data, ChatMessage.class);
+        chatService.sendMessage(message);
+        return Response.ok();
+    }
+}
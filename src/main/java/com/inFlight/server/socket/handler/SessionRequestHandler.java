@@ -0,0 +1,32 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.inFlight.server.push.ClientSession;
+
+/**
+ * SessionRequestHandler is a RequestHandler whose action belongs to the connection it arrives on,
+ * such as subscribing to pushed events. The transport passes the ClientSession of the connection.
+ */
+public interface SessionRequestHandler extends RequestHandler {
+
+    /**
+     * Handles one request of a connection.
+     *
+     * @param data    the data of the request envelope
+     * @param session the session of the connection, or null if the transport has none
+     * @return the response, either a Response or a JsonObject, which is serialized to JSON by the caller
+     * @throws Exception if the request is malformed or cannot be handled
+     */
+    Object handle(JsonObject data, ClientSession session) throws Exception;
+
+    /**
+     * Handles the request without a connection, which these actions do not support.
+     *
+     * @param data the data of the request envelope
+     * @return an error Response
+     */
+    @Override
+    default Object handle(JsonObject data) throws Exception {
+        return handle(data, null);
+    }
+}
@@ -0,0 +1,45 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.inFlight.server.dao.PassengerDAO;
+import com.inFlight.server.push.EventBus;
+import com.inFlight.shared.protocol.ActionType;
+import com.inFlight.shared.protocol.EventTopic;
+
+/**
+ * Handles SET_CHECKED_OUT_STATUS: sets the checkout status of a passenger.
+ */
+public class SetCheckedOutStatusHandler implements RequestHandler {
+    private final PassengerDAO passengerDAO; // DAO for passenger operations
+    private final EventBus eventBus; // Pushes the change to subscribed clients
+
+    /**
+     * Constructor for the SetCheckedOutStatusHandler class.
+     *
+     * @param passengerDAO DAO for passenger operations
+     * @param eventBus     pushes checkouts to the subscribed clients of the passenger
+     */
+    public SetCheckedOutStatusHandler(PassengerDAO passengerDAO, EventBus eventBus) {
+        this.passengerDAO = passengerDAO;
+        this.eventBus = eventBus;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.SET_CHECKED_OUT_STATUS;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.PASSENGERS;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        int passengerId = data.get("passengerId").getAsInt();
+        boolean checkedOut = data.get("checkedOut").getAsBoolean();
+        passengerDAO.setCheckedOut(passengerId, checkedOut);
+        CheckOutPassengerHandler.publishCheckout(eventBus, passengerId, checkedOut);
+        return Response.ok();
+    }
+}
@@ -0,0 +1,39 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.inFlight.server.service.PhotographerService;
+import com.inFlight.shared.protocol.ActionType;
+
+/**
+ * Handles SET_PHOTOGRAPHER_CHECKED_OUT: sets the checkout status of a photographer.
+ */
+public class SetPhotographerCheckedOutHandler implements RequestHandler {
+    private final PhotographerService photographerService; // Service for photographer-related operations
+
+    /**
+     * Constructor for the SetPhotographerCheckedOutHandler class.
+     *
+     * @param photographerService service for photographer-related operations
+     */
+    public SetPhotographerCheckedOutHandler(PhotographerService photographerService) {
+        this.photographerService = photographerService;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.SET_PHOTOGRAPHER_CHECKED_OUT;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.PHOTOGRAPHERS;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        int id = data.get("id").getAsInt();
+        boolean checkedOut = data.get("checkedOut").getAsBoolean();
+        photographerService.setCheckedOut(id, checkedOut);
+        return Response.ok();
+    }
+}
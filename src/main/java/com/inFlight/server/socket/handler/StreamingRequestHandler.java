@@ -0,0 +1,39 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * StreamingRequestHandler is a RequestHandler that writes its response straight to the client.
+ * The DAOs read the rows in chunks and each chunk is written before the next one is read, so a large list is
+ * never held in memory as a whole.
+ */
+public interface StreamingRequestHandler extends RequestHandler {
+
+    /**
+     * Writes the response of one request as a single JSON object.
+     *
+     * @param data the data of the request envelope
+     * @param out  the writer of the response
+     * @throws IOException if the response cannot be written
+     */
+    void stream(JsonObject data, JsonWriter out) throws IOException;
+
+    /**
+     * Builds the response in memory, for callers that need it as a value instead of a stream.
+     *
+     * @param data the data of the request envelope
+     * @return the response as a JsonObject
+     * @throws IOException if the response cannot be written
+     */
+    @Override
+    default Object handle(JsonObject data) throws IOException {
+        StringWriter buffer = new StringWriter();
+        stream(data, new JsonWriter(buffer));
+        return JsonParser.parseString(buffer.toString()).getAsJsonObject();
+    }
+}
@@ -0,0 +1,55 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.inFlight.server.push.ClientSession;
+import com.inFlight.server.push.EventLog;
+import com.inFlight.server.push.Subscription;
+import com.inFlight.shared.protocol.ActionType;
+import com.inFlight.shared.protocol.EventTopic;
+
+/**
+ * Handles SUBSCRIBE: subscribes the connection to a topic.
+ * The answer carries the latest sequence of the event log. Every later event of the topic is pushed,
+ * so a client that reconnects asks GET_EVENTS_SINCE for the events after it.
+ */
+public class SubscribeHandler implements SessionRequestHandler {
+    private final EventLog eventLog; // Log whose latest sequence is returned
+
+    /**
+     * Constructor for the SubscribeHandler class.
+     *
+     * @param eventLog log whose latest sequence is returned
+     */
+    public SubscribeHandler(EventLog eventLog) {
+        this.eventLog = eventLog;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.SUBSCRIBE;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public Object handle(JsonObject data, ClientSession session) {
+        if (session == null) {
+            return Response.error("Subscriptions need a persistent connection.");
+        }
+        JsonElement key = data.get("key");
+        Subscription subscription = new Subscription(
+                EventTopic.valueOf(data.get("topic").getAsString()),
+                key == null || key.isJsonNull() ? null : key.getAsString());
+
+        boolean changed = session.subscribe(subscription);
+        return Response.ok()
+                .with("topic", subscription.topic())
+                .with("key", subscription.key())
+                .with("subscribed", changed)
+                .with("latestSeq", eventLog.getLatestSeq());
+    }
+}
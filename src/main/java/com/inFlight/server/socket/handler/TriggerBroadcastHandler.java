@@ -0,0 +1,45 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.inFlight.server.push.EventBus;
+import com.inFlight.shared.protocol.ActionType;
+import com.inFlight.shared.protocol.EventTopic;
+import com.inFlight.shared.state.BroadcastState;
+
+/**
+ * Handles TRIGGER_BROADCAST: publishes a broadcast message to all passengers.
+ */
+public class TriggerBroadcastHandler implements RequestHandler {
+    private final EventBus eventBus; // Pushes the change to subscribed clients
+
+    /**
+     * Constructor for the TriggerBroadcastHandler class.
+     *
+     * @param eventBus pushes the broadcast to subscribed clients
+     */
+    public TriggerBroadcastHandler(EventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.TRIGGER_BROADCAST;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.STATE;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        String message = data.get("message").getAsString();
+        BroadcastState.setMessage(message);
+
+        JsonObject broadcast = new JsonObject();
+        broadcast.addProperty("message", message);
+        broadcast.addProperty("timestamp", BroadcastState.getLastUpdated());
+        eventBus.publish(EventTopic.BROADCAST, null, broadcast);
+        return Response.ok();
+    }
+}
@@ -0,0 +1,43 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.inFlight.server.push.EventBus;
+import com.inFlight.shared.protocol.ActionType;
+import com.inFlight.shared.protocol.EventTopic;
+import com.inFlight.shared.state.SurveyState;
+
+/**
+ * Handles TRIGGER_SURVEY: starts the passenger survey.
+ */
+public class TriggerSurveyHandler implements RequestHandler {
+    private final EventBus eventBus; // Pushes the change to subscribed clients
+
+    /**
+     * Constructor for the TriggerSurveyHandler class.
+     *
+     * @param eventBus pushes the survey to subscribed clients
+     */
+    public TriggerSurveyHandler(EventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.TRIGGER_SURVEY;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.STATE;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        SurveyState.triggerSurvey();
+
+        JsonObject survey = new JsonObject();
+        survey.addProperty("triggered", true);
+        eventBus.publish(EventTopic.SURVEY, null, survey);
+        return Response.ok();
+    }
+}
@@ -0,0 +1,40 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.inFlight.server.push.ClientSession;
+import com.inFlight.server.push.Subscription;
+import com.inFlight.shared.protocol.ActionType;
+import com.inFlight.shared.protocol.EventTopic;
+
+/**
+ * Handles UNSUBSCRIBE: removes a subscription of the connection.
+ */
+public class UnsubscribeHandler implements SessionRequestHandler {
+    @Override
+    public ActionType getAction() {
+        return ActionType.UNSUBSCRIBE;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public Object handle(JsonObject data, ClientSession session) {
+        if (session == null) {
+            return Response.error("Subscriptions need a persistent connection.");
+        }
+        JsonElement key = data.get("key");
+        Subscription subscription = new Subscription(
+                EventTopic.valueOf(data.get("topic").getAsString()),
+                key == null || key.isJsonNull() ? null : key.getAsString());
+
+        boolean changed = session.unsubscribe(subscription);
+        return Response.ok()
+                .with("topic", subscription.topic())
+                .with("key", subscription.key())
+                .with("unsubscribed", changed);
+    }
+}
@@ -0,0 +1,43 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.inFlight.server.service.InventoryService;
+import com.inFlight.shared.model.InventoryItem;
+import com.inFlight.shared.protocol.ActionType;
+
+/**
+ * Handles UPDATE_INVENTORY_ITEM: stores the changed state of an inventory item.
+ */
+public class UpdateInventoryItemHandler implements RequestHandler {
+    private final InventoryService inventoryService; // Service for inventory-related operations
+    private final Gson gson; // Gson instance for reading model objects from the request
+
+    /**
+     * Constructor for the UpdateInventoryItemHandler class.
+     *
+     * @param inventoryService service for inventory-related operations
+     * @param gson             Gson instance for reading model objects from the request
+     */
+    public UpdateInventoryItemHandler(InventoryService inventoryService, Gson gson) {
+        this.inventoryService = inventoryService;
+        this.gson = gson;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.UPDATE_INVENTORY_ITEM;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.INVENTORY;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        InventoryItem item = gson.fromJson(data.get("item"), InventoryItem.class);
+        inventoryService.updateItem(item);
+        return Response.ok();
+    }
+}
@@ -0,0 +1,46 @@
+package com.inFlight.server.socket.handler;
+
+import com.google.gson.JsonObject;
+import com.inFlight.server.dao.PassengerDAO;
+import com.inFlight.shared.model.Passenger;
+import com.inFlight.shared.protocol.ActionType;
+
+/**
+ * Handles UPDATE_NOVACREDITS: adds an amount to the balance of a passenger.
+ */
+public class UpdateNovaCreditsHandler implements RequestHandler {
+    private final PassengerDAO passengerDAO; // DAO for passenger operations
+
+    /**
+     * Constructor for the UpdateNovaCreditsHandler class.
+     *
+     * @param passengerDAO DAO for passenger operations
+     */
+    public UpdateNovaCreditsHandler(PassengerDAO passengerDAO) {
+        this.passengerDAO = passengerDAO;
+    }
+
+    @Override
+    public ActionType getAction() {
+        return ActionType.UPDATE_NOVACREDITS;
+    }
+
+    @Override
+    public CacheRegion getCacheRegion() {
+        return CacheRegion.PASSENGERS;
+    }
+
+    @Override
+    public Object handle(JsonObject data) {
+        int passengerId = data.get("passengerId").getAsInt();
+        int amount = data.get("amount").getAsInt();
+
+        Passenger passenger = passengerDAO.getPassengerById(passengerId);
+        if (passenger == null) {
+            return Response.error("Passenger not found.");
+        }
+        int newBalance = passenger.getNovaCredits() + amount;
+        passengerDAO.updateNovaCredits(passengerId, newBalance);
+        return Response.ok().with("newBalance", newBalance);
+    }
+}
@@ -1,15 +1,11 @@
 package com.inFlight.shared.model;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 /**
  * Booking is a class that represents a booking made by a passenger.
  * It contains information about the booking ID, passenger ID, slot ID, tier, and status.
  * POJO (Plain Old Java Object) class.
  */
 public class Booking {
-    private static final Logger logger = LoggerFactory.getLogger(Booking.class);
     private int bookingId; // ID of the booking
     private int passengerId; // ID of the passenger
     private int slotId; // ID of the slot
@@ -1,18 +1,17 @@
 package com.inFlight.shared.model;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 /**
  * ChatMessage is a class that represents a chat message in the application.
  * It contains information about the sender, receiver, and content of the message.
+ * Messages read from the database also carry their row ID and the time they were sent.
  * POJO (Plain Old Java Object) class.
  */
 public class ChatMessage {
-    private static final Logger logger = LoggerFactory.getLogger(ChatMessage.class);
     private String sender; // Sender of the message
     private String receiver; // Receiver of the message
     private String content; // Content of the message
+    private int id; // Row ID, increases with every message, 0 until the message is saved
+    private String timestamp; // Time the message was saved, UTC "yyyy-MM-dd HH:mm:ss", null until the message is saved
 
 
     /**
@@ -37,6 +36,37 @@ public class ChatMessage {
         this.content = content;
     }
 
+    /**
+     * Constructor to create a ChatMessage object that was read from the database.
+     *
+     * @param id        the row ID of the message
+     * @param sender    the sender of the message
+     * @param receiver  the receiver of the message
+     * @param content   the content of the message
+     * @param timestamp the time the message was saved
+     */
+    public ChatMessage(int id, String sender, String receiver, String content, String timestamp) {
+        this(sender, receiver, content);
+        this.id = id;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * getter for id
+     * @return the row ID of the message, 0 if it was not saved
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * getter for timestamp
+     * @return the time the message was saved, null if it was not saved
+     */
+    public String getTimestamp() {
+        return timestamp;
+    }
+
     /**
      * getter for sender
      * @return the sender of the message
@@ -84,5 +114,20 @@ public class ChatMessage {
     public void setContent(String content) {
         this.content = content;
     }
-}
 
+    /**
+     * setter for id
+     * @param id the row ID of the message
+     */
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    /**
+     * setter for timestamp
+     * @param timestamp the time the message was saved
+     */
+    public void setTimestamp(String timestamp) {
+        this.timestamp = timestamp;
+    }
+}
@@ -0,0 +1,61 @@
+package com.inFlight.shared.model;
+
+/**
+ * DetailedBooking is a Booking together with the time of its slot and the username of its passenger,
+ * so screens that list bookings do not have to look up the slot and the passenger of every booking.
+ * POJO (Plain Old Java Object) class.
+ */
+public class DetailedBooking extends Booking {
+    private String slotTime; // Time of the booked slot
+    private String passengerUsername; // Username of the passenger who booked
+
+    /**
+     * Constructor to create a DetailedBooking object.
+     *
+     * @param bookingId         the ID of the booking
+     * @param passengerId       the ID of the passenger
+     * @param slotId            the ID of the slot
+     * @param tier              the tier of the booking
+     * @param status            the status of the booking
+     * @param slotTime          the time of the booked slot
+     * @param passengerUsername the username of the passenger
+     */
+    public DetailedBooking(int bookingId, int passengerId, int slotId, int tier, String status,
+                           String slotTime, String passengerUsername) {
+        super(bookingId, passengerId, slotId, tier, status);
+        this.slotTime = slotTime;
+        this.passengerUsername = passengerUsername;
+    }
+
+    /**
+     * getter for slotTime
+     * @return the time of the booked slot
+     */
+    public String getSlotTime() {
+        return slotTime;
+    }
+
+    /**
+     * setter for slotTime
+     * @param slotTime the time of the booked slot
+     */
+    public void setSlotTime(String slotTime) {
+        this.slotTime = slotTime;
+    }
+
+    /**
+     * getter for passengerUsername
+     * @return the username of the passenger who booked
+     */
+    public String getPassengerUsername() {
+        return passengerUsername;
+    }
+
+    /**
+     * setter for passengerUsername
+     * @param passengerUsername the username of the passenger who booked
+     */
+    public void setPassengerUsername(String passengerUsername) {
+        this.passengerUsername = passengerUsername;
+    }
+}
@@ -1,15 +1,11 @@
 package com.inFlight.shared.model;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 /**
  * InventoryItem is a class that represents an item in the inventory.
  * It contains information about the item ID, name, condition, availability, owner role, and checkout status.
  * POJO (Plain Old Java Object) class.
  */
 public class InventoryItem {
-    private static final Logger logger = LoggerFactory.getLogger(InventoryItem.class);
 
     private int id; // ID of the item
     private String name; // Name of the item
@@ -1,15 +1,11 @@
 package com.inFlight.shared.model;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 /**
  * Passenger is a class that represents a passenger in the application.
  * It contains information about the passenger ID, username, password, nova credits, and checkout status.
  * POJO (Plain Old Java Object) class.
  */
 public class Passenger {
-    private static final Logger logger = LoggerFactory.getLogger(Passenger.class);
     private int passengerId; // ID of the passenger
     private String username; // Username of the passenger
     private String password; // Password of the passenger
@@ -1,15 +1,11 @@
 package com.inFlight.shared.model;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 /**
  * Photographer is a class that represents a photographer in the application.
  * It contains information about the photographer ID, name, and checkout status.
  * POJO (Plain Old Java Object) class.
  */
 public class Photographer {
-    private static final Logger logger = LoggerFactory.getLogger(Photographer.class);
     private int id; // ID of the photographer
     private String name; // Name of the photographer
     private boolean checkedOut; // Checkout status of the photographer
@@ -1,15 +1,11 @@
 package com.inFlight.shared.model;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 /**
  * SpacewalkSlot is a class that represents a spacewalk slot in the application.
  * It contains information about the slot ID, slot time, and availability status.
  * POJO (Plain Old Java Object) class.
  */
 public class SpacewalkSlot {
-    private static final Logger logger = LoggerFactory.getLogger(SpacewalkSlot.class);
     private int slotId; // ID of the slot
     private String slotTime; // Time of the slot
     private boolean available; // Availability status of the slot
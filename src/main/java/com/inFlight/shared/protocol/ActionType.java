@@ -32,7 +32,15 @@ public enum ActionType {
     GET_PHOTOGRAPHER_BY_ID,
     SET_PHOTOGRAPHER_CHECKED_OUT,
     GET_INVENTORY_BY_ROLE,
-    UPDATE_INVENTORY_ITEM
+    UPDATE_INVENTORY_ITEM,
+    SUBSCRIBE,
+    UNSUBSCRIBE,
+    GET_EVENTS_SINCE,
+    GET_CHAT_SINCE,
+    GET_BOOKINGS_DETAILED,
+    GET_BOOKINGS_FOR_PASSENGER_DETAILED,
+    BATCH,
+    GET_METRICS
     // Add any additional action types here as needed
 }
 
@@ -0,0 +1,79 @@
+package com.inFlight.shared.protocol;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * BinaryFrameReader reads length-prefixed frames into one reusable direct ByteBuffer.
+ * The payload is handed out as a Reader that decodes the UTF-8 bytes straight from the buffer, so a message is
+ * never copied into a byte array or a String before it is parsed. Bytes of the following frames that arrived
+ * with the current one stay in the buffer for the next call.
+ */
+public class BinaryFrameReader implements FrameReader {
+    private static final int INITIAL_CAPACITY = 64 * 1024; // Enough for every request of the clients
+    private static final int HEADER_BYTES = 4; // Length of a frame's size field
+
+    private final ReadableByteChannel in; // Input of the connection
+    private ByteBuffer buffer; // Unread bytes between position and limit
+
+    /**
+     * Constructor for the BinaryFrameReader class.
+     *
+     * @param in the input of the connection, after the preface
+     */
+    public BinaryFrameReader(ReadableByteChannel in) {
+        this.in = in;
+        this.buffer = ByteBuffer.allocateDirect(INITIAL_CAPACITY).flip();
+    }
+
+    @Override
+    public Reader next() throws IOException {
+        if (!fill(HEADER_BYTES)) {
+            return null;
+        }
+        int length = buffer.getInt();
+        if (length < 0 || length > Framing.MAX_FRAME_BYTES) {
+            throw new IOException("Invalid frame length " + length);
+        }
+        if (!fill(length)) {
+            throw new EOFException("Connection closed inside a frame");
+        }
+        ByteBuffer payload = buffer.slice(buffer.position(), length);
+        buffer.position(buffer.position() + length);
+        return new PayloadReader(payload);
+    }
+
+    /**
+     * Reads until at least the given number of bytes are unread.
+     *
+     * @return false if the connection closed before any byte of a new frame arrived
+     * @throws EOFException if the connection closed in the middle of a frame
+     */
+    private boolean fill(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return true;
+        }
+        if (buffer.capacity() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(bytes, buffer.capacity() * 2));
+            larger.put(buffer).flip();
+            buffer = larger;
+        }
+        buffer.compact();
+        try {
+            while (buffer.position() < bytes) {
+                if (in.read(buffer) < 0) {
+                    if (buffer.position() == 0 && bytes == HEADER_BYTES) {
+                        return false;
+                    }
+                    throw new EOFException("Connection closed inside a frame");
+                }
+            }
+        } finally {
+            buffer.flip();
+        }
+        return true;
+    }
+}
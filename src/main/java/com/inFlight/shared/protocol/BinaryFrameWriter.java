@@ -0,0 +1,74 @@
+package com.inFlight.shared.protocol;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * BinaryFrameWriter writes every message as a 4-byte big-endian length followed by the UTF-8 bytes of the message.
+ * The message is encoded into a reusable buffer that keeps room for the length in front, so when it is complete
+ * the length is filled in and the whole frame goes to the connection in one write.
+ */
+public class BinaryFrameWriter implements FrameWriter {
+    private static final int HEADER_BYTES = 4; // Length of a frame's size field
+    private static final int RETAINED_CAPACITY = 1024 * 1024; // Larger buffers are dropped after their frame
+
+    private final OutputStream out; // Output of the connection
+    private FrameBuffer frame = new FrameBuffer(); // Bytes of the current frame, including the size field
+    private Writer payload = new OutputStreamWriter(frame, StandardCharsets.UTF_8); // Encodes the message into frame
+
+    /**
+     * Constructor for the BinaryFrameWriter class.
+     *
+     * @param out the output of the connection
+     */
+    public BinaryFrameWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public Writer begin() {
+        frame.reset();
+        frame.write(new byte[HEADER_BYTES], 0, HEADER_BYTES);
+        return payload;
+    }
+
+    @Override
+    public void end() throws IOException {
+        payload.flush();
+        int length = frame.size() - HEADER_BYTES;
+        if (length > Framing.MAX_FRAME_BYTES) {
+            throw new IOException("Message of " + length + " bytes exceeds the frame limit");
+        }
+        frame.setLength(length);
+        frame.writeTo(out);
+        out.flush();
+        if (frame.capacity() > RETAINED_CAPACITY) {
+            frame = new FrameBuffer();
+            payload = new OutputStreamWriter(frame, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * A ByteArrayOutputStream whose size field can be filled in after the payload was written.
+     */
+    private static final class FrameBuffer extends ByteArrayOutputStream {
+        private FrameBuffer() {
+            super(8 * 1024);
+        }
+
+        private void setLength(int length) {
+            buf[0] = (byte) (length >>> 24);
+            buf[1] = (byte) (length >>> 16);
+            buf[2] = (byte) (length >>> 8);
+            buf[3] = (byte) length;
+        }
+
+        private int capacity() {
+            return buf.length;
+        }
+    }
+}
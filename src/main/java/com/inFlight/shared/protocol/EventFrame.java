@@ -0,0 +1,88 @@
+package com.inFlight.shared.protocol;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * EventFrame is a message the server pushes to a client without a request, after the client subscribed to its topic.
+ * Frames are sent as single JSON lines on the connection that sent the SUBSCRIBE request and are told apart from
+ * responses by their type field. The seq field numbers the events of a server run, so a client can ask for the
+ * events it missed with GET_EVENTS_SINCE.
+ */
+public class EventFrame {
+    public static final String TYPE = "EVENT"; // Value of the type field of every event frame
+
+    private String type = TYPE; // Marks the line as an event instead of a response
+    private long seq; // Position of the event in the server's event log
+    private EventTopic topic; // The topic the event belongs to
+    private String key; // The key of a keyed topic, null otherwise
+    private JsonElement payload; // The data of the event
+
+    /**
+     * Default constructor for EventFrame.
+     */
+    public EventFrame() {}
+
+    /**
+     * Constructor for EventFrame with topic, key and payload.
+     *
+     * @param topic   the topic of the event
+     * @param key     the key of a keyed topic, null otherwise
+     * @param payload the data of the event
+     */
+    public EventFrame(EventTopic topic, String key, JsonElement payload) {
+        this.topic = topic;
+        this.key = key;
+        this.payload = payload;
+    }
+
+    /**
+     * Checks whether a line received from the server is an event frame rather than a response.
+     *
+     * @param message the received line parsed as JSON
+     * @return true if the message is an event frame
+     */
+    public static boolean isEvent(JsonObject message) {
+        return message.has("type") && TYPE.equals(message.get("type").getAsString());
+    }
+
+    /**
+     * getter for seq.
+     * @return the sequence number the server assigned to the event
+     */
+    public long getSeq() {
+        return seq;
+    }
+
+    /**
+     * setter for seq.
+     * @param seq the sequence number of the event
+     */
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    /**
+     * getter for topic.
+     * @return the topic of the event
+     */
+    public EventTopic getTopic() {
+        return topic;
+    }
+
+    /**
+     * getter for key.
+     * @return the key of a keyed topic, null otherwise
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * getter for payload.
+     * @return the data of the event
+     */
+    public JsonElement getPayload() {
+        return payload;
+    }
+}
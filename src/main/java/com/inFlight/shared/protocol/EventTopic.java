@@ -0,0 +1,47 @@
+package com.inFlight.shared.protocol;
+
+import java.util.Locale;
+
+/**
+ * EventTopic is an enum of the topics a client can subscribe to with the SUBSCRIBE action.
+ * The server pushes an EventFrame to every subscribed connection when something on the topic changes.
+ * Keyed topics are subscribed per passenger or per chat, the other topics have a single stream.
+ */
+public enum EventTopic {
+    BOOKING_STATUS(true), // A booking of one passenger was approved or denied, keyed by passenger ID
+    NEW_BOOKING(false), // A passenger booked a spacewalk slot
+    CANCELLATION(false), // A passenger cancelled a booking
+    BROADCAST(false), // The pilot sent a broadcast message
+    SURVEY(false), // The survey was triggered
+    CHECKOUT(true), // A passenger was checked out or in again, keyed by passenger ID
+    CHAT(true); // A message was sent between two parties, keyed by chatKey
+
+    private final boolean keyed; // True if subscriptions name a passenger or chat
+
+    EventTopic(boolean keyed) {
+        this.keyed = keyed;
+    }
+
+    /**
+     * Tells whether subscriptions to this topic need a key.
+     *
+     * @return true if the topic is keyed
+     */
+    public boolean isKeyed() {
+        return keyed;
+    }
+
+    /**
+     * Builds the key of the CHAT topic for two parties. The key does not depend on who is the sender,
+     * so both parties of a chat use the same subscription.
+     *
+     * @param first  one party of the chat
+     * @param second the other party of the chat
+     * @return the key of the chat between the two parties
+     */
+    public static String chatKey(String first, String second) {
+        String a = first.toLowerCase(Locale.ROOT);
+        String b = second.toLowerCase(Locale.ROOT);
+        return a.compareTo(b) <= 0 ? a + "|" + b : b + "|" + a;
+    }
+}
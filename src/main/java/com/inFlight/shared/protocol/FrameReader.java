@@ -0,0 +1,20 @@
+package com.inFlight.shared.protocol;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * FrameReader reads the messages of a connection one after another, independent of their Framing.
+ * Implementations are not thread-safe; a connection is read by one thread.
+ */
+public interface FrameReader {
+
+    /**
+     * Reads the next message.
+     * The returned Reader is only valid until the next call, because a reader may reuse its buffer.
+     *
+     * @return the JSON text of the message, or null if the connection was closed
+     * @throws IOException if reading fails or a frame is malformed
+     */
+    Reader next() throws IOException;
+}
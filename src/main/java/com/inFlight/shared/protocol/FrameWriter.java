@@ -0,0 +1,38 @@
+package com.inFlight.shared.protocol;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * FrameWriter writes the messages of a connection, independent of their Framing.
+ * A message is written between begin and end, so a response can be serialized straight into the frame.
+ * Implementations are not thread-safe; writers of a shared connection hold a lock from begin to end.
+ */
+public interface FrameWriter {
+
+    /**
+     * Starts a message.
+     *
+     * @return the writer for the JSON text of the message, which must not be closed
+     * @throws IOException if the connection cannot be written
+     */
+    Writer begin() throws IOException;
+
+    /**
+     * Finishes the message started with begin and sends it.
+     *
+     * @throws IOException if the message cannot be sent
+     */
+    void end() throws IOException;
+
+    /**
+     * Writes a complete message.
+     *
+     * @param message the JSON text of the message
+     * @throws IOException if the message cannot be sent
+     */
+    default void writeFrame(String message) throws IOException {
+        begin().write(message);
+        end();
+    }
+}
@@ -0,0 +1,114 @@
+package com.inFlight.shared.protocol;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Framing is the way messages are separated on a connection.
+ * TEXT is the original protocol: one JSON message per line. BINARY sends every message as a 4-byte big-endian
+ * length followed by that many bytes of UTF-8 JSON, so the receiver never scans for line breaks and a message may
+ * contain any character.
+ * A client selects BINARY by sending the PREFACE as the first bytes on a new connection. Its first byte is 0,
+ * which cannot start a JSON line, so the server tells both protocols apart and old text clients keep working.
+ * Clients use TEXT unless BINARY is configured, because a server that predates the preface only understands lines.
+ */
+public enum Framing {
+    TEXT, // Newline-delimited JSON
+    BINARY; // Length-prefixed UTF-8 JSON
+
+    public static final String PROPERTY = "inflight.client.framing"; // System property selecting the client's framing
+    public static final int MAX_FRAME_BYTES = 16 * 1024 * 1024; // Largest accepted binary frame
+    private static final byte[] PREFACE = {0, 'I', 'F', 1}; // First bytes of a binary connection, the last one is the version
+
+    /**
+     * Resolves the framing a client uses from the inflight.client.framing system property.
+     *
+     * @return the configured framing, TEXT if the property is not set
+     * @throws IllegalArgumentException if the property names no framing
+     */
+    public static Framing fromSystemProperties() {
+        String value = System.getProperty(PROPERTY);
+        return value == null || value.isBlank() ? TEXT : valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Reads the start of a new connection on the server and tells which framing the client chose.
+     * A binary client's preface is consumed; the first line of a text client is left in the stream.
+     *
+     * @param in the input of the connection, which must support mark and reset
+     * @return the framing of the connection
+     * @throws IOException if the connection starts with an unknown preface or cannot be read
+     */
+    public static Framing detect(InputStream in) throws IOException {
+        in.mark(1);
+        int first = in.read();
+        if (first != PREFACE[0]) {
+            in.reset();
+            return TEXT;
+        }
+        byte[] rest = in.readNBytes(PREFACE.length - 1);
+        if (!Arrays.equals(rest, 0, rest.length, PREFACE, 1, PREFACE.length)) {
+            throw new IOException("Unknown protocol preface");
+        }
+        return BINARY;
+    }
+
+    /**
+     * Checks a byte of a connection's start against the binary preface.
+     *
+     * @param position the position of the byte on the connection
+     * @param b        the byte received at that position
+     * @return true if the byte matches the preface
+     */
+    public static boolean matchesPreface(int position, byte b) {
+        return position < PREFACE.length && PREFACE[position] == b;
+    }
+
+    /**
+     * getter for prefaceLength.
+     * @return the number of bytes of the binary preface
+     */
+    public static int getPrefaceLength() {
+        return PREFACE.length;
+    }
+
+    /**
+     * Sends what a client has to send first on a new connection to select this framing.
+     *
+     * @param out the output of the new connection
+     * @throws IOException if writing fails
+     */
+    public void startClient(OutputStream out) throws IOException {
+        if (this == BINARY) {
+            out.write(PREFACE);
+            out.flush();
+        }
+    }
+
+    /**
+     * Creates the reader for the messages of a connection.
+     *
+     * @param in the input of the connection, after the preface
+     * @return a FrameReader for this framing
+     */
+    public FrameReader newReader(InputStream in) {
+        return this == BINARY
+                ? new BinaryFrameReader(Channels.newChannel(in))
+                : new TextFrameReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Creates the writer for the messages of a connection.
+     *
+     * @param out the output of the connection
+     * @return a FrameWriter for this framing
+     */
+    public FrameWriter newWriter(OutputStream out) {
+        return this == BINARY
+                ? new BinaryFrameWriter(new BufferedOutputStream(out))
+                : new TextFrameWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+    }
+}
@@ -7,11 +7,16 @@ import org.slf4j.LoggerFactory;
 /**
  * MessageEnvelope is a class that represents a message envelope used in the application.
  * It contains an action and data in JSON format.
+ * A client that has several requests in flight on one connection numbers them with a request ID;
+ * the server copies the ID into the response, so the client can tell which request a response answers.
  */
 public class MessageEnvelope {
     private static final Logger logger = LoggerFactory.getLogger(MessageEnvelope.class);
+    public static final String REQUEST_ID = "requestId"; // Name of the field that carries the request ID in a response
+
     private String action; // The action to be performed
     private JsonObject data; // The data associated with the action
+    private Long requestId; // ID the client chose for this request, null if the response needs none
 
     /**
      * Default constructor for MessageEnvelope.
@@ -29,6 +34,19 @@ public class MessageEnvelope {
         this.data = data;
     }
 
+    /**
+     * Constructor for MessageEnvelope with action, data and request ID.
+     *
+     * @param action    The action to be performed
+     * @param data      The data associated with the action
+     * @param requestId The ID the response will carry
+     */
+    public MessageEnvelope(String action, JsonObject data, Long requestId) {
+        this.action = action;
+        this.data = data;
+        this.requestId = requestId;
+    }
+
     /**
      * getter for action.
      * @return The action to be performed
@@ -45,6 +63,14 @@ public class MessageEnvelope {
         return data;
     }
 
+    /**
+     * getter for requestId.
+     * @return The ID the response will carry, or null if the client did not set one
+     */
+    public Long getRequestId() {
+        return requestId;
+    }
+
     /**
      * setter for action.
      * @param action The action to be performed
@@ -60,4 +86,12 @@ public class MessageEnvelope {
     public void setData(JsonObject data) {
         this.data = data;
     }
+
+    /**
+     * setter for requestId.
+     * @param requestId The ID the response will carry, or null for none
+     */
+    public void setRequestId(Long requestId) {
+        this.requestId = requestId;
+    }
 }
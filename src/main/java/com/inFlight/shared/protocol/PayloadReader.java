@@ -0,0 +1,64 @@
+package com.inFlight.shared.protocol;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * PayloadReader decodes the UTF-8 bytes of one message while they are read,
+ * so the message can be parsed without building a String of it first.
+ */
+public final class PayloadReader extends Reader {
+    private final ByteBuffer bytes; // Undecoded part of the payload
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+    private final CharBuffer pending = CharBuffer.allocate(2).flip(); // Decoded chars that did not fit the caller's array
+
+    /**
+     * Constructor for the PayloadReader class.
+     *
+     * @param bytes the payload between position and limit, consumed while it is read
+     */
+    public PayloadReader(ByteBuffer bytes) {
+        this.bytes = bytes;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+        while (pending.hasRemaining() && out.hasRemaining()) {
+            out.put(pending.get());
+        }
+        if (out.hasRemaining() && bytes.hasRemaining()) {
+            decode(out);
+            if (out.position() == off && bytes.hasRemaining()) {
+                // A surrogate pair does not fit into one char, decode it aside
+                pending.clear();
+                decode(pending);
+                pending.flip();
+                out.put(pending.get());
+            }
+        }
+        int read = out.position() - off;
+        return read == 0 ? -1 : read;
+    }
+
+    private void decode(CharBuffer out) throws CharacterCodingException {
+        CoderResult result = decoder.decode(bytes, out, true);
+        if (result.isError()) {
+            result.throwException();
+        }
+    }
+
+    @Override
+    public void close() {
+        // The bytes belong to whoever read the frame
+    }
+}
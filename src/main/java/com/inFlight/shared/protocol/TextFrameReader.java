@@ -0,0 +1,28 @@
+package com.inFlight.shared.protocol;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+/**
+ * TextFrameReader reads newline-delimited messages.
+ */
+public class TextFrameReader implements FrameReader {
+    private final BufferedReader in; // Lines of the connection
+
+    /**
+     * Constructor for the TextFrameReader class.
+     *
+     * @param in the lines of the connection
+     */
+    public TextFrameReader(BufferedReader in) {
+        this.in = in;
+    }
+
+    @Override
+    public Reader next() throws IOException {
+        String line = in.readLine();
+        return line == null ? null : new StringReader(line);
+    }
+}
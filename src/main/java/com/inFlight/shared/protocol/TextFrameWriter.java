@@ -0,0 +1,39 @@
+package com.inFlight.shared.protocol;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * TextFrameWriter writes every message as one line.
+ * The JSON written by Gson escapes line breaks inside strings, so a message never spans two lines.
+ */
+public class TextFrameWriter implements FrameWriter {
+    private final BufferedWriter out; // Output of the connection
+
+    /**
+     * Constructor for the TextFrameWriter class.
+     *
+     * @param out the output of the connection
+     */
+    public TextFrameWriter(BufferedWriter out) {
+        this.out = out;
+    }
+
+    @Override
+    public Writer begin() {
+        return out;
+    }
+
+    @Override
+    public void end() throws IOException {
+        out.newLine();
+        out.flush();
+    }
+
+    @Override
+    public void writeFrame(String message) throws IOException {
+        out.write(message);
+        end();
+    }
+}
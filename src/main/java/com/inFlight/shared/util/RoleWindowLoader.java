@@ -46,7 +46,7 @@ public class RoleWindowLoader {
             stage.show();
 
         } catch (Exception e) {
-            logger.error("Failed to load role window: " + role, e);
+            logger.error("Failed to load role window: {}", role, e);
         }
     }
 }
@@ -2,14 +2,25 @@ package com.inFlight.client.socket;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.inFlight.client.socket.ClientSocketService;
+import com.inFlight.server.push.EventBus;
+import com.inFlight.server.socket.NioServer;
+import com.inFlight.server.socket.ProtocolHandler;
 import com.inFlight.shared.model.*;
+import com.inFlight.shared.protocol.EventTopic;
+import com.inFlight.shared.protocol.TextFrameReader;
+import com.inFlight.shared.protocol.TextFrameWriter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.*;
 import java.lang.reflect.Field;
+import java.net.ServerSocket;
 import java.net.Socket;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -29,8 +40,8 @@ public class ClientSocketServiceTest {
         mockReader = mock(BufferedReader.class);
 
         setField("socket", mockSocket);
-        setField("writer", mockWriter);
-        setField("reader", mockReader);
+        setField("writer", new TextFrameWriter(mockWriter));
+        setField("reader", new TextFrameReader(mockReader));
     }
 
     private void setField(String fieldName, Object value) throws Exception {
@@ -39,9 +50,17 @@ public class ClientSocketServiceTest {
         field.set(service, value);
     }
 
+    /**
+     * Lets the mocked connection answer with the given line and then close,
+     * so the thread reading responses ends after the test.
+     */
+    private void respond(String response) throws IOException {
+        when(mockReader.readLine()).thenReturn(response, (String) null);
+    }
+
     @Test
     void testUpdateNovaCredits() throws IOException {
-        when(mockReader.readLine()).thenReturn("{\"status\":\"OK\"}");
+        respond("{\"status\":\"OK\"}");
         JsonObject response = service.updateNovaCredits(1, 100);
         assertEquals("OK", response.get("status").getAsString());
     }
@@ -49,126 +68,157 @@ public class ClientSocketServiceTest {
     @Test
     void testSendChatMessage() throws IOException {
         ChatMessage msg = new ChatMessage("a", "b", "hi");
-        when(mockReader.readLine()).thenReturn("{\"status\":\"OK\"}");
+        respond("{\"status\":\"OK\"}");
         JsonObject response = service.sendChatMessage(msg);
         assertEquals("OK", response.get("status").getAsString());
     }
 
     @Test
     void testGetChat() throws IOException {
-        when(mockReader.readLine()).thenReturn("{\"status\":\"OK\",\"messages\":[]}");
+        respond("{\"status\":\"OK\",\"messages\":[]}");
         List<ChatMessage> messages = service.getChat("a", "b");
         assertTrue(messages.isEmpty());
     }
 
+    @Test
+    void testGetChatSince() throws IOException {
+        respond("{\"status\":\"OK\",\"messages\":[{\"id\":9,\"sender\":\"b\",\"receiver\":\"a\",\"content\":\"hi\",\"timestamp\":\"2025-06-01 10:15:00\"}]}");
+
+        List<ChatMessage> messages = service.getChatSince("a", "b", 8, 20);
+
+        assertEquals(1, messages.size());
+        assertEquals(9, messages.get(0).getId());
+        verify(mockWriter).write(contains("\"afterId\":8"));
+    }
+
     @Test
     void testSendBooking() throws IOException {
-        when(mockReader.readLine()).thenReturn("{\"status\":\"OK\"}");
+        respond("{\"status\":\"OK\"}");
         JsonObject response = service.sendBooking(1, 2, 1);
         assertEquals("OK", response.get("status").getAsString());
     }
 
     @Test
     void testCancelBooking() throws IOException {
-        when(mockReader.readLine()).thenReturn("{\"status\":\"OK\"}");
+        respond("{\"status\":\"OK\"}");
         JsonObject response = service.cancelBooking(1);
         assertEquals("OK", response.get("status").getAsString());
     }
 
     @Test
     void testGetBookings() throws IOException {
-        when(mockReader.readLine()).thenReturn("{\"status\":\"OK\",\"bookings\":[]}");
+        respond("{\"status\":\"OK\",\"bookings\":[]}");
         List<Booking> bookings = service.getBookings();
         assertTrue(bookings.isEmpty());
     }
 
+    @Test
+    void testGetBookingsDetailed() throws IOException {
+        respond("{\"status\":\"OK\",\"bookings\":[{\"bookingId\":3,\"passengerId\":1,\"slotId\":4,\"tier\":3,\"status\":\"approved\",\"slotTime\":\"2025-06-01T10:00\",\"passengerUsername\":\"alice\"}]}");
+
+        List<DetailedBooking> bookings = service.getBookingsDetailed();
+
+        assertEquals(1, bookings.size());
+        assertEquals("2025-06-01T10:00", bookings.get(0).getSlotTime());
+        assertEquals("alice", bookings.get(0).getPassengerUsername());
+        verify(mockWriter, times(1)).write(anyString());
+    }
+
+    @Test
+    void testCountBookings() throws IOException {
+        respond("{\"status\":\"OK\",\"count\":5}");
+
+        assertEquals(5, service.countBookings("pending"));
+        verify(mockWriter).write(contains("\"count\":true"));
+    }
+
     @Test
     void testGetBookingsForPassenger() throws IOException {
-        when(mockReader.readLine()).thenReturn("{\"status\":\"OK\",\"bookings\":[]}");
+        respond("{\"status\":\"OK\",\"bookings\":[]}");
         List<Booking> bookings = service.getBookingsForPassenger(1);
         assertTrue(bookings.isEmpty());
     }
 
     @Test
     void testGetSlotById() throws IOException {
-        when(mockReader.readLine()).thenReturn("{\"status\":\"OK\",\"slot\":{}}");
+        respond("{\"status\":\"OK\",\"slot\":{}}");
         SpacewalkSlot slot = service.getSlotById(1);
         assertNotNull(slot);
     }
 
     @Test
     void testSendBroadcast() throws IOException {
-        when(mockReader.readLine()).thenReturn("{\"status\":\"OK\"}");
+        respond("{\"status\":\"OK\"}");
         service.sendBroadcast("message");
     }
 
     @Test
     void testGetLatestBroadcast() throws IOException {
-        when(mockReader.readLine()).thenReturn("{\"status\":\"OK\"}");
+        respond("{\"status\":\"OK\"}");
         JsonObject obj = service.getLatestBroadcast();
         assertEquals("OK", obj.get("status").getAsString());
     }
 
     @Test
     void testTriggerSurvey() throws IOException {
-        when(mockReader.readLine()).thenReturn("{\"status\":\"OK\"}");
+        respond("{\"status\":\"OK\"}");
         service.triggerSurvey();
     }
 
     @Test
     void testIsSurveyTriggered() throws IOException {
-        when(mockReader.readLine()).thenReturn("{\"triggered\":true}");
+        respond("{\"triggered\":true}");
         assertTrue(service.isSurveyTriggered());
     }
 
     @Test
     void testGetAllPassengers() throws IOException {
-        when(mockReader.readLine()).thenReturn("{\"status\":\"OK\",\"passengers\":[]}");
+        respond("{\"status\":\"OK\",\"passengers\":[]}");
         List<Passenger> list = service.getAllPassengers();
         assertTrue(list.isEmpty());
     }
 
     @Test
     void testCheckOutPassenger() throws IOException {
-        when(mockReader.readLine()).thenReturn("{\"status\":\"OK\"}");
+        respond("{\"status\":\"OK\"}");
         service.checkOutPassenger(1);
     }
 
     @Test
     void testIsCheckedOut() throws IOException {
-        when(mockReader.readLine()).thenReturn("{\"checkedOut\":true}");
+        respond("{\"checkedOut\":true}");
         assertTrue(service.isCheckedOut(1));
     }
 
     @Test
     void testSetCheckedOutStatus() throws IOException {
-        when(mockReader.readLine()).thenReturn("{\"status\":\"OK\"}");
+        respond("{\"status\":\"OK\"}");
         service.setCheckedOutStatus(1, true);
     }
 
     @Test
     void testRegisterPhotographer() throws IOException {
-        when(mockReader.readLine()).thenReturn("{\"status\":\"OK\"}");
+        respond("{\"status\":\"OK\"}");
         service.registerPhotographer("Sam");
     }
 
     @Test
     void testGetPhotographerByName() throws IOException {
-        when(mockReader.readLine()).thenReturn("{\"status\":\"OK\",\"photographer\":{\"name\":\"Sam\"}}");
+        respond("{\"status\":\"OK\",\"photographer\":{\"name\":\"Sam\"}}");
         Photographer p = service.getPhotographerByName("Sam");
         assertNotNull(p);
     }
 
     @Test
     void testGetPhotographerById() throws IOException {
-        when(mockReader.readLine()).thenReturn("{\"status\":\"OK\",\"photographer\":{\"id\":1}}");
+        respond("{\"status\":\"OK\",\"photographer\":{\"id\":1}}");
         Photographer p = service.getPhotographerById(1);
         assertNotNull(p);
     }
 
     @Test
     void testSetPhotographerCheckedOut() throws IOException {
-        when(mockReader.readLine()).thenReturn("{\"status\":\"OK\"}");
+        respond("{\"status\":\"OK\"}");
         service.setPhotographerCheckedOut(1, true);
     }
 
@@ -189,7 +239,7 @@ public class ClientSocketServiceTest {
         response.addProperty("status", "OK");
         response.add("items", array);
 
-        when(mockReader.readLine()).thenReturn(new com.google.gson.Gson().toJson(response));
+        respond(new com.google.gson.Gson().toJson(response));
 
         List<InventoryItem> result = service.getInventoryItemsByRole("Attendant");
 
@@ -206,7 +256,7 @@ public class ClientSocketServiceTest {
         JsonObject response = new JsonObject();
         response.addProperty("status", "OK");
 
-        when(mockReader.readLine()).thenReturn(new com.google.gson.Gson().toJson(response));
+        respond(new com.google.gson.Gson().toJson(response));
 
         assertDoesNotThrow(() -> service.updateInventoryItem(item));
     }
@@ -231,7 +281,7 @@ public class ClientSocketServiceTest {
         response.addProperty("status", "OK");
         response.add("slots", array);
 
-        when(mockReader.readLine()).thenReturn(new com.google.gson.Gson().toJson(response));
+        respond(new com.google.gson.Gson().toJson(response));
 
         List<SpacewalkSlot> slots = service.getAvailableSlots();
 
@@ -244,14 +294,14 @@ public class ClientSocketServiceTest {
 
     @Test
     void testApproveBooking() throws IOException {
-        when(mockReader.readLine()).thenReturn("{\"status\":\"OK\"}");
+        respond("{\"status\":\"OK\"}");
 
         assertDoesNotThrow(() -> service.approveBooking(123));
     }
 
     @Test
     void testDenyBooking() throws IOException {
-        when(mockReader.readLine()).thenReturn("{\"status\":\"OK\"}");
+        respond("{\"status\":\"OK\"}");
 
         assertDoesNotThrow(() -> service.denyBooking(123));
     }
@@ -268,7 +318,7 @@ public class ClientSocketServiceTest {
         response.addProperty("status", "OK");
         response.add("passenger", passenger);
 
-        when(mockReader.readLine()).thenReturn(new com.google.gson.Gson().toJson(response));
+        respond(new com.google.gson.Gson().toJson(response));
 
         Passenger p = service.getPassengerById(1);
 
@@ -279,7 +329,7 @@ public class ClientSocketServiceTest {
 
     @Test
     void testGetLastCancellation() throws IOException {
-        when(mockReader.readLine()).thenReturn("{\"status\":\"OK\",\"bookingId\":9}");
+        respond("{\"status\":\"OK\",\"bookingId\":9}");
 
         JsonObject result = service.getLastCancellation();
 
@@ -303,4 +353,153 @@ public class ClientSocketServiceTest {
 
         assertFalse(service.isConnected());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSubscribeSendsRequestAndDispatchesEvents() throws Exception {
+        Socket eventSocket = mock(Socket.class);
+        StringWriter sent = new StringWriter();
+        setField("eventSocket", eventSocket);
+        setField("eventWriter", new TextFrameWriter(new BufferedWriter(sent)));
+        List<JsonObject> received = new java.util.ArrayList<>();
+
+        CompletableFuture<Boolean> subscribed = CompletableFuture.supplyAsync(
+                () -> service.subscribe(EventTopic.BOOKING_STATUS, "7", received::add));
+        // subscribe waits for the answer of the server
+        while (!sent.toString().contains("\"action\":\"SUBSCRIBE\"")) {
+            Thread.sleep(10);
+        }
+        assertFalse(subscribed.isDone());
+        service.dispatchEvent("{\"status\":\"OK\",\"topic\":\"BOOKING_STATUS\",\"key\":\"7\",\"subscribed\":true}");
+        assertTrue(subscribed.get(5, TimeUnit.SECONDS));
+        service.dispatchEvent("{\"type\":\"EVENT\",\"topic\":\"BOOKING_STATUS\",\"key\":\"8\",\"payload\":{\"bookingId\":1}}");
+        service.dispatchEvent("{\"type\":\"EVENT\",\"seq\":5,\"topic\":\"BOOKING_STATUS\",\"key\":\"7\",\"payload\":{\"bookingId\":2}}");
+
+        assertTrue(sent.toString().contains("\"action\":\"SUBSCRIBE\""));
+        assertEquals(1, received.size());
+        assertEquals(2, received.get(0).get("bookingId").getAsInt());
+        assertEquals(5, service.getLastEventSeq());
+    }
+
+    @Test
+    void testEventConnectionIsRestoredAndMissedEventsAreReplayed() throws Exception {
+        try (NioServer server = new NioServer(0, new ProtocolHandler())) {
+            new Thread(server).start();
+            ClientSocketService client = new ClientSocketService("localhost", server.awaitPort());
+            assertTrue(client.connect());
+            BlockingQueue<JsonObject> received = new LinkedBlockingQueue<>();
+            assertTrue(client.subscribe(EventTopic.BROADCAST, null, received::add));
+
+            Field eventSocket = ClientSocketService.class.getDeclaredField("eventSocket");
+            eventSocket.setAccessible(true);
+            ((Socket) eventSocket.get(client)).close();
+            JsonObject missed = new JsonObject();
+            missed.addProperty("message", "published while the event connection was down");
+            EventBus.getInstance().publish(EventTopic.BROADCAST, null, missed);
+
+            assertEquals(missed, received.poll(10, TimeUnit.SECONDS));
+            JsonObject live = new JsonObject();
+            live.addProperty("message", "published after the reconnect");
+            EventBus.getInstance().publish(EventTopic.BROADCAST, null, live);
+            assertEquals(live, received.poll(10, TimeUnit.SECONDS));
+            assertNull(received.poll(200, TimeUnit.MILLISECONDS));
+            client.disconnect();
+        }
+    }
+
+    @Test
+    void testPipelinedResponsesAreMatchedByRequestId() throws Exception {
+        PipedWriter server = new PipedWriter();
+        setField("reader", new TextFrameReader(new BufferedReader(new PipedReader(server))));
+        StringWriter sent = new StringWriter();
+        setField("writer", new TextFrameWriter(new BufferedWriter(sent)));
+
+        CompletableFuture<JsonObject> first = service.sendAsync("GET_BROADCAST", new JsonObject());
+        CompletableFuture<JsonObject> second = service.sendAsync("GET_LAST_CANCELLATION", new JsonObject());
+        assertFalse(first.isDone());
+        assertTrue(sent.toString().contains("\"requestId\":1"));
+        assertTrue(sent.toString().contains("\"requestId\":2"));
+
+        // Answered in reverse order
+        server.write("{\"requestId\":2,\"status\":\"OK\",\"bookingId\":9}\n");
+        server.write("{\"requestId\":1,\"status\":\"OK\",\"message\":\"hello\"}\n");
+        server.flush();
+
+        assertEquals("hello", first.get(5, TimeUnit.SECONDS).get("message").getAsString());
+        assertEquals(9, second.get(5, TimeUnit.SECONDS).get("bookingId").getAsInt());
+        server.close();
+    }
+
+    @Test
+    void testResponseWithoutRequestIdAnswersOldestRequest() throws Exception {
+        PipedWriter server = new PipedWriter();
+        setField("reader", new TextFrameReader(new BufferedReader(new PipedReader(server))));
+
+        CompletableFuture<Integer> first = service.countBookingsAsync("pending");
+        CompletableFuture<Integer> second = service.countBookingsAsync("approved");
+        server.write("{\"status\":\"OK\",\"count\":3}\n{\"status\":\"OK\",\"count\":4}\n");
+        server.flush();
+
+        assertEquals(3, first.get(5, TimeUnit.SECONDS));
+        assertEquals(4, second.get(5, TimeUnit.SECONDS));
+        server.close();
+    }
+
+    @Test
+    void testOpenRequestsFailWhenConnectionCloses() throws Exception {
+        when(mockReader.readLine()).thenReturn(null);
+
+        JsonObject response = service.sendAsync("GET_BROADCAST", new JsonObject()).get(5, TimeUnit.SECONDS);
+
+        assertEquals("ERROR", response.get("status").getAsString());
+    }
+
+    @Test
+    void testGetChatSinceAsync() throws Exception {
+        respond("{\"status\":\"OK\",\"messages\":[{\"id\":4,\"sender\":\"b\",\"receiver\":\"a\",\"content\":\"hi\"}]}");
+
+        List<ChatMessage> messages = service.getChatSinceAsync("a", "b", 3, 20).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, messages.size());
+        assertEquals(4, messages.get(0).getId());
+    }
+
+    @Test
+    void testSendBatchCompletesEveryRequest() throws Exception {
+        respond("{\"status\":\"OK\",\"responses\":[{\"status\":\"OK\",\"message\":\"hello\"},{\"triggered\":true}]}");
+        BatchRequest batch = new BatchRequest();
+        CompletableFuture<JsonObject> broadcast = batch.add("GET_BROADCAST", new JsonObject());
+        CompletableFuture<JsonObject> survey = batch.add("CHECK_SURVEY_TRIGGER", new JsonObject());
+
+        List<JsonObject> responses = service.sendBatch(batch);
+
+        assertEquals(2, responses.size());
+        assertEquals("hello", broadcast.get(5, TimeUnit.SECONDS).get("message").getAsString());
+        assertTrue(survey.get(5, TimeUnit.SECONDS).get("triggered").getAsBoolean());
+        verify(mockWriter).write(contains("\"action\":\"BATCH\""));
+    }
+
+    @Test
+    void testFailedBatchFailsEveryRequest() throws Exception {
+        respond("{\"status\":\"ERROR\",\"message\":\"Missing requests\"}");
+        BatchRequest batch = new BatchRequest();
+        CompletableFuture<JsonObject> broadcast = batch.add("GET_BROADCAST", new JsonObject());
+
+        service.sendBatchAsync(batch).get(5, TimeUnit.SECONDS);
+
+        assertEquals("ERROR", broadcast.get(5, TimeUnit.SECONDS).get("status").getAsString());
+    }
+
+    @Test
+    void testConnectsToTheGivenHostAndPort() throws Exception {
+        try (ServerSocket server = new ServerSocket(0)) {
+            ClientSocketService local = new ClientSocketService("localhost", server.getLocalPort());
+
+            assertTrue(local.connect());
+            try (Socket accepted = server.accept()) {
+                assertTrue(accepted.isConnected());
+            } finally {
+                local.disconnect();
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.inFlight.loadtest;
+
+import com.inFlight.client.socket.ClientSocketService;
+import com.inFlight.shared.protocol.EventTopic;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * AtcWindow simulates air traffic control, which only chats with the pilot.
+ */
+class AtcWindow extends SimulatedWindow {
+    private static final String ROLE = "ATC"; // Name of air traffic control in chats
+
+    private final ChatCursor chat = new ChatCursor(); // Newest message of the chat with the pilot
+
+    /**
+     * Constructor for the AtcWindow class.
+     */
+    AtcWindow(ClientSocketService service, LoadReport report, long seed, long thinkMillis, BooleanSupplier running) {
+        super(service, report, seed, thinkMillis, running);
+    }
+
+    @Override
+    protected void open() {
+        subscribe(EventTopic.CHAT, EventTopic.chatKey("Pilot", ROLE), message -> { });
+        chat.read(this, ROLE, "Pilot");
+    }
+
+    @Override
+    protected void step() {
+        if (choose(1, 1) == 0) {
+            request("SEND_CHAT", data("sender", ROLE, "receiver", "Pilot", "content", "Cleared for the next spacewalk window"));
+        } else {
+            chat.read(this, ROLE, "Pilot");
+        }
+    }
+}
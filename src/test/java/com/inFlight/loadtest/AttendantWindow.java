@@ -0,0 +1,79 @@
+package com.inFlight.loadtest;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.inFlight.client.socket.ClientSocketService;
+import com.inFlight.shared.protocol.EventTopic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * AttendantWindow simulates the flight attendant, who looks through the passengers and their bookings,
+ * chats with the pilot, keeps the cabin inventory up to date and checks passengers back in.
+ */
+class AttendantWindow extends SimulatedWindow {
+    private static final String ROLE = "Attendant"; // Name of the attendant in chats and inventory
+
+    private final List<Integer> passengerIds = new ArrayList<>(); // Passengers of the last list
+    private final List<JsonObject> items = new ArrayList<>(); // Inventory of the last refresh
+    private final ChatCursor chat = new ChatCursor(); // Newest message of the chat with the pilot
+
+    /**
+     * Constructor for the AttendantWindow class.
+     */
+    AttendantWindow(ClientSocketService service, LoadReport report, long seed, long thinkMillis, BooleanSupplier running) {
+        super(service, report, seed, thinkMillis, running);
+    }
+
+    @Override
+    protected void open() {
+        subscribe(EventTopic.CHAT, EventTopic.chatKey("Pilot", ROLE), message -> { });
+        refreshPassengers();
+        refreshInventory();
+    }
+
+    @Override
+    protected void step() {
+        switch (choose(25, 20, 20, 15, 10, 5, 5)) {
+            case 0 -> refreshPassengers();
+            case 1 -> {
+                Integer passengerId = any(passengerIds);
+                if (passengerId != null) {
+                    request("GET_BOOKINGS_FOR_PASSENGER_DETAILED", data("passengerId", passengerId));
+                }
+            }
+            case 2 -> request("SEND_CHAT", data("sender", ROLE, "receiver", "Pilot", "content", "Cabin is secure"));
+            case 3 -> chat.read(this, ROLE, "Pilot");
+            case 4 -> refreshInventory();
+            case 5 -> {
+                JsonObject item = any(items);
+                if (item != null) {
+                    item.addProperty("available", !item.get("available").getAsBoolean());
+                    request("UPDATE_INVENTORY_ITEM", data("item", item));
+                }
+            }
+            default -> {
+                Integer passengerId = any(passengerIds);
+                if (passengerId != null) {
+                    request("SET_CHECKED_OUT_STATUS", data("passengerId", passengerId, "checkedOut", false));
+                }
+            }
+        }
+    }
+
+    private void refreshPassengers() {
+        passengerIds.clear();
+        for (JsonElement passenger : array(request("GET_ALL_PASSENGERS", new JsonObject()), "passengers")) {
+            passengerIds.add(passenger.getAsJsonObject().get("passengerId").getAsInt());
+        }
+    }
+
+    private void refreshInventory() {
+        items.clear();
+        for (JsonElement item : array(request("GET_INVENTORY_BY_ROLE", data("role", ROLE)), "items")) {
+            items.add(item.getAsJsonObject());
+        }
+    }
+}
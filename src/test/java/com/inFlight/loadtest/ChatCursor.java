@@ -0,0 +1,30 @@
+package com.inFlight.loadtest;
+
+import com.google.gson.JsonArray;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ChatCursor remembers the newest message a window has of each chat, so reading a chat only fetches the
+ * messages sent since, as the chat views of the windows do.
+ */
+class ChatCursor {
+    private final Map<String, Integer> lastIds = new HashMap<>(); // Newest message ID per partner
+
+    /**
+     * Fetches the messages of a chat sent since the last read.
+     *
+     * @param window  the window that sends the request
+     * @param role    the role of the window in the chat
+     * @param partner the other party of the chat
+     */
+    void read(SimulatedWindow window, String role, String partner) {
+        int afterId = lastIds.getOrDefault(partner, 0);
+        JsonArray messages = SimulatedWindow.array(window.request("GET_CHAT_SINCE", SimulatedWindow.data(
+                "sender", role, "receiver", partner, "afterId", afterId, "limit", 200)), "messages");
+        if (!messages.isEmpty()) {
+            lastIds.put(partner, messages.get(messages.size() - 1).getAsJsonObject().get("id").getAsInt());
+        }
+    }
+}
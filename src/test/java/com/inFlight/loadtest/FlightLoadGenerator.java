@@ -0,0 +1,215 @@
+package com.inFlight.loadtest;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.inFlight.client.socket.ClientSocketService;
+import com.inFlight.server.ApplicationContext;
+import com.inFlight.server.ServerMode;
+import com.inFlight.server.db.SQLiteConnector;
+import com.inFlight.server.db.SchemaMigrator;
+import com.inFlight.server.db.StorageProfile;
+import com.inFlight.server.socket.NioServer;
+import com.inFlight.server.socket.SocketServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Headless load generator that simulates a full flight: many passenger windows and one pilot, attendant,
+ * ATC and photographer window each, every one with its own ClientSocketService.
+ * By default it starts a server in this JVM, in the mode of inflight.server.mode, on a copy of inFlightDB.db
+ * with a seeded passenger per passenger window. The windows are started evenly over the ramp-up, then the
+ * latencies are recorded for the duration and reported with p50, p95 and p99 and the error rate per action,
+ * together with the resources of the JVM and the connection pool.
+ * Run it with: java -cp target/classes:target/test-classes:&lt;dependencies&gt; com.inFlight.loadtest.FlightLoadGenerator
+ * Settings are system properties:
+ * inflight.load.passengers (40), inflight.load.pilots, .attendants, .atc, .photographers (1 each),
+ * inflight.load.rampUpSeconds (10), inflight.load.durationSeconds (60), inflight.load.thinkMillis (1000),
+ * inflight.load.seed (42), and inflight.load.host and inflight.load.port to load a running server instead,
+ * whose passengers are then shared by the passenger windows.
+ */
+public class FlightLoadGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(FlightLoadGenerator.class);
+
+    private static final Path SOURCE_DB = Path.of("src/main/resources/inFlightDB.db"); // Database that is copied
+    private static final String PHOTOGRAPHER = "Yu Dijkstra"; // Photographer of inFlightDB.db
+    private static final int SLOTS_PER_PASSENGER = 20; // Slots seeded per passenger window
+    private static final int RICH_CREDITS = 1_000_000_000; // Credits of every seeded passenger
+
+    private static final int PASSENGERS = Integer.getInteger("inflight.load.passengers", 40); // Passenger windows
+    private static final int PILOTS = Integer.getInteger("inflight.load.pilots", 1); // Pilot windows
+    private static final int ATTENDANTS = Integer.getInteger("inflight.load.attendants", 1); // Attendant windows
+    private static final int ATC = Integer.getInteger("inflight.load.atc", 1); // ATC windows
+    private static final int PHOTOGRAPHERS = Integer.getInteger("inflight.load.photographers", 1); // Photographer windows
+    private static final int RAMP_UP_SECONDS = Integer.getInteger("inflight.load.rampUpSeconds", 10); // Time to start all windows
+    private static final int DURATION_SECONDS = Integer.getInteger("inflight.load.durationSeconds", 60); // Measured time
+    private static final long THINK_MILLIS = Long.getLong("inflight.load.thinkMillis", 1000); // Mean pause between actions
+    private static final long SEED = Long.getLong("inflight.load.seed", 42); // Seed of the random choices
+    private static final String HOST = System.getProperty("inflight.load.host"); // Running server, null to start one
+
+    public static void main(String[] args) throws Exception {
+        LoadReport report = new LoadReport();
+        if (HOST != null) {
+            int port = Integer.getInteger("inflight.load.port", 5555);
+            run(HOST, port, existingPassengers(HOST, port), report);
+            return;
+        }
+
+        ServerMode mode = ServerMode.fromSystemProperty();
+        Path dir = Files.createTempDirectory("inflight-load");
+        Path db = dir.resolve("inFlightDB.db");
+        Files.copy(SOURCE_DB, db, StandardCopyOption.REPLACE_EXISTING);
+        SQLiteConnector.configure(db.toString(), StorageProfile.fromSystemProperties());
+        SchemaMigrator.migrateDatabase();
+        List<String> passengers = seed();
+
+        try (ApplicationContext context = new ApplicationContext()) {
+            context.warmUp();
+            Runnable server = switch (mode) {
+                case NIO -> new NioServer(0, context);
+                case VIRTUAL -> new SocketServer(0, Executors.newVirtualThreadPerTaskExecutor(), context);
+                default -> new SocketServer(0, Executors.newThreadPerTaskExecutor(Thread.ofPlatform().factory()), context);
+            };
+            Thread serverThread = new Thread(server, "load-test-server");
+            serverThread.start();
+            int port = server instanceof NioServer nio ? nio.awaitPort() : ((SocketServer) server).awaitPort();
+            try {
+                logger.info("{} server on port {}", mode, port);
+                run("localhost", port, passengers, report);
+                logger.info("pool {}", SQLiteConnector.getPoolMetrics());
+                logger.info("passenger cache {}", context.getPassengerDAO().getStats());
+            } finally {
+                ((Closeable) server).close();
+                serverThread.join(5000);
+            }
+        } finally {
+            for (String file : new String[]{"inFlightDB.db", "inFlightDB.db-wal", "inFlightDB.db-shm", "inFlightDB.db-journal"}) {
+                Files.deleteIfExists(dir.resolve(file));
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    /**
+     * Starts the windows over the ramp-up, records for the duration and logs the report.
+     */
+    private static void run(String host, int port, List<String> passengers, LoadReport report) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        BooleanSupplier stillRunning = running::get;
+        List<SimulatedWindow> windows = new ArrayList<>();
+        long seed = SEED;
+        for (int i = 0; i < PASSENGERS; i++) {
+            windows.add(new PassengerWindow(passengers.get(i % passengers.size()), new ClientSocketService(host, port),
+                    report, seed++, THINK_MILLIS, stillRunning));
+        }
+        for (int i = 0; i < PILOTS; i++) {
+            windows.add(new PilotWindow(new ClientSocketService(host, port), report, seed++, THINK_MILLIS, stillRunning));
+        }
+        for (int i = 0; i < ATTENDANTS; i++) {
+            windows.add(new AttendantWindow(new ClientSocketService(host, port), report, seed++, THINK_MILLIS, stillRunning));
+        }
+        for (int i = 0; i < ATC; i++) {
+            windows.add(new AtcWindow(new ClientSocketService(host, port), report, seed++, THINK_MILLIS, stillRunning));
+        }
+        for (int i = 0; i < PHOTOGRAPHERS; i++) {
+            windows.add(new PhotographerWindow(PHOTOGRAPHER, new ClientSocketService(host, port), report, seed++,
+                    THINK_MILLIS, stillRunning));
+        }
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        long pause = TimeUnit.SECONDS.toMillis(RAMP_UP_SECONDS) / Math.max(1, windows.size());
+        logger.info("Starting {} windows over {} s", windows.size(), RAMP_UP_SECONDS);
+        for (SimulatedWindow window : windows) {
+            executor.execute(window);
+            Thread.sleep(pause);
+        }
+
+        ResourceSampler resources = new ResourceSampler();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(resources::sample, 0, 1, TimeUnit.SECONDS);
+        report.setRecording(true);
+        long begin = System.nanoTime();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(DURATION_SECONDS));
+        report.setRecording(false);
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        sampler.shutdownNow();
+
+        running.set(false);
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+
+        List<String> lines = new ArrayList<>(report.format(seconds));
+        lines.add("resources " + resources.format());
+        lines.forEach(logger::info);
+    }
+
+    /**
+     * Adds one rich passenger per passenger window and enough bookable slots for all of them.
+     *
+     * @return the usernames of the seeded passengers
+     */
+    private static List<String> seed() throws SQLException {
+        List<String> usernames = new ArrayList<>();
+        try (Connection conn = SQLiteConnector.getConnection();
+             PreparedStatement passenger = conn.prepareStatement(
+                     "INSERT INTO passengers (username, password, novaCredits, checked_out) VALUES (?, 'load', ?, 0)");
+             PreparedStatement slot = conn.prepareStatement("INSERT INTO spacewalk_slots (slot_time, available) VALUES (?, 1)")) {
+            conn.setAutoCommit(false);
+            for (int i = 0; i < PASSENGERS; i++) {
+                String username = "load-" + i;
+                passenger.setString(1, username);
+                passenger.setInt(2, RICH_CREDITS);
+                passenger.addBatch();
+                usernames.add(username);
+            }
+            passenger.executeBatch();
+            for (int i = 0; i < PASSENGERS * SLOTS_PER_PASSENGER; i++) {
+                slot.setString(1, String.format("%02d:%02d", (i / 60) % 24, i % 60));
+                slot.addBatch();
+            }
+            slot.executeBatch();
+            conn.commit();
+        }
+        return usernames;
+    }
+
+    /**
+     * Reads the usernames of the passengers of a running server.
+     */
+    private static List<String> existingPassengers(String host, int port) {
+        ClientSocketService service = new ClientSocketService(host, port);
+        if (!service.connect()) {
+            throw new IllegalStateException("No server at " + host + ":" + port);
+        }
+        try {
+            List<String> usernames = new ArrayList<>();
+            JsonObject response = service.send("GET_ALL_PASSENGERS", new JsonObject());
+            for (JsonElement passenger : SimulatedWindow.array(response, "passengers")) {
+                usernames.add(passenger.getAsJsonObject().get("username").getAsString());
+            }
+            if (usernames.isEmpty()) {
+                throw new IllegalStateException("The server has no passengers to log in");
+            }
+            return usernames;
+        } finally {
+            service.disconnect();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.inFlight.loadtest;
+
+import com.inFlight.server.metrics.LatencyHistogram;
+import com.inFlight.shared.protocol.EventTopic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LoadReport collects the latency and outcome of every request the simulated windows send, per action,
+ * and the events they receive, per topic. Only requests that complete while recording is on are counted,
+ * so the ramp-up and the shutdown of the windows do not distort the result.
+ */
+class LoadReport {
+    /**
+     * Latencies and errors of one action.
+     */
+    private record ActionStats(LatencyHistogram latency, LongAdder errors) {
+        ActionStats() {
+            this(new LatencyHistogram(), new LongAdder());
+        }
+    }
+
+    private final Map<String, ActionStats> actions = new ConcurrentSkipListMap<>(); // Stats per action, by name
+    private final Map<EventTopic, LongAdder> events = new ConcurrentHashMap<>(); // Received events per topic
+    private final LongAdder failedWindows = new LongAdder(); // Windows that could not connect or stopped on an error
+    private volatile boolean recording; // True while the measured phase runs
+
+    /**
+     * Turns recording on or off.
+     *
+     * @param recording true while the measured phase runs
+     */
+    void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Records a completed request.
+     *
+     * @param action the action of the request
+     * @param nanos  the time from sending the request to receiving the response
+     * @param error  true if the response was an ERROR response
+     */
+    void record(String action, long nanos, boolean error) {
+        if (!recording) {
+            return;
+        }
+        ActionStats stats = actions.computeIfAbsent(action, a -> new ActionStats());
+        stats.latency().recordNanos(nanos);
+        if (error) {
+            stats.errors().increment();
+        }
+    }
+
+    /**
+     * Records an event pushed to a window.
+     *
+     * @param topic the topic of the event
+     */
+    void event(EventTopic topic) {
+        if (recording) {
+            events.computeIfAbsent(topic, t -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Records a window that could not connect or stopped because of an error.
+     */
+    void windowFailed() {
+        failedWindows.increment();
+    }
+
+    /**
+     * Formats the report as a table with one row per action.
+     *
+     * @param seconds the length of the measured phase
+     * @return the lines of the report
+     */
+    List<String> format(double seconds) {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("%-36s %9s %9s %7s %9s %9s %9s %9s",
+                "action", "requests", "req/s", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        long requests = 0;
+        long errors = 0;
+        for (Map.Entry<String, ActionStats> entry : actions.entrySet()) {
+            LatencyHistogram latency = entry.getValue().latency();
+            long count = latency.getCount();
+            long failed = entry.getValue().errors().sum();
+            requests += count;
+            errors += failed;
+            lines.add(String.format("%-36s %9d %9.1f %6.2f%% %9.2f %9.2f %9.2f %9.2f",
+                    entry.getKey(), count, count / seconds, 100.0 * failed / count,
+                    latency.getPercentileMicros(50) / 1000.0, latency.getPercentileMicros(95) / 1000.0,
+                    latency.getPercentileMicros(99) / 1000.0, latency.getMaxMicros() / 1000.0));
+        }
+        lines.add(String.format("%-36s %9d %9.1f %6.2f%%", "total", requests, requests / seconds,
+                requests == 0 ? 0 : 100.0 * errors / requests));
+        lines.add("events received: " + events + ", failed windows: " + failedWindows.sum());
+        return lines;
+    }
+}
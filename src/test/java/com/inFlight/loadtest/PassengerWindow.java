@@ -0,0 +1,120 @@
+package com.inFlight.loadtest;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.inFlight.client.socket.BatchRequest;
+import com.inFlight.client.socket.ClientSocketService;
+import com.inFlight.shared.protocol.EventTopic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * PassengerWindow simulates a passenger who logs in, subscribes to the passenger events, refreshes the
+ * broadcast, survey and checkout status in one batch and then browses slots, books and cancels spacewalks,
+ * looks at the bookings and the balance and tops up credits.
+ * BOOK_SLOT errors include slots that another passenger booked first.
+ */
+class PassengerWindow extends SimulatedWindow {
+    private final String username; // Passenger who logs in
+    private final List<Integer> slotIds = new ArrayList<>(); // Available slots of the last GET_AVAILABLE_SLOTS
+    private final List<Integer> pendingBookingIds = new ArrayList<>(); // Pending bookings of the last refresh
+    private int passengerId; // ID the login returned
+
+    /**
+     * Constructor for the PassengerWindow class.
+     *
+     * @param username the passenger who logs in
+     */
+    PassengerWindow(String username, ClientSocketService service, LoadReport report, long seed, long thinkMillis,
+                    BooleanSupplier running) {
+        super(service, report, seed, thinkMillis, running);
+        this.username = username;
+    }
+
+    @Override
+    protected void open() {
+        JsonObject login = request("LOGIN", data("username", username));
+        if (!login.has("passenger")) {
+            throw new IllegalStateException("Login of " + username + " failed: " + login);
+        }
+        passengerId = login.getAsJsonObject("passenger").get("passengerId").getAsInt();
+        String key = String.valueOf(passengerId);
+        subscribe(EventTopic.BOOKING_STATUS, key, status -> refreshBookings());
+        subscribe(EventTopic.BROADCAST, null, broadcast -> { });
+        subscribe(EventTopic.SURVEY, null, survey -> { });
+        subscribe(EventTopic.CHECKOUT, key, checkout -> { });
+        refreshStatus();
+        refreshSlots();
+    }
+
+    @Override
+    protected void step() {
+        switch (choose(30, 20, 15, 10, 5, 5, 15)) {
+            case 0 -> refreshSlots();
+            case 1 -> refreshBookings();
+            case 2 -> request("GET_PASSENGER_BY_ID", data("passengerId", passengerId));
+            case 3 -> book();
+            case 4 -> cancel();
+            case 5 -> request("UPDATE_NOVACREDITS", data("passengerId", passengerId, "amount", 100_000));
+            default -> refreshStatus();
+        }
+    }
+
+    private void refreshStatus() {
+        BatchRequest batch = new BatchRequest();
+        batch.add("GET_BROADCAST", new JsonObject());
+        batch.add("CHECK_SURVEY_TRIGGER", new JsonObject());
+        batch.add("CHECK_CHECKOUT_STATUS", data("passengerId", passengerId));
+        batch(batch);
+    }
+
+    private void refreshSlots() {
+        List<Integer> ids = new ArrayList<>();
+        for (JsonElement slot : array(request("GET_AVAILABLE_SLOTS", new JsonObject()), "slots")) {
+            ids.add(slot.getAsJsonObject().get("slotId").getAsInt());
+        }
+        synchronized (slotIds) {
+            slotIds.clear();
+            slotIds.addAll(ids);
+        }
+    }
+
+    private void refreshBookings() {
+        List<Integer> ids = new ArrayList<>();
+        for (JsonElement element : array(request("GET_BOOKINGS_FOR_PASSENGER_DETAILED", data("passengerId", passengerId)), "bookings")) {
+            JsonObject booking = element.getAsJsonObject();
+            if ("pending".equals(booking.get("status").getAsString())) {
+                ids.add(booking.get("bookingId").getAsInt());
+            }
+        }
+        synchronized (pendingBookingIds) {
+            pendingBookingIds.clear();
+            pendingBookingIds.addAll(ids);
+        }
+    }
+
+    private void book() {
+        Integer slotId;
+        synchronized (slotIds) {
+            slotId = any(slotIds);
+            slotIds.remove(slotId);
+        }
+        if (slotId != null) {
+            request("BOOK_SLOT", data("passengerId", passengerId, "slotId", slotId, "tier", 1 + random.nextInt(3)));
+            refreshBookings();
+        }
+    }
+
+    private void cancel() {
+        Integer bookingId;
+        synchronized (pendingBookingIds) {
+            bookingId = any(pendingBookingIds);
+            pendingBookingIds.remove(bookingId);
+        }
+        if (bookingId != null) {
+            request("CANCEL_BOOKING", data("bookingId", bookingId));
+        }
+    }
+}
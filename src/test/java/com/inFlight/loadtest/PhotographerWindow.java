@@ -0,0 +1,59 @@
+package com.inFlight.loadtest;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.inFlight.client.socket.ClientSocketService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * PhotographerWindow simulates the photographer, who follows the approved spacewalks and keeps the camera
+ * equipment up to date.
+ */
+class PhotographerWindow extends SimulatedWindow {
+    private static final String ROLE = "Photographer"; // Owner role of the camera equipment
+
+    private final String name; // Photographer who logs in
+    private final List<JsonObject> items = new ArrayList<>(); // Equipment of the last refresh
+
+    /**
+     * Constructor for the PhotographerWindow class.
+     *
+     * @param name the photographer who logs in
+     */
+    PhotographerWindow(String name, ClientSocketService service, LoadReport report, long seed, long thinkMillis,
+                       BooleanSupplier running) {
+        super(service, report, seed, thinkMillis, running);
+        this.name = name;
+    }
+
+    @Override
+    protected void open() {
+        request("GET_PHOTOGRAPHER_BY_NAME", data("name", name));
+        refreshInventory();
+    }
+
+    @Override
+    protected void step() {
+        switch (choose(40, 40, 20)) {
+            case 0 -> request("GET_BOOKINGS_DETAILED", data("status", "approved"));
+            case 1 -> refreshInventory();
+            default -> {
+                JsonObject item = any(items);
+                if (item != null) {
+                    item.addProperty("checkedOut", !item.get("checkedOut").getAsBoolean());
+                    request("UPDATE_INVENTORY_ITEM", data("item", item));
+                }
+            }
+        }
+    }
+
+    private void refreshInventory() {
+        items.clear();
+        for (JsonElement item : array(request("GET_INVENTORY_BY_ROLE", data("role", ROLE)), "items")) {
+            items.add(item.getAsJsonObject());
+        }
+    }
+}
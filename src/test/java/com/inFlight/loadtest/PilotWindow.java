@@ -0,0 +1,70 @@
+package com.inFlight.loadtest;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.inFlight.client.socket.ClientSocketService;
+import com.inFlight.shared.protocol.EventTopic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * PilotWindow simulates the pilot, who reviews pending bookings, approves most of them and denies some,
+ * chats with ATC and the attendant, looks at the passenger list and now and then sends a broadcast or
+ * triggers the survey. Every new booking updates the pending count, as the pilot window does.
+ */
+class PilotWindow extends SimulatedWindow {
+    private static final String ROLE = "Pilot"; // Name of the pilot in chats
+    private static final String[] PARTNERS = {"ATC", "Attendant"}; // Chat partners of the pilot
+
+    private final List<Integer> pendingBookingIds = new ArrayList<>(); // Pending bookings of the last refresh
+    private final ChatCursor chat = new ChatCursor(); // Newest message per partner
+
+    /**
+     * Constructor for the PilotWindow class.
+     */
+    PilotWindow(ClientSocketService service, LoadReport report, long seed, long thinkMillis, BooleanSupplier running) {
+        super(service, report, seed, thinkMillis, running);
+    }
+
+    @Override
+    protected void open() {
+        subscribe(EventTopic.NEW_BOOKING, null,
+                booking -> requestAsync("GET_BOOKINGS", data("status", "pending", "count", true)));
+        subscribe(EventTopic.CANCELLATION, null, cancellation -> { });
+        for (String partner : PARTNERS) {
+            subscribe(EventTopic.CHAT, EventTopic.chatKey(ROLE, partner), message -> { });
+        }
+        refreshPending();
+    }
+
+    @Override
+    protected void step() {
+        String partner = PARTNERS[random.nextInt(PARTNERS.length)];
+        switch (choose(30, 25, 15, 15, 10, 4, 1)) {
+            case 0 -> refreshPending();
+            case 1 -> review();
+            case 2 -> request("SEND_CHAT", data("sender", ROLE, "receiver", partner, "content", "Status check from the flight deck"));
+            case 3 -> chat.read(this, ROLE, partner);
+            case 4 -> request("GET_ALL_PASSENGERS", new JsonObject());
+            case 5 -> request("TRIGGER_BROADCAST", data("message", "Please return to your seats"));
+            default -> request("TRIGGER_SURVEY", new JsonObject());
+        }
+    }
+
+    private void refreshPending() {
+        pendingBookingIds.clear();
+        for (JsonElement booking : array(request("GET_BOOKINGS_DETAILED", data("status", "pending")), "bookings")) {
+            pendingBookingIds.add(booking.getAsJsonObject().get("bookingId").getAsInt());
+        }
+    }
+
+    private void review() {
+        Integer bookingId = any(pendingBookingIds);
+        if (bookingId != null) {
+            pendingBookingIds.remove(bookingId);
+            request(random.nextInt(5) == 0 ? "DENY_BOOKING" : "APPROVE_BOOKING", data("bookingId", bookingId));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.inFlight.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * ResourceSampler samples the CPU load, heap and threads of this JVM once per call and sums up the garbage
+ * collections since it was created. With the embedded server the numbers include the simulated windows,
+ * which run in the same JVM.
+ */
+class ResourceSampler {
+    private final com.sun.management.OperatingSystemMXBean os =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean(); // Process CPU load
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean(); // Heap usage
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean(); // Live threads
+    private final long startGcCount = gcCount(); // Collections before the measured phase
+    private final long startGcMillis = gcMillis(); // Collection time before the measured phase
+
+    private int samples; // Samples taken
+    private double totalCpu; // Sum of the sampled CPU loads
+    private double maxCpu; // Highest sampled CPU load
+    private long maxHeapBytes; // Highest sampled heap usage
+    private int maxThreads; // Highest sampled number of live threads
+
+    /**
+     * Takes one sample. Called once per second by a single thread.
+     */
+    synchronized void sample() {
+        double cpu = Math.max(0, os.getProcessCpuLoad());
+        samples++;
+        totalCpu += cpu;
+        maxCpu = Math.max(maxCpu, cpu);
+        maxHeapBytes = Math.max(maxHeapBytes, memory.getHeapMemoryUsage().getUsed());
+        maxThreads = Math.max(maxThreads, threads.getThreadCount());
+    }
+
+    /**
+     * Formats the samples taken so far.
+     *
+     * @return one line with CPU, heap, threads and garbage collection
+     */
+    synchronized String format() {
+        return String.format("cpu avg %.0f%% max %.0f%% of %d cores, heap max %d MiB, threads max %d, gc %d collections in %d ms",
+                samples == 0 ? 0 : 100 * totalCpu / samples, 100 * maxCpu, os.getAvailableProcessors(),
+                maxHeapBytes / (1024 * 1024), maxThreads, gcCount() - startGcCount, gcMillis() - startGcMillis);
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).filter(n -> n > 0).sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).filter(n -> n > 0).sum();
+    }
+}
@@ -0,0 +1,184 @@
+package com.inFlight.loadtest;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.inFlight.client.socket.BatchRequest;
+import com.inFlight.client.socket.ClientSocketService;
+import com.inFlight.shared.protocol.EventTopic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * SimulatedWindow stands in for one role window of the client. It connects its own ClientSocketService,
+ * does what the window does when it opens and then repeats one user action after another, with a random
+ * think time in between, until the run ends. Every request is timed and recorded in the LoadReport.
+ */
+abstract class SimulatedWindow implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(SimulatedWindow.class);
+
+    protected final ClientSocketService service; // Connection of this window
+    protected final Random random; // Chooses actions and think times, seeded for repeatable runs
+    private final LoadReport report; // Receives the latencies
+    private final long thinkMillis; // Mean pause between two user actions
+    private final BooleanSupplier running; // False once the run ends
+
+    /**
+     * Constructor for the SimulatedWindow class.
+     *
+     * @param service     the connection of this window
+     * @param report      receives the latencies
+     * @param seed        seed of the random choices
+     * @param thinkMillis the mean pause between two user actions
+     * @param running     false once the run ends
+     */
+    protected SimulatedWindow(ClientSocketService service, LoadReport report, long seed, long thinkMillis,
+                              BooleanSupplier running) {
+        this.service = service;
+        this.report = report;
+        this.random = new Random(seed);
+        this.thinkMillis = thinkMillis;
+        this.running = running;
+    }
+
+    @Override
+    public final void run() {
+        if (!service.connect()) {
+            report.windowFailed();
+            return;
+        }
+        try {
+            open();
+            while (running.getAsBoolean()) {
+                // Exponential pauses, capped so a window does not sleep through the whole run
+                Thread.sleep(Math.min((long) (-Math.log(1 - random.nextDouble()) * thinkMillis), 5 * thinkMillis));
+                if (running.getAsBoolean()) {
+                    step();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.warn("{} stopped", getClass().getSimpleName(), e);
+            report.windowFailed();
+        } finally {
+            service.disconnect();
+        }
+    }
+
+    /**
+     * Sends the requests the window sends when it opens.
+     */
+    protected abstract void open();
+
+    /**
+     * Performs one user action, chosen from the mix of the role.
+     */
+    protected abstract void step();
+
+    /**
+     * Sends a request and waits for the response, as the window's blocking calls do.
+     */
+    protected JsonObject request(String action, JsonObject data) {
+        long start = System.nanoTime();
+        JsonObject response = service.send(action, data);
+        report.record(action, System.nanoTime() - start, isError(response));
+        return response;
+    }
+
+    /**
+     * Sends a request without waiting for the response, as the window's asynchronous calls do.
+     */
+    protected void requestAsync(String action, JsonObject data) {
+        long start = System.nanoTime();
+        service.sendAsync(action, data)
+                .thenAccept(response -> report.record(action, System.nanoTime() - start, isError(response)));
+    }
+
+    /**
+     * Sends the requests of a batch as one BATCH request and waits for the responses.
+     */
+    protected List<JsonObject> batch(BatchRequest batch) {
+        long start = System.nanoTime();
+        List<JsonObject> responses = service.sendBatch(batch);
+        report.record("BATCH", System.nanoTime() - start, responses.stream().anyMatch(SimulatedWindow::isError));
+        return responses;
+    }
+
+    /**
+     * Subscribes to a topic. Received events are counted before they are passed to the listener.
+     */
+    protected void subscribe(EventTopic topic, String key, Consumer<JsonObject> listener) {
+        service.subscribe(topic, key, payload -> {
+            report.event(topic);
+            listener.accept(payload);
+        });
+    }
+
+    /**
+     * Returns a random entry of the list, or null if it is empty.
+     */
+    protected <T> T any(List<T> list) {
+        return list.isEmpty() ? null : list.get(random.nextInt(list.size()));
+    }
+
+    /**
+     * Chooses one of several actions.
+     *
+     * @param weights the relative weight of every action
+     * @return the index of the chosen action
+     */
+    protected int choose(int... weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int value = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            value -= weights[i];
+            if (value < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    /**
+     * Builds the data of a request from pairs of names and values.
+     */
+    protected static JsonObject data(Object... namesAndValues) {
+        JsonObject data = new JsonObject();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            String name = (String) namesAndValues[i];
+            Object value = namesAndValues[i + 1];
+            if (value instanceof Number number) {
+                data.addProperty(name, number);
+            } else if (value instanceof Boolean bool) {
+                data.addProperty(name, bool);
+            } else if (value instanceof JsonElement element) {
+                data.add(name, element);
+            } else {
+                data.addProperty(name, (String) value);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Returns an array of a response, empty if the response has none.
+     */
+    protected static JsonArray array(JsonObject response, String name) {
+        JsonElement element = response.get(name);
+        return element != null && element.isJsonArray() ? element.getAsJsonArray() : new JsonArray();
+    }
+
+    private static boolean isError(JsonObject response) {
+        JsonElement status = response.get("status");
+        return status != null && "ERROR".equals(status.getAsString());
+    }
+}
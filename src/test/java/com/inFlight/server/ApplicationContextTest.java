@@ -0,0 +1,27 @@
+package com.inFlight.server;
+
+import com.inFlight.shared.protocol.ActionType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationContextTest {
+
+    @Test
+    void testEveryContextWiresItsOwnGraph() {
+        ApplicationContext context = new ApplicationContext();
+
+        assertNotSame(context.getEventBus(), new ApplicationContext().getEventBus());
+        assertEquals(ActionType.values().length, context.getProtocolHandler().getRegistry().getHandlers().size());
+    }
+
+    @Test
+    void testHandlersPublishOnTheContextBus() {
+        ApplicationContext context = new ApplicationContext();
+        long before = context.getEventBus().getEventLog().getLatestSeq();
+
+        context.getProtocolHandler().handle("{\"action\":\"TRIGGER_SURVEY\",\"data\":{}}");
+
+        assertEquals(before + 1, context.getEventBus().getEventLog().getLatestSeq());
+    }
+}
@@ -0,0 +1,151 @@
+package com.inFlight.server;
+
+import com.inFlight.server.db.SQLiteConnector;
+import com.inFlight.server.db.StorageProfile;
+import com.inFlight.server.push.EventBus;
+import com.inFlight.server.socket.NioServer;
+import com.inFlight.server.socket.ProtocolHandler;
+import com.inFlight.server.socket.SocketServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test that connects an increasing number of clients that all stay connected at the same time
+ * and reports how many of them each ServerMode serves.
+ * Every request is a real DAO read on a copy of inFlightDB.db, so the clients compete for the connection pool
+ * of SQLiteConnector like they do on a running server.
+ * The client counts can be raised with -Dinflight.loadtest.clients=500,1000,2000
+ */
+class ServerLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(ServerLoadTest.class);
+
+    private static final int[] CLIENT_COUNTS = Arrays.stream(
+                    System.getProperty("inflight.loadtest.clients", "50,100,200").split(","))
+            .mapToInt(s -> Integer.parseInt(s.trim()))
+            .toArray();
+    private static final Path SOURCE_DB = Path.of("src/main/resources/inFlightDB.db"); // Database that is copied
+    private static final String REQUEST = "{\"action\":\"GET_PASSENGER_BY_ID\",\"data\":{\"passengerId\":1}}"; // Read through PassengerDAO
+
+    private static String originalDbPath; // Database of the connector before the test
+    private static Path dir; // Directory of the copied database
+
+    @BeforeAll
+    static void copyDatabase() throws IOException {
+        originalDbPath = SQLiteConnector.getDbPath();
+        dir = Files.createTempDirectory("inflight-loadtest");
+        Path db = dir.resolve("inFlightDB.db");
+        Files.copy(SOURCE_DB, db, StandardCopyOption.REPLACE_EXISTING);
+        SQLiteConnector.configure(db.toString(), StorageProfile.fromSystemProperties());
+    }
+
+    @AfterAll
+    static void deleteDatabase() throws IOException {
+        SQLiteConnector.configure(originalDbPath, StorageProfile.fromSystemProperties());
+        for (String file : new String[]{"inFlightDB.db", "inFlightDB.db-wal", "inFlightDB.db-shm", "inFlightDB.db-journal"}) {
+            Files.deleteIfExists(dir.resolve(file));
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    @Test
+    void testBlockingMode() throws Exception {
+        runLoad(ServerMode.BLOCKING, new SocketServer(0,
+                Executors.newThreadPerTaskExecutor(Thread.ofPlatform().factory()), new ProtocolHandler(), EventBus.getInstance()));
+    }
+
+    @Test
+    void testVirtualMode() throws Exception {
+        runLoad(ServerMode.VIRTUAL, new SocketServer(0, Executors.newVirtualThreadPerTaskExecutor(), new ProtocolHandler(), EventBus.getInstance()));
+    }
+
+    @Test
+    void testNioMode() throws Exception {
+        runLoad(ServerMode.NIO, new NioServer(0, new ProtocolHandler()));
+    }
+
+    private void runLoad(ServerMode mode, Runnable server) throws Exception {
+        Thread serverThread = new Thread(server, "load-test-server");
+        serverThread.start();
+        int port = server instanceof NioServer nio ? nio.awaitPort() : ((SocketServer) server).awaitPort();
+
+        try {
+            List<String> results = new ArrayList<>();
+            for (int clients : CLIENT_COUNTS) {
+                long start = System.nanoTime();
+                int served = connectConcurrentClients(port, clients);
+                long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                results.add(served + "/" + clients + " in " + millis + " ms");
+                assertEquals(clients, served, mode + " mode dropped clients");
+            }
+            logger.info("{} mode sustained: {}, pool {}", mode, results, SQLiteConnector.getPoolMetrics());
+        } finally {
+            ((Closeable) server).close();
+            serverThread.join(5000);
+        }
+    }
+
+    /**
+     * Opens the given number of connections, waits until all are connected and answered once,
+     * then sends a second request on each while all of them are still open.
+     *
+     * @return the number of clients that got both responses
+     */
+    private int connectConcurrentClients(int port, int clients) throws InterruptedException {
+        AtomicInteger served = new AtomicInteger();
+        CountDownLatch allConnected = new CountDownLatch(clients);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                executor.execute(() -> {
+                    boolean counted = false;
+                    try (Socket socket = new Socket("localhost", port)) {
+                        socket.setSoTimeout(10_000);
+                        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+                        BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+
+                        boolean first = request(writer, reader);
+                        allConnected.countDown();
+                        counted = true;
+                        allConnected.await(30, TimeUnit.SECONDS);
+
+                        if (first && request(writer, reader)) {
+                            served.incrementAndGet();
+                        }
+                    } catch (IOException | InterruptedException e) {
+                        logger.debug("Load test client failed", e);
+                    } finally {
+                        if (!counted) {
+                            allConnected.countDown();
+                        }
+                    }
+                });
+            }
+        }
+        return served.get();
+    }
+
+    private boolean request(BufferedWriter writer, BufferedReader reader) throws IOException {
+        writer.write(REQUEST);
+        writer.newLine();
+        writer.flush();
+        String response = reader.readLine();
+        return response != null && response.contains("\"status\":\"OK\"");
+    }
+}
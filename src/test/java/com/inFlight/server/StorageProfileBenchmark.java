@@ -0,0 +1,148 @@
+package com.inFlight.server;
+
+import com.inFlight.server.db.SQLiteConnector;
+import com.inFlight.server.db.StorageProfile;
+import com.inFlight.server.socket.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Benchmark that compares the legacy rollback-journal settings with the tuned WAL StorageProfile.
+ * Reader threads send GET_AVAILABLE_SLOTS and writer threads send BOOK_SLOT through the ProtocolHandler
+ * against a copy of inFlightDB.db, and the throughput of both is reported per profile.
+ * Run it with: java -cp target/classes:target/test-classes:&lt;dependencies&gt; com.inFlight.server.StorageProfileBenchmark
+ * Optional arguments: readers writers seconds
+ */
+public class StorageProfileBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(StorageProfileBenchmark.class);
+
+    private static final Path SOURCE_DB = Path.of("src/main/resources/inFlightDB.db"); // Database that is copied
+    private static final int EXTRA_SLOTS = 2_000; // Slots added so the writers do not run out
+    private static final int RICH_CREDITS = 2_000_000_000; // Enough credits for every booking in a run
+
+    public static void main(String[] args) throws Exception {
+        int readers = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int writers = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        List<String> results = new ArrayList<>();
+        results.add(run("legacy", StorageProfile.legacy(), readers, writers, seconds));
+        results.add(run("tuned", StorageProfile.tuned(), readers, writers, seconds));
+        results.forEach(logger::info);
+    }
+
+    private static String run(String name, StorageProfile profile, int readers, int writers, int seconds) throws Exception {
+        Path dir = Files.createTempDirectory("inflight-bench");
+        Path db = dir.resolve("inFlightDB.db");
+        Files.copy(SOURCE_DB, db, StandardCopyOption.REPLACE_EXISTING);
+        SQLiteConnector.configure(db.toString(), profile);
+
+        try {
+            int passengerId = seed();
+            ProtocolHandler handler = new ProtocolHandler();
+            AtomicInteger nextSlot = new AtomicInteger(firstSeededSlot());
+            AtomicBoolean running = new AtomicBoolean(true);
+            LongAdder reads = new LongAdder();
+            LongAdder writes = new LongAdder();
+            LongAdder failures = new LongAdder();
+            CountDownLatch start = new CountDownLatch(1);
+
+            ExecutorService executor = Executors.newFixedThreadPool(readers + writers);
+            for (int i = 0; i < readers; i++) {
+                executor.execute(() -> loop(start, running, () -> {
+                    String response = handler.handle("{\"action\":\"GET_AVAILABLE_SLOTS\",\"data\":{}}");
+                    (response.contains("\"OK\"") ? reads : failures).increment();
+                }));
+            }
+            for (int i = 0; i < writers; i++) {
+                executor.execute(() -> loop(start, running, () -> {
+                    String response = handler.handle("{\"action\":\"BOOK_SLOT\",\"data\":{\"passengerId\":" + passengerId
+                            + ",\"slotId\":" + nextSlot.getAndIncrement() + ",\"tier\":1}}");
+                    (response.contains("\"OK\"") ? writes : failures).increment();
+                }));
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+            running.set(false);
+            executor.shutdown();
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+            double elapsed = (System.nanoTime() - begin) / 1e9;
+
+            return String.format("%-6s %s%n       reads %.0f/s, writes %.0f/s, failures %d, pool %s",
+                    name, profile, reads.sum() / elapsed, writes.sum() / elapsed, failures.sum(),
+                    SQLiteConnector.getPoolMetrics());
+        } finally {
+            SQLiteConnector.shutdown();
+            for (String file : new String[]{"inFlightDB.db", "inFlightDB.db-wal", "inFlightDB.db-shm", "inFlightDB.db-journal"}) {
+                Files.deleteIfExists(dir.resolve(file));
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static void loop(CountDownLatch start, AtomicBoolean running, Runnable request) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        while (running.get()) {
+            request.run();
+        }
+    }
+
+    /**
+     * Adds bookable slots and a passenger who can afford all of them.
+     *
+     * @return the ID of the seeded passenger
+     */
+    private static int seed() throws SQLException {
+        try (Connection conn = SQLiteConnector.getConnection();
+             PreparedStatement slot = conn.prepareStatement("INSERT INTO spacewalk_slots (slot_time, available) VALUES (?, 1)");
+             Statement stmt = conn.createStatement()) {
+            conn.setAutoCommit(false);
+            for (int i = 0; i < EXTRA_SLOTS; i++) {
+                slot.setString(1, String.format("%02d:%02d", (i / 60) % 24, i % 60));
+                slot.addBatch();
+            }
+            slot.executeBatch();
+            stmt.executeUpdate("INSERT INTO passengers (username, password, novaCredits, checked_out) VALUES ('bench', 'bench', "
+                    + RICH_CREDITS + ", 0)");
+            conn.commit();
+            try (ResultSet rs = stmt.executeQuery("SELECT passenger_id FROM passengers WHERE username = 'bench'")) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private static int firstSeededSlot() throws SQLException {
+        try (Connection conn = SQLiteConnector.getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(slot_id) FROM spacewalk_slots")) {
+            rs.next();
+            return rs.getInt(1) - EXTRA_SLOTS + 1;
+        }
+    }
+}
@@ -2,12 +2,17 @@ package com.inFlight.server.dao;
 
 import com.inFlight.server.db.SQLiteConnector;
 import com.inFlight.shared.model.Booking;
+import com.inFlight.shared.model.DetailedBooking;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 
+import java.io.IOException;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -49,7 +54,7 @@ class BookingDAOTest {
     @Test
     void testGetBookingById() throws Exception {
         try (MockedStatic<SQLiteConnector> mockConnector = mockStatic(SQLiteConnector.class)) {
-            mockConnector.when(SQLiteConnector::getConnection).thenReturn(mockConn);
+            mockConnector.when(SQLiteConnector::getReadConnection).thenReturn(mockConn);
             when(mockConn.prepareStatement(anyString())).thenReturn(mockStmt);
             when(mockStmt.executeQuery()).thenReturn(mockRs);
             when(mockRs.next()).thenReturn(true);
@@ -70,7 +75,7 @@ class BookingDAOTest {
     @Test
     void testGetBookingsByPassenger() throws Exception {
         try (MockedStatic<SQLiteConnector> mockConnector = mockStatic(SQLiteConnector.class)) {
-            mockConnector.when(SQLiteConnector::getConnection).thenReturn(mockConn);
+            mockConnector.when(SQLiteConnector::getReadConnection).thenReturn(mockConn);
             when(mockConn.prepareStatement(anyString())).thenReturn(mockStmt);
             when(mockStmt.executeQuery()).thenReturn(mockRs);
 
@@ -107,7 +112,7 @@ class BookingDAOTest {
         Statement stmt = mock(Statement.class);
 
         try (MockedStatic<SQLiteConnector> mockConnector = mockStatic(SQLiteConnector.class)) {
-            mockConnector.when(SQLiteConnector::getConnection).thenReturn(mockConn);
+            mockConnector.when(SQLiteConnector::getReadConnection).thenReturn(mockConn);
             when(mockConn.createStatement()).thenReturn(stmt);
             when(stmt.executeQuery(anyString())).thenReturn(mockRs);
 
@@ -140,7 +145,7 @@ class BookingDAOTest {
     @Test
     void testGetBookingsByStatus() throws Exception {
         try (MockedStatic<SQLiteConnector> mockConnector = mockStatic(SQLiteConnector.class)) {
-            mockConnector.when(SQLiteConnector::getConnection).thenReturn(mockConn);
+            mockConnector.when(SQLiteConnector::getReadConnection).thenReturn(mockConn);
             when(mockConn.prepareStatement(anyString())).thenReturn(mockStmt);
             when(mockStmt.executeQuery()).thenReturn(mockRs);
 
@@ -171,4 +176,230 @@ class BookingDAOTest {
             verify(mockStmt).executeUpdate();
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void testInsertBookingInTransaction() throws Exception {
+        Booking booking = new Booking(1, 2, 3, 1, "pending");
+        when(mockConn.prepareStatement(anyString())).thenReturn(mockStmt);
+
+        dao.insertBooking(mockConn, booking);
+
+        verify(mockStmt).setInt(1, booking.getPassengerId());
+        verify(mockStmt).setInt(2, booking.getSlotId());
+        verify(mockStmt).setInt(3, booking.getTier());
+        verify(mockStmt).setString(4, booking.getStatus());
+        verify(mockStmt).executeUpdate();
+        verify(mockStmt).close();
+        verify(mockConn, never()).close(); // the transaction owns the connection
+    }
+
+    @Test
+    void testDeleteBookingInTransaction() throws Exception {
+        when(mockConn.prepareStatement(anyString())).thenReturn(mockStmt);
+        when(mockStmt.executeQuery()).thenReturn(mockRs);
+        when(mockRs.next()).thenReturn(true);
+        when(mockRs.getInt("booking_id")).thenReturn(42);
+        when(mockRs.getInt("tier")).thenReturn(2);
+
+        Booking deleted = dao.deleteBooking(mockConn, 42);
+
+        assertEquals(42, deleted.getBookingId());
+        assertEquals(2, deleted.getTier());
+        verify(mockStmt).setInt(1, 42);
+        verify(mockConn, never()).close();
+    }
+
+    @Test
+    void testDeleteBookingInTransactionKeepsDeniedBooking() throws Exception {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE bookings (booking_id INTEGER PRIMARY KEY, passenger_id INTEGER, slot_id INTEGER, tier INTEGER, status TEXT)");
+            stmt.executeUpdate("INSERT INTO bookings VALUES (1, 7, 3, 2, 'denied'), (2, 7, 4, 2, 'pending')");
+
+            assertNull(dao.deleteBooking(conn, 1));
+            assertEquals(2, dao.deleteBooking(conn, 2).getBookingId());
+            try (ResultSet rs = stmt.executeQuery("SELECT booking_id FROM bookings")) {
+                assertTrue(rs.next());
+                assertEquals(1, rs.getInt(1));
+                assertFalse(rs.next());
+            }
+        }
+    }
+
+    @Test
+    void testUpdateBookingStatusInTransactionSkipsSameStatus() throws Exception {
+        when(mockConn.prepareStatement(anyString())).thenReturn(mockStmt);
+        when(mockStmt.executeQuery()).thenReturn(mockRs);
+        when(mockRs.next()).thenReturn(false);
+
+        assertNull(dao.updateBookingStatus(mockConn, 1, "denied"));
+
+        verify(mockConn).prepareStatement(contains("status <> ?"));
+        verify(mockStmt).setString(1, "denied");
+        verify(mockStmt).setInt(2, 1);
+        verify(mockStmt).setString(3, "denied");
+    }
+
+    @Test
+    void testForEachBookingByPassenger() throws Exception {
+        try (MockedStatic<SQLiteConnector> mockConnector = mockStatic(SQLiteConnector.class)) {
+            mockConnector.when(SQLiteConnector::getReadConnection).thenReturn(mockConn);
+            when(mockConn.prepareStatement(anyString())).thenReturn(mockStmt);
+            when(mockStmt.executeQuery()).thenReturn(mockRs);
+
+            when(mockRs.next()).thenReturn(true, true, false);
+            when(mockRs.getInt("booking_id")).thenReturn(1, 2);
+            when(mockRs.getInt("passenger_id")).thenReturn(2);
+
+            List<Booking> streamed = new ArrayList<>();
+            dao.forEachBookingByPassenger(2, streamed::add);
+
+            assertEquals(2, streamed.size());
+            assertEquals(2, streamed.get(1).getBookingId());
+            verify(mockStmt).setInt(1, 2);
+        }
+    }
+
+    @Test
+    void testForEachDetailedBookingByPassengerJoinsSlotAndPassenger() throws Exception {
+        try (MockedStatic<SQLiteConnector> mockConnector = mockStatic(SQLiteConnector.class)) {
+            mockConnector.when(SQLiteConnector::getReadConnection).thenReturn(mockConn);
+            when(mockConn.prepareStatement(contains("JOIN spacewalk_slots"))).thenReturn(mockStmt);
+            when(mockStmt.executeQuery()).thenReturn(mockRs);
+
+            when(mockRs.next()).thenReturn(true, false);
+            when(mockRs.getInt("booking_id")).thenReturn(7);
+            when(mockRs.getInt("passenger_id")).thenReturn(2);
+            when(mockRs.getString("slot_time")).thenReturn("2025-06-01T10:00");
+            when(mockRs.getString("username")).thenReturn("bob");
+
+            List<DetailedBooking> streamed = new ArrayList<>();
+            dao.forEachDetailedBookingByPassenger(2, streamed::add);
+
+            assertEquals(1, streamed.size());
+            assertEquals(7, streamed.get(0).getBookingId());
+            assertEquals("2025-06-01T10:00", streamed.get(0).getSlotTime());
+            assertEquals("bob", streamed.get(0).getPassengerUsername());
+            verify(mockStmt).setInt(1, 2);
+        }
+    }
+
+    @Test
+    void testForEachBookingWithFilterAndPage() throws Exception {
+        try (MockedStatic<SQLiteConnector> mockConnector = mockStatic(SQLiteConnector.class)) {
+            mockConnector.when(SQLiteConnector::getReadConnection).thenReturn(mockConn);
+            String expectedSql = "SELECT * FROM bookings WHERE status = ? AND tier = ? AND booking_id > ? ORDER BY booking_id LIMIT 25";
+            when(mockConn.prepareStatement(expectedSql)).thenReturn(mockStmt);
+            when(mockStmt.executeQuery()).thenReturn(mockRs);
+            when(mockRs.next()).thenReturn(true, false);
+            when(mockRs.getInt("booking_id")).thenReturn(41);
+
+            List<Booking> streamed = new ArrayList<>();
+            dao.forEachBooking(new BookingFilter("approved", null, 3), new PageRequest(40, 25), streamed::add);
+
+            assertEquals(41, streamed.get(0).getBookingId());
+            verify(mockStmt).setString(1, "approved");
+            verify(mockStmt).setInt(2, 3);
+            verify(mockStmt).setInt(3, 40);
+        }
+    }
+
+    @Test
+    void testCountBookingsReadsOnlyTheCount() throws Exception {
+        try (MockedStatic<SQLiteConnector> mockConnector = mockStatic(SQLiteConnector.class)) {
+            mockConnector.when(SQLiteConnector::getReadConnection).thenReturn(mockConn);
+            when(mockConn.prepareStatement("SELECT COUNT(*) FROM bookings WHERE status = ?")).thenReturn(mockStmt);
+            when(mockStmt.executeQuery()).thenReturn(mockRs);
+            when(mockRs.next()).thenReturn(true);
+            when(mockRs.getInt(1)).thenReturn(3);
+
+            assertEquals(3, dao.countBookings(new BookingFilter("pending", null, null)));
+            verify(mockStmt).setString(1, "pending");
+        }
+    }
+
+    @Test
+    void testPageLimitIsCapped() {
+        assertEquals(PageRequest.MAX_LIMIT, new PageRequest(0, 1_000_000).limit());
+        assertFalse(PageRequest.ALL.isLimited());
+        assertThrows(IllegalArgumentException.class, () -> new PageRequest(-1, 10));
+    }
+
+    @Test
+    void testForEachBookingFailsWhenQueryBreaksOff() throws Exception {
+        try (MockedStatic<SQLiteConnector> mockConnector = mockStatic(SQLiteConnector.class)) {
+            mockConnector.when(SQLiteConnector::getReadConnection).thenReturn(mockConn);
+            when(mockConn.prepareStatement(anyString())).thenReturn(mockStmt);
+            when(mockStmt.executeQuery()).thenReturn(mockRs);
+            when(mockRs.next()).thenReturn(true).thenThrow(new SQLException("database disk image is malformed"));
+
+            List<Booking> streamed = new ArrayList<>();
+            assertThrows(IOException.class, () -> dao.forEachBooking(streamed::add));
+            // Rows are only passed on once their whole chunk was read
+            assertTrue(streamed.isEmpty());
+        }
+    }
+
+    @Test
+    void testForEachBookingReturnsConnectionBeforeCallback() throws Exception {
+        try (MockedStatic<SQLiteConnector> mockConnector = mockStatic(SQLiteConnector.class)) {
+            mockConnector.when(SQLiteConnector::getReadConnection).thenReturn(mockConn);
+            when(mockConn.prepareStatement(anyString())).thenReturn(mockStmt);
+            when(mockStmt.executeQuery()).thenReturn(mockRs);
+            when(mockRs.next()).thenReturn(true, true, false);
+            AtomicBoolean closed = new AtomicBoolean();
+            doAnswer(invocation -> {
+                closed.set(true);
+                return null;
+            }).when(mockConn).close();
+
+            List<Booking> streamed = new ArrayList<>();
+            dao.forEachBooking(booking -> {
+                assertTrue(closed.get(), "connection still borrowed while writing rows");
+                streamed.add(booking);
+            });
+
+            assertEquals(2, streamed.size());
+        }
+    }
+
+    @Test
+    void testForEachBookingReadsInChunksAfterTheLastId() throws Exception {
+        try (MockedStatic<SQLiteConnector> mockConnector = mockStatic(SQLiteConnector.class)) {
+            String firstSql = "SELECT * FROM bookings ORDER BY booking_id LIMIT " + ChunkedQuery.CHUNK_SIZE;
+            String nextSql = "SELECT * FROM bookings WHERE booking_id > ? ORDER BY booking_id LIMIT " + ChunkedQuery.CHUNK_SIZE;
+            when(mockConn.prepareStatement(anyString())).thenReturn(mockStmt);
+            when(mockStmt.executeQuery()).thenReturn(mockRs);
+            // A full first chunk, then a second chunk with one more row
+            Boolean[] next = new Boolean[ChunkedQuery.CHUNK_SIZE + 2];
+            Arrays.fill(next, true);
+            next[ChunkedQuery.CHUNK_SIZE - 1] = false;
+            next[ChunkedQuery.CHUNK_SIZE + 1] = false;
+            when(mockRs.next()).thenReturn(true, next);
+            int[] ids = {0};
+            when(mockRs.getInt("booking_id")).thenAnswer(invocation -> ++ids[0]);
+            AtomicBoolean borrowed = new AtomicBoolean();
+            mockConnector.when(SQLiteConnector::getReadConnection).thenAnswer(invocation -> {
+                borrowed.set(true);
+                return mockConn;
+            });
+            doAnswer(invocation -> {
+                borrowed.set(false);
+                return null;
+            }).when(mockConn).close();
+
+            List<Booking> streamed = new ArrayList<>();
+            dao.forEachBooking(booking -> {
+                assertFalse(borrowed.get(), "connection still borrowed while writing rows");
+                streamed.add(booking);
+            });
+
+            assertEquals(ChunkedQuery.CHUNK_SIZE + 1, streamed.size());
+            assertEquals(ChunkedQuery.CHUNK_SIZE + 1, streamed.get(ChunkedQuery.CHUNK_SIZE).getBookingId());
+            verify(mockConn).prepareStatement(firstSql);
+            verify(mockConn).prepareStatement(nextSql);
+            verify(mockStmt).setInt(1, ChunkedQuery.CHUNK_SIZE);
+            verify(mockConn, times(2)).close();
+        }
+    }
+}
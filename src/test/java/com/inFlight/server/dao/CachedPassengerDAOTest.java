@@ -0,0 +1,120 @@
+package com.inFlight.server.dao;
+
+import com.inFlight.server.db.TransactionManager;
+import com.inFlight.shared.model.Passenger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachedPassengerDAOTest {
+
+    private PassengerDAO delegate;
+    private CachedPassengerDAO dao;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(PassengerDAO.class);
+        dao = new CachedPassengerDAO(delegate, 2);
+        when(delegate.getPassengerById(1)).thenAnswer(invocation -> new Passenger(1, "alice", "pw", 100, false));
+        when(delegate.getPassengerById(2)).thenAnswer(invocation -> new Passenger(2, "bob", "pw", 200, false));
+        when(delegate.getPassengerById(3)).thenAnswer(invocation -> new Passenger(3, "carol", "pw", 300, false));
+    }
+
+    @Test
+    void testRepeatedReadsHitTheCache() {
+        dao.getPassengerById(1);
+        Passenger second = dao.getPassengerById(1);
+        Passenger byName = dao.getPassengerByUsername("alice");
+
+        assertEquals("alice", second.getUsername());
+        assertEquals(1, byName.getPassengerId());
+        verify(delegate, times(1)).getPassengerById(1);
+        verify(delegate, never()).getPassengerByUsername(anyString());
+        CacheStats stats = dao.getStats();
+        assertEquals(2, stats.hits());
+        assertEquals(1, stats.misses());
+    }
+
+    @Test
+    void testCallersCannotChangeCachedPassenger() {
+        dao.getPassengerById(1).setNovaCredits(0);
+
+        assertEquals(100, dao.getPassengerById(1).getNovaCredits());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        dao.getPassengerById(1);
+        dao.getPassengerById(2);
+        dao.getPassengerById(1);
+        dao.getPassengerById(3);
+
+        dao.getPassengerById(1);
+        dao.getPassengerByUsername("bob");
+
+        verify(delegate, times(1)).getPassengerById(1);
+        verify(delegate).getPassengerByUsername("bob");
+        assertEquals(1, dao.getStats().evictions());
+        assertEquals(2, dao.getStats().size());
+    }
+
+    @Test
+    void testUpdatesInvalidate() {
+        dao.getPassengerById(1);
+        dao.setCheckedOut(1, true);
+        dao.getPassengerById(1);
+        dao.updateNovaCredits(1, 50);
+        dao.getPassengerById(1);
+
+        verify(delegate).setCheckedOut(1, true);
+        verify(delegate).updateNovaCredits(1, 50);
+        verify(delegate, times(3)).getPassengerById(1);
+    }
+
+    @Test
+    void testTransactionalUpdateInvalidatesOnlyAfterCommit() throws Exception {
+        Connection conn = mock(Connection.class);
+        when(delegate.deductNovaCredits(conn, 1, 10)).thenReturn(90);
+        dao.getPassengerById(1);
+
+        Runnable[] commit = new Runnable[1];
+        try (var manager = mockStatic(TransactionManager.class)) {
+            manager.when(() -> TransactionManager.afterCommit(any())).thenAnswer(invocation -> {
+                commit[0] = invocation.getArgument(0);
+                return null;
+            });
+            dao.deductNovaCredits(conn, 1, 10);
+        }
+        dao.getPassengerById(1);
+        verify(delegate, times(1)).getPassengerById(1);
+
+        commit[0].run();
+        dao.getPassengerById(1);
+        verify(delegate, times(2)).getPassengerById(1);
+    }
+
+    @Test
+    void testReadRacingAnUpdateIsNotCached() {
+        when(delegate.getPassengerById(1)).thenAnswer(invocation -> {
+            // The row changes while the query runs
+            dao.invalidate(1);
+            return new Passenger(1, "alice", "pw", 100, false);
+        });
+
+        dao.getPassengerById(1);
+
+        assertEquals(0, dao.getStats().size());
+    }
+
+    @Test
+    void testMissingPassengerIsNotCached() {
+        assertNull(dao.getPassengerById(99));
+        assertNull(dao.getPassengerById(99));
+
+        verify(delegate, times(2)).getPassengerById(99);
+    }
+}
@@ -27,6 +27,7 @@ class ChatMessageDAOTest {
 
         mockConnector = mockStatic(SQLiteConnector.class);
         mockConnector.when(SQLiteConnector::getConnection).thenReturn(mockConn);
+        mockConnector.when(SQLiteConnector::getReadConnection).thenReturn(mockConn);
     }
 
     @AfterEach
@@ -38,13 +39,18 @@ class ChatMessageDAOTest {
     void testSaveMessageSuccess() throws Exception {
         ChatMessage message = new ChatMessage("Alice", "Bob", "Hello Bob!");
         when(mockConn.prepareStatement(anyString())).thenReturn(mockStmt);
+        when(mockStmt.executeQuery()).thenReturn(mockRs);
+        when(mockRs.next()).thenReturn(true);
+        when(mockRs.getInt("id")).thenReturn(42);
+        when(mockRs.getString("timestamp")).thenReturn("2025-06-01 10:15:00");
 
-        dao.saveMessage(message);
+        assertTrue(dao.saveMessage(message));
 
         verify(mockStmt).setString(1, "Alice");
         verify(mockStmt).setString(2, "Bob");
         verify(mockStmt).setString(3, "Hello Bob!");
-        verify(mockStmt).executeUpdate();
+        assertEquals(42, message.getId());
+        assertEquals("2025-06-01 10:15:00", message.getTimestamp());
     }
 
     @Test
@@ -65,4 +71,25 @@ class ChatMessageDAOTest {
         assertEquals("Bob", result.get(1).getSender());
         assertEquals("Hi Alice", result.get(1).getContent());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testForEachChatMessageSinceReadsAfterId() throws Exception {
+        when(mockConn.prepareStatement(contains("id > ?"))).thenReturn(mockStmt);
+        when(mockStmt.executeQuery()).thenReturn(mockRs);
+        when(mockRs.next()).thenReturn(true, false);
+        when(mockRs.getInt("id")).thenReturn(8);
+        when(mockRs.getString("sender")).thenReturn("Bob");
+        when(mockRs.getString("receiver")).thenReturn("Alice");
+        when(mockRs.getString("content")).thenReturn("Hi Alice");
+        when(mockRs.getString("timestamp")).thenReturn("2025-06-01 10:16:00");
+        List<ChatMessage> result = new java.util.ArrayList<>();
+
+        dao.forEachChatMessageSince("Alice", "Bob", 7, 10_000, result::add);
+
+        verify(mockStmt).setInt(1, 7);
+        verify(mockStmt).setInt(6, ChatMessageDAO.MAX_PAGE_SIZE);
+        assertEquals(1, result.size());
+        assertEquals(8, result.get(0).getId());
+        assertEquals("2025-06-01 10:16:00", result.get(0).getTimestamp());
+    }
+}
@@ -0,0 +1,133 @@
+package com.inFlight.server.dao;
+
+import com.inFlight.server.db.SQLiteConnector;
+import com.inFlight.server.db.TransactionManager;
+import com.inFlight.shared.model.SpacewalkSlot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IndexedSpacewalkSlotDAOTest {
+
+    private SpacewalkSlotDAO delegate;
+    private IndexedSpacewalkSlotDAO dao;
+    private Connection conn;
+    private MockedStatic<SQLiteConnector> mockConnector;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        delegate = mock(SpacewalkSlotDAO.class);
+        conn = mock(Connection.class);
+        mockConnector = mockStatic(SQLiteConnector.class);
+        mockConnector.when(SQLiteConnector::getConnection).thenReturn(conn);
+        doAnswer(invocation -> {
+            RowCallback<SpacewalkSlot> callback = invocation.getArgument(0);
+            callback.accept(new SpacewalkSlot(1, "10:00", true));
+            callback.accept(new SpacewalkSlot(2, "11:00", false));
+            return null;
+        }).when(delegate).forEachSlot(any());
+        dao = new IndexedSpacewalkSlotDAO(delegate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockConnector.close();
+    }
+
+    @Test
+    void testReadsDoNotQueryAfterLoad() throws Exception {
+        assertTrue(dao.isSlotAvailable(1));
+        assertFalse(dao.isSlotAvailable(2));
+        assertEquals("11:00", dao.getSlotById(2).getSlotTime());
+        assertEquals(2, dao.getAllSlots().size());
+
+        verify(delegate, times(1)).forEachSlot(any());
+        verify(delegate, never()).isSlotAvailable(anyInt());
+        verify(delegate, never()).getSlotById(anyInt());
+    }
+
+    @Test
+    void testTakenSlotIsRejectedWithoutQuery() throws SQLException {
+        assertFalse(dao.claimSlot(conn, 2));
+
+        verify(delegate, never()).claimSlot(any(), anyInt());
+    }
+
+    @Test
+    void testClaimIsReleasedOnRollback() throws SQLException {
+        when(delegate.claimSlot(conn, 1)).thenReturn(true);
+        TransactionManager transactionManager = new TransactionManager();
+
+        transactionManager.inTransaction(c -> {
+            assertTrue(dao.claimSlot(c, 1));
+            assertFalse(dao.isSlotAvailable(1));
+            transactionManager.setRollbackOnly();
+            return null;
+        });
+
+        assertTrue(dao.isSlotAvailable(1));
+        verify(conn).rollback();
+    }
+
+    @Test
+    void testClaimStaysTakenAfterCommit() throws SQLException {
+        when(delegate.claimSlot(conn, 1)).thenReturn(true);
+
+        new TransactionManager().inTransaction(c -> dao.claimSlot(c, 1));
+
+        assertFalse(dao.isSlotAvailable(1));
+        assertFalse(dao.claimSlot(conn, 1));
+        verify(delegate, times(1)).claimSlot(conn, 1);
+    }
+
+    @Test
+    void testFailedClaimReleasesReservation() throws SQLException {
+        when(delegate.claimSlot(conn, 1)).thenThrow(new SQLException("database is locked"));
+
+        assertThrows(SQLException.class, () -> dao.claimSlot(conn, 1));
+
+        assertTrue(dao.isSlotAvailable(1));
+    }
+
+    @Test
+    void testTransactionalAvailabilityAppliesOnCommit() throws SQLException {
+        when(delegate.setAvailability(conn, 2, true)).thenReturn(true);
+
+        new TransactionManager().inTransaction(c -> {
+            dao.setAvailability(c, 2, true);
+            assertFalse(dao.isSlotAvailable(2));
+            return null;
+        });
+
+        assertTrue(dao.isSlotAvailable(2));
+    }
+
+    @Test
+    void testFallsBackToDatabaseIfIndexCannotLoad() throws Exception {
+        doThrow(new IOException("disk I/O error")).when(delegate).forEachSlot(any());
+        when(delegate.isSlotAvailable(1)).thenReturn(true);
+        IndexedSpacewalkSlotDAO unloaded = new IndexedSpacewalkSlotDAO(delegate);
+
+        assertTrue(unloaded.isSlotAvailable(1));
+        assertNull(unloaded.getIndex());
+        verify(delegate).isSlotAvailable(1);
+    }
+
+    @Test
+    void testRangeQueryUsesIndex() throws Exception {
+        List<Integer> ids = new java.util.ArrayList<>();
+        dao.forEachAvailableSlot("09:00", "10:30", slot -> ids.add(slot.getSlotId()));
+
+        assertEquals(List.of(1), ids);
+        verify(delegate, never()).forEachAvailableSlot(any(), any(), any());
+    }
+}
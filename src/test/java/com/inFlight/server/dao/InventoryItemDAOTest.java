@@ -50,7 +50,7 @@ class InventoryItemDAOTest {
     @Test
     void testGetItemsByRole() throws Exception {
         try (MockedStatic<SQLiteConnector> mockedStatic = mockStatic(SQLiteConnector.class)) {
-            mockedStatic.when(SQLiteConnector::getConnection).thenReturn(mockConnection);
+            mockedStatic.when(SQLiteConnector::getReadConnection).thenReturn(mockConnection);
             when(mockConnection.prepareStatement(anyString())).thenReturn(mockStmt);
             when(mockStmt.executeQuery()).thenReturn(mockResultSet);
 
@@ -28,6 +28,7 @@ class PassengerDAOTest {
 
         mockConnector = mockStatic(SQLiteConnector.class);
         mockConnector.when(SQLiteConnector::getConnection).thenReturn(mockConn);
+        mockConnector.when(SQLiteConnector::getReadConnection).thenReturn(mockConn);
     }
 
     @AfterEach
@@ -166,4 +167,48 @@ class PassengerDAOTest {
         // Verify that executeUpdate was called
         verify(mockStmt).executeUpdate();
     }
-}
\ No newline at end of file
+
+    @Test
+    void testDeductNovaCredits() throws Exception {
+        when(mockConn.prepareStatement(anyString())).thenReturn(mockStmt);
+        when(mockStmt.executeQuery()).thenReturn(mockRs);
+        when(mockRs.next()).thenReturn(true);
+        when(mockRs.getInt("novaCredits")).thenReturn(150000);
+
+        Integer balance = dao.deductNovaCredits(mockConn, 1, 100000);
+
+        assertEquals(150000, balance);
+        verify(mockConn).prepareStatement(contains("novaCredits >= ?"));
+        verify(mockStmt).setInt(1, 100000);
+        verify(mockStmt).setInt(2, 1);
+        verify(mockStmt).setInt(3, 100000);
+        verify(mockConn, never()).close();
+    }
+
+    @Test
+    void testDeductNovaCreditsInsufficientBalance() throws Exception {
+        when(mockConn.prepareStatement(anyString())).thenReturn(mockStmt);
+        when(mockStmt.executeQuery()).thenReturn(mockRs);
+        when(mockRs.next()).thenReturn(false);
+
+        assertNull(dao.deductNovaCredits(mockConn, 1, 100000));
+    }
+
+    @Test
+    void testAddNovaCredits() throws Exception {
+        when(mockConn.prepareStatement(anyString())).thenReturn(mockStmt);
+        when(mockStmt.executeQuery()).thenReturn(mockRs);
+        when(mockRs.next()).thenReturn(true);
+        when(mockRs.getInt("passenger_id")).thenReturn(1);
+        when(mockRs.getString("username")).thenReturn("john_doe");
+        when(mockRs.getInt("novaCredits")).thenReturn(175000);
+
+        Passenger passenger = dao.addNovaCredits(mockConn, 1, 75000);
+
+        assertEquals("john_doe", passenger.getUsername());
+        assertEquals(175000, passenger.getNovaCredits());
+        verify(mockConn).prepareStatement(contains("novaCredits = novaCredits + ?"));
+        verify(mockStmt).setInt(1, 75000);
+        verify(mockStmt).setInt(2, 1);
+    }
+}
@@ -46,7 +46,7 @@ public class PhotographerDAOTest {
     @Test
     public void testGetPhotographerByName_Found() throws Exception {
         try (MockedStatic<SQLiteConnector> mockedStatic = mockStatic(SQLiteConnector.class)) {
-            mockedStatic.when(SQLiteConnector::getConnection).thenReturn(mockConnection);
+            mockedStatic.when(SQLiteConnector::getReadConnection).thenReturn(mockConnection);
             when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
             when(mockStatement.executeQuery()).thenReturn(mockResultSet);
 
@@ -67,7 +67,7 @@ public class PhotographerDAOTest {
     @Test
     public void testGetPhotographerByName_NotFound() throws Exception {
         try (MockedStatic<SQLiteConnector> mockedStatic = mockStatic(SQLiteConnector.class)) {
-            mockedStatic.when(SQLiteConnector::getConnection).thenReturn(mockConnection);
+            mockedStatic.when(SQLiteConnector::getReadConnection).thenReturn(mockConnection);
             when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
             when(mockStatement.executeQuery()).thenReturn(mockResultSet);
             when(mockResultSet.next()).thenReturn(false);
@@ -80,7 +80,7 @@ public class PhotographerDAOTest {
     @Test
     public void testGetPhotographerById_Found() throws Exception {
         try (MockedStatic<SQLiteConnector> mockedStatic = mockStatic(SQLiteConnector.class)) {
-            mockedStatic.when(SQLiteConnector::getConnection).thenReturn(mockConnection);
+            mockedStatic.when(SQLiteConnector::getReadConnection).thenReturn(mockConnection);
             when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
             when(mockStatement.executeQuery()).thenReturn(mockResultSet);
 
@@ -101,7 +101,7 @@ public class PhotographerDAOTest {
     @Test
     public void testGetPhotographerById_NotFound() throws Exception {
         try (MockedStatic<SQLiteConnector> mockedStatic = mockStatic(SQLiteConnector.class)) {
-            mockedStatic.when(SQLiteConnector::getConnection).thenReturn(mockConnection);
+            mockedStatic.when(SQLiteConnector::getReadConnection).thenReturn(mockConnection);
             when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
             when(mockStatement.executeQuery()).thenReturn(mockResultSet);
             when(mockResultSet.next()).thenReturn(false);
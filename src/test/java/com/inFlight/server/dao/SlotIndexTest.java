@@ -0,0 +1,103 @@
+package com.inFlight.server.dao;
+
+import com.inFlight.shared.model.SpacewalkSlot;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotIndexTest {
+
+    private static SlotIndex index() {
+        return new SlotIndex(List.of(
+                new SpacewalkSlot(7, "12:00", true),
+                new SpacewalkSlot(3, "10:00", true),
+                new SpacewalkSlot(9, "11:00", false),
+                new SpacewalkSlot(1, "13:00", true)));
+    }
+
+    private static List<Integer> availableIds(SlotIndex index, String from, String to) throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        index.forEachAvailableSlot(from, to, slot -> ids.add(slot.getSlotId()));
+        return ids;
+    }
+
+    @Test
+    void testAnswersAvailabilityById() {
+        SlotIndex index = index();
+
+        assertEquals(4, index.size());
+        assertEquals(3, index.availableCount());
+        assertTrue(index.isAvailable(7));
+        assertFalse(index.isAvailable(9));
+        assertFalse(index.isAvailable(42));
+        assertEquals("11:00", index.getSlot(9).getSlotTime());
+        assertNull(index.getSlot(42));
+    }
+
+    @Test
+    void testAvailableSlotsInTimeOrderAndRange() throws Exception {
+        SlotIndex index = index();
+
+        assertEquals(List.of(3, 7, 1), availableIds(index, null, null));
+        assertEquals(List.of(7), availableIds(index, "10:30", "13:00"));
+        assertEquals(List.of(3), availableIds(index, null, "11:00"));
+        assertEquals(List.of(), availableIds(index, "14:00", null));
+    }
+
+    @Test
+    void testReserveIsCompareAndSet() {
+        SlotIndex index = index();
+
+        assertTrue(index.tryReserve(3));
+        assertFalse(index.tryReserve(3));
+        assertFalse(index.tryReserve(9));
+        assertFalse(index.tryReserve(42));
+        assertTrue(index.setAvailable(3, true));
+        assertTrue(index.tryReserve(3));
+        assertFalse(index.setAvailable(42, true));
+    }
+
+    @Test
+    void testConcurrentReservationsOfOneSlotHaveOneWinner() throws Exception {
+        List<SpacewalkSlot> slots = new ArrayList<>();
+        for (int id = 1; id <= 200; id++) {
+            slots.add(new SpacewalkSlot(id, String.format("%03d", id), true));
+        }
+        SlotIndex index = new SlotIndex(slots);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int won = 0;
+                    for (int id = 1; id <= 200; id++) {
+                        if (index.tryReserve(id)) {
+                            won++;
+                        }
+                    }
+                    return won;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(200, total);
+            assertEquals(0, index.availableCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -28,6 +28,7 @@ class SpacewalkSlotDAOTest {
 
         mockConnector = mockStatic(SQLiteConnector.class);
         mockConnector.when(SQLiteConnector::getConnection).thenReturn(mockConn);
+        mockConnector.when(SQLiteConnector::getReadConnection).thenReturn(mockConn);
     }
 
     @AfterEach
@@ -178,4 +179,29 @@ class SpacewalkSlotDAOTest {
         // Verify that executeUpdate was called
         verify(mockStmt).executeUpdate();
     }
-}
\ No newline at end of file
+
+    @Test
+    void testClaimSlot() throws Exception {
+        when(mockConn.prepareStatement(anyString())).thenReturn(mockStmt);
+        when(mockStmt.executeUpdate()).thenReturn(1, 0);
+
+        assertTrue(dao.claimSlot(mockConn, 4));
+        assertFalse(dao.claimSlot(mockConn, 4)); // already taken
+
+        verify(mockConn, times(2)).prepareStatement(contains("available = 1"));
+        verify(mockStmt, times(2)).setInt(1, 4);
+        verify(mockConn, never()).close();
+    }
+
+    @Test
+    void testSetAvailabilityInTransaction() throws Exception {
+        when(mockConn.prepareStatement(anyString())).thenReturn(mockStmt);
+        when(mockStmt.executeUpdate()).thenReturn(1);
+
+        assertTrue(dao.setAvailability(mockConn, 3, true));
+
+        verify(mockStmt).setInt(1, 1);
+        verify(mockStmt).setInt(2, 3);
+        verify(mockConn, never()).close();
+    }
+}
@@ -0,0 +1,125 @@
+package com.inFlight.server.db;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionPoolTest {
+    private List<Connection> opened; // Physical connections handed out by the factory
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        opened = new ArrayList<>();
+        pool = new ConnectionPool(this::open, 2, 100, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    private Connection open(boolean readOnly) throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        opened.add(connection);
+        return connection;
+    }
+
+    @Test
+    void testReadConnectionIsReused() throws SQLException {
+        Connection first = pool.getReadConnection();
+        first.close();
+        Connection second = pool.getReadConnection();
+        second.close();
+
+        assertEquals(1, opened.size());
+        verify(opened.get(0), never()).close();
+        PoolMetrics metrics = pool.getMetrics();
+        assertEquals(0, metrics.activeReaders());
+        assertEquals(1, metrics.idleReaders());
+        assertEquals(2, metrics.borrowCount());
+    }
+
+    @Test
+    void testWriterIsExclusive() throws Exception {
+        Connection writer = pool.getWriteConnection();
+        assertTrue(pool.getMetrics().writerActive());
+
+        Thread other = new Thread(() -> assertThrows(SQLException.class, pool::getWriteConnection));
+        other.start();
+        other.join();
+        assertEquals(1, pool.getMetrics().timeouts());
+
+        writer.close();
+        pool.getWriteConnection().close();
+        assertEquals(1, opened.size());
+        assertFalse(pool.getMetrics().writerActive());
+    }
+
+    @Test
+    void testReadConnectionsAreBounded() throws SQLException {
+        Connection first = pool.getReadConnection();
+        Connection second = pool.getReadConnection();
+        assertEquals(2, pool.getMetrics().activeReaders());
+
+        assertThrows(SQLException.class, pool::getReadConnection);
+
+        first.close();
+        second.close();
+        assertEquals(2, pool.getMetrics().idleReaders());
+        assertTrue(pool.getMetrics().maxWaitNanos() > 0);
+    }
+
+    @Test
+    void testInvalidConnectionIsReplaced() throws SQLException {
+        ConnectionPool validating = new ConnectionPool(this::open, 1, 100, 0);
+        validating.getReadConnection().close();
+        when(opened.get(0).isValid(anyInt())).thenReturn(false);
+
+        validating.getReadConnection().close();
+
+        assertEquals(2, opened.size());
+        verify(opened.get(0)).close();
+        assertEquals(1, validating.getMetrics().replacedConnections());
+        validating.close();
+    }
+
+    @Test
+    void testReturnClosesStatementsAndRollsBack() throws SQLException {
+        Connection connection = pool.getWriteConnection();
+        Connection physical = opened.get(0);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(physical.prepareStatement(anyString())).thenReturn(statement);
+
+        connection.prepareStatement("UPDATE passengers SET novaCredits = 0");
+        when(physical.getAutoCommit()).thenReturn(false);
+        connection.close();
+
+        verify(statement).close();
+        verify(physical).rollback();
+        verify(physical).setAutoCommit(true);
+        verify(physical, never()).close();
+    }
+
+    @Test
+    void testReturnedConnectionCannotBeUsed() throws SQLException {
+        Connection connection = pool.getReadConnection();
+        connection.close();
+        connection.close(); // a second close must not return it twice
+
+        assertTrue(connection.isClosed());
+        assertThrows(SQLException.class, () -> connection.prepareStatement("SELECT 1"));
+        assertEquals(1, pool.getMetrics().idleReaders());
+    }
+}
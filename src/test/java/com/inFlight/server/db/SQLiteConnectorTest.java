@@ -1,35 +1,83 @@
 package com.inFlight.server.db;
 
-import com.inFlight.server.db.SQLiteConnector;
 import org.junit.jupiter.api.*;
 import org.mockito.MockedStatic;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Properties;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class SQLiteConnectorTest {
+    @AfterEach
+    void tearDown() {
+        SQLiteConnector.shutdown();
+    }
+
     @Test
     void testGetConnectionReturnsValidConnection() throws SQLException {
         // Arrange: mock connection and DriverManager
         Connection mockConnection = mock(Connection.class);
+        when(mockConnection.getAutoCommit()).thenReturn(true);
 
         try (MockedStatic<DriverManager> driverManagerMockedStatic = mockStatic(DriverManager.class)) {
             driverManagerMockedStatic
-                    .when(() -> DriverManager.getConnection("jdbc:sqlite:src/main/resources/inFlightDB.db"))
+                    .when(() -> DriverManager.getConnection(eq("jdbc:sqlite:src/main/resources/inFlightDB.db"), any(Properties.class)))
                     .thenReturn(mockConnection);
 
             // Act
             Connection connection = SQLiteConnector.getConnection();
 
-            // Assert
+            // Assert: calls are delegated to the driver connection
             assertNotNull(connection);
-            assertEquals(mockConnection, connection);
-            driverManagerMockedStatic.verify(() ->
-                    DriverManager.getConnection("jdbc:sqlite:src/main/resources/inFlightDB.db"), times(1));
+            assertTrue(connection.getAutoCommit());
+            verify(mockConnection, atLeastOnce()).getAutoCommit();
+
+            connection.close();
+        }
+    }
+
+    @Test
+    void testConnectionsAreReusedAfterClose() throws SQLException {
+        Connection mockConnection = mock(Connection.class);
+        when(mockConnection.getAutoCommit()).thenReturn(true);
+
+        try (MockedStatic<DriverManager> driverManagerMockedStatic = mockStatic(DriverManager.class)) {
+            driverManagerMockedStatic
+                    .when(() -> DriverManager.getConnection(anyString(), any(Properties.class)))
+                    .thenReturn(mockConnection);
+
+            SQLiteConnector.getConnection().close();
+            SQLiteConnector.getConnection().close();
+            SQLiteConnector.getReadConnection().close();
+            SQLiteConnector.getReadConnection().close();
+
+            // one writer and one reader were opened, and neither was closed on return
+            driverManagerMockedStatic.verify(() -> DriverManager.getConnection(anyString(), any(Properties.class)), times(2));
+            verify(mockConnection, never()).close();
+            // the pool borrows the writer once itself to set the journal mode
+            assertEquals(5, SQLiteConnector.getPoolMetrics().borrowCount());
+        }
+    }
+
+    @Test
+    void testFailedConnectReleasesConnectionSlot() {
+        try (MockedStatic<DriverManager> driverManagerMockedStatic = mockStatic(DriverManager.class)) {
+            driverManagerMockedStatic
+                    .when(() -> DriverManager.getConnection(anyString(), any(Properties.class)))
+                    .thenAnswer(invocation -> {
+                        throw new SQLException("disk I/O error");
+                    });
+
+            assertThrows(SQLException.class, SQLiteConnector::getConnection);
+            assertThrows(SQLException.class, SQLiteConnector::getReadConnection);
+
+            PoolMetrics metrics = SQLiteConnector.getPoolMetrics();
+            assertFalse(metrics.writerActive());
+            assertEquals(0, metrics.activeReaders());
         }
     }
-}
\ No newline at end of file
+}
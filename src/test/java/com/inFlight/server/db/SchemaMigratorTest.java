@@ -0,0 +1,145 @@
+package com.inFlight.server.db;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the migrations on a copy of the demo database and checks the query plans of the hot DAO queries,
+ * so an index cannot disappear unnoticed when the database file is replaced.
+ */
+class SchemaMigratorTest {
+    @TempDir
+    Path tempDir;
+
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path db = tempDir.resolve("inFlightDB.db");
+        Files.copy(Paths.get("src/main/resources/inFlightDB.db"), db);
+        conn = DriverManager.getConnection("jdbc:sqlite:" + db);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    private String queryPlan(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            int parameters = stmt.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                stmt.setString(i, "x");
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString("detail")).append('\n');
+                }
+            }
+        }
+        return plan.toString();
+    }
+
+    @Test
+    void testMigratesToLatestVersionOnce() throws SQLException {
+        SchemaMigrator migrator = new SchemaMigrator();
+
+        assertEquals(migrator.getLatestVersion(), migrator.migrate(conn));
+        assertEquals(migrator.getLatestVersion(), SchemaMigrator.getVersion(conn));
+        assertEquals(migrator.getLatestVersion(), migrator.migrate(conn));
+        assertTrue(conn.getAutoCommit());
+    }
+
+    @Test
+    void testFailedMigrationIsRolledBack() throws SQLException {
+        SchemaMigrator migrator = new SchemaMigrator(List.of(
+                new SchemaMigrator.Migration(1, "works", List.of("CREATE TABLE first (id INTEGER)")),
+                new SchemaMigrator.Migration(2, "fails", List.of(
+                        "CREATE TABLE second (id INTEGER)",
+                        "CREATE INDEX idx_missing ON no_such_table (id)"))));
+
+        assertThrows(SQLException.class, () -> migrator.migrate(conn));
+
+        assertEquals(1, SchemaMigrator.getVersion(conn));
+        assertFalse(queryPlan("SELECT * FROM first").isEmpty());
+        assertThrows(SQLException.class, () -> queryPlan("SELECT * FROM second"));
+        assertTrue(conn.getAutoCommit());
+    }
+
+    @Test
+    void testMigrationVersionsMustBeConsecutive() {
+        assertThrows(IllegalArgumentException.class, () -> new SchemaMigrator(List.of(
+                new SchemaMigrator.Migration(2, "skips 1", List.of()))));
+    }
+
+    @Test
+    void testHotQueriesUseIndexes() throws SQLException {
+        new SchemaMigrator().migrate(conn);
+
+        assertTrue(queryPlan("SELECT * FROM bookings WHERE passenger_id = ?")
+                .contains("USING COVERING INDEX idx_bookings_passenger"));
+        assertTrue(queryPlan("SELECT * FROM bookings WHERE status = ?")
+                .contains("USING COVERING INDEX idx_bookings_status"));
+        assertTrue(queryPlan("SELECT * FROM photographer WHERE name = ?")
+                .contains("USING COVERING INDEX idx_photographer_name"));
+        assertTrue(queryPlan("SELECT * FROM inventory_item WHERE owner_role = ?")
+                .contains("USING COVERING INDEX idx_inventory_item_owner_role"));
+        assertTrue(queryPlan("SELECT * FROM passengers WHERE username = ?")
+                .contains("USING INDEX sqlite_autoindex_passengers_1"));
+        assertTrue(queryPlan("SELECT COUNT(*) FROM bookings WHERE status = ?")
+                .contains("USING COVERING INDEX idx_bookings_status"));
+    }
+
+    @Test
+    void testDetailedBookingsJoinByPrimaryKey() throws SQLException {
+        new SchemaMigrator().migrate(conn);
+
+        String plan = queryPlan("""
+            SELECT b.booking_id, b.passenger_id, b.slot_id, b.tier, b.status, s.slot_time, p.username
+            FROM bookings b
+            JOIN spacewalk_slots s ON s.slot_id = b.slot_id
+            JOIN passengers p ON p.passenger_id = b.passenger_id WHERE b.passenger_id = ?""");
+
+        assertTrue(plan.contains("USING COVERING INDEX idx_bookings_passenger"), plan);
+        assertTrue(plan.contains("SEARCH s USING INTEGER PRIMARY KEY"), plan);
+        assertTrue(plan.contains("SEARCH p USING INTEGER PRIMARY KEY"), plan);
+    }
+
+    @Test
+    void testChatQueriesSearchTheIndex() throws SQLException {
+        new SchemaMigrator().migrate(conn);
+
+        String history = queryPlan("""
+            SELECT id, sender, receiver, content, timestamp
+            FROM chat_message
+            WHERE (sender = ? AND receiver = ?) OR (sender = ? AND receiver = ?)
+            ORDER BY id ASC
+        """);
+        String since = queryPlan("""
+            SELECT id, sender, receiver, content, timestamp
+            FROM chat_message
+            WHERE id > ? AND ((sender = ? AND receiver = ?) OR (sender = ? AND receiver = ?))
+            ORDER BY id ASC
+            LIMIT ?
+        """);
+
+        assertFalse(history.contains("SCAN chat_message"), history);
+        assertTrue(history.contains("USING INDEX idx_chat_message_sender_receiver"), history);
+        assertTrue(since.contains("sender=? AND receiver=? AND rowid>?"), since);
+    }
+}
@@ -0,0 +1,64 @@
+package com.inFlight.server.db;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.sqlite.SQLiteConfig;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StorageProfileTest {
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(StorageProfile.SYNCHRONOUS_PROPERTY);
+        System.clearProperty(StorageProfile.BUSY_TIMEOUT_PROPERTY);
+    }
+
+    @Test
+    void testTunedProfileIsAppliedToWriter() {
+        SQLiteConfig config = new SQLiteConfig();
+        StorageProfile.tuned().applyTo(config, false);
+        Properties properties = config.toProperties();
+
+        assertEquals("WAL", properties.getProperty("journal_mode"));
+        assertEquals("NORMAL", properties.getProperty("synchronous"));
+        assertEquals("-16000", properties.getProperty("cache_size"));
+        assertEquals("67108864", properties.getProperty("mmap_size"));
+        assertEquals("MEMORY", properties.getProperty("temp_store"));
+        assertEquals("5000", properties.getProperty("busy_timeout"));
+    }
+
+    @Test
+    void testReadConnectionsDoNotSetJournalMode() {
+        SQLiteConfig config = new SQLiteConfig();
+        StorageProfile.tuned().applyTo(config, true);
+
+        assertNull(config.toProperties().getProperty("journal_mode"));
+        assertEquals("NORMAL", config.toProperties().getProperty("synchronous"));
+    }
+
+    @Test
+    void testSystemPropertiesOverrideDefaults() {
+        System.setProperty(StorageProfile.SYNCHRONOUS_PROPERTY, "full");
+        System.setProperty(StorageProfile.BUSY_TIMEOUT_PROPERTY, "250");
+
+        SQLiteConfig config = new SQLiteConfig();
+        StorageProfile.fromSystemProperties().applyTo(config, false);
+        Properties properties = config.toProperties();
+
+        assertEquals("FULL", properties.getProperty("synchronous"));
+        assertEquals("250", properties.getProperty("busy_timeout"));
+        assertEquals("WAL", properties.getProperty("journal_mode"));
+    }
+
+    @Test
+    void testUnknownValueFallsBackToDefault() {
+        System.setProperty(StorageProfile.SYNCHRONOUS_PROPERTY, "sometimes");
+
+        SQLiteConfig config = new SQLiteConfig();
+        StorageProfile.fromSystemProperties().applyTo(config, false);
+
+        assertEquals("NORMAL", config.toProperties().getProperty("synchronous"));
+    }
+}
@@ -0,0 +1,151 @@
+package com.inFlight.server.db;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.MockedStatic;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TransactionManagerTest {
+    private Connection mockConn;
+    private MockedStatic<SQLiteConnector> mockConnector;
+    private TransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        mockConn = mock(Connection.class);
+        mockConnector = mockStatic(SQLiteConnector.class);
+        mockConnector.when(SQLiteConnector::getConnection).thenReturn(mockConn);
+        transactionManager = new TransactionManager();
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockConnector.close();
+    }
+
+    @Test
+    void testCommitsWork() throws SQLException {
+        String result = transactionManager.inTransaction(conn -> {
+            assertSame(mockConn, conn);
+            return "done";
+        });
+
+        assertEquals("done", result);
+        InOrder inOrder = inOrder(mockConn);
+        inOrder.verify(mockConn).setAutoCommit(false);
+        inOrder.verify(mockConn).commit();
+        inOrder.verify(mockConn).setAutoCommit(true);
+        inOrder.verify(mockConn).close();
+        verify(mockConn, never()).rollback();
+    }
+
+    @Test
+    void testRollsBackFailedWork() throws SQLException {
+        SQLException failure = new SQLException("constraint failed");
+
+        SQLException thrown = assertThrows(SQLException.class, () ->
+                transactionManager.inTransaction(conn -> {
+                    throw failure;
+                }));
+
+        assertSame(failure, thrown);
+        verify(mockConn).rollback();
+        verify(mockConn, never()).commit();
+        verify(mockConn).setAutoCommit(true);
+        verify(mockConn).close();
+    }
+
+    @Test
+    void testRollsBackOnRuntimeException() throws SQLException {
+        assertThrows(IllegalStateException.class, () ->
+                transactionManager.inTransaction(conn -> {
+                    throw new IllegalStateException("bug");
+                }));
+
+        verify(mockConn).rollback();
+        verify(mockConn, never()).commit();
+    }
+
+    @Test
+    void testAfterCommitRunsOnlyOnCommit() throws SQLException {
+        List<String> ran = new ArrayList<>();
+
+        transactionManager.inTransaction(conn -> {
+            TransactionManager.afterCommit(() -> ran.add("committed"));
+            assertTrue(ran.isEmpty());
+            return null;
+        });
+        assertThrows(SQLException.class, () -> transactionManager.inTransaction(conn -> {
+            TransactionManager.afterCommit(() -> ran.add("rolled back"));
+            throw new SQLException("constraint failed");
+        }));
+        TransactionManager.afterCommit(() -> ran.add("no transaction"));
+
+        assertEquals(List.of("committed", "no transaction"), ran);
+    }
+
+    @Test
+    void testRollbackOnlyRunsRollbackCallbacks() throws SQLException {
+        List<String> ran = new ArrayList<>();
+
+        String result = transactionManager.inTransaction(conn -> {
+            TransactionManager.afterCommit(() -> ran.add("committed"));
+            TransactionManager.afterRollback(() -> ran.add("rolled back"));
+            transactionManager.setRollbackOnly();
+            return "discarded";
+        });
+
+        assertEquals("discarded", result);
+        assertEquals(List.of("rolled back"), ran);
+        verify(mockConn).rollback();
+        verify(mockConn, never()).commit();
+        assertThrows(IllegalStateException.class, transactionManager::setRollbackOnly);
+    }
+
+    @Test
+    void testFailedAutoCommitResetKeepsCommitFailure() throws SQLException {
+        SQLException commitFailure = new SQLException("database is locked");
+        doThrow(commitFailure).when(mockConn).commit();
+        doNothing().doThrow(new SQLException("connection closed")).when(mockConn).setAutoCommit(anyBoolean());
+
+        SQLException thrown = assertThrows(SQLException.class, () -> transactionManager.inTransaction(conn -> "done"));
+
+        assertSame(commitFailure, thrown);
+        verify(mockConn).close();
+    }
+
+    @Test
+    void testNestedTransactionJoinsOuterTransaction() throws SQLException {
+        String result = transactionManager.inTransaction(outer ->
+                transactionManager.inTransaction(inner -> {
+                    assertSame(outer, inner);
+                    return "nested";
+                }));
+
+        assertEquals("nested", result);
+        mockConnector.verify(SQLiteConnector::getConnection, times(1));
+        verify(mockConn, times(1)).commit();
+    }
+
+    @Test
+    void testNestedFailureRollsBackOuterTransaction() throws SQLException {
+        transactionManager.inTransaction(conn -> {
+            assertThrows(SQLException.class, () -> transactionManager.inTransaction(inner -> {
+                throw new SQLException("constraint failed");
+            }));
+            return null;
+        });
+
+        verify(mockConn).rollback();
+        verify(mockConn, never()).commit();
+    }
+}
@@ -0,0 +1,43 @@
+package com.inFlight.server.metrics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DaoTimerTest {
+
+    @Test
+    void testStopRecordsDaoQueryEvent(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("dao.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.inFlight.DaoQuery").withThreshold(Duration.ZERO);
+            recording.start();
+
+            DaoTimer timer = DaoTimer.start("BookingDAO.updateBookingStatus");
+            timer.updated(2);
+            timer.failed();
+            timer.stop();
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("com.inFlight.DaoQuery"))
+                .toList();
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("BookingDAO", event.getString("dao"));
+        assertEquals("updateBookingStatus", event.getString("method"));
+        assertEquals(2, event.getInt("rows"));
+        assertTrue(event.getBoolean("failed"));
+    }
+}
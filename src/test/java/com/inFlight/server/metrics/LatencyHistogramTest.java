@@ -0,0 +1,64 @@
+package com.inFlight.server.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testPercentilesStayWithinTheBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 10_000; micros++) {
+            histogram.recordNanos(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(5000.5, histogram.getMeanMicros(), 0.01);
+        assertEquals(10_000, histogram.getMaxMicros());
+        assertEquals(5000, histogram.getPercentileMicros(50), 5000 / 16.0);
+        assertEquals(9500, histogram.getPercentileMicros(95), 9500 / 16.0);
+        assertEquals(9900, histogram.getPercentileMicros(99), 9900 / 16.0);
+        assertEquals(10_000, histogram.getPercentileMicros(100));
+    }
+
+    @Test
+    void testBucketsCoverEveryLatencyOnce() {
+        for (long micros = 0; micros < 100_000; micros++) {
+            int bucket = LatencyHistogram.bucketOf(micros);
+            assertTrue(micros <= LatencyHistogram.upperBoundOf(bucket), "bucket of " + micros);
+            assertTrue(bucket == 0 || micros > LatencyHistogram.upperBoundOf(bucket - 1), "bucket of " + micros);
+        }
+        assertEquals(LatencyHistogram.bucketOf(Long.MAX_VALUE), LatencyHistogram.bucketOf(1L << 50));
+    }
+
+    @Test
+    void testEmptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMeanMicros());
+        assertEquals(0, histogram.getPercentileMicros(99));
+    }
+
+    @Test
+    void testConcurrentRecordingKeepsEveryLatency() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                executor.execute(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        histogram.recordNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                    }
+                });
+            }
+        }
+
+        assertEquals(80_000, histogram.getCount());
+        assertEquals(1000, histogram.getPercentileMicros(50));
+    }
+}
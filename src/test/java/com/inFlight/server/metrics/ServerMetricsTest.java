@@ -0,0 +1,75 @@
+package com.inFlight.server.metrics;
+
+import com.inFlight.shared.protocol.ActionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerMetricsTest {
+
+    @Test
+    void testSnapshotsListUsedEntriesByTotalTime() {
+        ServerMetrics metrics = new ServerMetrics();
+        metrics.action(ActionType.LOGIN).record(TimeUnit.MILLISECONDS.toNanos(1), Outcome.OK);
+        metrics.action(ActionType.BOOK_SLOT).record(TimeUnit.MILLISECONDS.toNanos(5), Outcome.OK);
+        metrics.action(ActionType.BOOK_SLOT).record(TimeUnit.MILLISECONDS.toNanos(5), Outcome.ERROR);
+        metrics.action(ActionType.GET_CHAT).record(TimeUnit.MILLISECONDS.toNanos(3), Outcome.FAILED);
+
+        Map<String, OperationSnapshot> snapshots = metrics.getActionSnapshots();
+
+        assertEquals(List.of("BOOK_SLOT", "GET_CHAT", "LOGIN"), List.copyOf(snapshots.keySet()));
+        OperationSnapshot bookSlot = snapshots.get("BOOK_SLOT");
+        assertEquals(2, bookSlot.count());
+        assertEquals(1, bookSlot.errors());
+        assertEquals(0, bookSlot.failures());
+        assertEquals(10.0, bookSlot.totalMillis(), 0.001);
+        assertEquals(1, snapshots.get("GET_CHAT").failures());
+        assertEquals(4, metrics.getRequestCount());
+    }
+
+    @Test
+    void testDaoCallsAreCreatedOnce() {
+        ServerMetrics metrics = new ServerMetrics();
+        OperationMetrics first = metrics.daoCall("BookingDAO.getBookingById");
+
+        assertSame(first, metrics.daoCall("BookingDAO.getBookingById"));
+        assertTrue(metrics.getDaoSnapshots().isEmpty());
+
+        first.record(TimeUnit.MICROSECONDS.toNanos(200), Outcome.OK);
+        assertEquals(1, metrics.getDaoSnapshots().get("BookingDAO.getBookingById").count());
+    }
+
+    @Test
+    void testDaoTimerRecordsInTheSharedMetrics() {
+        OperationMetrics shared = ServerMetrics.getInstance().daoCall("ServerMetricsTest.timed");
+        long ok = shared.getCount(Outcome.OK);
+        long failed = shared.getCount(Outcome.FAILED);
+
+        DaoTimer.start("ServerMetricsTest.timed").stop();
+        DaoTimer timer = DaoTimer.start("ServerMetricsTest.timed");
+        timer.failed();
+        timer.stop();
+
+        assertEquals(ok + 1, shared.getCount(Outcome.OK));
+        assertEquals(failed + 1, shared.getCount(Outcome.FAILED));
+    }
+
+    @Test
+    void testSummaryListsTopEntries() {
+        ServerMetrics metrics = new ServerMetrics();
+        metrics.action(ActionType.LOGIN).record(TimeUnit.MILLISECONDS.toNanos(1), Outcome.OK);
+        metrics.action(ActionType.GET_CHAT).record(TimeUnit.MILLISECONDS.toNanos(2), Outcome.OK);
+        metrics.daoCall("PassengerDAO.getPassengerByUsername").record(TimeUnit.MILLISECONDS.toNanos(1), Outcome.OK);
+
+        List<String> lines = metrics.summary(1);
+
+        assertEquals(4, lines.size());
+        assertTrue(lines.get(0).startsWith("2 requests"), lines.get(0));
+        assertTrue(lines.get(1).contains("GET_CHAT: 1 calls"), lines.get(1));
+        assertTrue(lines.get(3).contains("PassengerDAO.getPassengerByUsername: 1 calls"), lines.get(3));
+    }
+}
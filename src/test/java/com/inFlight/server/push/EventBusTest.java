@@ -0,0 +1,105 @@
+package com.inFlight.server.push;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.inFlight.server.socket.handler.Response;
+import com.inFlight.server.socket.handler.SubscribeHandler;
+import com.inFlight.shared.protocol.EventTopic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventBusTest {
+    private final Gson gson = new Gson();
+    private EventBus eventBus;
+
+    @BeforeEach
+    void setUp() {
+        eventBus = new EventBus(gson, new EventLog(8));
+    }
+
+    @Test
+    void testPublishReachesOnlyMatchingSubscriptions() {
+        List<String> passenger7 = new CopyOnWriteArrayList<>();
+        List<String> passenger8 = new CopyOnWriteArrayList<>();
+        new ClientSession(eventBus, passenger7::add).subscribe(new Subscription(EventTopic.BOOKING_STATUS, "7"));
+        new ClientSession(eventBus, passenger8::add).subscribe(new Subscription(EventTopic.BOOKING_STATUS, "8"));
+
+        eventBus.publish(EventTopic.BOOKING_STATUS, "7", Map.of("status", "approved"));
+
+        assertEquals(1, passenger7.size());
+        assertTrue(passenger8.isEmpty());
+        JsonObject frame = gson.fromJson(passenger7.get(0), JsonObject.class);
+        assertEquals("EVENT", frame.get("type").getAsString());
+        assertEquals("BOOKING_STATUS", frame.get("topic").getAsString());
+        assertEquals("7", frame.get("key").getAsString());
+        assertEquals("approved", frame.getAsJsonObject("payload").get("status").getAsString());
+    }
+
+    @Test
+    void testUnkeyedTopicIgnoresKey() {
+        List<String> frames = new CopyOnWriteArrayList<>();
+        new ClientSession(eventBus, frames::add).subscribe(new Subscription(EventTopic.BROADCAST, "ignored"));
+
+        eventBus.publish(EventTopic.BROADCAST, null, Map.of("message", "Welcome aboard"));
+
+        assertEquals(1, frames.size());
+    }
+
+    @Test
+    void testCloseRemovesSubscriptions() {
+        List<String> frames = new CopyOnWriteArrayList<>();
+        ClientSession session = new ClientSession(eventBus, frames::add);
+        Subscription subscription = new Subscription(EventTopic.CHAT, EventTopic.chatKey("Pilot", "ATC"));
+        assertTrue(session.subscribe(subscription));
+        assertFalse(session.subscribe(subscription));
+        assertEquals(1, eventBus.getSubscriberCount(subscription));
+
+        session.close();
+        eventBus.publish(EventTopic.CHAT, EventTopic.chatKey("ATC", "Pilot"), Map.of("content", "Cleared"));
+
+        assertEquals(0, eventBus.getSubscriberCount(subscription));
+        assertTrue(frames.isEmpty());
+        assertFalse(session.subscribe(subscription));
+    }
+
+    @Test
+    void testFailingChannelDoesNotStopDelivery() {
+        List<String> frames = new CopyOnWriteArrayList<>();
+        new ClientSession(eventBus, frame -> {
+            throw new IllegalStateException("connection gone");
+        }).subscribe(new Subscription(EventTopic.SURVEY, null));
+        new ClientSession(eventBus, frames::add).subscribe(new Subscription(EventTopic.SURVEY, null));
+
+        eventBus.publish(EventTopic.SURVEY, null, Map.of("triggered", true));
+
+        assertEquals(1, frames.size());
+    }
+
+    @Test
+    void testKeyedTopicRequiresKey() {
+        assertThrows(IllegalArgumentException.class, () -> new Subscription(EventTopic.CHECKOUT, null));
+    }
+
+    @Test
+    void testSubscribeHandlerNeedsSession() {
+        JsonObject data = new JsonObject();
+        data.addProperty("topic", "BROADCAST");
+        SubscribeHandler handler = new SubscribeHandler(eventBus.getEventLog());
+
+        JsonObject withoutSession = gson.toJsonTree(((Response) handler.handle(data, null)).getBody()).getAsJsonObject();
+        ClientSession session = new ClientSession(eventBus, frame -> { });
+        JsonObject withSession = gson.toJsonTree(((Response) handler.handle(data, session)).getBody()).getAsJsonObject();
+
+        assertEquals("ERROR", withoutSession.get("status").getAsString());
+        assertEquals("OK", withSession.get("status").getAsString());
+        assertTrue(withSession.get("subscribed").getAsBoolean());
+        assertEquals(0, withSession.get("latestSeq").getAsLong());
+        assertEquals(1, session.getSubscriptions().size());
+    }
+}
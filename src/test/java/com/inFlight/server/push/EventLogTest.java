@@ -0,0 +1,122 @@
+package com.inFlight.server.push;
+
+import com.google.gson.JsonPrimitive;
+import com.inFlight.shared.protocol.EventFrame;
+import com.inFlight.shared.protocol.EventTopic;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventLogTest {
+
+    private static EventFrame cancellation(String passenger) {
+        return new EventFrame(EventTopic.CANCELLATION, null, new JsonPrimitive(passenger));
+    }
+
+    @Test
+    void testCapacityIsRoundedUpToPowerOfTwo() {
+        assertEquals(8, new EventLog(5).getCapacity());
+        assertEquals(8, new EventLog(8).getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new EventLog(0));
+    }
+
+    @Test
+    void testEventsInSameIntervalAreAllKept() {
+        EventLog log = new EventLog(8);
+        assertEquals(1, log.append(cancellation("alice")));
+        assertEquals(2, log.append(cancellation("bob")));
+
+        EventLog.Page page = log.readSince(0, frame -> true);
+
+        assertTrue(page.complete());
+        assertEquals(2, page.latestSeq());
+        assertEquals(List.of(1L, 2L), page.events().stream().map(EventFrame::getSeq).toList());
+        assertEquals("bob", page.events().get(1).getPayload().getAsString());
+        assertTrue(log.readSince(2, frame -> true).events().isEmpty());
+    }
+
+    @Test
+    void testReadSinceFilters() {
+        EventLog log = new EventLog(8);
+        log.append(cancellation("alice"));
+        log.append(new EventFrame(EventTopic.BOOKING_STATUS, "7", new JsonPrimitive("approved")));
+        log.append(new EventFrame(EventTopic.BOOKING_STATUS, "8", new JsonPrimitive("denied")));
+
+        EventLog.Page page = log.readSince(1, frame -> "7".equals(frame.getKey()));
+
+        assertEquals(1, page.events().size());
+        assertEquals(2, page.events().get(0).getSeq());
+        assertEquals(3, page.latestSeq());
+    }
+
+    @Test
+    void testOverwrittenEventsMarkPageIncomplete() {
+        EventLog log = new EventLog(4);
+        for (int i = 0; i < 10; i++) {
+            log.append(cancellation("p" + i));
+        }
+
+        EventLog.Page lapped = log.readSince(2, frame -> true);
+        EventLog.Page recent = log.readSince(6, frame -> true);
+
+        assertFalse(lapped.complete());
+        assertEquals(List.of(7L, 8L, 9L, 10L), lapped.events().stream().map(EventFrame::getSeq).toList());
+        assertTrue(recent.complete());
+        assertEquals(4, recent.events().size());
+    }
+
+    @Test
+    void testSequenceFromEarlierRunIsIncomplete() {
+        EventLog log = new EventLog(4);
+        log.append(cancellation("alice"));
+
+        EventLog.Page page = log.readSince(50, frame -> true);
+
+        assertFalse(page.complete());
+        assertTrue(page.events().isEmpty());
+        assertEquals(1, page.latestSeq());
+    }
+
+    @Test
+    void testConcurrentAppendsGetDistinctSequences() throws Exception {
+        EventLog log = new EventLog(4096);
+        int threads = 8;
+        int perThread = 250;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Future<?>[] futures = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                futures[t] = executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        log.append(cancellation("x"));
+                        log.readSince(log.getLatestSeq() - 10, frame -> true);
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        EventLog.Page page = log.readSince(0, frame -> true);
+        assertEquals(threads * perThread, page.latestSeq());
+        assertEquals(threads * perThread, page.events().size());
+        assertTrue(page.complete());
+        for (int i = 0; i < page.events().size(); i++) {
+            assertEquals(i + 1, page.events().get(i).getSeq());
+        }
+    }
+}
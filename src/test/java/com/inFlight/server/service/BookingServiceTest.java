@@ -3,14 +3,19 @@ import com.google.gson.JsonObject;
 import com.inFlight.server.dao.BookingDAO;
 import com.inFlight.server.dao.PassengerDAO;
 import com.inFlight.server.dao.SpacewalkSlotDAO;
+import com.inFlight.server.db.TransactionManager;
+import com.inFlight.server.push.EventBus;
 import com.inFlight.server.service.BookingService;
 import com.inFlight.server.service.PassengerService;
 import com.inFlight.shared.model.Booking;
 import com.inFlight.shared.model.Passenger;
-import com.inFlight.shared.model.SpacewalkSlot;
+import com.inFlight.shared.protocol.EventTopic;
+import com.inFlight.shared.state.CancellationState;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,92 +27,97 @@ public class BookingServiceTest {
     private SpacewalkSlotDAO slotDAO;
     private PassengerDAO passengerDAO;
     private PassengerService passengerService;
+    private TransactionManager transactionManager;
+    private EventBus eventBus;
+    private Connection conn;
     private BookingService bookingService;
 
     @BeforeEach
-    void setUp() {
+    void setUp() throws SQLException {
         bookingDAO = mock(BookingDAO.class);
         slotDAO = mock(SpacewalkSlotDAO.class);
         passengerDAO = mock(PassengerDAO.class);
         passengerService = mock(PassengerService.class);
-        bookingService = new BookingService(bookingDAO, slotDAO, passengerDAO, passengerService);
+        transactionManager = mock(TransactionManager.class);
+        eventBus = mock(EventBus.class);
+        conn = mock(Connection.class);
+        // Run the transactional work directly on the mocked connection
+        when(transactionManager.inTransaction(any())).thenAnswer(invocation ->
+                invocation.<TransactionManager.SqlWork<?>>getArgument(0).execute(conn));
+        bookingService = new BookingService(bookingDAO, slotDAO, passengerDAO, passengerService, transactionManager, eventBus);
     }
 
     @Test
-    void testProcessBookingSuccess() {
-        Passenger passenger = new Passenger(1, "user1", "pass", 250000);
-        SpacewalkSlot slot = new SpacewalkSlot(10, "2025-06-01T12:00:00Z", true);
-
-        when(passengerDAO.getPassengerById(1)).thenReturn(passenger);
-        when(slotDAO.getSlotById(10)).thenReturn(slot);
-        when(slotDAO.isSlotAvailable(10)).thenReturn(true);
+    void testProcessBookingSuccess() throws SQLException {
+        when(slotDAO.claimSlot(conn, 10)).thenReturn(true);
+        when(passengerDAO.deductNovaCredits(conn, 1, 250000)).thenReturn(0);
 
         JsonObject result = bookingService.processBooking(1, 10, 2); // Tier 2: 250000
 
         assertEquals("OK", result.get("status").getAsString());
-        assertEquals(250000, result.get("newBalance").getAsInt());
+        assertEquals(0, result.get("newBalance").getAsInt());
 
-        verify(passengerDAO).updateNovaCredits(1, 0);
-        verify(bookingDAO).insertBooking(any(Booking.class));
-        verify(slotDAO).setAvailability(10, false);
+        verify(bookingDAO).insertBooking(eq(conn), any(Booking.class));
+        verify(transactionManager, never()).setRollbackOnly();
+        verify(eventBus).publish(eq(EventTopic.NEW_BOOKING), isNull(), any(JsonObject.class));
     }
 
     @Test
-    void testProcessBookingFailsIfPassengerNull() {
-        when(passengerDAO.getPassengerById(1)).thenReturn(null);
-        when(slotDAO.getSlotById(5)).thenReturn(new SpacewalkSlot(5, "2025-06-01T12:00:00Z", true));
-        when(slotDAO.isSlotAvailable(5)).thenReturn(true);
+    void testProcessBookingFailsIfPassengerNull() throws SQLException {
+        when(slotDAO.claimSlot(conn, 5)).thenReturn(true);
+        when(passengerDAO.deductNovaCredits(conn, 1, 100000)).thenReturn(null);
 
         JsonObject result = bookingService.processBooking(1, 5, 1);
 
         assertEquals("ERROR", result.get("status").getAsString());
-        verify(passengerDAO, never()).updateNovaCredits(anyInt(), anyInt());
+        verify(transactionManager).setRollbackOnly();
+        verify(bookingDAO, never()).insertBooking(any(Connection.class), any());
+        verifyNoInteractions(eventBus);
     }
 
     @Test
-    void testProcessBookingFailsIfSlotIsNull() {
-        Passenger passenger = new Passenger(1, "user", "pass", 100000);
-
-        when(passengerDAO.getPassengerById(1)).thenReturn(passenger);
-        when(slotDAO.getSlotById(10)).thenReturn(null);
+    void testProcessBookingFailsIfSlotIsNull() throws SQLException {
+        when(slotDAO.claimSlot(conn, 10)).thenReturn(false);
 
         JsonObject result = bookingService.processBooking(1, 10, 1);
 
         assertEquals("ERROR", result.get("status").getAsString());
-        verify(passengerDAO, never()).updateNovaCredits(anyInt(), anyInt());
+        verify(passengerDAO, never()).deductNovaCredits(any(), anyInt(), anyInt());
     }
 
     @Test
-    void testProcessBookingFailsIfSlotUnavailable() {
-        Passenger passenger = new Passenger(1, "user", "pass", 500000);
-        SpacewalkSlot slot = new SpacewalkSlot(5, "2025-06-01T12:00:00Z", false);
-
-        when(passengerDAO.getPassengerById(1)).thenReturn(passenger);
-        when(slotDAO.getSlotById(5)).thenReturn(slot);
-        when(slotDAO.isSlotAvailable(5)).thenReturn(false);
+    void testProcessBookingFailsIfSlotUnavailable() throws SQLException {
+        when(slotDAO.claimSlot(conn, 5)).thenReturn(false);
 
         JsonObject result = bookingService.processBooking(1, 5, 3);
 
         assertEquals("ERROR", result.get("status").getAsString());
-        verify(passengerDAO, never()).updateNovaCredits(anyInt(), anyInt());
+        verify(passengerDAO, never()).deductNovaCredits(any(), anyInt(), anyInt());
+        verify(bookingDAO, never()).insertBooking(any(Connection.class), any());
     }
 
     @Test
-    void testProcessBookingFailsDueToLowCredits() {
-        Passenger passenger = new Passenger(1, "lowcredit", "pass", 50000);
-        SpacewalkSlot slot = new SpacewalkSlot(5, "2025-06-01T12:00:00Z", true);
-
-        when(passengerDAO.getPassengerById(1)).thenReturn(passenger);
-        when(slotDAO.getSlotById(5)).thenReturn(slot);
-        when(slotDAO.isSlotAvailable(5)).thenReturn(true);
+    void testProcessBookingFailsDueToLowCredits() throws SQLException {
+        when(slotDAO.claimSlot(conn, 5)).thenReturn(true);
+        when(passengerDAO.deductNovaCredits(conn, 1, 250000)).thenReturn(null);
 
         JsonObject result = bookingService.processBooking(1, 5, 2);
 
         assertEquals("ERROR", result.get("status").getAsString());
         assertEquals("Booking failed.", result.get("message").getAsString());
 
-        verify(passengerDAO, never()).updateNovaCredits(anyInt(), anyInt());
-        verify(bookingDAO, never()).insertBooking(any());
+        // the claimed slot is released again by the rollback
+        verify(transactionManager).setRollbackOnly();
+        verify(bookingDAO, never()).insertBooking(any(Connection.class), any());
+    }
+
+    @Test
+    void testProcessBookingFailsIfTransactionFails() throws SQLException {
+        doThrow(new SQLException("database is locked")).when(transactionManager).inTransaction(any());
+
+        JsonObject result = bookingService.processBooking(1, 5, 2);
+
+        assertEquals("ERROR", result.get("status").getAsString());
     }
 
     @Test
@@ -131,15 +141,73 @@ public class BookingServiceTest {
     }
 
     @Test
-    void testApproveBooking() {
+    void testApproveBooking() throws SQLException {
+        Booking approved = new Booking(101, 7, 3, 1, "approved");
+        when(bookingDAO.updateBookingStatus(conn, 101, "approved")).thenReturn(approved);
+
         bookingService.approveBooking(101);
-        verify(bookingDAO).updateBookingStatus(101, "approved");
+
+        verify(eventBus).publish(EventTopic.BOOKING_STATUS, "7", approved);
+    }
+
+    @Test
+    void testDenyBookingRefundsFullCost() throws SQLException {
+        when(bookingDAO.updateBookingStatus(conn, 102, "denied")).thenReturn(new Booking(102, 7, 3, 2, "denied"));
+        when(passengerDAO.addNovaCredits(conn, 7, 250000)).thenReturn(new Passenger(7, "user", "pass", 300000, false));
+
+        JsonObject result = bookingService.denyBooking(102);
+
+        assertEquals("OK", result.get("status").getAsString());
+        assertEquals(300000, result.get("newBalance").getAsInt());
+        verify(slotDAO).setAvailability(conn, 3, false);
+        verify(eventBus).publish(eq(EventTopic.BOOKING_STATUS), eq("7"), any(Booking.class));
+    }
+
+    @Test
+    void testDenyBookingAlreadyDenied() throws SQLException {
+        when(bookingDAO.updateBookingStatus(conn, 102, "denied")).thenReturn(null);
+
+        JsonObject result = bookingService.denyBooking(102);
+
+        assertEquals("ERROR", result.get("status").getAsString());
+        verify(passengerDAO, never()).addNovaCredits(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testCancelBookingRefundsThreeQuarters() throws SQLException {
+        when(bookingDAO.deleteBooking(conn, 5)).thenReturn(new Booking(5, 7, 3, 3, "pending"));
+        when(passengerDAO.addNovaCredits(conn, 7, 375000)).thenReturn(new Passenger(7, "cancelTestUser", "pass", 375000, false));
+        when(slotDAO.setAvailability(conn, 3, true)).thenReturn(true);
+
+        JsonObject result = bookingService.cancelBooking(5);
+
+        assertEquals("OK", result.get("status").getAsString());
+        assertEquals(375000, result.get("newBalance").getAsInt());
+        assertEquals("cancelTestUser", CancellationState.getLastCancelledPassenger());
+        verify(transactionManager, never()).setRollbackOnly();
+        verify(eventBus).publish(eq(EventTopic.CANCELLATION), isNull(), any());
+    }
+
+    @Test
+    void testCancelBookingRollsBackIfPassengerMissing() throws SQLException {
+        when(bookingDAO.deleteBooking(conn, 5)).thenReturn(new Booking(5, 7, 3, 1, "pending"));
+        when(passengerDAO.addNovaCredits(conn, 7, 75000)).thenReturn(null);
+
+        JsonObject result = bookingService.cancelBooking(5);
+
+        assertEquals("ERROR", result.get("status").getAsString());
+        verify(transactionManager).setRollbackOnly();
+        verifyNoInteractions(eventBus);
     }
 
     @Test
-    void testDenyBooking() {
-        bookingService.denyBooking(102);
-        verify(bookingDAO).updateBookingStatus(102, "denied");
+    void testCancelBookingNotFound() throws SQLException {
+        when(bookingDAO.deleteBooking(conn, 5)).thenReturn(null);
+
+        JsonObject result = bookingService.cancelBooking(5);
+
+        assertEquals("ERROR", result.get("status").getAsString());
+        verify(passengerDAO, never()).addNovaCredits(any(), anyInt(), anyInt());
     }
 
     @Test
@@ -155,8 +223,21 @@ public class BookingServiceTest {
     }
 
     @Test
-    void testSetBookingStatus() {
+    void testSetBookingStatus() throws SQLException {
+        Booking cancelled = new Booking(200, 4, 9, 2, "cancelled");
+        when(bookingDAO.updateBookingStatus(conn, 200, "cancelled")).thenReturn(cancelled);
+
+        bookingService.setBookingStatus(200, "cancelled");
+
+        verify(eventBus).publish(EventTopic.BOOKING_STATUS, "4", cancelled);
+    }
+
+    @Test
+    void testSetBookingStatusUnchangedPublishesNothing() throws SQLException {
+        when(bookingDAO.updateBookingStatus(conn, 200, "cancelled")).thenReturn(null);
+
         bookingService.setBookingStatus(200, "cancelled");
-        verify(bookingDAO).updateBookingStatus(200, "cancelled");
+
+        verifyNoInteractions(eventBus);
     }
 }
\ No newline at end of file
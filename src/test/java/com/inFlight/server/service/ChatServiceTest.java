@@ -1,7 +1,9 @@
 package com.inFlight.server.service;
 
 import com.inFlight.server.dao.ChatMessageDAO;
+import com.inFlight.server.push.EventBus;
 import com.inFlight.shared.model.ChatMessage;
+import com.inFlight.shared.protocol.EventTopic;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -13,21 +15,35 @@ import static org.mockito.Mockito.*;
 class ChatServiceTest {
 
     private ChatMessageDAO mockDAO;
+    private EventBus eventBus;
     private ChatService chatService;
 
     @BeforeEach
     void setUp() {
         mockDAO = mock(ChatMessageDAO.class);
-        chatService = new ChatService(mockDAO);
+        eventBus = mock(EventBus.class);
+        chatService = new ChatService(mockDAO, eventBus);
     }
 
     @Test
     void testSendMessageDelegatesToDAO() {
         ChatMessage message = new ChatMessage("alice", "bob", "Hello Bob!");
+        when(mockDAO.saveMessage(message)).thenReturn(true);
 
         chatService.sendMessage(message);
 
         verify(mockDAO, times(1)).saveMessage(message);
+        verify(eventBus).publish(EventTopic.CHAT, "alice|bob", message);
+    }
+
+    @Test
+    void testSendMessageNotPublishedIfSaveFails() {
+        ChatMessage message = new ChatMessage("alice", "bob", "Hello Bob!");
+        when(mockDAO.saveMessage(message)).thenReturn(false);
+
+        chatService.sendMessage(message);
+
+        verifyNoInteractions(eventBus);
     }
 
     @Test
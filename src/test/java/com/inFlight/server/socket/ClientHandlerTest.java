@@ -1,9 +1,13 @@
 package com.inFlight.server.socket;
 
+import com.inFlight.shared.protocol.Framing;
 import org.junit.jupiter.api.Test;
 import java.io.*;
 import java.net.Socket;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class ClientHandlerTest {
 
@@ -27,7 +31,10 @@ public class ClientHandlerTest {
         String request = "{\"action\":\"PING\",\"data\":{}}";
         String expectedResponse = "{\"status\":\"OK\"}";
 
-        when(mockProtocolHandler.handle(request)).thenReturn(expectedResponse);
+        doAnswer(invocation -> {
+            invocation.<Writer>getArgument(1).write(expectedResponse);
+            return null;
+        }).when(mockProtocolHandler).handle(eq(request), any(Writer.class), any());
 
         // Create and start handler thread
         ClientHandler handler = new ClientHandler(mockSocket, mockProtocolHandler);
@@ -49,4 +56,37 @@ public class ClientHandlerTest {
         // Cleanup
         handler.interrupt();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testClientHandlerAnswersBinaryFrames() throws Exception {
+        Socket mockSocket = mock(Socket.class);
+        ProtocolHandler mockProtocolHandler = mock(ProtocolHandler.class);
+
+        PipedInputStream clientInput = new PipedInputStream();
+        PipedOutputStream inputToServer = new PipedOutputStream(clientInput);
+        PipedOutputStream clientOutput = new PipedOutputStream();
+        PipedInputStream outputFromServer = new PipedInputStream(clientOutput);
+        when(mockSocket.getInputStream()).thenReturn(clientInput);
+        when(mockSocket.getOutputStream()).thenReturn(clientOutput);
+
+        String request = "{\"action\":\"PING\",\"data\":{\"text\":\"two\nlines\"}}";
+        doAnswer(invocation -> {
+            StringWriter received = new StringWriter();
+            invocation.<Reader>getArgument(0).transferTo(received);
+            invocation.<Writer>getArgument(1).write("{\"received\":" + received + "}");
+            return null;
+        }).when(mockProtocolHandler).handle(any(Reader.class), any(Writer.class), any());
+
+        ClientHandler handler = new ClientHandler(mockSocket, mockProtocolHandler);
+        handler.start();
+
+        Framing.BINARY.startClient(inputToServer);
+        Framing.BINARY.newWriter(inputToServer).writeFrame(request);
+
+        StringWriter response = new StringWriter();
+        Framing.BINARY.newReader(outputFromServer).next().transferTo(response);
+        assertEquals("{\"received\":" + request + "}", response.toString());
+
+        handler.interrupt();
+    }
+}
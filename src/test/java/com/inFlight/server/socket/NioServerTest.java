@@ -0,0 +1,175 @@
+package com.inFlight.server.socket;
+
+import com.google.gson.Gson;
+import com.inFlight.server.push.ClientSession;
+import com.inFlight.server.push.EventBus;
+import com.inFlight.server.push.EventLog;
+import com.inFlight.server.push.Subscription;
+import com.inFlight.shared.protocol.EventTopic;
+import com.inFlight.shared.protocol.FrameReader;
+import com.inFlight.shared.protocol.FrameWriter;
+import com.inFlight.shared.protocol.Framing;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class NioServerTest {
+    private ProtocolHandler mockProtocolHandler;
+    private NioServer server;
+    private int port;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockProtocolHandler = mock(ProtocolHandler.class);
+        doAnswer(invocation -> {
+            StringWriter request = new StringWriter();
+            invocation.getArgument(0, Reader.class).transferTo(request);
+            invocation.getArgument(1, Writer.class).write("{\"echo\":" + request + "}");
+            return null;
+        }).when(mockProtocolHandler).handle(any(Reader.class), any(Writer.class), any(ClientSession.class));
+
+        server = new NioServer(0, mockProtocolHandler, 2, 4);
+        new Thread(server).start();
+        port = server.awaitPort();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    void testRespondsToNewlineDelimitedRequestsInOrder() throws IOException {
+        try (Socket socket = new Socket("localhost", port)) {
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+
+            // Pipeline several requests before reading any response
+            for (int i = 0; i < 20; i++) {
+                writer.write("{\"n\":" + i + "}");
+                writer.newLine();
+            }
+            writer.flush();
+
+            for (int i = 0; i < 20; i++) {
+                assertEquals("{\"echo\":{\"n\":" + i + "}}", reader.readLine());
+            }
+        }
+    }
+
+    @Test
+    void testServesSeveralClientsConcurrently() throws IOException {
+        try (Socket first = new Socket("localhost", port); Socket second = new Socket("localhost", port)) {
+            BufferedWriter firstWriter = new BufferedWriter(new OutputStreamWriter(first.getOutputStream(), StandardCharsets.UTF_8));
+            BufferedWriter secondWriter = new BufferedWriter(new OutputStreamWriter(second.getOutputStream(), StandardCharsets.UTF_8));
+
+            firstWriter.write("{\"client\":1}");
+            firstWriter.newLine();
+            firstWriter.flush();
+            secondWriter.write("{\"client\":2,\"text\":\"Grüße\"}");
+            secondWriter.newLine();
+            secondWriter.flush();
+
+            BufferedReader secondReader = new BufferedReader(new InputStreamReader(second.getInputStream(), StandardCharsets.UTF_8));
+            BufferedReader firstReader = new BufferedReader(new InputStreamReader(first.getInputStream(), StandardCharsets.UTF_8));
+            assertEquals("{\"echo\":{\"client\":2,\"text\":\"Grüße\"}}", secondReader.readLine());
+            assertEquals("{\"echo\":{\"client\":1}}", firstReader.readLine());
+        }
+    }
+
+    @Test
+    void testBinaryClientGetsLengthPrefixedFrames() throws IOException {
+        try (Socket socket = new Socket("localhost", port)) {
+            Framing.BINARY.startClient(socket.getOutputStream());
+            FrameWriter writer = Framing.BINARY.newWriter(socket.getOutputStream());
+            FrameReader reader = Framing.BINARY.newReader(socket.getInputStream());
+
+            // Pipelined, and the second message contains a raw line break
+            writer.writeFrame("{\"n\":1}");
+            writer.writeFrame("{\"text\":\"Grüße\nzweite Zeile\"}");
+
+            assertEquals("{\"echo\":{\"n\":1}}", new BufferedReader(reader.next()).readLine());
+            Reader second = reader.next();
+            StringWriter text = new StringWriter();
+            second.transferTo(text);
+            assertEquals("{\"echo\":{\"text\":\"Grüße\nzweite Zeile\"}}", text.toString());
+        }
+    }
+
+    @Test
+    void testLineEndingWithCarriageReturnIsTrimmed() throws IOException {
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.getOutputStream().write("{\"n\":1}\r\n".getBytes(StandardCharsets.UTF_8));
+            socket.getOutputStream().flush();
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            assertEquals("{\"echo\":{\"n\":1}}", reader.readLine());
+        }
+    }
+
+    @Test
+    void testLineWithoutEndIsLimited() throws IOException {
+        try (Socket socket = new Socket("localhost", port)) {
+            byte[] chunk = new byte[64 * 1024];
+            Arrays.fill(chunk, (byte) 'a');
+            try {
+                OutputStream out = socket.getOutputStream();
+                for (int sent = 0; sent <= Framing.MAX_FRAME_BYTES; sent += chunk.length) {
+                    out.write(chunk);
+                }
+                out.flush();
+            } catch (IOException e) {
+                // The server may close the connection before everything is sent
+            }
+            try {
+                assertEquals(-1, socket.getInputStream().read());
+            } catch (IOException e) {
+                // Reset by the server, also a closed connection
+            }
+        }
+        verify(mockProtocolHandler, never()).handle(any(Reader.class), any(Writer.class), any(ClientSession.class));
+    }
+
+    @Test
+    void testClientThatStopsReadingIsDisconnected() throws Exception {
+        EventBus eventBus = new EventBus(new Gson(), new EventLog(8));
+        Subscription broadcast = new Subscription(EventTopic.BROADCAST, null);
+        ProtocolHandler subscribing = mock(ProtocolHandler.class);
+        doAnswer(invocation -> {
+            invocation.getArgument(2, ClientSession.class).subscribe(broadcast);
+            invocation.getArgument(1, Writer.class).write("{\"status\":\"OK\"}");
+            return null;
+        }).when(subscribing).handle(any(Reader.class), any(Writer.class), any(ClientSession.class));
+
+        try (NioServer slowServer = new NioServer(0, subscribing, eventBus, 1, 2);
+             Socket socket = new Socket()) {
+            new Thread(slowServer).start();
+            socket.setReceiveBufferSize(4096);
+            socket.connect(new InetSocketAddress("localhost", slowServer.awaitPort()));
+            socket.getOutputStream().write("{\"action\":\"SUBSCRIBE\"}\n".getBytes(StandardCharsets.UTF_8));
+            socket.getOutputStream().flush();
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (eventBus.getSubscriberCount(broadcast) == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, eventBus.getSubscriberCount(broadcast));
+
+            // The client never reads, so the events pile up until the server gives up on it
+            String text = "x".repeat(16 * 1024);
+            for (int i = 0; i < 4096 && eventBus.getSubscriberCount(broadcast) > 0; i++) {
+                eventBus.publish(EventTopic.BROADCAST, null, Map.of("message", text));
+            }
+            assertEquals(0, eventBus.getSubscriberCount(broadcast));
+        }
+    }
+}
@@ -10,18 +10,51 @@ import com.inFlight.server.dao.InventoryItemDAO;
 import com.inFlight.server.dao.ChatMessageDAO;
 import com.inFlight.server.dao.SpacewalkSlotDAO;
 import com.inFlight.server.dao.BookingDAO;
+import com.inFlight.server.dao.BookingFilter;
+import com.inFlight.server.dao.PageRequest;
+import com.inFlight.server.dao.RowCallback;
+import com.inFlight.server.metrics.Outcome;
+import com.inFlight.server.metrics.ServerMetrics;
 import com.inFlight.server.service.PhotographerService;
 import com.inFlight.server.service.InventoryService;
+import com.inFlight.server.push.ClientSession;
+import com.inFlight.server.push.EventBus;
+import com.inFlight.server.push.EventLog;
+import com.inFlight.server.socket.handler.BatchHandler;
+import com.inFlight.server.socket.handler.GetMetricsHandler;
+import com.inFlight.server.socket.handler.HandlerRegistry;
+import com.inFlight.server.socket.handler.RequestHandler;
+import com.inFlight.server.socket.handler.Response;
+import com.inFlight.shared.protocol.ActionType;
+import com.inFlight.shared.protocol.EventFrame;
+import com.inFlight.shared.protocol.EventTopic;
 import com.inFlight.shared.model.*;
 import com.inFlight.shared.state.BroadcastState;
 import com.inFlight.shared.state.SurveyState;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.stubbing.Stubber;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 class ProtocolHandlerTest {
     private ProtocolHandler protocolHandler;
@@ -34,6 +67,8 @@ class ProtocolHandlerTest {
     private InventoryService inventoryService;
     private InventoryItemDAO inventoryDAO;
     private ChatMessageDAO chatMessageDAO;
+    private EventBus eventBus;
+    private EventLog eventLog;
     private Gson gson;
 
     @BeforeEach
@@ -48,9 +83,12 @@ class ProtocolHandlerTest {
         bookingDAO = mock(BookingDAO.class);
         inventoryDAO = mock(InventoryItemDAO.class);
         chatMessageDAO = mock(ChatMessageDAO.class);
+        eventBus = mock(EventBus.class);
+        eventLog = new EventLog(16);
+        when(eventBus.getEventLog()).thenReturn(eventLog);
         gson = new Gson();
 
-        protocolHandler = new ProtocolHandler(bookingService, chatService, photographerService, inventoryService, passengerDAO, bookingDAO, slotDAO, inventoryDAO, chatMessageDAO);
+        protocolHandler = new ProtocolHandler(bookingService, chatService, photographerService, inventoryService, passengerDAO, bookingDAO, slotDAO, inventoryDAO, chatMessageDAO, eventBus);
         }
 
     @Test
@@ -113,10 +151,10 @@ class ProtocolHandlerTest {
     }
 
     @Test
-    void testHandleGetChat() {
+    void testHandleGetChat() throws Exception {
         String message = "{\"action\": \"GET_CHAT\", \"data\": {\"sender\": \"john_doe\", \"receiver\": \"jane_doe\"}}";
         List<ChatMessage> mockMessages = Arrays.asList(new ChatMessage("john_doe", "jane_doe", "Hello!"));
-        when(chatService.getChatHistory("john_doe", "jane_doe")).thenReturn(mockMessages);
+        streamRows(mockMessages, 2).when(chatService).forEachChatMessage(eq("john_doe"), eq("jane_doe"), any());
 
         String response = protocolHandler.handle(message);
         JsonObject jsonResponse = gson.fromJson(response, JsonObject.class);
@@ -125,6 +163,144 @@ class ProtocolHandlerTest {
         assertNotNull(jsonResponse.get("messages"));
     }
 
+    @Test
+    void testResponsesStartWithTheRequestId() throws Exception {
+        when(passengerDAO.getPassengerByUsername("Guenther Geissen")).thenReturn(new Passenger(1, "Guenther Geissen", "1337", 100, false));
+        streamRows(List.of(new ChatMessage("john_doe", "jane_doe", "Hello!")), 2)
+                .when(chatService).forEachChatMessage(eq("john_doe"), eq("jane_doe"), any());
+
+        String login = protocolHandler.handle("{\"action\": \"LOGIN\", \"requestId\": 11, \"data\": {\"username\": \"Guenther Geissen\"}}");
+        String chat = protocolHandler.handle("{\"action\": \"GET_CHAT\", \"requestId\": 12, \"data\": {\"sender\": \"john_doe\", \"receiver\": \"jane_doe\"}}");
+        String unknown = protocolHandler.handle("{\"action\": \"NO_SUCH_ACTION\", \"requestId\": 13, \"data\": {}}");
+
+        assertTrue(login.startsWith("{\"requestId\":11,\"status\":\"OK\""), login);
+        assertTrue(chat.startsWith("{\"requestId\":12,\"status\":\"OK\""), chat);
+        assertEquals("Hello!", gson.fromJson(chat, JsonObject.class).getAsJsonArray("messages")
+                .get(0).getAsJsonObject().get("content").getAsString());
+        assertEquals(13, gson.fromJson(unknown, JsonObject.class).get("requestId").getAsInt());
+        assertEquals("ERROR", gson.fromJson(unknown, JsonObject.class).get("status").getAsString());
+        assertFalse(protocolHandler.handle("{\"action\": \"GET_BROADCAST\", \"data\": {}}").contains("requestId"));
+    }
+
+    @Test
+    void testBatchAnswersEveryRequestInOrder() {
+        AtomicBoolean checkedOut = new AtomicBoolean();
+        when(passengerDAO.getPassengerById(1)).thenAnswer(invocation -> new Passenger(1, "john_doe", "pw", 100, checkedOut.get()));
+        doAnswer(invocation -> {
+            checkedOut.set(invocation.getArgument(1));
+            return null;
+        }).when(passengerDAO).setCheckedOut(1, true);
+        when(slotDAO.getSlotById(3)).thenReturn(new SpacewalkSlot(3, "2025-06-01T10:00", true));
+        String message = "{\"action\": \"BATCH\", \"requestId\": 5, \"data\": {\"requests\": ["
+                + "{\"action\": \"GET_SLOT_BY_ID\", \"data\": {\"slotId\": 3}},"
+                + "{\"action\": \"CHECK_CHECKOUT_STATUS\", \"data\": {\"passengerId\": 1}},"
+                + "{\"action\": \"SET_CHECKED_OUT_STATUS\", \"data\": {\"passengerId\": 1, \"checkedOut\": true}},"
+                + "{\"action\": \"CHECK_CHECKOUT_STATUS\", \"data\": {\"passengerId\": 1}},"
+                + "{\"action\": \"NO_SUCH_ACTION\", \"data\": {}}]}}";
+
+        JsonObject response = gson.fromJson(protocolHandler.handle(message), JsonObject.class);
+
+        assertEquals(5, response.get("requestId").getAsInt());
+        assertEquals("OK", response.get("status").getAsString());
+        JsonArray responses = response.getAsJsonArray("responses");
+        assertEquals(5, responses.size());
+        assertEquals(3, responses.get(0).getAsJsonObject().getAsJsonObject("slot").get("slotId").getAsInt());
+        // The read before the change does not see it, the read after it does
+        assertFalse(responses.get(1).getAsJsonObject().get("checkedOut").getAsBoolean());
+        assertEquals("OK", responses.get(2).getAsJsonObject().get("status").getAsString());
+        assertTrue(responses.get(3).getAsJsonObject().get("checkedOut").getAsBoolean());
+        assertEquals("ERROR", responses.get(4).getAsJsonObject().get("status").getAsString());
+    }
+
+    @Test
+    void testBatchFailuresStayInTheirEntry() {
+        when(slotDAO.getSlotById(3)).thenThrow(new IllegalStateException("database unavailable"));
+        BroadcastState.setMessage("Batch broadcast");
+        String message = "{\"action\": \"BATCH\", \"data\": {\"requests\": ["
+                + "{\"action\": \"GET_SLOT_BY_ID\", \"data\": {\"slotId\": 3}},"
+                + "{\"action\": \"GET_BROADCAST\"},"
+                + "{\"action\": \"BATCH\", \"data\": {\"requests\": []}}]}}";
+
+        JsonArray responses = gson.fromJson(protocolHandler.handle(message), JsonObject.class).getAsJsonArray("responses");
+
+        assertEquals("ERROR", responses.get(0).getAsJsonObject().get("status").getAsString());
+        assertEquals("Batch broadcast", responses.get(1).getAsJsonObject().get("message").getAsString());
+        assertEquals("ERROR", responses.get(2).getAsJsonObject().get("status").getAsString());
+    }
+
+    @Test
+    void testBatchSizeIsLimited() {
+        JsonArray requests = new JsonArray();
+        for (int i = 0; i <= BatchHandler.MAX_REQUESTS; i++) {
+            JsonObject request = new JsonObject();
+            request.addProperty("action", "GET_BROADCAST");
+            requests.add(request);
+        }
+        JsonObject data = new JsonObject();
+        data.add("requests", requests);
+        JsonObject envelope = new JsonObject();
+        envelope.addProperty("action", "BATCH");
+        envelope.add("data", data);
+
+        JsonObject response = gson.fromJson(protocolHandler.handle(envelope.toString()), JsonObject.class);
+
+        assertEquals("ERROR", response.get("status").getAsString());
+    }
+
+    @Test
+    void testBatchRunsAtMostMaxParallelReads() {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        RequestHandler slowRead = new RequestHandler() {
+            @Override
+            public ActionType getAction() {
+                return ActionType.GET_BROADCAST;
+            }
+
+            @Override
+            public boolean isReadOnly() {
+                return true;
+            }
+
+            @Override
+            public Object handle(JsonObject data) throws Exception {
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                Thread.sleep(20);
+                active.decrementAndGet();
+                return Response.ok();
+            }
+        };
+        BatchHandler batchHandler = new BatchHandler(new HandlerRegistry().register(slowRead),
+                Executors.newVirtualThreadPerTaskExecutor(), new ServerMetrics(), 2);
+        JsonArray requests = new JsonArray();
+        for (int i = 0; i < 8; i++) {
+            JsonObject request = new JsonObject();
+            request.addProperty("action", "GET_BROADCAST");
+            requests.add(request);
+        }
+        JsonObject data = new JsonObject();
+        data.add("requests", requests);
+
+        batchHandler.handle(data, mock(ClientSession.class));
+
+        assertEquals(2, maxActive.get());
+    }
+
+    @Test
+    void testHandleGetChatSince() throws Exception {
+        String message = "{\"action\": \"GET_CHAT_SINCE\", \"data\": {\"sender\": \"john_doe\", \"receiver\": \"jane_doe\", \"afterId\": 4, \"limit\": 50}}";
+        List<ChatMessage> mockMessages = Arrays.asList(new ChatMessage(5, "jane_doe", "john_doe", "Hi!", "2025-06-01 10:15:00"));
+        streamRows(mockMessages, 4).when(chatService).forEachChatMessageSince(eq("john_doe"), eq("jane_doe"), eq(4), eq(50), any());
+
+        String response = protocolHandler.handle(message);
+        JsonObject jsonResponse = gson.fromJson(response, JsonObject.class);
+
+        assertEquals("OK", jsonResponse.get("status").getAsString());
+        JsonObject first = jsonResponse.getAsJsonArray("messages").get(0).getAsJsonObject();
+        assertEquals(5, first.get("id").getAsInt());
+        assertEquals("2025-06-01 10:15:00", first.get("timestamp").getAsString());
+    }
+
     @Test
     void testHandleApproveBooking() {
         String message = "{\"action\": \"APPROVE_BOOKING\", \"data\": {\"bookingId\": 1}}";
@@ -136,6 +312,34 @@ class ProtocolHandlerTest {
         assertEquals("OK", jsonResponse.get("status").getAsString());
     }
 
+    @Test
+    void testHandleCancelBooking() {
+        JsonObject serviceResult = new JsonObject();
+        serviceResult.addProperty("status", "OK");
+        serviceResult.addProperty("newBalance", 75000);
+        when(bookingService.cancelBooking(9)).thenReturn(serviceResult);
+
+        String response = protocolHandler.handle("{\"action\": \"CANCEL_BOOKING\", \"data\": {\"bookingId\": 9}}");
+        JsonObject jsonResponse = gson.fromJson(response, JsonObject.class);
+
+        assertEquals("OK", jsonResponse.get("status").getAsString());
+        assertEquals(75000, jsonResponse.get("newBalance").getAsInt());
+        verifyNoInteractions(bookingDAO, passengerDAO, slotDAO);
+    }
+
+    @Test
+    void testHandleDenyBooking() {
+        JsonObject serviceResult = new JsonObject();
+        serviceResult.addProperty("status", "ERROR");
+        when(bookingService.denyBooking(9)).thenReturn(serviceResult);
+
+        String response = protocolHandler.handle("{\"action\": \"DENY_BOOKING\", \"data\": {\"bookingId\": 9}}");
+        JsonObject jsonResponse = gson.fromJson(response, JsonObject.class);
+
+        assertEquals("ERROR", jsonResponse.get("status").getAsString());
+        verify(bookingService).denyBooking(9);
+    }
+
     @Test
     void testHandleException() {
         String message = "{\"action\": \"LOGIN\", \"data\": {\"username\": \"invalid\"}}";
@@ -199,6 +403,25 @@ class ProtocolHandlerTest {
         assertNotNull(response.get("timestamp"));
     }
 
+    @Test
+    void testHandleGetEventsSince() {
+        eventLog.append(new EventFrame(EventTopic.CANCELLATION, null, gson.toJsonTree("alice")));
+        eventLog.append(new EventFrame(EventTopic.CANCELLATION, null, gson.toJsonTree("bob")));
+        eventLog.append(new EventFrame(EventTopic.BOOKING_STATUS, "7", gson.toJsonTree("approved")));
+
+        String message = "{\"action\": \"GET_EVENTS_SINCE\", \"data\": {\"seq\": 1, "
+                + "\"topics\": [{\"topic\": \"CANCELLATION\"}, {\"topic\": \"BOOKING_STATUS\", \"key\": \"8\"}]}}";
+        JsonObject response = gson.fromJson(protocolHandler.handle(message), JsonObject.class);
+
+        assertEquals("OK", response.get("status").getAsString());
+        assertEquals(3, response.get("latestSeq").getAsLong());
+        assertTrue(response.get("complete").getAsBoolean());
+        JsonArray events = response.getAsJsonArray("events");
+        assertEquals(1, events.size());
+        assertEquals(2, events.get(0).getAsJsonObject().get("seq").getAsLong());
+        assertEquals("bob", events.get(0).getAsJsonObject().get("payload").getAsString());
+    }
+
     @Test
     void testHandleTriggerSurvey() {
         String message = "{\"action\": \"TRIGGER_SURVEY\", \"data\": {}}";
@@ -219,18 +442,71 @@ class ProtocolHandlerTest {
     }
 
     @Test
-    void testHandleGetAllPassengers() {
+    void testHandleGetAllPassengers() throws Exception {
         List<Passenger> passengers = Arrays.asList(
                 new Passenger(1, "Alice", "pw", 10, false),
                 new Passenger(2, "Bob", "pw", 20, true)
         );
-        when(passengerDAO.getAllPassengers()).thenReturn(passengers);
+        streamRows(passengers, 2).when(passengerDAO).forEachPassenger(isNull(), eq(PageRequest.ALL), any());
 
         String message = "{\"action\": \"GET_ALL_PASSENGERS\", \"data\": {}}";
         JsonObject response = gson.fromJson(protocolHandler.handle(message), JsonObject.class);
 
         assertEquals("OK", response.get("status").getAsString());
-        assertTrue(response.has("passengers"));
+        assertEquals(2, response.getAsJsonArray("passengers").size());
+        assertEquals("Bob", response.getAsJsonArray("passengers").get(1).getAsJsonObject().get("username").getAsString());
+    }
+
+    @Test
+    void testHandleGetAllPassengersFilteredPage() throws Exception {
+        streamRows(List.of(new Passenger(7, "Carol", "pw", 0, true)), 2)
+                .when(passengerDAO).forEachPassenger(eq(true), eq(new PageRequest(5, 20)), any());
+
+        String message = "{\"action\": \"GET_ALL_PASSENGERS\", \"data\": {\"checkedOut\": true, \"afterId\": 5, \"limit\": 20}}";
+        JsonObject response = gson.fromJson(protocolHandler.handle(message), JsonObject.class);
+
+        assertEquals(1, response.getAsJsonArray("passengers").size());
+        assertEquals(7, response.getAsJsonArray("passengers").get(0).getAsJsonObject().get("passengerId").getAsInt());
+    }
+
+    @Test
+    void testHandleGetBookingsCountOnly() throws Exception {
+        when(bookingService.countBookings(new BookingFilter("pending", null, null))).thenReturn(4);
+
+        String message = "{\"action\": \"GET_BOOKINGS\", \"data\": {\"status\": \"pending\", \"count\": true}}";
+        JsonObject response = gson.fromJson(protocolHandler.handle(message), JsonObject.class);
+
+        assertEquals("OK", response.get("status").getAsString());
+        assertEquals(4, response.get("count").getAsInt());
+        assertFalse(response.has("bookings"));
+        verify(bookingService, never()).forEachBooking(any(), any(), any());
+    }
+
+    @Test
+    void testHandleGetBookingsPassesFilterAndPage() throws Exception {
+        streamRows(List.of(new Booking(12, 3, 4, 3, "approved")), 2).when(bookingService)
+                .forEachBooking(eq(new BookingFilter("approved", null, 3)), eq(new PageRequest(11, 1)), any());
+
+        String message = "{\"action\": \"GET_BOOKINGS\", \"data\": {\"status\": \"approved\", \"tier\": 3, \"afterId\": 11, \"limit\": 1}}";
+        JsonObject response = gson.fromJson(protocolHandler.handle(message), JsonObject.class);
+
+        assertEquals(12, response.getAsJsonArray("bookings").get(0).getAsJsonObject().get("bookingId").getAsInt());
+    }
+
+    @Test
+    void testHandleGetChatCountAndPage() throws Exception {
+        when(chatService.countChatMessages("john_doe", "jane_doe")).thenReturn(9);
+        streamRows(List.of(new ChatMessage(8, "john_doe", "jane_doe", "Hi", null)), 4)
+                .when(chatService).forEachChatMessageSince(eq("john_doe"), eq("jane_doe"), eq(7), eq(ChatMessageDAO.MAX_PAGE_SIZE), any());
+
+        JsonObject count = gson.fromJson(protocolHandler.handle(
+                "{\"action\": \"GET_CHAT\", \"data\": {\"sender\": \"john_doe\", \"receiver\": \"jane_doe\", \"count\": true}}"), JsonObject.class);
+        JsonObject page = gson.fromJson(protocolHandler.handle(
+                "{\"action\": \"GET_CHAT\", \"data\": {\"sender\": \"john_doe\", \"receiver\": \"jane_doe\", \"afterId\": 7}}"), JsonObject.class);
+
+        assertEquals(9, count.get("count").getAsInt());
+        assertEquals(8, page.getAsJsonArray("messages").get(0).getAsJsonObject().get("id").getAsInt());
+        verify(chatService, never()).forEachChatMessage(anyString(), anyString(), any());
     }
 
     @Test
@@ -355,13 +631,46 @@ class ProtocolHandlerTest {
     }
 
     @Test
-    void testHandleGetBookingsForPassenger() {
+    void testHandleGetBookingsDetailed() throws Exception {
+        List<DetailedBooking> mockBookings = Arrays.asList(
+                new DetailedBooking(101, 1, 4, 3, "approved", "2025-06-01T10:00", "alice"));
+        streamRows(mockBookings, 2).when(bookingService).forEachDetailedBooking(eq(BookingFilter.NONE), eq(PageRequest.ALL), any());
+
+        JsonObject response = gson.fromJson(protocolHandler.handle("{\"action\": \"GET_BOOKINGS_DETAILED\", \"data\": {}}"), JsonObject.class);
+
+        assertEquals("OK", response.get("status").getAsString());
+        JsonObject booking = response.getAsJsonArray("bookings").get(0).getAsJsonObject();
+        assertEquals(101, booking.get("bookingId").getAsInt());
+        assertEquals("2025-06-01T10:00", booking.get("slotTime").getAsString());
+        assertEquals("alice", booking.get("passengerUsername").getAsString());
+        verify(slotDAO, never()).getSlotById(anyInt());
+        verify(passengerDAO, never()).getPassengerById(anyInt());
+    }
+
+    @Test
+    void testHandleGetBookingsForPassengerDetailed() throws Exception {
+        List<DetailedBooking> mockBookings = Arrays.asList(
+                new DetailedBooking(101, 1, 4, 1, "pending", "2025-06-01T10:00", "alice"),
+                new DetailedBooking(102, 1, 5, 2, "approved", "2025-06-01T11:00", "alice"));
+        streamRows(mockBookings, 1).when(bookingService).forEachDetailedBookingForPassenger(eq(1), any());
+
+        String message = "{\"action\": \"GET_BOOKINGS_FOR_PASSENGER_DETAILED\", \"data\": {\"passengerId\": 1}}";
+        JsonObject response = gson.fromJson(protocolHandler.handle(message), JsonObject.class);
+
+        assertEquals("OK", response.get("status").getAsString());
+        JsonArray bookings = response.getAsJsonArray("bookings");
+        assertEquals(2, bookings.size());
+        assertEquals("2025-06-01T11:00", bookings.get(1).getAsJsonObject().get("slotTime").getAsString());
+    }
+
+    @Test
+    void testHandleGetBookingsForPassenger() throws Exception {
         int passengerId = 1;
         List<Booking> mockBookings = Arrays.asList(
                 new Booking(101, passengerId, 1, 1, "approved"),
                 new Booking(102, passengerId, 2, 1, "approved")
         );
-        when(bookingService.getBookingsForPassenger(passengerId)).thenReturn(mockBookings);
+        streamRows(mockBookings, 1).when(bookingService).forEachBookingForPassenger(eq(passengerId), any());
 
         String message = "{\"action\": \"GET_BOOKINGS_FOR_PASSENGER\", \"data\": {\"passengerId\": 1}}";
         JsonObject response = gson.fromJson(protocolHandler.handle(message), JsonObject.class);
@@ -374,4 +683,185 @@ class ProtocolHandlerTest {
         assertEquals(101, bookings.get(0).getAsJsonObject().get("bookingId").getAsInt());
         assertEquals(102, bookings.get(1).getAsJsonObject().get("bookingId").getAsInt());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testHandleGetAvailableSlotsStreamsToWriter() throws Exception {
+        List<SpacewalkSlot> slots = Arrays.asList(
+                new SpacewalkSlot(1, "2025-05-01 10:00", true),
+                new SpacewalkSlot(2, "2025-05-01 12:00", true)
+        );
+        streamRows(slots, 2).when(slotDAO).forEachAvailableSlot(isNull(), isNull(), any());
+
+        StringWriter out = new StringWriter();
+        protocolHandler.handle("{\"action\": \"GET_AVAILABLE_SLOTS\", \"data\": {}}", out);
+        JsonObject response = gson.fromJson(out.toString(), JsonObject.class);
+
+        assertEquals("OK", response.get("status").getAsString());
+        assertEquals(2, response.getAsJsonArray("slots").size());
+        assertEquals(2, response.getAsJsonArray("slots").get(1).getAsJsonObject().get("slotId").getAsInt());
+    }
+
+    @Test
+    void testStreamingFailureBeforeOutputReturnsError() throws Exception {
+        // passengerId is missing, so the handler fails before it writes anything
+        StringWriter out = new StringWriter();
+        protocolHandler.handle("{\"action\": \"GET_BOOKINGS_FOR_PASSENGER\", \"data\": {}}", out);
+        JsonObject response = gson.fromJson(out.toString(), JsonObject.class);
+
+        assertEquals("ERROR", response.get("status").getAsString());
+    }
+
+    @Test
+    void testStreamingFailureAfterOutputAbortsResponse() throws Exception {
+        doAnswer(invocation -> {
+            RowCallback<Booking> callback = invocation.getArgument(2);
+            callback.accept(new Booking(101, 1, 1, 1, "approved"));
+            throw new IllegalStateException("cursor failed");
+        }).when(bookingService).forEachBooking(any(), any(), any());
+
+        assertThrows(IOException.class,
+                () -> protocolHandler.handle("{\"action\": \"GET_BOOKINGS\", \"data\": {}}", new StringWriter()));
+        // The String API cannot abort a connection, so it reports the failure instead
+        JsonObject response = gson.fromJson(protocolHandler.handle("{\"action\": \"GET_BOOKINGS\", \"data\": {}}"), JsonObject.class);
+        assertEquals("ERROR", response.get("status").getAsString());
+    }
+
+    @Test
+    void testHandleRecordsOutcomePerAction() {
+        ServerMetrics metrics = new ServerMetrics();
+        ProtocolHandler handler = new ProtocolHandler(bookingService, chatService, photographerService, inventoryService,
+                passengerDAO, bookingDAO, slotDAO, inventoryDAO, chatMessageDAO, eventBus, gson, metrics);
+        when(passengerDAO.getPassengerByUsername("Nobody")).thenReturn(null);
+
+        handler.handle("{\"action\": \"GET_BROADCAST\", \"data\": {}}");
+        handler.handle("{\"action\": \"LOGIN\", \"data\": {\"username\": \"Nobody\"}}");
+        handler.handle("{\"action\": \"GET_BOOKINGS_FOR_PASSENGER\", \"data\": {}}");
+        handler.handle("{\"action\": \"BATCH\", \"data\": {\"requests\": [{\"action\": \"GET_BROADCAST\", \"data\": {}}]}}");
+
+        assertEquals(2, metrics.action(ActionType.GET_BROADCAST).getCount(Outcome.OK));
+        assertEquals(1, metrics.action(ActionType.LOGIN).getCount(Outcome.ERROR));
+        assertEquals(1, metrics.action(ActionType.GET_BOOKINGS_FOR_PASSENGER).getCount(Outcome.FAILED));
+        assertEquals(1, metrics.action(ActionType.BATCH).getCount(Outcome.OK));
+        assertEquals(5, metrics.getRequestCount());
+    }
+
+    @Test
+    void testBrokenStreamIsRecordedAsFailed() throws Exception {
+        ServerMetrics metrics = new ServerMetrics();
+        ProtocolHandler handler = new ProtocolHandler(bookingService, chatService, photographerService, inventoryService,
+                passengerDAO, bookingDAO, slotDAO, inventoryDAO, chatMessageDAO, eventBus, gson, metrics);
+        streamRows(List.of(new Booking(101, 1, 1, 1, "approved")), 2).when(bookingService).forEachBooking(any(), any(), any());
+        Writer broken = new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException {
+                throw new IOException("Connection reset");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        assertThrows(IOException.class, () -> handler.handle("{\"action\": \"GET_BOOKINGS\", \"data\": {}}", broken));
+
+        assertEquals(1, metrics.action(ActionType.GET_BOOKINGS).getCount(Outcome.FAILED));
+        assertEquals(0, metrics.action(ActionType.GET_BOOKINGS).getCount(Outcome.OK));
+    }
+
+    @Test
+    void testRequestHandledEventCountsUtf8Bytes(@TempDir Path dir) throws Exception {
+        BroadcastState.setMessage("Grüße aus dem Orbit 🚀");
+        String request = "{\"action\": \"GET_BROADCAST\", \"data\": {\"note\": \"ü\"}}";
+        Path file = dir.resolve("requests.jfr");
+        String response;
+        try (Recording recording = new Recording()) {
+            recording.enable("com.inFlight.RequestHandled").withThreshold(Duration.ZERO);
+            recording.start();
+
+            response = protocolHandler.handle(request);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        RecordedEvent event = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("com.inFlight.RequestHandled"))
+                .findFirst().orElseThrow();
+        assertEquals(request.getBytes(StandardCharsets.UTF_8).length, event.getLong("bytesIn"));
+        assertEquals(response.getBytes(StandardCharsets.UTF_8).length, event.getLong("bytesOut"));
+    }
+
+    @Test
+    void testHandleGetMetrics() {
+        ServerMetrics metrics = new ServerMetrics();
+        ProtocolHandler handler;
+        System.setProperty(GetMetricsHandler.TOKEN_PROPERTY, "s3cret");
+        try {
+            handler = new ProtocolHandler(bookingService, chatService, photographerService, inventoryService,
+                    passengerDAO, bookingDAO, slotDAO, inventoryDAO, chatMessageDAO, eventBus, gson, metrics);
+        } finally {
+            System.clearProperty(GetMetricsHandler.TOKEN_PROPERTY);
+        }
+        handler.handle("{\"action\": \"GET_BROADCAST\", \"data\": {}}");
+
+        JsonObject response = gson.fromJson(handler.handle("{\"action\": \"GET_METRICS\", \"data\": {\"token\": \"s3cret\"}}"), JsonObject.class);
+
+        assertEquals("OK", response.get("status").getAsString());
+        assertEquals(1, response.get("requests").getAsLong());
+        JsonObject actions = response.getAsJsonObject("actions");
+        assertEquals(1, actions.size());
+        assertEquals(1, actions.getAsJsonObject("GET_BROADCAST").get("count").getAsLong());
+        assertTrue(response.has("dao"));
+    }
+
+    @Test
+    void testHandleGetMetricsNeedsTheAdminToken() throws Exception {
+        GetMetricsHandler handler = new GetMetricsHandler(new ServerMetrics(), "s3cret");
+        GetMetricsHandler disabled = new GetMetricsHandler(new ServerMetrics(), null);
+        JsonObject wrongToken = gson.fromJson("{\"token\": \"guess\"}", JsonObject.class);
+        JsonObject rightToken = gson.fromJson("{\"token\": \"s3cret\"}", JsonObject.class);
+
+        assertTrue(Response.isError(handler.handle(new JsonObject())));
+        assertTrue(Response.isError(handler.handle(wrongToken)));
+        assertFalse(Response.isError(handler.handle(rightToken)));
+        assertTrue(Response.isError(disabled.handle(rightToken)));
+        // The role a client claims for itself does not open the metrics
+        ClientSession pilot = new ClientSession(eventBus, frame -> { });
+        pilot.identify("Pilot");
+        JsonObject response = gson.fromJson(protocolHandler.handle("{\"action\": \"GET_METRICS\", \"data\": {}}", pilot), JsonObject.class);
+        assertEquals("ERROR", response.get("status").getAsString());
+        assertFalse(response.has("actions"));
+    }
+
+    @Test
+    void testHandleIdentifiesTheRoleOfTheSession() {
+        ClientSession passenger = new ClientSession(eventBus, frame -> { });
+        when(passengerDAO.getPassengerByUsername("Guenther Geissen")).thenReturn(new Passenger(1, "Guenther Geissen", "1337", 100, false));
+        protocolHandler.handle("{\"action\": \"GET_BROADCAST\", \"data\": {}}", passenger);
+        assertNull(passenger.getRole());
+        protocolHandler.handle("{\"action\": \"LOGIN\", \"data\": {\"username\": \"Guenther Geissen\"}}", passenger);
+        protocolHandler.handle("{\"action\": \"SEND_CHAT\", \"data\": {\"sender\": \"ATC\", \"receiver\": \"Pilot\", \"message\": \"Hi\"}}", passenger);
+        assertEquals("Passenger", passenger.getRole());
+
+        ClientSession atc = new ClientSession(eventBus, frame -> { });
+        protocolHandler.handle("{\"action\": \"SEND_CHAT\", \"data\": {\"sender\": \"ATC\", \"receiver\": \"Pilot\", \"message\": \"Hi\"}}", atc);
+        assertEquals("ATC", atc.getRole());
+    }
+
+    /**
+     * Stubs a forEach method so that it passes the given rows to the callback at the given argument index.
+     */
+    private static <T> Stubber streamRows(List<T> rows, int callbackIndex) {
+        return doAnswer(invocation -> {
+            RowCallback<T> callback = invocation.getArgument(callbackIndex);
+            for (T row : rows) {
+                callback.accept(row);
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,50 @@
+package com.inFlight.server.socket.handler;
+
+import com.inFlight.server.push.EventBus;
+import com.inFlight.server.socket.ProtocolHandler;
+import com.inFlight.shared.protocol.ActionType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HandlerRegistryTest {
+
+    @Test
+    void testEveryActionHasAHandler() {
+        HandlerRegistry registry = new ProtocolHandler().getRegistry();
+
+        for (ActionType action : ActionType.values()) {
+            RequestHandler handler = registry.get(action);
+            assertNotNull(handler, "No handler for " + action);
+            assertEquals(action, handler.getAction());
+        }
+        assertEquals(ActionType.values().length, registry.getHandlers().size());
+    }
+
+    @Test
+    void testDuplicateRegistrationFails() {
+        HandlerRegistry registry = new HandlerRegistry().register(new TriggerSurveyHandler(EventBus.getInstance()));
+
+        assertThrows(IllegalStateException.class, () -> registry.register(new TriggerSurveyHandler(EventBus.getInstance())));
+    }
+
+    @Test
+    void testReadOnlyMetadata() {
+        HandlerRegistry registry = new ProtocolHandler().getRegistry();
+
+        assertTrue(registry.get(ActionType.GET_AVAILABLE_SLOTS).isReadOnly());
+        assertEquals(CacheRegion.SLOTS, registry.get(ActionType.GET_AVAILABLE_SLOTS).getCacheRegion());
+        assertFalse(registry.get(ActionType.BOOK_SLOT).isReadOnly());
+        assertEquals(CacheRegion.SLOTS, registry.get(ActionType.BOOK_SLOT).getCacheRegion());
+        assertFalse(registry.get(ActionType.CANCEL_BOOKING).isReadOnly());
+        assertTrue(registry.get(ActionType.LOGIN).isReadOnly());
+    }
+
+    @Test
+    void testResponseKeepsFieldOrder() {
+        Response response = Response.ok().with("newBalance", 5).with("message", null);
+
+        assertEquals("[status, newBalance, message]", response.getBody().keySet().toString());
+        assertEquals("ERROR", Response.error("boom").getBody().get("status"));
+    }
+}
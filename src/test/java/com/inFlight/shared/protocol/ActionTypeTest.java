@@ -36,7 +36,15 @@ class ActionTypeTest {
                 ActionType.GET_PHOTOGRAPHER_BY_ID,
                 ActionType.SET_PHOTOGRAPHER_CHECKED_OUT,
                 ActionType.GET_INVENTORY_BY_ROLE,
-                ActionType.UPDATE_INVENTORY_ITEM
+                ActionType.UPDATE_INVENTORY_ITEM,
+                ActionType.SUBSCRIBE,
+                ActionType.UNSUBSCRIBE,
+                ActionType.GET_EVENTS_SINCE,
+                ActionType.GET_CHAT_SINCE,
+                ActionType.GET_BOOKINGS_DETAILED,
+                ActionType.GET_BOOKINGS_FOR_PASSENGER_DETAILED,
+                ActionType.BATCH,
+                ActionType.GET_METRICS
         };
 
         ActionType[] actual = ActionType.values();
@@ -58,6 +66,6 @@ class ActionTypeTest {
 
     @Test
     void testEnumCount() {
-        assertEquals(28, ActionType.values().length, "Enum should contain 28 constants.");
+        assertEquals(36, ActionType.values().length, "Enum should contain 36 constants.");
     }
 }
\ No newline at end of file
@@ -0,0 +1,118 @@
+package com.inFlight.shared.protocol;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FramingTest {
+
+    private static String readAll(Reader reader) throws IOException {
+        StringBuilder text = new StringBuilder();
+        char[] chunk = new char[7]; // Small, so characters are split across reads
+        int n;
+        while ((n = reader.read(chunk, 0, chunk.length)) != -1) {
+            text.append(chunk, 0, n);
+        }
+        return text.toString();
+    }
+
+    @Test
+    void testBinaryFramesRoundTrip() throws IOException {
+        ByteArrayOutputStream wire = new ByteArrayOutputStream();
+        FrameWriter writer = Framing.BINARY.newWriter(wire);
+        String multiline = "{\"content\":\"line one\nline two\"}";
+        String unicode = "{\"content\":\"Grüße aus dem Orbit 🚀\"}";
+        String large = "{\"content\":\"" + "x".repeat(200_000) + "\"}";
+
+        writer.writeFrame(multiline);
+        writer.writeFrame(unicode);
+        writer.begin().write(large);
+        writer.end();
+
+        FrameReader reader = Framing.BINARY.newReader(new ByteArrayInputStream(wire.toByteArray()));
+        assertEquals(multiline, readAll(reader.next()));
+        assertEquals(unicode, readAll(reader.next()));
+        assertEquals(large, readAll(reader.next()));
+        assertNull(reader.next());
+    }
+
+    @Test
+    void testBinaryFrameCarriesLengthInBytes() throws IOException {
+        ByteArrayOutputStream wire = new ByteArrayOutputStream();
+
+        Framing.BINARY.newWriter(wire).writeFrame("ü");
+
+        assertArrayEquals(new byte[]{0, 0, 0, 2, (byte) 0xC3, (byte) 0xBC}, wire.toByteArray());
+    }
+
+    @Test
+    void testTextFrameIsUtf8() throws IOException {
+        ByteArrayOutputStream wire = new ByteArrayOutputStream();
+
+        Framing.TEXT.newWriter(wire).writeFrame("ü");
+
+        assertArrayEquals(new byte[]{(byte) 0xC3, (byte) 0xBC}, Arrays.copyOf(wire.toByteArray(), 2));
+        assertEquals("ü", readAll(Framing.TEXT.newReader(new ByteArrayInputStream(wire.toByteArray())).next()));
+    }
+
+    @Test
+    void testClientsUseTextUnlessConfigured() {
+        String previous = System.getProperty(Framing.PROPERTY);
+        try {
+            System.clearProperty(Framing.PROPERTY);
+            assertEquals(Framing.TEXT, Framing.fromSystemProperties());
+            System.setProperty(Framing.PROPERTY, "binary");
+            assertEquals(Framing.BINARY, Framing.fromSystemProperties());
+        } finally {
+            if (previous == null) {
+                System.clearProperty(Framing.PROPERTY);
+            } else {
+                System.setProperty(Framing.PROPERTY, previous);
+            }
+        }
+    }
+
+    @Test
+    void testSurrogatePairIsReadOneCharAtATime() throws IOException {
+        ByteArrayOutputStream wire = new ByteArrayOutputStream();
+        Framing.BINARY.newWriter(wire).writeFrame("a🚀");
+
+        Reader frame = Framing.BINARY.newReader(new ByteArrayInputStream(wire.toByteArray())).next();
+
+        assertEquals('a', frame.read());
+        assertEquals('\uD83D', frame.read());
+        assertEquals('\uDE80', frame.read());
+        assertEquals(-1, frame.read());
+    }
+
+    @Test
+    void testTruncatedAndOversizedFramesFail() {
+        byte[] truncated = {0, 0, 0, 5, '{', '}'};
+        byte[] oversized = {0x7F, 0, 0, 0};
+
+        assertThrows(EOFException.class,
+                () -> new BinaryFrameReader(Channels.newChannel(new ByteArrayInputStream(truncated))).next());
+        assertThrows(IOException.class,
+                () -> new BinaryFrameReader(Channels.newChannel(new ByteArrayInputStream(oversized))).next());
+    }
+
+    @Test
+    void testDetectTellsTextAndBinaryClientsApart() throws IOException {
+        ByteArrayOutputStream binaryClient = new ByteArrayOutputStream();
+        Framing.BINARY.startClient(binaryClient);
+        Framing.BINARY.newWriter(binaryClient).writeFrame("{}");
+        InputStream binary = new BufferedInputStream(new ByteArrayInputStream(binaryClient.toByteArray()));
+        InputStream text = new BufferedInputStream(new ByteArrayInputStream("{\"action\":\"GET_BROADCAST\"}\n".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(Framing.BINARY, Framing.detect(binary));
+        assertEquals("{}", readAll(Framing.BINARY.newReader(binary).next()));
+        assertEquals(Framing.TEXT, Framing.detect(text));
+        assertEquals("{\"action\":\"GET_BROADCAST\"}", readAll(Framing.TEXT.newReader(text).next()));
+        assertThrows(IOException.class, () -> Framing.detect(new BufferedInputStream(new ByteArrayInputStream(new byte[]{0, 'X', 'Y', 1}))));
+    }
+}
@@ -1,6 +1,7 @@
 package com.inFlight.shared.protocol;
 
 import com.inFlight.shared.protocol.MessageEnvelope;
+import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import org.junit.jupiter.api.Test;
@@ -33,4 +34,16 @@ class MessageEnvelopeTest {
         assertNotNull(envelope.getData());
         assertEquals("test", envelope.getData().get("info").getAsString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testRequestIdIsSerializedOnlyWhenSet() {
+        Gson gson = new Gson();
+
+        String withId = gson.toJson(new MessageEnvelope("GET_BOOKINGS", new JsonObject(), 7L));
+        String withoutId = gson.toJson(new MessageEnvelope("GET_BOOKINGS", new JsonObject()));
+
+        assertEquals(7L, gson.fromJson(withId, MessageEnvelope.class).getRequestId());
+        assertFalse(withoutId.contains("requestId"));
+        assertNull(gson.fromJson(withoutId, MessageEnvelope.class).getRequestId());
+    }
+}